@@ -0,0 +1,208 @@
+package org.example.concurrent;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrently submitted items into batches written by one call of the batch writer,
+ * so that many small writes share a single transaction commit.
+ * <p>
+ * The worker thread opens a batch with the first waiting item and keeps adding items until the window
+ * since the first item elapses or the batch is full. If the batch writer fails, every item of the batch
+ * is retried with the single item writer, so each caller gets its own result or its own failure.
+ * <p>
+ * Batch sizes are published as the {@code <name>.size} summary, the time items wait for their batch
+ * to be written as the {@code <name>.wait} timer and the write time as the {@code <name>.flush} timer.
+ *
+ * @param <I> Type of submitted items.
+ * @param <R> Type of write results.
+ */
+public class GroupCommitBatcher<I, R> implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(GroupCommitBatcher.class);
+
+	private final BlockingQueue<Pending<I, R>> queue = new LinkedBlockingQueue<>();
+
+	private final long windowNanos;
+
+	private final int maxBatchSize;
+
+	private final Function<List<I>, List<R>> batchWriter;
+
+	private final Function<I, R> singleWriter;
+
+	private final DistributionSummary sizeSummary;
+
+	private final Timer waitTimer;
+
+	private final Timer flushTimer;
+
+	private final Thread worker;
+
+	private volatile boolean closed;
+
+	/**
+	 * Creates the batcher and starts its worker thread.
+	 *
+	 * @param name         Name of the worker thread and prefix of the metrics.
+	 * @param window       Time to wait for more items after the first item of a batch.
+	 * @param unit         Unit of the window.
+	 * @param maxBatchSize Maximum number of items in a batch.
+	 * @param batchWriter  Writer of a batch. Returns results in the order of the items.
+	 * @param singleWriter Writer of a single item used when the batch writer fails.
+	 * @param registry     Meter registry.
+	 */
+	public GroupCommitBatcher(String name, long window, TimeUnit unit, int maxBatchSize,
+							  Function<List<I>, List<R>> batchWriter, Function<I, R> singleWriter,
+							  MeterRegistry registry) {
+		if (maxBatchSize < 1) {
+			throw new IllegalArgumentException("Maximum batch size must be positive: " + maxBatchSize);
+		}
+		this.windowNanos = unit.toNanos(window);
+		this.maxBatchSize = maxBatchSize;
+		this.batchWriter = batchWriter;
+		this.singleWriter = singleWriter;
+		this.sizeSummary = DistributionSummary.builder(name + ".size")
+				.description("Number of items written in one batch")
+				.publishPercentileHistogram()
+				.register(registry);
+		this.waitTimer = Timer.builder(name + ".wait")
+				.description("Time from submitting an item until its batch is written")
+				.publishPercentileHistogram()
+				.register(registry);
+		this.flushTimer = Timer.builder(name + ".flush")
+				.description("Time spent writing one batch")
+				.register(registry);
+		this.worker = new Thread(this::run, name);
+		this.worker.setDaemon(true);
+		this.worker.start();
+	}
+
+	/**
+	 * Submits the item to the next batch.
+	 *
+	 * @param item Item to write.
+	 * @return Future completed with the write result of the item or with its failure.
+	 */
+	public CompletableFuture<R> submit(I item) {
+		var pending = new Pending<I, R>(item);
+		if (closed) {
+			pending.future.completeExceptionally(new IllegalStateException("Batcher is closed"));
+			return pending.future;
+		}
+		queue.add(pending);
+		if (closed && queue.remove(pending)) {
+			pending.future.completeExceptionally(new IllegalStateException("Batcher is closed"));
+		}
+		return pending.future;
+	}
+
+	/**
+	 * Stops the worker thread. Items that are not written yet are failed.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		worker.interrupt();
+		Pending<I, R> pending;
+		while ((pending = queue.poll()) != null) {
+			pending.future.completeExceptionally(new IllegalStateException("Batcher is closed"));
+		}
+	}
+
+	private void run() {
+		List<Pending<I, R>> batch = new ArrayList<>(maxBatchSize);
+		while (!closed) {
+			try {
+				collect(batch);
+			} catch (InterruptedException e) {
+				batch.forEach(pending -> pending.future.completeExceptionally(new IllegalStateException("Batcher is closed")));
+				return;
+			}
+			flush(batch);
+			batch.clear();
+		}
+	}
+
+	private void collect(List<Pending<I, R>> batch) throws InterruptedException {
+		var first = queue.take();
+		batch.add(first);
+		var deadline = first.submitted + windowNanos;
+		while (batch.size() < maxBatchSize) {
+			var remaining = deadline - System.nanoTime();
+			if (remaining <= 0) {
+				queue.drainTo(batch, maxBatchSize - batch.size());
+				return;
+			}
+			var next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+			if (next == null) {
+				return;
+			}
+			batch.add(next);
+		}
+	}
+
+	private void flush(List<Pending<I, R>> batch) {
+		sizeSummary.record(batch.size());
+		var start = System.nanoTime();
+		List<I> items = new ArrayList<>(batch.size());
+		batch.forEach(pending -> items.add(pending.item));
+		try {
+			var results = batchWriter.apply(items);
+			for (int i = 0; i < batch.size(); i++) {
+				complete(batch.get(i), results.get(i));
+			}
+		} catch (RuntimeException e) {
+			if (batch.size() == 1) {
+				fail(batch.get(0), e);
+			} else {
+				logger.warn("Failed to write batch of {} items, writing them one by one: {}", batch.size(), e.getMessage());
+				batch.forEach(this::writeSingle);
+			}
+		} finally {
+			flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	private void writeSingle(Pending<I, R> pending) {
+		try {
+			complete(pending, singleWriter.apply(pending.item));
+		} catch (RuntimeException e) {
+			fail(pending, e);
+		}
+	}
+
+	private void fail(Pending<I, R> pending, RuntimeException e) {
+		waitTimer.record(System.nanoTime() - pending.submitted, TimeUnit.NANOSECONDS);
+		pending.future.completeExceptionally(e);
+	}
+
+	private void complete(Pending<I, R> pending, R result) {
+		waitTimer.record(System.nanoTime() - pending.submitted, TimeUnit.NANOSECONDS);
+		pending.future.complete(result);
+	}
+
+	private static final class Pending<I, R> {
+
+		private final I item;
+
+		private final long submitted = System.nanoTime();
+
+		private final CompletableFuture<R> future = new CompletableFuture<>();
+
+		private Pending(I item) {
+			this.item = item;
+		}
+	}
+}
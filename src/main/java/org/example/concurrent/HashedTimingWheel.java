@@ -0,0 +1,300 @@
+package org.example.concurrent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Timer for a large number of short timeouts that are usually cancelled before they expire.
+ * Timeouts are hashed into a ring of buckets by their deadline tick, so scheduling and cancellation
+ * cost O(1) regardless of the number of pending timeouts. A single worker thread advances the wheel
+ * once per tick, moves newly scheduled timeouts into their buckets and passes payloads of expired
+ * timeouts to the expiry handler. Cancellation only flips the timeout state, cancelled timeouts are
+ * unlinked when the worker passes their bucket, so cancelling never contends with the worker.
+ * <p>
+ * Expiry is accurate to one tick. The worker thread is started with the first scheduled timeout.
+ *
+ * @param <T> Type of the timeout payload.
+ */
+public class HashedTimingWheel<T> implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(HashedTimingWheel.class);
+
+	private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+	private static final int INIT = 0;
+	private static final int CANCELLED = 1;
+	private static final int EXPIRED = 2;
+
+	private final Bucket[] wheel;
+
+	private final int mask;
+
+	private final long tickNanos;
+
+	private final Consumer<T> expiryHandler;
+
+	private final Thread worker;
+
+	private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+
+	private final LongAdder pending = new LongAdder();
+
+	private final AtomicBoolean started = new AtomicBoolean();
+
+	private final long startTime;
+
+	private volatile boolean closed;
+
+	/**
+	 * Creates the wheel.
+	 *
+	 * @param name          Name of the worker thread.
+	 * @param tickDuration  Duration of one tick.
+	 * @param unit          Unit of the tick duration.
+	 * @param ticksPerWheel Number of buckets. Rounded up to a power of two.
+	 * @param expiryHandler Handler of expired payloads. Called on the worker thread, so it must not block.
+	 */
+	@SuppressWarnings("unchecked")
+	public HashedTimingWheel(String name, long tickDuration, TimeUnit unit, int ticksPerWheel, Consumer<T> expiryHandler) {
+		if (tickDuration <= 0) {
+			throw new IllegalArgumentException("Tick duration must be positive: " + tickDuration);
+		}
+		if (ticksPerWheel < 1) {
+			throw new IllegalArgumentException("Ticks per wheel must be positive: " + ticksPerWheel);
+		}
+		var size = 1;
+		while (size < ticksPerWheel) {
+			size <<= 1;
+		}
+		this.wheel = (Bucket[]) new HashedTimingWheel<?>.Bucket[size];
+		for (int i = 0; i < size; i++) {
+			wheel[i] = new Bucket();
+		}
+		this.mask = size - 1;
+		this.tickNanos = unit.toNanos(tickDuration);
+		this.expiryHandler = expiryHandler;
+		this.startTime = System.nanoTime();
+		this.worker = new Thread(this::run, name);
+		this.worker.setDaemon(true);
+	}
+
+	/**
+	 * Schedules expiry of the payload.
+	 *
+	 * @param payload Payload passed to the expiry handler.
+	 * @param delay   Delay before expiry.
+	 * @param unit    Unit of the delay.
+	 * @return Handle of the timeout.
+	 * @throws IllegalStateException if the wheel is closed.
+	 */
+	public Timeout schedule(T payload, long delay, TimeUnit unit) {
+		if (closed) {
+			throw new IllegalStateException("Timing wheel is closed");
+		}
+		start();
+		var timeout = new Timeout(payload, System.nanoTime() + unit.toNanos(delay) - startTime);
+		pending.increment();
+		scheduled.add(timeout);
+		return timeout;
+	}
+
+	/**
+	 * Gets the number of timeouts that are neither expired nor cancelled.
+	 *
+	 * @return Number of pending timeouts.
+	 */
+	public long pendingTimeouts() {
+		return pending.sum();
+	}
+
+	/**
+	 * Stops the worker thread. Pending timeouts never expire.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		worker.interrupt();
+	}
+
+	private void start() {
+		if (started.compareAndSet(false, true)) {
+			worker.start();
+		}
+	}
+
+	private void run() {
+		long tick = 0;
+		while (!closed) {
+			if (!waitForTick(tick)) {
+				return;
+			}
+			transferScheduled(tick);
+			wheel[(int) (tick & mask)].expire();
+			tick++;
+		}
+	}
+
+	private boolean waitForTick(long tick) {
+		var deadline = tickNanos * (tick + 1);
+		while (true) {
+			var sleepNanos = deadline - (System.nanoTime() - startTime);
+			if (sleepNanos <= 0) {
+				return true;
+			}
+			try {
+				TimeUnit.NANOSECONDS.sleep(sleepNanos);
+			} catch (InterruptedException e) {
+				if (closed) {
+					return false;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Moves scheduled timeouts into their buckets. Timeouts cancelled before the transfer are dropped
+	 * and do not count towards the per-tick limit, so holds cancelled right away never reach the wheel.
+	 */
+	private void transferScheduled(long tick) {
+		var transferred = 0;
+		while (transferred < MAX_TRANSFERS_PER_TICK) {
+			var timeout = scheduled.poll();
+			if (timeout == null) {
+				return;
+			}
+			if (timeout.state.get() == CANCELLED) {
+				continue;
+			}
+			transferred++;
+			var deadlineTick = timeout.deadline / tickNanos;
+			timeout.remainingRounds = (deadlineTick - tick) / wheel.length;
+			wheel[(int) (Math.max(deadlineTick, tick) & mask)].add(timeout);
+		}
+	}
+
+	private void fire(Timeout timeout) {
+		if (!timeout.state.compareAndSet(INIT, EXPIRED)) {
+			return;
+		}
+		pending.decrement();
+		try {
+			expiryHandler.accept(timeout.payload);
+		} catch (RuntimeException e) {
+			logger.warn("Expiry handler failed for {}: {}", timeout.payload, e.getMessage());
+		}
+	}
+
+	/**
+	 * Handle of a scheduled payload.
+	 */
+	public final class Timeout {
+
+		private final T payload;
+
+		private final long deadline;
+
+		private final AtomicInteger state = new AtomicInteger(INIT);
+
+		private long remainingRounds;
+
+		private Bucket bucket;
+
+		private Timeout next;
+
+		private Timeout prev;
+
+		private Timeout(T payload, long deadline) {
+			this.payload = payload;
+			this.deadline = deadline;
+		}
+
+		public T getPayload() {
+			return payload;
+		}
+
+		/**
+		 * Cancels the timeout, so the payload never reaches the expiry handler.
+		 *
+		 * @return true if the timeout was cancelled, false if it has already expired or been cancelled.
+		 */
+		public boolean cancel() {
+			if (!state.compareAndSet(INIT, CANCELLED)) {
+				return false;
+			}
+			pending.decrement();
+			return true;
+		}
+
+		public boolean isCancelled() {
+			return state.get() == CANCELLED;
+		}
+
+		public boolean isExpired() {
+			return state.get() == EXPIRED;
+		}
+	}
+
+	/**
+	 * Doubly linked list of timeouts. Only accessed by the worker thread.
+	 */
+	private final class Bucket {
+
+		private Timeout head;
+
+		private Timeout tail;
+
+		void add(Timeout timeout) {
+			timeout.bucket = this;
+			if (head == null) {
+				head = tail = timeout;
+			} else {
+				tail.next = timeout;
+				timeout.prev = tail;
+				tail = timeout;
+			}
+		}
+
+		void expire() {
+			var timeout = head;
+			while (timeout != null) {
+				var next = timeout.next;
+				if (timeout.remainingRounds <= 0) {
+					remove(timeout);
+					fire(timeout);
+				} else if (timeout.isCancelled()) {
+					remove(timeout);
+				} else {
+					timeout.remainingRounds--;
+				}
+				timeout = next;
+			}
+		}
+
+		void remove(Timeout timeout) {
+			if (timeout.bucket != this) {
+				return;
+			}
+			if (timeout.prev != null) {
+				timeout.prev.next = timeout.next;
+			} else {
+				head = timeout.next;
+			}
+			if (timeout.next != null) {
+				timeout.next.prev = timeout.prev;
+			} else {
+				tail = timeout.prev;
+			}
+			timeout.next = null;
+			timeout.prev = null;
+			timeout.bucket = null;
+		}
+	}
+}
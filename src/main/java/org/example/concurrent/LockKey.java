@@ -0,0 +1,75 @@
+package org.example.concurrent;
+
+import java.util.Objects;
+
+/**
+ * Key of a lock managed by {@link StripedLockManager}.
+ */
+public final class LockKey {
+
+	/**
+	 * Kind of the locked entity. Keys of different kinds with the same id map to different stripes.
+	 */
+	public enum Type {
+		EVENT, ACCOUNT
+	}
+
+	private final Type type;
+
+	private final long id;
+
+	private LockKey(Type type, long id) {
+		this.type = type;
+		this.id = id;
+	}
+
+	/**
+	 * Creates a key for the event.
+	 *
+	 * @param eventId Event id.
+	 * @return Lock key.
+	 */
+	public static LockKey event(long eventId) {
+		return new LockKey(Type.EVENT, eventId);
+	}
+
+	/**
+	 * Creates a key for the account.
+	 *
+	 * @param accountId Account id.
+	 * @return Lock key.
+	 */
+	public static LockKey account(long accountId) {
+		return new LockKey(Type.ACCOUNT, accountId);
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+		var lockKey = (LockKey) o;
+		return id == lockKey.id && type == lockKey.type;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(type, id);
+	}
+
+	@Override
+	public String toString() {
+		return type + ":" + id;
+	}
+}
@@ -0,0 +1,173 @@
+package org.example.concurrent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Lock striping keyed by event and account ids.
+ * Every key is hashed to one of a fixed number of stripes. Stripes of a single {@link #acquire} call are
+ * always locked in ascending stripe order, so two callers can never wait for each other in a cycle.
+ * Leases must not be nested: a thread holding a lease has to close it before acquiring the next one.
+ * <p>
+ * For every stripe the number of contended acquisitions is published as {@code booking.lock.contended}
+ * and the wait time as the {@code booking.lock.wait} histogram, both tagged with the stripe number.
+ */
+@Component
+public class StripedLockManager {
+
+	private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+	private final ReentrantLock[] stripes;
+
+	private final Counter[] contendedCounters;
+
+	private final Timer[] waitTimers;
+
+	private final int mask;
+
+	@Autowired
+	public StripedLockManager(@Value("${booking.lock.stripes:64}") int stripeCount, MeterRegistry registry) {
+		if (stripeCount < 1) {
+			throw new IllegalArgumentException("Stripe count must be positive: " + stripeCount);
+		}
+		var size = 1;
+		while (size < stripeCount) {
+			size <<= 1;
+		}
+		this.mask = size - 1;
+		this.stripes = new ReentrantLock[size];
+		this.contendedCounters = new Counter[size];
+		this.waitTimers = new Timer[size];
+		for (int i = 0; i < size; i++) {
+			var stripe = String.valueOf(i);
+			stripes[i] = new ReentrantLock();
+			contendedCounters[i] = Counter.builder("booking.lock.contended")
+					.description("Number of lock acquisitions that had to wait for the stripe")
+					.tag("stripe", stripe)
+					.register(registry);
+			waitTimers[i] = Timer.builder("booking.lock.wait")
+					.description("Time spent waiting for the stripe")
+					.tag("stripe", stripe)
+					.publishPercentileHistogram()
+					.register(registry);
+		}
+	}
+
+	/**
+	 * Locks stripes of all provided keys.
+	 *
+	 * @param keys Lock keys.
+	 * @return Lease that releases the stripes on close.
+	 */
+	public Lease acquire(LockKey... keys) {
+		return acquire(Arrays.asList(keys));
+	}
+
+	/**
+	 * Locks stripes of all provided keys.
+	 *
+	 * @param keys Lock keys.
+	 * @return Lease that releases the stripes on close.
+	 */
+	public Lease acquire(Collection<LockKey> keys) {
+		var indexes = keys.stream()
+				.mapToInt(this::stripeOf)
+				.sorted()
+				.distinct()
+				.toArray();
+		var locked = 0;
+		try {
+			for (int index : indexes) {
+				lock(index);
+				locked++;
+			}
+		} finally {
+			if (locked < indexes.length) {
+				unlock(indexes, locked);
+			}
+		}
+		return new Lease(indexes);
+	}
+
+	/**
+	 * Gets the number of stripes. It is the configured count rounded up to a power of two.
+	 *
+	 * @return Number of stripes.
+	 */
+	public int getStripeCount() {
+		return stripes.length;
+	}
+
+	/**
+	 * Gets the stripe the key is mapped to.
+	 *
+	 * @param key Lock key.
+	 * @return Stripe number.
+	 */
+	public int stripeOf(LockKey key) {
+		long hash = key.getId() * GOLDEN_RATIO + key.getType().ordinal();
+		hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+		hash ^= hash >>> 33;
+		return (int) hash & mask;
+	}
+
+	private void lock(int index) {
+		var stripe = stripes[index];
+		if (stripe.tryLock()) {
+			waitTimers[index].record(0, TimeUnit.NANOSECONDS);
+			return;
+		}
+		contendedCounters[index].increment();
+		var start = System.nanoTime();
+		stripe.lock();
+		waitTimers[index].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+	}
+
+	private void unlock(int[] indexes, int count) {
+		for (int i = count - 1; i >= 0; i--) {
+			stripes[indexes[i]].unlock();
+		}
+	}
+
+	/**
+	 * Set of locked stripes. Has to be closed by the thread that acquired it.
+	 */
+	public final class Lease implements AutoCloseable {
+
+		private final int[] indexes;
+
+		private boolean released;
+
+		private Lease(int[] indexes) {
+			this.indexes = indexes;
+		}
+
+		/**
+		 * Gets the locked stripes in locking order.
+		 *
+		 * @return Stripe numbers.
+		 */
+		public List<Integer> getStripes() {
+			return Arrays.stream(indexes).boxed().collect(Collectors.toList());
+		}
+
+		@Override
+		public void close() {
+			if (!released) {
+				released = true;
+				unlock(indexes, indexes.length);
+			}
+		}
+	}
+}
@@ -2,12 +2,19 @@ package org.example.config;
 
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.example.mapper.DtoMapper;
+import org.example.mapper.GeneratedDtoMapper;
+import org.example.mapper.impl.ModelMapperDtoMapper;
+import org.mapstruct.factory.Mappers;
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurationSupport;
 
 @Configuration
+@EnableScheduling
 public class AppConfig extends WebMvcConfigurationSupport {
 
 	@Bean
@@ -21,4 +28,16 @@ public class AppConfig extends WebMvcConfigurationSupport {
 	public ModelMapper modelMapper() {
 		return new ModelMapper();
 	}
+
+	@Bean
+	public DtoMapper dtoMapper(@Value("${mapping.engine:generated}") String engine, ModelMapper modelMapper) {
+		switch (engine) {
+			case "generated":
+				return Mappers.getMapper(GeneratedDtoMapper.class);
+			case "modelmapper":
+				return new ModelMapperDtoMapper(modelMapper);
+			default:
+				throw new IllegalArgumentException("Unknown mapping engine: " + engine);
+		}
+	}
 }
@@ -78,6 +78,26 @@ public class EventController {
 		return EVENT_VIEW_NAME;
 	}
 
+	/**
+	 * Gets a page of events by title and adds it to model data together with the token of the next page.
+	 *
+	 * @param title     Event title.
+	 * @param pageSize  Number of event entries per page.
+	 * @param pageToken Token of the page to display, empty for the first page.
+	 * @param model     Model data.
+	 * @return Name of the view.
+	 */
+	@GetMapping(value = "/byTitle", params = "pageToken")
+	public String getEventsByTitleAfter(@RequestParam("title") String title,
+										@RequestParam(value = "pageSize", required = false, defaultValue = "10") int pageSize,
+										@RequestParam("pageToken") String pageToken,
+										ModelMap model) {
+		var page = facade.getEventsByTitleAfter(title, pageSize, pageToken);
+		model.addAttribute("eventsByTitle", page.getContent());
+		model.addAttribute("nextPageToken", page.getNextPageToken());
+		return EVENT_VIEW_NAME;
+	}
+
 	/**
 	 * Gets a list of events by date and adds it to model data.
 	 *
@@ -97,6 +117,28 @@ public class EventController {
 		return EVENT_VIEW_NAME;
 	}
 
+	/**
+	 * Gets a list of events held within the date range and numbers of events per day of the range,
+	 * and adds them to model data.
+	 *
+	 * @param from     First day of the range.
+	 * @param to       Last day of the range.
+	 * @param pageSize Number of event entries per page.
+	 * @param pageNum  Number of page to display.
+	 * @param model    Model data.
+	 * @return Name of the view.
+	 */
+	@GetMapping("/inRange")
+	public String getEventsInRange(@RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+								   @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+								   @RequestParam(value = "pageSize", required = false, defaultValue = "10") int pageSize,
+								   @RequestParam(value = "pageNum", required = false, defaultValue = "0") int pageNum,
+								   ModelMap model) {
+		model.addAttribute("eventsInRange", facade.getEventsInRange(from, to, pageSize, pageNum));
+		model.addAttribute("eventCounts", facade.getEventCountsInRange(from, to));
+		return EVENT_VIEW_NAME;
+	}
+
 	/**
 	 * Updates an event by event id and adds the updated object to model data.
 	 *
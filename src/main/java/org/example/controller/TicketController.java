@@ -1,6 +1,7 @@
 package org.example.controller;
 
 import org.apache.pdfbox.io.IOUtils;
+import org.example.dto.BatchBookingJobDto;
 import org.example.dto.TicketDto;
 import org.example.exception.PdfGenerationException;
 import org.example.facade.BookingFacade;
@@ -11,16 +12,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.ui.ModelMap;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.servlet.http.HttpServletRequest;
 import java.io.IOException;
 
 /**
@@ -50,11 +52,8 @@ public class TicketController {
 	 * @return Name of the view.
 	 */
 	@PostMapping
-	@Transactional
 	public String createTicket(@ModelAttribute("ticket") TicketDto ticket, ModelMap model) {
-		var ticketPrice = facade.getEventById(ticket.getEvent().getId()).getTicketPrice();
-		facade.chargeAccountForTicket(ticket.getUser().getId(), ticketPrice);
-		var createdTicket = facade.bookTicket(ticket.getUser().getId(),
+		var createdTicket = facade.purchaseTicket(ticket.getUser().getId(),
 													ticket.getEvent().getId(),
 													ticket.getCategory(),
 													ticket.getPlace());
@@ -62,6 +61,50 @@ public class TicketController {
 		return TICKET_VIEW_NAME;
 	}
 
+	/**
+	 * Holds a place for the ticket and adds the hold to model data.
+	 *
+	 * @param ticket Ticket data of the held place.
+	 * @param model  Model data.
+	 * @return Name of the view.
+	 */
+	@PostMapping("/hold")
+	public String holdSeat(@ModelAttribute("ticket") TicketDto ticket, ModelMap model) {
+		var seatHold = facade.holdSeat(ticket.getUser().getId(),
+										ticket.getEvent().getId(),
+										ticket.getCategory(),
+										ticket.getPlace());
+		model.addAttribute("seatHold", seatHold);
+		return TICKET_VIEW_NAME;
+	}
+
+	/**
+	 * Purchases the ticket for a held place and adds it to model data.
+	 *
+	 * @param holdId Seat hold id.
+	 * @param model  Model data.
+	 * @return Name of the view.
+	 */
+	@PostMapping("/hold/confirm")
+	public String confirmHold(@RequestParam("holdId") String holdId, ModelMap model) {
+		model.addAttribute("createdTicket", facade.confirmHold(holdId));
+		return TICKET_VIEW_NAME;
+	}
+
+	/**
+	 * Releases a held place.
+	 *
+	 * @param holdId Seat hold id.
+	 * @param model  Model data.
+	 * @return Name of the view.
+	 */
+	@PostMapping("/hold/release")
+	public String releaseHold(@RequestParam("holdId") String holdId, ModelMap model) {
+		facade.releaseHold(holdId);
+		model.addAttribute("releasedHoldId", holdId);
+		return TICKET_VIEW_NAME;
+	}
+
 	/**
 	 * Gets a list of tickets by user and adds it to model data.
 	 *
@@ -81,6 +124,26 @@ public class TicketController {
 		return TICKET_VIEW_NAME;
 	}
 
+	/**
+	 * Gets a page of tickets by user and adds it to model data together with the token of the next page.
+	 *
+	 * @param userId    User id.
+	 * @param pageSize  Number of ticket entries per page.
+	 * @param pageToken Token of the page to display, empty for the first page.
+	 * @param model     Model data.
+	 * @return Name of the view.
+	 */
+	@GetMapping(value = "/byUser", params = "pageToken")
+	public String getTicketsByUserAfter(@RequestParam("userId") long userId,
+										@RequestParam(value = "pageSize", required = false, defaultValue = "10") int pageSize,
+										@RequestParam("pageToken") String pageToken,
+										ModelMap model) {
+		var page = facade.getBookedTicketsByUserIdAfter(userId, pageSize, pageToken);
+		model.addAttribute("ticketsByUser", page.getContent());
+		model.addAttribute("nextPageToken", page.getNextPageToken());
+		return TICKET_VIEW_NAME;
+	}
+
 	/**
 	 * Gets a list of tickets by user.
 	 *
@@ -108,27 +171,63 @@ public class TicketController {
 	}
 
 	/**
-	 * Uploads a file with ticket data and save the data.
+	 * Uploads a file with ticket data and starts a job that saves the data. Adds the job to model data.
 	 *
-	 * @return byte[] of pdf with ticket data.
+	 * @return Name of the view.
 	 */
 	@PostMapping(value = "/batch")
-	@Transactional
 	public String batchBookTicketsFromFile(@RequestParam("file") MultipartFile file, ModelMap model) {
-		Iterable<TicketDto> savedTickets = null;
+		BatchBookingJobDto job = null;
 		try {
-			savedTickets = facade.batchBookTickets(file.getInputStream());
+			job = facade.batchBookTickets(file.getInputStream(), file.getContentType(), file.getOriginalFilename());
 		} catch (IOException e) {
 			logger.warn("Failed to load tickets from a file. {}", e.getMessage());
 		}
-		if (savedTickets != null) {
-			model.addAttribute("batchBookedTickets", savedTickets);
+		if (job != null) {
+			model.addAttribute("batchBookingJob", job);
+			return TICKET_VIEW_NAME;
+		} else {
+			return "error";
+		}
+	}
+
+	/**
+	 * Starts a job that saves ticket data sent as the raw request body in xml, csv or newline-delimited json.
+	 * Adds the job to model data.
+	 * The body is streamed to a spool file as it arrives, so uploads are not limited by the multipart size limits.
+	 *
+	 * @return Name of the view.
+	 */
+	@PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_XML_VALUE, MediaType.TEXT_XML_VALUE,
+			"text/csv", MediaType.APPLICATION_NDJSON_VALUE, "application/ndjson"})
+	public String batchBookTicketsFromBody(HttpServletRequest request, ModelMap model) {
+		BatchBookingJobDto job = null;
+		try {
+			job = facade.batchBookTickets(request.getInputStream(), request.getContentType(), null);
+		} catch (IOException e) {
+			logger.warn("Failed to load tickets from the request body. {}", e.getMessage());
+		}
+		if (job != null) {
+			model.addAttribute("batchBookingJob", job);
 			return TICKET_VIEW_NAME;
 		} else {
 			return "error";
 		}
 	}
 
+	/**
+	 * Gets progress of the batch booking job and adds it to model data.
+	 *
+	 * @param jobId Job id.
+	 * @param model Model data.
+	 * @return Name of the view.
+	 */
+	@GetMapping("/batch/{jobId}")
+	public String getBatchBookingJob(@PathVariable("jobId") String jobId, ModelMap model) {
+		model.addAttribute("batchBookingJob", facade.getBatchBookingJob(jobId));
+		return TICKET_VIEW_NAME;
+	}
+
 	/**
 	 * Gets a list of tickets by event and adds it to model data.
 	 *
@@ -148,6 +247,26 @@ public class TicketController {
 		return TICKET_VIEW_NAME;
 	}
 
+	/**
+	 * Gets a page of tickets by event and adds it to model data together with the token of the next page.
+	 *
+	 * @param eventId   Event id.
+	 * @param pageSize  Number of ticket entries per page.
+	 * @param pageToken Token of the page to display, empty for the first page.
+	 * @param model     Model data.
+	 * @return Name of the view.
+	 */
+	@GetMapping(value = "/byEvent", params = "pageToken")
+	public String getTicketsByEventAfter(@RequestParam("eventId") Long eventId,
+										 @RequestParam(value = "pageSize", required = false, defaultValue = "10") int pageSize,
+										 @RequestParam("pageToken") String pageToken,
+										 ModelMap model) {
+		var page = facade.getBookedTicketsByEventIdAfter(eventId, pageSize, pageToken);
+		model.addAttribute("ticketsByEvent", page.getContent());
+		model.addAttribute("nextPageToken", page.getNextPageToken());
+		return TICKET_VIEW_NAME;
+	}
+
 	/**
 	 * Deletes a ticket by id. Adds a boolean to model data with information if deletion was successful or not.
 	 *
@@ -3,6 +3,7 @@ package org.example.controller;
 import org.example.dto.UserDto;
 import org.example.facade.BookingFacade;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.ui.ModelMap;
@@ -11,6 +12,9 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.List;
 
 /**
  * Controller for all operations on Users.
@@ -91,6 +95,41 @@ public class UserController {
 		return USER_VIEW_NAME;
 	}
 
+	/**
+	 * Gets a page of users by name and adds it to model data together with the token of the next page.
+	 * Name is matched using 'contains' approach.
+	 *
+	 * @param name      User name.
+	 * @param pageSize  Number of user entries per page.
+	 * @param pageToken Token of the page to display, empty for the first page.
+	 * @param model     Model data.
+	 * @return Name of the view.
+	 */
+	@GetMapping(value = "/byName", params = "pageToken")
+	public String getUsersByNameAfter(@RequestParam("name") String name,
+									  @RequestParam(value = "pageSize", required = false, defaultValue = "10") int pageSize,
+									  @RequestParam("pageToken") String pageToken,
+									  ModelMap model) {
+		var page = facade.getUsersByNameAfter(name, pageSize, pageToken);
+		model.addAttribute("users", page.getContent());
+		model.addAttribute("nextPageToken", page.getNextPageToken());
+		return USER_VIEW_NAME;
+	}
+
+	/**
+	 * Gets users with a name word starting with the prefix, for autocomplete.
+	 *
+	 * @param prefix Start of the user name.
+	 * @param limit  Maximal number of users.
+	 * @return List of users as json.
+	 */
+	@GetMapping(value = "/suggest", produces = MediaType.APPLICATION_JSON_VALUE)
+	public @ResponseBody
+	List<UserDto> suggestUsers(@RequestParam("prefix") String prefix,
+							   @RequestParam(value = "limit", required = false, defaultValue = "10") int limit) {
+		return facade.suggestUsers(prefix, limit);
+	}
+
 	/**
 	 * Updates a user by user id and adds the updated object to model data.
 	 *
@@ -0,0 +1,105 @@
+package org.example.converter;
+
+import org.example.dto.TicketDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reader of comma separated {@code userId,eventId,category,place} rows.
+ * A first row starting with a letter is taken for the header and skipped. Fields may be enclosed in double quotes,
+ * empty id and category fields are read as not specified and an empty place as 0. Blank lines are skipped.
+ */
+public final class CsvTicketReader extends TicketRowReader {
+
+	private boolean started;
+
+	public CsvTicketReader(InputStream stream) {
+		super(stream);
+	}
+
+	@Override
+	protected TicketDto readRow() throws IOException {
+		var b = peek();
+		while (b == '\r' || b == '\n') {
+			read();
+			b = peek();
+		}
+		if (b < 0) {
+			return null;
+		}
+		if (!started) {
+			started = true;
+			if ((b >= 'A' && b <= 'Z') || (b >= 'a' && b <= 'z')) {
+				skipLine();
+				return readRow();
+			}
+		}
+
+		var ticket = new TicketDto();
+		var quoted = openField();
+		if (!isFieldEnd(quoted)) {
+			ticket.setUser(user(readLong()));
+		}
+		closeField(quoted);
+		expect(',');
+
+		quoted = openField();
+		if (!isFieldEnd(quoted)) {
+			ticket.setEvent(event(readLong()));
+		}
+		closeField(quoted);
+		expect(',');
+
+		quoted = openField();
+		ticket.setCategory(readCategory());
+		closeField(quoted);
+		expect(',');
+
+		quoted = openField();
+		if (!isFieldEnd(quoted)) {
+			ticket.setPlace(readInt());
+		}
+		closeField(quoted);
+		endLine();
+		return ticket;
+	}
+
+	private boolean openField() throws IOException {
+		skipSpaces();
+		if (peek() == '"') {
+			read();
+			return true;
+		}
+		return false;
+	}
+
+	private void closeField(boolean quoted) throws IOException {
+		if (quoted) {
+			expect('"');
+		}
+		skipSpaces();
+	}
+
+	private boolean isFieldEnd(boolean quoted) throws IOException {
+		var b = peek();
+		return quoted ? b == '"' : b == ',' || b == '\r' || b == '\n' || b == ' ' || b == '\t' || b < 0;
+	}
+
+	private void endLine() throws IOException {
+		var b = read();
+		if (b == '\r') {
+			b = read();
+		}
+		if (b != '\n' && b >= 0) {
+			throw error("Expected the end of the row");
+		}
+	}
+
+	private void skipLine() throws IOException {
+		int b;
+		do {
+			b = read();
+		} while (b != '\n' && b >= 0);
+	}
+}
@@ -0,0 +1,148 @@
+package org.example.converter;
+
+import org.example.dto.TicketDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reader of newline-delimited json, one {@code {"userId":1,"eventId":2,"category":"BAR","place":3}} object per line.
+ * Missing and null fields are read as not specified, unknown fields are skipped. Blank lines are skipped.
+ */
+public final class NdjsonTicketReader extends TicketRowReader {
+
+	private static final int USER_ID = 0;
+
+	private static final int EVENT_ID = 1;
+
+	private static final int CATEGORY = 2;
+
+	private static final int PLACE = 3;
+
+	private static final byte[][] FIELD_NAMES = {
+			"userId".getBytes(StandardCharsets.US_ASCII),
+			"eventId".getBytes(StandardCharsets.US_ASCII),
+			"category".getBytes(StandardCharsets.US_ASCII),
+			"place".getBytes(StandardCharsets.US_ASCII)
+	};
+
+	private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+
+	public NdjsonTicketReader(InputStream stream) {
+		super(stream);
+	}
+
+	@Override
+	protected TicketDto readRow() throws IOException {
+		skipWhitespace();
+		if (peek() < 0) {
+			return null;
+		}
+		expect('{');
+		var ticket = new TicketDto();
+		skipWhitespace();
+		if (peek() == '}') {
+			read();
+			return ticket;
+		}
+		while (true) {
+			skipWhitespace();
+			expect('"');
+			var field = readName(FIELD_NAMES);
+			if (peek() != '"') {
+				field = -1;
+				skipString();
+			} else {
+				read();
+			}
+			skipWhitespace();
+			expect(':');
+			skipWhitespace();
+			readField(field, ticket);
+			skipWhitespace();
+			var b = read();
+			if (b == '}') {
+				return ticket;
+			}
+			if (b != ',') {
+				throw error("Expected ',' or '}'");
+			}
+		}
+	}
+
+	private void readField(int field, TicketDto ticket) throws IOException {
+		if (field < 0) {
+			skipValue();
+			return;
+		}
+		if (peek() == 'n') {
+			for (byte b : NULL) {
+				expect((char) b);
+			}
+			return;
+		}
+		switch (field) {
+			case USER_ID:
+				ticket.setUser(user(readLong()));
+				break;
+			case EVENT_ID:
+				ticket.setEvent(event(readLong()));
+				break;
+			case CATEGORY:
+				expect('"');
+				ticket.setCategory(readCategory());
+				expect('"');
+				break;
+			default:
+				ticket.setPlace(readInt());
+		}
+	}
+
+	/**
+	 * Skips a value of an unknown field, including nested objects and arrays.
+	 */
+	private void skipValue() throws IOException {
+		var depth = 0;
+		while (true) {
+			var b = peek();
+			if (b < 0) {
+				throw error("Unexpected end of the object");
+			}
+			if (depth == 0 && (b == ',' || b == '}')) {
+				return;
+			}
+			read();
+			if (b == '"') {
+				skipString();
+			} else if (b == '{' || b == '[') {
+				depth++;
+			} else if (b == '}' || b == ']') {
+				depth--;
+			}
+		}
+	}
+
+	/**
+	 * Skips the rest of a string up to and including the closing quote.
+	 */
+	private void skipString() throws IOException {
+		int b;
+		while ((b = read()) != '"') {
+			if (b < 0 || b == '\n') {
+				throw error("Unterminated string");
+			}
+			if (b == '\\') {
+				read();
+			}
+		}
+	}
+
+	private void skipWhitespace() throws IOException {
+		var b = peek();
+		while (b == ' ' || b == '\t' || b == '\r' || b == '\n') {
+			read();
+			b = peek();
+		}
+	}
+}
@@ -0,0 +1,278 @@
+package org.example.converter;
+
+import org.example.dto.EventDto;
+import org.example.dto.TicketDto;
+import org.example.dto.UserDto;
+import org.example.enums.Category;
+import org.example.exception.UnmarshallingException;
+import org.springframework.data.util.CloseableIterator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Base of the readers of text ticket formats. The stream is read into a fixed byte buffer and numbers,
+ * categories and field names are decoded straight from it, so no String is created per field.
+ * The stream is closed together with the iterator.
+ */
+public abstract class TicketRowReader implements CloseableIterator<TicketDto> {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private static final int MAX_TOKEN_LENGTH = 64;
+
+	private static final Category[] CATEGORIES = Category.values();
+
+	private static final byte[][] CATEGORY_NAMES = Arrays.stream(CATEGORIES)
+			.map(category -> category.name().getBytes(StandardCharsets.US_ASCII))
+			.toArray(byte[][]::new);
+
+	private final InputStream stream;
+
+	private final byte[] buffer = new byte[BUFFER_SIZE];
+
+	private final byte[] token = new byte[MAX_TOKEN_LENGTH];
+
+	private int position;
+
+	private int limit;
+
+	private long line = 1;
+
+	private TicketDto next;
+
+	protected TicketRowReader(InputStream stream) {
+		this.stream = stream;
+	}
+
+	/**
+	 * Reads the next ticket.
+	 *
+	 * @return Ticket or null if the end of the stream has been reached.
+	 * @throws UnmarshallingException if the row is malformed.
+	 */
+	protected abstract TicketDto readRow() throws IOException;
+
+	@Override
+	public boolean hasNext() {
+		if (next == null) {
+			try {
+				next = readRow();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		return next != null;
+	}
+
+	@Override
+	public TicketDto next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		var ticket = next;
+		next = null;
+		return ticket;
+	}
+
+	@Override
+	public void close() {
+		try {
+			stream.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Gets the next byte without consuming it.
+	 *
+	 * @return Byte value or -1 at the end of the stream.
+	 */
+	protected final int peek() throws IOException {
+		if (position == limit && !fill()) {
+			return -1;
+		}
+		return buffer[position] & 0xFF;
+	}
+
+	/**
+	 * Consumes the next byte.
+	 *
+	 * @return Byte value or -1 at the end of the stream.
+	 */
+	protected final int read() throws IOException {
+		var b = peek();
+		if (b >= 0) {
+			position++;
+			if (b == '\n') {
+				line++;
+			}
+		}
+		return b;
+	}
+
+	/**
+	 * Consumes the next byte, which has to be the expected one.
+	 */
+	protected final void expect(char expected) throws IOException {
+		if (peek() != expected) {
+			throw error("Expected '" + expected + "'");
+		}
+		read();
+	}
+
+	/**
+	 * Consumes spaces and tabs.
+	 */
+	protected final void skipSpaces() throws IOException {
+		var b = peek();
+		while (b == ' ' || b == '\t') {
+			position++;
+			b = peek();
+		}
+	}
+
+	/**
+	 * Reads an optionally signed decimal integer.
+	 *
+	 * @throws UnmarshallingException if there is no number at the current position or it does not fit into a long.
+	 */
+	protected final long readLong() throws IOException {
+		var negative = peek() == '-';
+		if (negative) {
+			position++;
+		}
+		var b = peek();
+		if (!isDigit(b)) {
+			throw error("Expected a number");
+		}
+		long value = 0;
+		do {
+			var digit = b - '0';
+			if (value > (Long.MAX_VALUE - digit) / 10) {
+				throw error("Number is too large");
+			}
+			value = value * 10 + digit;
+			position++;
+			b = peek();
+		} while (isDigit(b));
+		return negative ? -value : value;
+	}
+
+	/**
+	 * Reads an optionally signed decimal integer.
+	 *
+	 * @throws UnmarshallingException if there is no number at the current position or it does not fit into an int.
+	 */
+	protected final int readInt() throws IOException {
+		var value = readLong();
+		if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+			throw error("Number is too large");
+		}
+		return (int) value;
+	}
+
+	/**
+	 * Reads a category name by comparing its bytes with the names of the constants.
+	 *
+	 * @return Category or null if there is no name at the current position.
+	 * @throws UnmarshallingException if the name is not a category.
+	 */
+	protected final Category readCategory() throws IOException {
+		var length = readToken();
+		if (length == 0) {
+			return null;
+		}
+		var index = match(length, CATEGORY_NAMES);
+		if (index < 0) {
+			throw error("Unknown category");
+		}
+		return CATEGORIES[index];
+	}
+
+	/**
+	 * Reads a name made of letters, digits and underscores and looks it up among the names.
+	 *
+	 * @return Index of the name or -1 if there is none.
+	 */
+	protected final int readName(byte[][] names) throws IOException {
+		return match(readToken(), names);
+	}
+
+	/**
+	 * Creates a reference to the user.
+	 */
+	protected static UserDto user(long id) {
+		var user = new UserDto();
+		user.setId(id);
+		return user;
+	}
+
+	/**
+	 * Creates a reference to the event.
+	 */
+	protected static EventDto event(long id) {
+		var event = new EventDto();
+		event.setId(id);
+		return event;
+	}
+
+	/**
+	 * Creates an exception pointing to the current line.
+	 */
+	protected final UnmarshallingException error(String message) {
+		return new UnmarshallingException(message + " in line " + line);
+	}
+
+	/**
+	 * Consumes letters, digits and underscores, copying at most {@link #MAX_TOKEN_LENGTH} of them.
+	 *
+	 * @return Number of consumed bytes.
+	 */
+	private int readToken() throws IOException {
+		var length = 0;
+		var b = peek();
+		while (isDigit(b) || (b >= 'A' && b <= 'Z') || (b >= 'a' && b <= 'z') || b == '_') {
+			if (length < MAX_TOKEN_LENGTH) {
+				token[length] = (byte) b;
+			}
+			length++;
+			position++;
+			b = peek();
+		}
+		return length;
+	}
+
+	private int match(int length, byte[][] names) {
+		if (length > MAX_TOKEN_LENGTH) {
+			return -1;
+		}
+		for (int i = 0; i < names.length; i++) {
+			if (Arrays.equals(token, 0, length, names[i], 0, names[i].length)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private boolean fill() throws IOException {
+		var count = stream.read(buffer, 0, buffer.length);
+		if (count <= 0) {
+			position = 0;
+			limit = 0;
+			return false;
+		}
+		position = 0;
+		limit = count;
+		return true;
+	}
+
+	private static boolean isDigit(int b) {
+		return b >= '0' && b <= '9';
+	}
+}
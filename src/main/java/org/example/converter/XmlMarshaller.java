@@ -1,15 +1,20 @@
 package org.example.converter;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import org.example.exception.UnmarshallingException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.Resource;
+import org.springframework.data.util.CloseableIterator;
 import org.springframework.stereotype.Component;
 
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
  * Converter for unmarshalling xml file with model data to list of models
@@ -32,7 +37,7 @@ public class XmlMarshaller {
 	 * @return List of models.
 	 */
 	public <T> List<T> parse(final Resource resource, final TypeReference<List<T>> targetClass) throws IOException {
-		try (FileInputStream stream = new FileInputStream(resource.getFile())) {
+		try (var stream = resource.getInputStream()) {
 			return xmlMapper.readValue(stream, targetClass);
 		}
 
@@ -46,4 +51,76 @@ public class XmlMarshaller {
 	public <T> List<T> parse(final InputStream stream, final TypeReference<List<T>> targetClass) throws IOException {
 		return xmlMapper.readValue(stream, targetClass);
 	}
+
+	/**
+	 * Reads the stream with a list of models lazily, one {@code <item>} element at a time,
+	 * so only the current model is kept in memory. The stream is closed together with the iterator.
+	 *
+	 * @return Iterator over the models.
+	 * @throws UnmarshallingException if the stream is not an xml list.
+	 */
+	public <T> CloseableIterator<T> iterate(final InputStream stream, final Class<T> targetClass) throws IOException {
+		var parser = xmlMapper.getFactory().createParser(stream);
+		var root = parser.nextToken();
+		//an empty root element is read as null or as an empty string
+		if (root != JsonToken.START_OBJECT && root != JsonToken.VALUE_NULL
+				&& !(root == JsonToken.VALUE_STRING && parser.getText().isBlank())) {
+			parser.close();
+			throw new UnmarshallingException("Xml file does not contain a list of items.");
+		}
+		return new ItemIterator<>(parser, targetClass);
+	}
+
+	/**
+	 * Iterator over the child elements of the root element.
+	 */
+	private final class ItemIterator<T> implements CloseableIterator<T> {
+
+		private final JsonParser parser;
+
+		private final Class<T> targetClass;
+
+		private T next;
+
+		private ItemIterator(JsonParser parser, Class<T> targetClass) {
+			this.parser = parser;
+			this.targetClass = targetClass;
+		}
+
+		@Override
+		public boolean hasNext() {
+			try {
+				while (next == null && parser.nextToken() == JsonToken.FIELD_NAME) {
+					if (parser.nextToken() == JsonToken.START_OBJECT) {
+						next = xmlMapper.readValue(parser, targetClass);
+					} else {
+						//empty item
+						parser.skipChildren();
+					}
+				}
+				return next != null;
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			var item = next;
+			next = null;
+			return item;
+		}
+
+		@Override
+		public void close() {
+			try {
+				parser.close();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
 }
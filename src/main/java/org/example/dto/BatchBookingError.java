@@ -0,0 +1,35 @@
+package org.example.dto;
+
+/**
+ * Rejected row of a batch booking
+ */
+public class BatchBookingError {
+
+	private long row;
+
+	private String message;
+
+	public BatchBookingError() {
+	}
+
+	public BatchBookingError(long row, String message) {
+		this.row = row;
+		this.message = message;
+	}
+
+	public long getRow() {
+		return row;
+	}
+
+	public void setRow(long row) {
+		this.row = row;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	public void setMessage(String message) {
+		this.message = message;
+	}
+}
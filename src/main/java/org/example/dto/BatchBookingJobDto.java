@@ -0,0 +1,126 @@
+package org.example.dto;
+
+import org.example.enums.BatchJobStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batch booking job DTO
+ */
+public class BatchBookingJobDto {
+
+	private String id;
+
+	private BatchJobStatus status;
+
+	private long parsedRows;
+
+	private long committedRows;
+
+	private long failedRows;
+
+	private double rowsPerSecond;
+
+	private List<BatchBookingError> errors = new ArrayList<>();
+
+	private String message;
+
+	private LocalDateTime submittedAt;
+
+	private LocalDateTime finishedAt;
+
+	public BatchBookingJobDto() {
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public BatchJobStatus getStatus() {
+		return status;
+	}
+
+	public void setStatus(BatchJobStatus status) {
+		this.status = status;
+	}
+
+	public long getParsedRows() {
+		return parsedRows;
+	}
+
+	public void setParsedRows(long parsedRows) {
+		this.parsedRows = parsedRows;
+	}
+
+	public long getCommittedRows() {
+		return committedRows;
+	}
+
+	public void setCommittedRows(long committedRows) {
+		this.committedRows = committedRows;
+	}
+
+	public long getFailedRows() {
+		return failedRows;
+	}
+
+	public void setFailedRows(long failedRows) {
+		this.failedRows = failedRows;
+	}
+
+	/**
+	 * Gets the number of committed rows per second since the job was started.
+	 *
+	 * @return Throughput of the job.
+	 */
+	public double getRowsPerSecond() {
+		return rowsPerSecond;
+	}
+
+	public void setRowsPerSecond(double rowsPerSecond) {
+		this.rowsPerSecond = rowsPerSecond;
+	}
+
+	public List<BatchBookingError> getErrors() {
+		return errors;
+	}
+
+	public void setErrors(List<BatchBookingError> errors) {
+		this.errors = errors;
+	}
+
+	/**
+	 * Gets the reason of the failure.
+	 *
+	 * @return Failure message or null if the job has not failed.
+	 */
+	public String getMessage() {
+		return message;
+	}
+
+	public void setMessage(String message) {
+		this.message = message;
+	}
+
+	public LocalDateTime getSubmittedAt() {
+		return submittedAt;
+	}
+
+	public void setSubmittedAt(LocalDateTime submittedAt) {
+		this.submittedAt = submittedAt;
+	}
+
+	public LocalDateTime getFinishedAt() {
+		return finishedAt;
+	}
+
+	public void setFinishedAt(LocalDateTime finishedAt) {
+		this.finishedAt = finishedAt;
+	}
+}
@@ -0,0 +1,65 @@
+package org.example.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Summary of a batch booking
+ */
+public class BatchBookingSummary {
+
+	private long bookedTickets;
+
+	private long rejectedTickets;
+
+	private int chunks;
+
+	private List<BatchBookingError> errors = new ArrayList<>();
+
+	public BatchBookingSummary() {
+	}
+
+	public BatchBookingSummary(long bookedTickets, long rejectedTickets, int chunks, List<BatchBookingError> errors) {
+		this.bookedTickets = bookedTickets;
+		this.rejectedTickets = rejectedTickets;
+		this.chunks = chunks;
+		this.errors = errors;
+	}
+
+	public long getBookedTickets() {
+		return bookedTickets;
+	}
+
+	public void setBookedTickets(long bookedTickets) {
+		this.bookedTickets = bookedTickets;
+	}
+
+	public long getRejectedTickets() {
+		return rejectedTickets;
+	}
+
+	public void setRejectedTickets(long rejectedTickets) {
+		this.rejectedTickets = rejectedTickets;
+	}
+
+	public int getChunks() {
+		return chunks;
+	}
+
+	public void setChunks(int chunks) {
+		this.chunks = chunks;
+	}
+
+	/**
+	 * Gets errors of the rejected rows. The list is capped, so it may be shorter than the number of rejected tickets.
+	 *
+	 * @return Errors ordered by row.
+	 */
+	public List<BatchBookingError> getErrors() {
+		return errors;
+	}
+
+	public void setErrors(List<BatchBookingError> errors) {
+		this.errors = errors;
+	}
+}
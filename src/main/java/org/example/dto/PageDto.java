@@ -0,0 +1,82 @@
+package org.example.dto;
+
+import org.example.util.ContinuationToken;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Page of a listing read by continuation token
+ */
+public class PageDto<T> {
+
+	private List<T> content = new ArrayList<>();
+
+	private String nextPageToken;
+
+	public PageDto() {
+	}
+
+	public PageDto(List<T> content, String nextPageToken) {
+		this.content = content;
+		this.nextPageToken = nextPageToken;
+	}
+
+	/**
+	 * Checks the requested page size before the rows of a page are read.
+	 *
+	 * @param pageSize Page size.
+	 * @throws IllegalArgumentException if the page size is less than one.
+	 */
+	public static void checkPageSize(int pageSize) {
+		if (pageSize < 1) {
+			throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+		}
+	}
+
+	/**
+	 * Creates a page from rows read with a limit of one row more than the page size,
+	 * the extra row only tells that there is a next page.
+	 *
+	 * @param rows     Rows sorted the way the listing is.
+	 * @param pageSize Page size.
+	 * @param position Sort key and id of a row.
+	 * @param mapper   Mapper of a row to its DTO.
+	 * @return Page with the token of its last row if there are more rows.
+	 * @throws IllegalArgumentException if the page size is less than one.
+	 */
+	public static <E, T> PageDto<T> of(List<E> rows, int pageSize,
+									   Function<E, ContinuationToken> position, Function<E, T> mapper) {
+		checkPageSize(pageSize);
+		var hasNext = rows.size() > pageSize;
+		var pageRows = hasNext ? rows.subList(0, pageSize) : rows;
+		var content = new ArrayList<T>(pageRows.size());
+		for (var row : pageRows) {
+			content.add(mapper.apply(row));
+		}
+		var nextPageToken = hasNext ? position.apply(pageRows.get(pageSize - 1)).encode() : null;
+		return new PageDto<>(content, nextPageToken);
+	}
+
+	public List<T> getContent() {
+		return content;
+	}
+
+	public void setContent(List<T> content) {
+		this.content = content;
+	}
+
+	/**
+	 * Gets the token of the next page.
+	 *
+	 * @return Token or null if this is the last page.
+	 */
+	public String getNextPageToken() {
+		return nextPageToken;
+	}
+
+	public void setNextPageToken(String nextPageToken) {
+		this.nextPageToken = nextPageToken;
+	}
+}
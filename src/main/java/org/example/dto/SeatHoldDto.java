@@ -0,0 +1,83 @@
+package org.example.dto;
+
+import org.example.enums.Category;
+
+import java.time.LocalDateTime;
+
+/**
+ * Seat hold DTO
+ */
+public class SeatHoldDto {
+
+	private String id;
+
+	private Long userId;
+
+	private Long eventId;
+
+	private Category category;
+
+	private int place;
+
+	private LocalDateTime expiresAt;
+
+	public SeatHoldDto() {
+	}
+
+	public SeatHoldDto(String id, Long userId, Long eventId, Category category, int place, LocalDateTime expiresAt) {
+		this.id = id;
+		this.userId = userId;
+		this.eventId = eventId;
+		this.category = category;
+		this.place = place;
+		this.expiresAt = expiresAt;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public Long getUserId() {
+		return userId;
+	}
+
+	public void setUserId(Long userId) {
+		this.userId = userId;
+	}
+
+	public Long getEventId() {
+		return eventId;
+	}
+
+	public void setEventId(Long eventId) {
+		this.eventId = eventId;
+	}
+
+	public Category getCategory() {
+		return category;
+	}
+
+	public void setCategory(Category category) {
+		this.category = category;
+	}
+
+	public int getPlace() {
+		return place;
+	}
+
+	public void setPlace(int place) {
+		this.place = place;
+	}
+
+	public LocalDateTime getExpiresAt() {
+		return expiresAt;
+	}
+
+	public void setExpiresAt(LocalDateTime expiresAt) {
+		this.expiresAt = expiresAt;
+	}
+}
@@ -2,6 +2,9 @@ package org.example.dto;
 
 import org.example.enums.Category;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
 /**
  * Ticket DTO
  * @author Andrii Krokhta
@@ -29,6 +32,28 @@ public class TicketDto {
 		this.place = place;
 	}
 
+	/**
+	 * Creates the ticket from the columns of a listing query, see {@link org.example.repository.TicketRepository}.
+	 * The user and the event are left empty if their id is null.
+	 */
+	public TicketDto(Long id, Long userId, String userName, String userEmail,
+					 Long eventId, String eventTitle, LocalDate eventDate, BigDecimal eventTicketPrice,
+					 Category category, int place) {
+		this.id = id;
+		if (userId != null) {
+			this.user = new UserDto(userId, userName, userEmail);
+		}
+		if (eventId != null) {
+			this.event = new EventDto();
+			this.event.setId(eventId);
+			this.event.setTitle(eventTitle);
+			this.event.setDate(eventDate);
+			this.event.setTicketPrice(eventTicketPrice);
+		}
+		this.category = category;
+		this.place = place;
+	}
+
 	public Long getId() {
 		return id;
 	}
@@ -0,0 +1,76 @@
+package org.example.enums;
+
+import org.example.exception.UnmarshallingException;
+
+import java.util.Locale;
+
+/**
+ * Format of a batch booking file.
+ */
+public enum BatchFormat {
+
+	/**
+	 * Xml list of tickets, every ticket is an {@code <item>} element.
+	 */
+	XML(".xml", "application/xml", "text/xml"),
+
+	/**
+	 * Comma separated {@code userId,eventId,category,place} rows with an optional header row.
+	 */
+	CSV(".csv", "text/csv"),
+
+	/**
+	 * One json object with {@code userId}, {@code eventId}, {@code category} and {@code place} fields per line.
+	 */
+	NDJSON(".ndjson", "application/x-ndjson", "application/ndjson");
+
+	private final String extension;
+
+	private final String[] contentTypes;
+
+	BatchFormat(String extension, String... contentTypes) {
+		this.extension = extension;
+		this.contentTypes = contentTypes;
+	}
+
+	public String getExtension() {
+		return extension;
+	}
+
+	/**
+	 * Detects the format from the content type, or from the extension of the file name when the content type
+	 * is not one of the supported ones. Browsers send generic types such as {@code application/octet-stream}
+	 * for files they do not know, so the file name decides for them.
+	 *
+	 * @param contentType Content type, parameters such as the charset are ignored.
+	 * @param fileName    Original file name, may be null.
+	 * @return Format of the content, xml if neither the content type nor the file name is specified.
+	 * @throws UnmarshallingException if neither the content type nor the file extension is supported.
+	 */
+	public static BatchFormat fromContentType(String contentType, String fileName) {
+		var hasContentType = contentType != null && !contentType.isBlank();
+		if (hasContentType) {
+			var separator = contentType.indexOf(';');
+			var mediaType = (separator < 0 ? contentType : contentType.substring(0, separator)).trim().toLowerCase(Locale.ROOT);
+			for (var format : values()) {
+				for (var type : format.contentTypes) {
+					if (type.equals(mediaType)) {
+						return format;
+					}
+				}
+			}
+		}
+		if (fileName != null && !fileName.isBlank()) {
+			var name = fileName.trim().toLowerCase(Locale.ROOT);
+			for (var format : values()) {
+				if (name.endsWith(format.extension)) {
+					return format;
+				}
+			}
+		}
+		if (!hasContentType) {
+			return XML;
+		}
+		throw new UnmarshallingException("Unsupported batch file content type: " + contentType);
+	}
+}
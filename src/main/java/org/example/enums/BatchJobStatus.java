@@ -0,0 +1,5 @@
+package org.example.enums;
+
+public enum BatchJobStatus {
+	QUEUED, RUNNING, COMPLETED, FAILED
+}
@@ -81,6 +81,21 @@ public class ApplicationExceptionHandler {
 		return setUpModelWithBadRequest(ex);
 	}
 
+	/**
+	 * Handles IllegalStateException
+	 *
+	 * @param ex thrown IllegalStateException
+	 * @return model with view name, response status, and message
+	 */
+	@ExceptionHandler(IllegalStateException.class)
+	private ModelAndView handleIllegalStateException(IllegalStateException ex) {
+		var modelAndView = new ModelAndView();
+		modelAndView.setViewName(ERROR_VIEW_NAME);
+		modelAndView.setStatus(HttpStatus.CONFLICT);
+		modelAndView.addObject(MESSAGE, ex.getMessage());
+		return modelAndView;
+	}
+
 	/**
 	 * Handles Exception
 	 *
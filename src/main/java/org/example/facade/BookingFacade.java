@@ -1,7 +1,10 @@
 package org.example.facade;
 
 import org.example.dto.AccountDto;
+import org.example.dto.BatchBookingJobDto;
 import org.example.dto.EventDto;
+import org.example.dto.PageDto;
+import org.example.dto.SeatHoldDto;
 import org.example.dto.TicketDto;
 import org.example.dto.UserDto;
 import org.example.enums.Category;
@@ -11,6 +14,7 @@ import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.SortedMap;
 
 /**
  * Groups together all operations related to ticket booking.
@@ -36,6 +40,18 @@ public interface BookingFacade {
 	 */
 	List<EventDto> getEventsByTitle(String title, int pageSize, int pageNum);
 
+	/**
+	 * Get a page of events by matching title, sorted by title. Title is matched using 'contains' approach.
+	 * Pages are read by continuation token, so reading a deep page costs the same as reading the first one.
+	 *
+	 * @param title     Event title or it's part.
+	 * @param pageSize  Pagination param. Number of events to return on a page.
+	 * @param pageToken Pagination param. Token of the page to return, null or empty for the first page.
+	 * @return Page of events with the token of the next page.
+	 * @throws java.lang.IllegalArgumentException if the token is malformed or the page size is less than one.
+	 */
+	PageDto<EventDto> getEventsByTitleAfter(String title, int pageSize, String pageToken);
+
 	/**
 	 * Get list of events for specified day.
 	 * In case nothing was found, empty list is returned.
@@ -47,6 +63,30 @@ public interface BookingFacade {
 	 */
 	List<EventDto> getEventsForDay(LocalDate day, int pageSize, int pageNum);
 
+	/**
+	 * Get list of events held within the date range, sorted by date and then by id.
+	 * In case nothing was found, empty list is returned.
+	 *
+	 * @param from     First day of the range.
+	 * @param to       Last day of the range.
+	 * @param pageSize Pagination param. Number of events to return on a page.
+	 * @param pageNum  Pagination param. Number of the page to return. Starts from 0.
+	 * @return List of events.
+	 * @throws java.lang.IllegalArgumentException if the range starts after its end.
+	 */
+	List<EventDto> getEventsInRange(LocalDate from, LocalDate to, int pageSize, int pageNum);
+
+	/**
+	 * Get numbers of events per day held within the date range, e.g. for the badges of a calendar.
+	 * Days without events are left out.
+	 *
+	 * @param from First day of the range.
+	 * @param to   Last day of the range.
+	 * @return Numbers of events by day, sorted by day.
+	 * @throws java.lang.IllegalArgumentException if the range starts after its end.
+	 */
+	SortedMap<LocalDate, Integer> getEventCountsInRange(LocalDate from, LocalDate to);
+
 	/**
 	 * Creates new event. Event id should be auto-generated.
 	 *
@@ -95,6 +135,28 @@ public interface BookingFacade {
 	 */
 	List<UserDto> getUsersByName(String name, int pageSize, int pageNum);
 
+	/**
+	 * Get a page of users by matching name, sorted by name. Name is matched using 'contains' approach.
+	 * Pages are read by continuation token, so reading a deep page costs the same as reading the first one.
+	 *
+	 * @param name      Users name or it's part.
+	 * @param pageSize  Pagination param. Number of users to return on a page.
+	 * @param pageToken Pagination param. Token of the page to return, null or empty for the first page.
+	 * @return Page of users with the token of the next page.
+	 * @throws java.lang.IllegalArgumentException if the token is malformed or the page size is less than one.
+	 */
+	PageDto<UserDto> getUsersByNameAfter(String name, int pageSize, String pageToken);
+
+	/**
+	 * Gets users with a name word starting with the prefix, for autocomplete. Preceding words of the prefix
+	 * have to match name words as a whole.
+	 *
+	 * @param prefix Start of the user name, e.g. "jul" or "jules mc".
+	 * @param limit  Maximal number of users.
+	 * @return List of users.
+	 */
+	List<UserDto> suggestUsers(String prefix, int limit);
+
 	/**
 	 * Creates new user. User id should be auto-generated.
 	 *
@@ -131,11 +193,73 @@ public interface BookingFacade {
 	TicketDto bookTicket(Long userId, Long eventId, Category category, int place);
 
 	/**
-	 * Batch book ticket from the input stream.
+	 * Charges the user account for the event ticket price and books the ticket.
+	 * The account is charged only if the ticket is booked.
+	 *
+	 * @param userId   User Id. The account with the same id is charged.
+	 * @param eventId  Event Id.
+	 * @param place    Place number.
+	 * @param category Service category.
+	 * @return Booked ticket object.
+	 * @throws java.lang.IllegalStateException if this place has already been booked.
+	 * @throws org.example.exception.AccountBalanceException if the account has insufficient funds.
+	 */
+	TicketDto purchaseTicket(Long userId, Long eventId, Category category, int place);
+
+	/**
+	 * Reserves the place of the event for the user for a limited time. The hold has to be confirmed
+	 * before it expires, otherwise the place is released automatically.
+	 *
+	 * @param userId   User Id.
+	 * @param eventId  Event Id.
+	 * @param category Service category.
+	 * @param place    Place number.
+	 * @return Created seat hold.
+	 * @throws java.lang.IllegalStateException if this place has already been booked or held.
+	 */
+	SeatHoldDto holdSeat(Long userId, Long eventId, Category category, int place);
+
+	/**
+	 * Charges the user account for the event ticket price and books the held place in a single transaction.
+	 * The hold is consumed even if the purchase fails, in that case the place is released.
+	 *
+	 * @param holdId Seat hold id.
+	 * @return Booked ticket object.
+	 * @throws org.example.exception.EntityNotFoundException if the hold does not exist or has expired.
+	 */
+	TicketDto confirmHold(String holdId);
+
+	/**
+	 * Cancels the seat hold and releases its place.
 	 *
-	 * @param stream input stream.
+	 * @param holdId Seat hold id.
+	 * @throws org.example.exception.EntityNotFoundException if the hold does not exist or has expired.
 	 */
-	Iterable<TicketDto> batchBookTickets(InputStream stream) throws IOException;
+	void releaseHold(String holdId);
+
+	/**
+	 * Batch book ticket from the input stream. The stream is spooled and booked by a background job,
+	 * which reads tickets one at a time and books them in chunks, each chunk in its own transaction.
+	 * Xml, csv and newline-delimited json lists are supported, the format is detected from the content type,
+	 * or from the file extension when the content type is generic or unknown.
+	 *
+	 * @param stream      input stream with a list of tickets.
+	 * @param contentType content type of the stream, xml is assumed if neither it nor the file name is specified.
+	 * @param fileName    original name of the uploaded file, may be null.
+	 * @return Queued job.
+	 * @throws java.lang.IllegalStateException if too many jobs are queued.
+	 * @throws org.example.exception.UnmarshallingException if the format is not supported.
+	 */
+	BatchBookingJobDto batchBookTickets(InputStream stream, String contentType, String fileName) throws IOException;
+
+	/**
+	 * Gets progress of the batch booking job.
+	 *
+	 * @param jobId Job id.
+	 * @return Job with its progress.
+	 * @throws org.example.exception.EntityNotFoundException if the job does not exist or has been evicted.
+	 */
+	BatchBookingJobDto getBatchBookingJob(String jobId);
 
 	/**
 	 * Get all booked tickets by specified user id. Tickets should be sorted by event date in descending order.
@@ -147,6 +271,18 @@ public interface BookingFacade {
 	 */
 	List<TicketDto> getBookedTicketsByUserId(Long userId, int pageSize, int pageNum);
 
+	/**
+	 * Get a page of booked tickets by specified user id, sorted by event date in descending order.
+	 * Pages are read by continuation token, so reading a deep page costs the same as reading the first one.
+	 *
+	 * @param userId    User id
+	 * @param pageSize  Pagination param. Number of tickets to return on a page.
+	 * @param pageToken Pagination param. Token of the page to return, null or empty for the first page.
+	 * @return Page of tickets with the token of the next page.
+	 * @throws java.lang.IllegalArgumentException if the token is malformed or the page size is less than one.
+	 */
+	PageDto<TicketDto> getBookedTicketsByUserIdAfter(Long userId, int pageSize, String pageToken);
+
 	/**
 	 * Get all booked tickets by specified event id. Tickets should be sorted in by user email in ascending order.
 	 *
@@ -157,6 +293,18 @@ public interface BookingFacade {
 	 */
 	List<TicketDto> getBookedTicketsByEventId(Long eventId, int pageSize, int pageNum);
 
+	/**
+	 * Get a page of booked tickets by specified event id, sorted by user email in ascending order.
+	 * Pages are read by continuation token, so reading a deep page costs the same as reading the first one.
+	 *
+	 * @param eventId   Event id
+	 * @param pageSize  Pagination param. Number of tickets to return on a page.
+	 * @param pageToken Pagination param. Token of the page to return, null or empty for the first page.
+	 * @return Page of tickets with the token of the next page.
+	 * @throws java.lang.IllegalArgumentException if the token is malformed or the page size is less than one.
+	 */
+	PageDto<TicketDto> getBookedTicketsByEventIdAfter(Long eventId, int pageSize, String pageToken);
+
 	/**
 	 * Cancel ticket with a specified id.
 	 *
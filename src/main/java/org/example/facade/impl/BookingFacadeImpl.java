@@ -1,15 +1,19 @@
 package org.example.facade.impl;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import org.example.converter.XmlMarshaller;
 import org.example.dto.AccountDto;
+import org.example.dto.BatchBookingJobDto;
 import org.example.dto.EventDto;
+import org.example.dto.PageDto;
+import org.example.dto.SeatHoldDto;
 import org.example.dto.TicketDto;
 import org.example.dto.UserDto;
+import org.example.enums.BatchFormat;
 import org.example.enums.Category;
 import org.example.facade.BookingFacade;
 import org.example.service.AccountService;
+import org.example.service.BatchBookingJobService;
 import org.example.service.EventService;
+import org.example.service.SeatHoldService;
 import org.example.service.TicketService;
 import org.example.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,6 +24,7 @@ import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.SortedMap;
 
 @Component
 public class BookingFacadeImpl implements BookingFacade {
@@ -32,18 +37,23 @@ public class BookingFacadeImpl implements BookingFacade {
 
 	private final AccountService accountService;
 
-	private final XmlMarshaller xmlMarshaller;
+	private final SeatHoldService seatHoldService;
+
+	private final BatchBookingJobService batchBookingJobService;
 
 	@Autowired
 	public BookingFacadeImpl(EventService eventService,
 							 TicketService ticketService,
 							 UserService userService,
-							 AccountService accountService, XmlMarshaller xmlMarshaller) {
+							 AccountService accountService,
+							 SeatHoldService seatHoldService,
+							 BatchBookingJobService batchBookingJobService) {
 		this.eventService = eventService;
 		this.ticketService = ticketService;
 		this.userService = userService;
 		this.accountService = accountService;
-		this.xmlMarshaller = xmlMarshaller;
+		this.seatHoldService = seatHoldService;
+		this.batchBookingJobService = batchBookingJobService;
 	}
 
 	/**
@@ -62,6 +72,14 @@ public class BookingFacadeImpl implements BookingFacade {
 		return eventService.getEventsByTitle(title, pageSize, pageNum);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public PageDto<EventDto> getEventsByTitleAfter(String title, int pageSize, String pageToken) {
+		return eventService.getEventsByTitleAfter(title, pageSize, pageToken);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -70,6 +88,22 @@ public class BookingFacadeImpl implements BookingFacade {
 		return eventService.getEventsForDay(day, pageSize, pageNum);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<EventDto> getEventsInRange(LocalDate from, LocalDate to, int pageSize, int pageNum) {
+		return eventService.getEventsInRange(from, to, pageSize, pageNum);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public SortedMap<LocalDate, Integer> getEventCountsInRange(LocalDate from, LocalDate to) {
+		return eventService.getEventCountsInRange(from, to);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -118,6 +152,22 @@ public class BookingFacadeImpl implements BookingFacade {
 		return userService.getUsersByName(name, pageSize, pageNum);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public PageDto<UserDto> getUsersByNameAfter(String name, int pageSize, String pageToken) {
+		return userService.getUsersByNameAfter(name, pageSize, pageToken);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<UserDto> suggestUsers(String prefix, int limit) {
+		return userService.suggestUsers(prefix, limit);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -150,10 +200,73 @@ public class BookingFacadeImpl implements BookingFacade {
 		return ticketService.bookTicket(userId, eventId, category, place);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * The place is reserved first, so a taken place is rejected before the account is charged.
+	 * The charge and the ticket are then committed together with concurrent purchases. If the purchase fails,
+	 * the place is released. No lock is held while waiting for the commit: the seat index guards the place
+	 * and the batch charges the account with a conditional update, so purchases of one event share a batch.
+	 */
+	@Override
+	public TicketDto purchaseTicket(Long userId, Long eventId, Category category, int place) {
+		ticketService.reservePlace(eventId, place);
+		try {
+			var ticketPrice = eventService.getEventById(eventId).getTicketPrice();
+			return ticketService.purchaseHeldTicket(userId, eventId, category, place, ticketPrice);
+		} catch (RuntimeException e) {
+			ticketService.releasePlace(eventId, place);
+			throw e;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public SeatHoldDto holdSeat(Long userId, Long eventId, Category category, int place) {
+		return seatHoldService.holdSeat(userId, eventId, category, place);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * The place stays claimed in the seat index from the hold until the ticket is committed,
+	 * so it is released here only if the purchase fails.
+	 */
+	@Override
+	public TicketDto confirmHold(String holdId) {
+		var hold = seatHoldService.takeHold(holdId);
+		try {
+			var ticketPrice = eventService.getEventById(hold.getEventId()).getTicketPrice();
+			return ticketService.purchaseHeldTicket(hold.getUserId(), hold.getEventId(), hold.getCategory(),
+					hold.getPlace(), ticketPrice);
+		} catch (RuntimeException e) {
+			seatHoldService.releaseSeat(hold);
+			throw e;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void releaseHold(String holdId) {
+		seatHoldService.releaseHold(holdId);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public BatchBookingJobDto batchBookTickets(InputStream stream, String contentType, String fileName) throws IOException {
+		return batchBookingJobService.submit(stream, BatchFormat.fromContentType(contentType, fileName));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
 	@Override
-	public Iterable<TicketDto> batchBookTickets(InputStream stream) throws IOException {
-		var tickets = xmlMarshaller.parse(stream, new TypeReference<List<TicketDto>>() {});
-		return ticketService.bookTickets(tickets);
+	public BatchBookingJobDto getBatchBookingJob(String jobId) {
+		return batchBookingJobService.getJob(jobId);
 	}
 
 	/**
@@ -164,6 +277,14 @@ public class BookingFacadeImpl implements BookingFacade {
 		return ticketService.getBookedTicketsByUserId(userId, pageSize, pageNum);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public PageDto<TicketDto> getBookedTicketsByUserIdAfter(Long userId, int pageSize, String pageToken) {
+		return ticketService.getBookedTicketsByUserIdAfter(userId, pageSize, pageToken);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -172,6 +293,14 @@ public class BookingFacadeImpl implements BookingFacade {
 		return ticketService.getBookedTicketsByEventId(eventId, pageSize, pageNum);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public PageDto<TicketDto> getBookedTicketsByEventIdAfter(Long eventId, int pageSize, String pageToken) {
+		return ticketService.getBookedTicketsByEventIdAfter(eventId, pageSize, pageToken);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -0,0 +1,245 @@
+package org.example.id;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Metrics;
+import org.hibernate.HibernateException;
+import org.hibernate.MappingException;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.jdbc.env.spi.JdbcEnvironment;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerationException;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sequence generator handing out ids through a {@link SequenceBlockAllocator}.
+ * The sequence is declared and exported like by {@link SequenceStyleGenerator}, blocks are fetched with one query
+ * on a dedicated connection opened outside the connection pool. Threads inserting rows hold pooled connections
+ * while they wait for ids, so fetching blocks through the pool could starve it.
+ * If the pool does not expose its JDBC url, blocks are fetched on pooled connections.
+ * Every sequence value v stands for the ids {@code v - increment + 1 .. v}, the way the pooled optimizer reads it.
+ * <p>
+ * Besides the parameters of {@link SequenceStyleGenerator} it takes {@value #MIN_BLOCK_PARAM},
+ * {@value #MAX_BLOCK_PARAM} and {@value #TARGET_BLOCK_MILLIS_PARAM}. Metrics are registered with
+ * the global registry, which Spring Boot backs with the application registry.
+ */
+public class BlockSequenceGenerator extends SequenceStyleGenerator {
+
+	public static final String MIN_BLOCK_PARAM = "min_block_size";
+
+	public static final String MAX_BLOCK_PARAM = "max_block_size";
+
+	public static final String TARGET_BLOCK_MILLIS_PARAM = "target_block_millis";
+
+	private static final int DEFAULT_MAX_BLOCK_SIZE = 65_536;
+
+	private static final int DEFAULT_TARGET_BLOCK_MILLIS = 1_000;
+
+	private static final Logger logger = LoggerFactory.getLogger(BlockSequenceGenerator.class);
+
+	private static final AtomicInteger threadNumber = new AtomicInteger();
+
+	private static final ExecutorService prefetchExecutor = Executors.newCachedThreadPool(task -> {
+		var thread = new Thread(task, "id-prefetch-" + threadNumber.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private ConnectionProvider connectionProvider;
+
+	private Dialect dialect;
+
+	private int minBlockSize;
+
+	private int maxBlockSize;
+
+	private long targetBlockMillis;
+
+	private volatile SequenceBlockAllocator allocator;
+
+	private final Object connectionLock = new Object();
+
+	private Connection dedicatedConnection;
+
+	private boolean pooled;
+
+	@Override
+	public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+		super.configure(type, params, serviceRegistry);
+		connectionProvider = serviceRegistry.getService(ConnectionProvider.class);
+		dialect = serviceRegistry.getService(JdbcEnvironment.class).getDialect();
+		var increment = getDatabaseStructure().getIncrementSize();
+		minBlockSize = ConfigurationHelper.getInt(MIN_BLOCK_PARAM, params, increment);
+		maxBlockSize = ConfigurationHelper.getInt(MAX_BLOCK_PARAM, params, Math.max(DEFAULT_MAX_BLOCK_SIZE, minBlockSize));
+		targetBlockMillis = ConfigurationHelper.getLong(TARGET_BLOCK_MILLIS_PARAM, params, DEFAULT_TARGET_BLOCK_MILLIS);
+	}
+
+	@Override
+	public Serializable generate(SharedSessionContractImplementor session, Object object) throws HibernateException {
+		return allocator().next();
+	}
+
+	/**
+	 * Allocates ids for rows inserted without the entity lifecycle.
+	 *
+	 * @param count Number of ids.
+	 * @return Unused ids.
+	 */
+	public long[] generate(int count) {
+		return allocator().next(count);
+	}
+
+	/**
+	 * Gets the allocator. It is created on first use, as the qualified sequence name is only known
+	 * once the sequence has been registered with the database model.
+	 */
+	public SequenceBlockAllocator allocator() {
+		var current = allocator;
+		if (current == null) {
+			synchronized (this) {
+				current = allocator;
+				if (current == null) {
+					var sequence = getDatabaseStructure().getName();
+					current = new SequenceBlockAllocator(sequence,
+							blockSource(sequence, getDatabaseStructure().getIncrementSize()),
+							prefetchExecutor, minBlockSize, maxBlockSize, targetBlockMillis, Metrics.globalRegistry);
+					allocator = current;
+				}
+			}
+		}
+		return current;
+	}
+
+	private SequenceBlockAllocator.BlockSource blockSource(String sequence, int increment) {
+		String blockQuery;
+		if (dialect instanceof PostgreSQL81Dialect) {
+			blockQuery = "select " + dialect.getSelectSequenceNextValString(sequence) + " from generate_series(1, ?)";
+		} else if (dialect instanceof H2Dialect) {
+			blockQuery = "select " + dialect.getSelectSequenceNextValString(sequence) + " from system_range(1, ?)";
+		} else {
+			blockQuery = null;
+		}
+		return size -> {
+			var values = (size + increment - 1) / increment;
+			var ids = new long[values * increment];
+			var count = 0;
+			synchronized (connectionLock) {
+				Connection connection = null;
+				try {
+					connection = openConnection();
+					if (blockQuery != null) {
+						try (var statement = connection.prepareStatement(blockQuery)) {
+							statement.setInt(1, values);
+							try (var resultSet = statement.executeQuery()) {
+								while (resultSet.next()) {
+									count = addBlock(ids, count, resultSet.getLong(1), increment);
+								}
+							}
+						}
+					} else {
+						try (var statement = connection.prepareStatement(dialect.getSequenceNextValString(sequence))) {
+							for (int i = 0; i < values; i++) {
+								try (var resultSet = statement.executeQuery()) {
+									resultSet.next();
+									count = addBlock(ids, count, resultSet.getLong(1), increment);
+								}
+							}
+						}
+					}
+					if (!connection.getAutoCommit()) {
+						connection.commit();
+					}
+				} catch (SQLException e) {
+					//a broken dedicated connection is replaced by the next fetch
+					closeDedicatedConnection();
+					throw new IdentifierGenerationException("Failed to fetch ids from sequence " + sequence, e);
+				} finally {
+					if (connection != null && connection != dedicatedConnection) {
+						try {
+							connectionProvider.closeConnection(connection);
+						} catch (SQLException e) {
+							throw new IdentifierGenerationException("Failed to release connection of sequence " + sequence, e);
+						}
+					}
+				}
+			}
+			return count == ids.length ? ids : Arrays.copyOf(ids, count);
+		};
+	}
+
+	/**
+	 * Gets the dedicated connection, opening it on first use, or a pooled connection if the pool
+	 * does not expose its JDBC url. Callers hold the connection lock.
+	 */
+	private Connection openConnection() throws SQLException {
+		if (dedicatedConnection != null) {
+			return dedicatedConnection;
+		}
+		if (pooled) {
+			return connectionProvider.getConnection();
+		}
+		var dataSource = connectionProvider.isUnwrappableAs(DataSource.class)
+				? connectionProvider.unwrap(DataSource.class)
+				: null;
+		if (!(dataSource instanceof HikariDataSource) || ((HikariDataSource) dataSource).getJdbcUrl() == null) {
+			logger.warn("Connection pool does not expose its JDBC url, fetching ids on pooled connections.");
+			pooled = true;
+			return connectionProvider.getConnection();
+		}
+		var pool = (HikariDataSource) dataSource;
+		var properties = new Properties();
+		properties.putAll(pool.getDataSourceProperties());
+		if (pool.getUsername() != null) {
+			properties.setProperty("user", pool.getUsername());
+		}
+		if (pool.getPassword() != null) {
+			properties.setProperty("password", pool.getPassword());
+		}
+		var connection = DriverManager.getConnection(pool.getJdbcUrl(), properties);
+		connection.setAutoCommit(true);
+		dedicatedConnection = connection;
+		return connection;
+	}
+
+	private void closeDedicatedConnection() {
+		if (dedicatedConnection == null) {
+			return;
+		}
+		try {
+			dedicatedConnection.close();
+		} catch (SQLException e) {
+			logger.debug("Failed to close the sequence connection. {}", e.getMessage());
+		}
+		dedicatedConnection = null;
+	}
+
+	/**
+	 * Adds the ids of a sequence value. The initial value of a fresh sequence has no ids below it.
+	 *
+	 * @return New number of ids.
+	 */
+	private static int addBlock(long[] ids, int count, long value, int increment) {
+		for (long id = Math.max(1, value - increment + 1); id <= value; id++) {
+			ids[count++] = id;
+		}
+		return count;
+	}
+}
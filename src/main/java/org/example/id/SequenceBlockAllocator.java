@@ -0,0 +1,234 @@
+package org.example.id;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out ids from blocks fetched from a database sequence.
+ * The next block is fetched on the prefetch executor once half of the current block has been used, so callers
+ * only wait for the sequence when ids are used up faster than a block can be fetched. The block size follows
+ * the observed allocation rate: it is doubled when a block lasts less than half of the target time
+ * and halved when it lasts more than twice as long, within the configured bounds.
+ * <p>
+ * Per sequence, the number of allocated ids, fetched blocks and allocations that had to wait for the sequence are
+ * published as {@code booking.id.allocated}, {@code booking.id.blocks} and {@code booking.id.stalls}, the current
+ * block size and the ids left in the current block as {@code booking.id.block.size} and {@code booking.id.block.remaining}.
+ */
+public class SequenceBlockAllocator {
+
+	private static final Logger logger = LoggerFactory.getLogger(SequenceBlockAllocator.class);
+
+	private static final long[] EMPTY = new long[0];
+
+	/**
+	 * Source of id blocks, typically a sequence query.
+	 */
+	@FunctionalInterface
+	public interface BlockSource {
+
+		/**
+		 * Fetches new ids.
+		 *
+		 * @param size Requested number of ids.
+		 * @return Unused ids, fewer than requested only if the sequence has just been created.
+		 */
+		long[] fetch(int size);
+	}
+
+	private final String name;
+
+	private final BlockSource source;
+
+	private final Executor prefetchExecutor;
+
+	private final int minBlockSize;
+
+	private final int maxBlockSize;
+
+	private final long targetBlockNanos;
+
+	private final AtomicLong allocated = new AtomicLong();
+
+	private final AtomicLong blocks = new AtomicLong();
+
+	private final AtomicLong stalls = new AtomicLong();
+
+	private long[] block = EMPTY;
+
+	private int index;
+
+	private long blockStartNanos;
+
+	private volatile int blockSize;
+
+	private volatile int remaining;
+
+	private CompletableFuture<long[]> prefetch;
+
+	/**
+	 * Creates the allocator. No ids are fetched before the first allocation.
+	 *
+	 * @param name             Sequence name, used as the tag of the metrics.
+	 * @param source           Source of blocks.
+	 * @param prefetchExecutor Executor fetching the next block in the background.
+	 * @param minBlockSize     Minimal and initial block size.
+	 * @param maxBlockSize     Maximal block size.
+	 * @param targetBlockMillis Time a block should last at the current allocation rate.
+	 * @param registry         Registry of the metrics.
+	 */
+	public SequenceBlockAllocator(String name, BlockSource source, Executor prefetchExecutor,
+								  int minBlockSize, int maxBlockSize, long targetBlockMillis, MeterRegistry registry) {
+		if (minBlockSize < 1 || maxBlockSize < minBlockSize) {
+			throw new IllegalArgumentException("Invalid block size bounds: " + minBlockSize + ", " + maxBlockSize);
+		}
+		this.name = name;
+		this.source = source;
+		this.prefetchExecutor = prefetchExecutor;
+		this.minBlockSize = minBlockSize;
+		this.maxBlockSize = maxBlockSize;
+		this.targetBlockNanos = targetBlockMillis * 1_000_000;
+		this.blockSize = minBlockSize;
+		FunctionCounter.builder("booking.id.allocated", allocated, AtomicLong::get)
+				.description("Number of allocated ids")
+				.tag("sequence", name)
+				.register(registry);
+		FunctionCounter.builder("booking.id.blocks", blocks, AtomicLong::get)
+				.description("Number of id blocks fetched from the sequence")
+				.tag("sequence", name)
+				.register(registry);
+		FunctionCounter.builder("booking.id.stalls", stalls, AtomicLong::get)
+				.description("Number of allocations that waited for the sequence")
+				.tag("sequence", name)
+				.register(registry);
+		Gauge.builder("booking.id.block.size", this, SequenceBlockAllocator::getBlockSize)
+				.description("Current id block size")
+				.tag("sequence", name)
+				.register(registry);
+		Gauge.builder("booking.id.block.remaining", this, SequenceBlockAllocator::getRemaining)
+				.description("Ids left in the current block")
+				.tag("sequence", name)
+				.register(registry);
+	}
+
+	/**
+	 * Allocates an id.
+	 *
+	 * @return Unused id.
+	 */
+	public synchronized long next() {
+		if (index == block.length) {
+			advance(1);
+		}
+		var id = block[index++];
+		allocated.incrementAndGet();
+		prefetchIfLow();
+		return id;
+	}
+
+	/**
+	 * Allocates ids for a bulk insert.
+	 *
+	 * @param count Number of ids.
+	 * @return Unused ids.
+	 */
+	public synchronized long[] next(int count) {
+		var ids = new long[count];
+		if (count > blockSize) {
+			//the rate will catch up with the request, size the following blocks for it right away
+			blockSize = Math.min(maxBlockSize, Math.max(blockSize, Integer.highestOneBit(count - 1) << 1));
+		}
+		var filled = 0;
+		while (filled < count) {
+			if (index == block.length) {
+				advance(count - filled);
+			}
+			var taken = Math.min(count - filled, block.length - index);
+			System.arraycopy(block, index, ids, filled, taken);
+			index += taken;
+			filled += taken;
+		}
+		allocated.addAndGet(count);
+		prefetchIfLow();
+		return ids;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getBlockSize() {
+		return blockSize;
+	}
+
+	public int getRemaining() {
+		return remaining;
+	}
+
+	public long getAllocated() {
+		return allocated.get();
+	}
+
+	public long getBlocks() {
+		return blocks.get();
+	}
+
+	public long getStalls() {
+		return stalls.get();
+	}
+
+	private void prefetchIfLow() {
+		remaining = block.length - index;
+		if (prefetch == null && remaining <= block.length / 2) {
+			var size = blockSize;
+			prefetch = CompletableFuture.supplyAsync(() -> source.fetch(size), prefetchExecutor);
+		}
+	}
+
+	/**
+	 * Replaces the used up block with the prefetched one, or with a block fetched right away if there is none.
+	 */
+	private void advance(int needed) {
+		var now = System.nanoTime();
+		if (block.length > 0) {
+			adapt(now - blockStartNanos);
+		}
+		long[] next = null;
+		var waited = false;
+		if (prefetch != null) {
+			waited = !prefetch.isDone();
+			try {
+				next = prefetch.join();
+			} catch (CompletionException e) {
+				logger.warn("Failed to prefetch ids from sequence {}. {}", name, e.getCause().getMessage());
+			}
+			prefetch = null;
+		}
+		if (next == null || next.length == 0) {
+			waited = true;
+			next = source.fetch(Math.max(blockSize, needed));
+		}
+		if (waited) {
+			stalls.incrementAndGet();
+		}
+		block = next;
+		index = 0;
+		blockStartNanos = System.nanoTime();
+		blocks.incrementAndGet();
+	}
+
+	private void adapt(long blockNanos) {
+		if (blockNanos < targetBlockNanos / 2 && blockSize < maxBlockSize) {
+			blockSize = Math.min(maxBlockSize, blockSize * 2);
+		} else if (blockNanos > targetBlockNanos * 2 && blockSize > minBlockSize) {
+			blockSize = Math.max(minBlockSize, blockSize / 2);
+		}
+	}
+}
@@ -0,0 +1,308 @@
+package org.example.index;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Scalable Bloom filter of lower-cased user emails telling when an email is certainly not taken yet.
+ * The filter is a chain of stages. When the last stage holds as many emails as it was sized for, a stage twice
+ * as large with half the false positive rate is added, so the compound false positive rate stays below
+ * the configured one however many users there are. An email is looked up in every stage with
+ * {@code k} double-hashed bit positions. Emails are never removed, an email of a deleted user stays
+ * a false positive.
+ * <p>
+ * The filter is loaded once the application is ready and fed with the emails of created and updated users.
+ * Until it is loaded, when it is disabled and once growing it would exceed the memory limit,
+ * every email might be taken. The number of emails, the memory of the bit arrays, the estimated false positive rate
+ * and the numbers of lookups, skipped queries and false positives are published
+ * as {@code booking.users.email-filter.*} metrics.
+ */
+@Component
+public class EmailBloomFilter {
+
+	private static final Logger logger = LoggerFactory.getLogger(EmailBloomFilter.class);
+
+	private static final int LOAD_CHUNK_SIZE = 10_000;
+
+	/**
+	 * Ratio of false positive rates of consecutive stages.
+	 */
+	private static final double TIGHTENING_RATIO = 0.5;
+
+	private static final double LN2 = Math.log(2);
+
+	private final UserRepository repository;
+
+	private final boolean enabled;
+
+	private final long maxBytes;
+
+	private final AtomicLong lookups = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	private final Counter falsePositives;
+
+	private volatile Stage[] stages;
+
+	private volatile boolean ready;
+
+	private volatile boolean saturated;
+
+	@Autowired
+	public EmailBloomFilter(UserRepository repository,
+							@Value("${booking.users.email-filter.enabled:false}") boolean enabled,
+							@Value("${booking.users.email-filter.false-positive-rate:0.01}") double falsePositiveRate,
+							@Value("${booking.users.email-filter.initial-capacity:100000}") long initialCapacity,
+							@Value("${booking.users.email-filter.max-bytes:67108864}") long maxBytes,
+							MeterRegistry registry) {
+		if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+			throw new IllegalArgumentException("False positive rate must be between 0 and 1: " + falsePositiveRate);
+		}
+		if (initialCapacity < 1) {
+			throw new IllegalArgumentException("Initial capacity must be positive: " + initialCapacity);
+		}
+		this.repository = repository;
+		this.enabled = enabled;
+		this.maxBytes = maxBytes;
+		//the rates of the stages form a geometric series summing up to the configured rate
+		this.stages = new Stage[]{new Stage(initialCapacity, falsePositiveRate * (1 - TIGHTENING_RATIO))};
+
+		Gauge.builder("booking.users.email-filter.entries", this, EmailBloomFilter::getEntries)
+				.description("Number of emails added to the filter")
+				.register(registry);
+		Gauge.builder("booking.users.email-filter.bytes", this, EmailBloomFilter::getBytes)
+				.description("Memory of the bit arrays of the filter")
+				.baseUnit("bytes")
+				.register(registry);
+		Gauge.builder("booking.users.email-filter.false-positive-rate", this, EmailBloomFilter::getExpectedFalsePositiveRate)
+				.description("Estimated false positive rate of the filter at its current fill")
+				.register(registry);
+		FunctionCounter.builder("booking.users.email-filter.lookups", lookups, AtomicLong::get)
+				.description("Number of emails looked up in the filter")
+				.register(registry);
+		FunctionCounter.builder("booking.users.email-filter.misses", misses, AtomicLong::get)
+				.description("Number of emails certainly not taken, for which the query was skipped")
+				.register(registry);
+		falsePositives = Counter.builder("booking.users.email-filter.false-positives")
+				.description("Number of emails the filter could not rule out that were not taken")
+				.register(registry);
+	}
+
+	/**
+	 * Loads emails of all users.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() {
+		if (!enabled) {
+			return;
+		}
+		var start = System.nanoTime();
+		var lastId = 0L;
+		var count = 0;
+		List<Object[]> chunk;
+		do {
+			chunk = repository.findEmailsAfter(lastId, PageRequest.of(0, LOAD_CHUNK_SIZE));
+			for (var row : chunk) {
+				add((String) row[1]);
+				lastId = (Long) row[0];
+			}
+			count += chunk.size();
+		} while (chunk.size() == LOAD_CHUNK_SIZE);
+		ready = true;
+		logger.info("Loaded {} user emails into {} filter stages of {} bytes in {} ms.",
+				count, stages.length, getBytes(), (System.nanoTime() - start) / 1_000_000);
+	}
+
+	/**
+	 * Checks whether the email might be taken.
+	 *
+	 * @param email User email, case is ignored.
+	 * @return false if no user has the email, true if some user might have it.
+	 */
+	public boolean mightContain(String email) {
+		if (!ready || saturated || email == null) {
+			return true;
+		}
+		lookups.incrementAndGet();
+		var hash = hash(email);
+		for (var stage : stages) {
+			if (stage.mightContain(hash)) {
+				return true;
+			}
+		}
+		misses.incrementAndGet();
+		return false;
+	}
+
+	/**
+	 * Adds the email of a created or updated user.
+	 *
+	 * @param email User email, case is ignored.
+	 */
+	public void add(String email) {
+		if (!enabled || email == null) {
+			return;
+		}
+		var hash = hash(email);
+		var current = stages;
+		var last = current[current.length - 1];
+		if (last.entries.get() >= last.capacity) {
+			last = grow(current);
+		}
+		last.add(hash);
+	}
+
+	/**
+	 * Records an email the filter could not rule out, which turned out not to be taken.
+	 */
+	public void recordFalsePositive() {
+		falsePositives.increment();
+	}
+
+	public boolean isReady() {
+		return ready;
+	}
+
+	public long getEntries() {
+		var entries = 0L;
+		for (var stage : stages) {
+			entries += stage.entries.get();
+		}
+		return entries;
+	}
+
+	public long getBytes() {
+		var bytes = 0L;
+		for (var stage : stages) {
+			bytes += (long) stage.bits.length() * Long.BYTES;
+		}
+		return bytes;
+	}
+
+	/**
+	 * Estimates the false positive rate from the fill of the stages, 1 once the filter is saturated.
+	 */
+	public double getExpectedFalsePositiveRate() {
+		if (saturated) {
+			return 1;
+		}
+		var allNegative = 1.0;
+		for (var stage : stages) {
+			allNegative *= 1 - stage.expectedFalsePositiveRate();
+		}
+		return 1 - allNegative;
+	}
+
+	private synchronized Stage grow(Stage[] seen) {
+		var current = stages;
+		var last = current[current.length - 1];
+		if (current != seen || last.entries.get() < last.capacity) {
+			//another thread has already grown the filter
+			return last;
+		}
+		var next = new Stage(last.capacity * 2, last.rate * TIGHTENING_RATIO);
+		if (getBytes() + (long) next.bits.length() * Long.BYTES > maxBytes) {
+			if (!saturated) {
+				saturated = true;
+				logger.warn("Email filter reached its memory limit of {} bytes, every email is checked in the database.",
+						maxBytes);
+			}
+			return last;
+		}
+		var grown = new Stage[current.length + 1];
+		System.arraycopy(current, 0, grown, 0, current.length);
+		grown[current.length] = next;
+		stages = grown;
+		return next;
+	}
+
+	/**
+	 * Hashes the lower-cased email to 64 bits with the FNV-1a hash finished by the splitmix64 mixer.
+	 */
+	private static long hash(String email) {
+		var normalized = email.toLowerCase(Locale.ROOT);
+		var hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < normalized.length(); i++) {
+			hash ^= normalized.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+		hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+		return hash ^ (hash >>> 31);
+	}
+
+	/**
+	 * Classic Bloom filter sized for a number of entries at a false positive rate.
+	 */
+	private static final class Stage {
+
+		private final long capacity;
+
+		private final double rate;
+
+		private final AtomicLongArray bits;
+
+		private final long bitCount;
+
+		private final int hashCount;
+
+		private final AtomicLong entries = new AtomicLong();
+
+		Stage(long capacity, double rate) {
+			this.capacity = capacity;
+			this.rate = rate;
+			var optimalBits = (long) Math.ceil(-capacity * Math.log(rate) / (LN2 * LN2));
+			this.bits = new AtomicLongArray(Math.toIntExact((optimalBits + Long.SIZE - 1) / Long.SIZE));
+			this.bitCount = (long) bits.length() * Long.SIZE;
+			this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * LN2));
+		}
+
+		boolean mightContain(long hash) {
+			int h1 = (int) hash;
+			int h2 = (int) (hash >>> 32);
+			for (int i = 1; i <= hashCount; i++) {
+				var bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+				if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		void add(long hash) {
+			int h1 = (int) hash;
+			int h2 = (int) (hash >>> 32);
+			for (int i = 1; i <= hashCount; i++) {
+				var bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+				var word = (int) (bit >>> 6);
+				var mask = 1L << bit;
+				var current = bits.get(word);
+				while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+					current = bits.get(word);
+				}
+			}
+			entries.incrementAndGet();
+		}
+
+		double expectedFalsePositiveRate() {
+			return Math.pow(1 - Math.exp(-(double) hashCount * entries.get() / bitCount), hashCount);
+		}
+	}
+}
@@ -0,0 +1,265 @@
+package org.example.index;
+
+import org.example.repository.EventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory calendar of events. Event ids are kept in sorted primitive arrays, one per day, in a
+ * {@link NavigableMap} keyed by epoch day, so the events and per-day counts of a date range are read
+ * with one sub-map walk. Whole days before the requested page are skipped by their counts.
+ * <p>
+ * The calendar keeps the day of every event, so a moved or removed event leaves exactly the day it is on.
+ * The calendar is built in chunks once the application is ready and kept up to date by the event service,
+ * which refreshes changed events from the database once their changes are committed.
+ * Until it is built and when it is disabled, range lookups are left to the database.
+ */
+@Component
+public class EventCalendarIndex {
+
+	private static final Logger logger = LoggerFactory.getLogger(EventCalendarIndex.class);
+
+	private static final int LOAD_CHUNK_SIZE = 10_000;
+
+	private final EventRepository repository;
+
+	private final boolean enabled;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final NavigableMap<Long, DayBucket> days = new TreeMap<>();
+
+	private final Set<Long> changedWhileLoading = new HashSet<>();
+
+	private final Map<Long, Long> epochDays = new HashMap<>();
+
+	private final Object refreshLock = new Object();
+
+	private volatile boolean ready;
+
+	@Autowired
+	public EventCalendarIndex(EventRepository repository,
+							  @Value("${booking.search.calendar-index.enabled:false}") boolean enabled) {
+		this.repository = repository;
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Loads dates of all events. Events changed while loading are not overwritten with the loaded dates.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() {
+		if (!enabled) {
+			return;
+		}
+		var start = System.nanoTime();
+		var lastId = 0L;
+		var count = 0;
+		List<Object[]> chunk;
+		do {
+			chunk = repository.findDatesAfter(lastId, PageRequest.of(0, LOAD_CHUNK_SIZE));
+			lock.writeLock().lock();
+			try {
+				for (var row : chunk) {
+					var id = (Long) row[0];
+					if (!changedWhileLoading.contains(id)) {
+						insert(id, (LocalDate) row[1]);
+					}
+					lastId = id;
+				}
+			} finally {
+				lock.writeLock().unlock();
+			}
+			count += chunk.size();
+		} while (chunk.size() == LOAD_CHUNK_SIZE);
+		lock.writeLock().lock();
+		try {
+			changedWhileLoading.clear();
+			ready = true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+		logger.info("Indexed dates of {} events over {} days in {} ms.",
+				count, days.size(), (System.nanoTime() - start) / 1_000_000);
+	}
+
+	/**
+	 * Gets a page of ids of events held within the range, sorted by date and then by id.
+	 *
+	 * @param from   First day of the range.
+	 * @param to     Last day of the range.
+	 * @param offset Number of events to skip.
+	 * @param limit  Maximal number of ids.
+	 * @return List of event ids, or null if the lookup has to be made in the database.
+	 */
+	public List<Long> findIds(LocalDate from, LocalDate to, int offset, int limit) {
+		if (!ready) {
+			return null;
+		}
+		lock.readLock().lock();
+		try {
+			var ids = new ArrayList<Long>(limit);
+			var skip = offset;
+			for (var bucket : days.subMap(from.toEpochDay(), true, to.toEpochDay(), true).values()) {
+				if (skip >= bucket.size) {
+					skip -= bucket.size;
+					continue;
+				}
+				for (int i = skip; i < bucket.size && ids.size() < limit; i++) {
+					ids.add(bucket.ids[i]);
+				}
+				skip = 0;
+				if (ids.size() == limit) {
+					break;
+				}
+			}
+			return ids;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Gets numbers of events per day within the range. Days without events are left out.
+	 *
+	 * @param from First day of the range.
+	 * @param to   Last day of the range.
+	 * @return Numbers of events by day, or null if the lookup has to be made in the database.
+	 */
+	public SortedMap<LocalDate, Integer> countByDay(LocalDate from, LocalDate to) {
+		if (!ready) {
+			return null;
+		}
+		lock.readLock().lock();
+		try {
+			var counts = new TreeMap<LocalDate, Integer>();
+			days.subMap(from.toEpochDay(), true, to.toEpochDay(), true)
+					.forEach((day, bucket) -> counts.put(LocalDate.ofEpochDay(day), bucket.size));
+			return counts;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Adds the event to the calendar or moves it to another day.
+	 *
+	 * @param id   Event id.
+	 * @param date Event date.
+	 */
+	public void put(Long id, LocalDate date) {
+		if (!enabled) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			delete(id);
+			insert(id, date);
+			if (!ready) {
+				changedWhileLoading.add(id);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes the event from the calendar.
+	 *
+	 * @param id Event id.
+	 */
+	public void remove(Long id) {
+		put(id, null);
+	}
+
+	/**
+	 * Moves the event to its committed date, or removes the event if it no longer exists.
+	 * Refreshes are serialized, so one that reads an older date never overwrites a newer one.
+	 *
+	 * @param id Event id.
+	 */
+	public void refresh(Long id) {
+		if (!enabled) {
+			return;
+		}
+		synchronized (refreshLock) {
+			put(id, repository.findDateById(id).orElse(null));
+		}
+	}
+
+	public boolean isReady() {
+		return ready;
+	}
+
+	private void insert(Long id, LocalDate date) {
+		if (date != null) {
+			epochDays.put(id, date.toEpochDay());
+			days.computeIfAbsent(date.toEpochDay(), day -> new DayBucket()).add(id);
+		}
+	}
+
+	private void delete(Long id) {
+		var day = epochDays.remove(id);
+		if (day == null) {
+			return;
+		}
+		var bucket = days.get(day);
+		if (bucket != null && bucket.remove(id) && bucket.size == 0) {
+			days.remove(day);
+		}
+	}
+
+	/**
+	 * Sorted ids of the events of a day.
+	 */
+	private static final class DayBucket {
+
+		private long[] ids = new long[2];
+
+		private int size;
+
+		void add(long id) {
+			var position = Arrays.binarySearch(ids, 0, size, id);
+			if (position >= 0) {
+				return;
+			}
+			position = -position - 1;
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size * 2);
+			}
+			System.arraycopy(ids, position, ids, position + 1, size - position);
+			ids[position] = id;
+			size++;
+		}
+
+		boolean remove(long id) {
+			var position = Arrays.binarySearch(ids, 0, size, id);
+			if (position < 0) {
+				return false;
+			}
+			System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+			size--;
+			return true;
+		}
+	}
+}
@@ -0,0 +1,277 @@
+package org.example.index;
+
+import org.example.repository.EventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index of event titles answering 'contains' title searches without scanning the event table.
+ * Every lower-cased title is split into overlapping three character sequences and each of them maps to
+ * the sorted ids of the events with that trigram, stored as varint-encoded gaps in a byte array.
+ * A search walks the posting lists of the trigrams of the query together, led by the shortest one,
+ * and checks the ids found in all of them against the titles until the requested page of ids is filled.
+ * The lower-cased titles are kept packed into one char buffer.
+ * <p>
+ * The index is built in chunks once the application is ready and kept up to date by the event service,
+ * which refreshes changed events from the database once their changes are committed.
+ * Until it is built, when it is disabled and for queries shorter than a trigram, searches are left to the database.
+ */
+@Component
+public class EventTitleIndex {
+
+	private static final Logger logger = LoggerFactory.getLogger(EventTitleIndex.class);
+
+	static final int GRAM = 3;
+
+	private static final int LOAD_CHUNK_SIZE = 10_000;
+
+	private final EventRepository repository;
+
+	private final boolean enabled;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final PackedStrings titles = new PackedStrings();
+
+	private final Map<Long, PostingList> postings = new HashMap<>();
+
+	private final Set<Long> removedWhileLoading = new HashSet<>();
+
+	private final Object refreshLock = new Object();
+
+	private volatile boolean ready;
+
+	@Autowired
+	public EventTitleIndex(EventRepository repository,
+						   @Value("${booking.search.title-index.enabled:false}") boolean enabled) {
+		this.repository = repository;
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Loads titles of all events. Events changed while loading are not overwritten with the loaded titles.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() {
+		if (!enabled) {
+			return;
+		}
+		var start = System.nanoTime();
+		var lastId = 0L;
+		var count = 0;
+		List<Object[]> chunk;
+		do {
+			chunk = repository.findTitlesAfter(lastId, PageRequest.of(0, LOAD_CHUNK_SIZE));
+			lock.writeLock().lock();
+			try {
+				for (var row : chunk) {
+					var id = (Long) row[0];
+					if (!titles.containsKey(id) && !removedWhileLoading.contains(id)) {
+						insert(id, (String) row[1]);
+					}
+					lastId = id;
+				}
+			} finally {
+				lock.writeLock().unlock();
+			}
+			count += chunk.size();
+		} while (chunk.size() == LOAD_CHUNK_SIZE);
+		lock.writeLock().lock();
+		try {
+			removedWhileLoading.clear();
+			ready = true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+		logger.info("Indexed {} event titles with {} trigrams in {} ms.",
+				count, postings.size(), (System.nanoTime() - start) / 1_000_000);
+	}
+
+	/**
+	 * Gets a page of ids of events whose title contains the query, ignoring case, sorted by id.
+	 *
+	 * @param query  Event title or it's part.
+	 * @param offset Number of matching events to skip.
+	 * @param limit  Maximal number of ids.
+	 * @return List of event ids, or null if the search has to be made in the database.
+	 */
+	public List<Long> search(String query, int offset, int limit) {
+		if (!ready || query == null || query.length() < GRAM) {
+			return null;
+		}
+		var normalized = normalize(query);
+		lock.readLock().lock();
+		try {
+			var keys = trigrams(normalized);
+			var lists = new PostingList[keys.size()];
+			var i = 0;
+			for (var key : keys) {
+				var list = postings.get(key);
+				if (list == null) {
+					return List.of();
+				}
+				lists[i++] = list;
+			}
+			Arrays.sort(lists, (a, b) -> Integer.compare(a.size(), b.size()));
+			var cursors = new PostingList.Cursor[lists.length];
+			for (i = 0; i < lists.length; i++) {
+				cursors[i] = lists[i].cursor();
+			}
+
+			var ids = new ArrayList<Long>(limit);
+			var skipped = 0;
+			var lead = cursors[0];
+			candidates:
+			while (ids.size() < limit) {
+				var candidate = lead.next();
+				if (candidate < 0) {
+					break;
+				}
+				for (i = 1; i < cursors.length; i++) {
+					var id = cursors[i].advanceTo(candidate);
+					if (id < 0) {
+						break candidates;
+					}
+					if (id != candidate) {
+						//skip to the next id present in the other list and check all lists again
+						candidate = lead.advanceTo(id);
+						if (candidate < 0) {
+							break candidates;
+						}
+						i = 0;
+					}
+				}
+				//trigrams match in any order, the title has to contain the query as a whole
+				if (titles.contains(candidate, normalized) && skipped++ >= offset) {
+					ids.add(candidate);
+				}
+			}
+			return ids;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Adds the event to the index or replaces its title. An unchanged title leaves the posting lists as they are.
+	 *
+	 * @param id    Event id.
+	 * @param title Event title.
+	 */
+	public void put(Long id, String title) {
+		if (!enabled) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			if (title != null && titles.matches(id, normalize(title))) {
+				return;
+			}
+			delete(id);
+			insert(id, title);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes the event from the index.
+	 *
+	 * @param id Event id.
+	 */
+	public void remove(Long id) {
+		if (!enabled) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			delete(id);
+			if (!ready) {
+				removedWhileLoading.add(id);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Replaces the title of the event with its committed title, or removes the event if it no longer exists.
+	 * Refreshes are serialized, so one that reads an older title never overwrites a newer one.
+	 *
+	 * @param id Event id.
+	 */
+	public void refresh(Long id) {
+		if (!enabled) {
+			return;
+		}
+		synchronized (refreshLock) {
+			var title = repository.findTitleById(id);
+			if (title.isPresent()) {
+				put(id, title.get());
+			} else {
+				remove(id);
+			}
+		}
+	}
+
+	public boolean isReady() {
+		return ready;
+	}
+
+	private void insert(Long id, String title) {
+		if (title == null) {
+			return;
+		}
+		var normalized = normalize(title);
+		titles.put(id, normalized);
+		for (var key : trigrams(normalized)) {
+			postings.computeIfAbsent(key, k -> new PostingList()).add(id);
+		}
+	}
+
+	private void delete(Long id) {
+		var title = titles.remove(id);
+		if (title == null) {
+			return;
+		}
+		for (var key : trigrams(title)) {
+			var list = postings.get(key);
+			list.remove(id);
+			if (list.size() == 0) {
+				postings.remove(key);
+			}
+		}
+	}
+
+	private static String normalize(String text) {
+		return text.toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Gets the distinct trigrams of the text, each packed into a long as three 16-bit chars.
+	 */
+	private static Set<Long> trigrams(String text) {
+		var keys = new HashSet<Long>();
+		for (int i = 0; i + GRAM <= text.length(); i++) {
+			keys.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+		}
+		return keys;
+	}
+}
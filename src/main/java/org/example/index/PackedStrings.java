@@ -0,0 +1,246 @@
+package org.example.index;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Strings keyed by positive ids, packed into one byte buffer. Every string is stored as a two byte header
+ * with its length followed by its chars, one byte per char if all of them are Latin-1 and two bytes otherwise.
+ * Offsets of the strings are kept in pages of {@value #PAGE_SIZE} ids, so with dense ids, like the ones of
+ * a sequence, a string costs its bytes and four bytes of offset instead of a boxed map entry, a boxed key
+ * and a {@link String}. Space of replaced and removed strings is reclaimed once it makes up half of the buffer.
+ */
+final class PackedStrings {
+
+	static final int MAX_LENGTH = 0x7FFF;
+
+	static final int PAGE_SIZE = 1024;
+
+	private static final int PAGE_BITS = 10;
+
+	private static final int NONE = -1;
+
+	private static final int HEADER = 2;
+
+	private static final int WIDE = 0x8000;
+
+	/**
+	 * Pages of string offsets plus one by page number, zero for an id without a string.
+	 * The slot after the offsets holds the number of strings of the page, an empty page is dropped.
+	 */
+	private final Map<Long, int[]> pages = new HashMap<>();
+
+	private int size;
+
+	private byte[] bytes = new byte[256];
+
+	private int length;
+
+	private int garbage;
+
+	int size() {
+		return size;
+	}
+
+	boolean containsKey(long id) {
+		return offsetOf(id) != NONE;
+	}
+
+	/**
+	 * Gets the string of the id.
+	 *
+	 * @return String, or null if the id has none.
+	 */
+	String get(long id) {
+		var offset = offsetOf(id);
+		if (offset == NONE) {
+			return null;
+		}
+		var stringLength = lengthAt(offset);
+		if (!isWide(offset)) {
+			return new String(bytes, offset + HEADER, stringLength, StandardCharsets.ISO_8859_1);
+		}
+		var chars = new char[stringLength];
+		for (int i = 0; i < stringLength; i++) {
+			chars[i] = charAt(offset, i);
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * Checks whether the string of the id equals the text, without copying the string out of the buffer.
+	 */
+	boolean matches(long id, String text) {
+		var offset = offsetOf(id);
+		return offset != NONE && lengthAt(offset) == text.length() && regionMatches(offset, 0, text);
+	}
+
+	/**
+	 * Checks whether the string of the id contains the text, without copying the string out of the buffer.
+	 */
+	boolean contains(long id, String text) {
+		var offset = offsetOf(id);
+		if (offset == NONE) {
+			return false;
+		}
+		var last = lengthAt(offset) - text.length();
+		for (int from = 0; from <= last; from++) {
+			if (regionMatches(offset, from, text)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Stores the string of the id, replacing the previous one.
+	 *
+	 * @param id    Positive id.
+	 * @param value String of at most {@value #MAX_LENGTH} chars.
+	 */
+	void put(long id, String value) {
+		if (id <= 0) {
+			throw new IllegalArgumentException("Id must be positive: " + id);
+		}
+		if (value.length() > MAX_LENGTH) {
+			throw new IllegalArgumentException("String must not be longer than " + MAX_LENGTH + " chars: " + value.length());
+		}
+		var page = pages.computeIfAbsent(id >>> PAGE_BITS, number -> new int[PAGE_SIZE + 1]);
+		var previous = page[index(id)] - 1;
+		if (previous != NONE) {
+			garbage += sizeAt(previous);
+		} else {
+			page[PAGE_SIZE]++;
+			size++;
+		}
+		var wide = !isLatin1(value);
+		ensureCapacity(HEADER + (wide ? value.length() * 2 : value.length()));
+		page[index(id)] = length + 1;
+		var header = (wide ? WIDE : 0) | value.length();
+		bytes[length++] = (byte) (header >>> 8);
+		bytes[length++] = (byte) header;
+		for (int i = 0; i < value.length(); i++) {
+			var c = value.charAt(i);
+			if (wide) {
+				bytes[length++] = (byte) (c >>> 8);
+			}
+			bytes[length++] = (byte) c;
+		}
+		compactIfNeeded();
+	}
+
+	/**
+	 * Removes the string of the id.
+	 *
+	 * @return Removed string, or null if the id has none.
+	 */
+	String remove(long id) {
+		var offset = offsetOf(id);
+		if (offset == NONE) {
+			return null;
+		}
+		var removed = get(id);
+		garbage += sizeAt(offset);
+		var page = pages.get(id >>> PAGE_BITS);
+		page[index(id)] = 0;
+		if (--page[PAGE_SIZE] == 0) {
+			pages.remove(id >>> PAGE_BITS);
+		}
+		size--;
+		compactIfNeeded();
+		return removed;
+	}
+
+	/**
+	 * Gets the bytes held by the offset pages and the buffer, array headers left out.
+	 */
+	long memoryBytes() {
+		return pages.size() * (PAGE_SIZE + 1L) * Integer.BYTES + bytes.length;
+	}
+
+	private int offsetOf(long id) {
+		var page = pages.get(id >>> PAGE_BITS);
+		return page == null ? NONE : page[index(id)] - 1;
+	}
+
+	private static int index(long id) {
+		return (int) (id & (PAGE_SIZE - 1));
+	}
+
+	private int header(int offset) {
+		return ((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF);
+	}
+
+	private int lengthAt(int offset) {
+		return header(offset) & MAX_LENGTH;
+	}
+
+	private boolean isWide(int offset) {
+		return (header(offset) & WIDE) != 0;
+	}
+
+	private int sizeAt(int offset) {
+		return HEADER + (isWide(offset) ? lengthAt(offset) * 2 : lengthAt(offset));
+	}
+
+	private char charAt(int offset, int index) {
+		if (!isWide(offset)) {
+			return (char) (bytes[offset + HEADER + index] & 0xFF);
+		}
+		var position = offset + HEADER + index * 2;
+		return (char) (((bytes[position] & 0xFF) << 8) | (bytes[position + 1] & 0xFF));
+	}
+
+	private boolean regionMatches(int offset, int from, String text) {
+		for (int i = 0; i < text.length(); i++) {
+			if (charAt(offset, from + i) != text.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isLatin1(String value) {
+		for (int i = 0; i < value.length(); i++) {
+			if (value.charAt(i) > 0xFF) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void ensureCapacity(int needed) {
+		if (length + needed > bytes.length) {
+			var capacity = Math.max(bytes.length + (bytes.length >> 2), length + needed);
+			bytes = Arrays.copyOf(bytes, capacity);
+		}
+	}
+
+	/**
+	 * Copies the live strings to the start of a new buffer once replaced and removed ones take half of it.
+	 */
+	private void compactIfNeeded() {
+		if (garbage < 1024 || garbage * 2 < length) {
+			return;
+		}
+		var live = length - garbage;
+		var compacted = new byte[Math.max(256, live + (live >> 2))];
+		var used = 0;
+		for (var page : pages.values()) {
+			for (int i = 0; i < PAGE_SIZE; i++) {
+				if (page[i] != 0) {
+					var offset = page[i] - 1;
+					var stringSize = sizeAt(offset);
+					System.arraycopy(bytes, offset, compacted, used, stringSize);
+					page[i] = used + 1;
+					used += stringSize;
+				}
+			}
+		}
+		bytes = compacted;
+		length = used;
+		garbage = 0;
+	}
+}
@@ -0,0 +1,282 @@
+package org.example.index;
+
+import java.util.Arrays;
+
+/**
+ * Sorted set of ids stored as varint-encoded gaps between consecutive ids.
+ * Every {@value #SKIP_INTERVAL}th id is also kept with its position in a skip list, so a cursor jumps
+ * close to a far target instead of decoding every id on the way.
+ * Ids are expected to grow, so adding an id is an append. An id out of order goes to a small sorted delta
+ * and a removal leaves a tombstone, both are merged by cursors. The list is re-encoded only when the delta
+ * and the tombstones outgrow a fraction of the encoded ids, so every change costs amortized constant time.
+ */
+final class PostingList {
+
+	static final int SKIP_INTERVAL = 64;
+
+	static final int MIN_PENDING = 16;
+
+	static final int PENDING_RATIO = 8;
+
+	private byte[] data = new byte[4];
+
+	private int length;
+
+	private int encoded;
+
+	private long last;
+
+	private long[] skipIds = new long[0];
+
+	private long[] skipBases = new long[0];
+
+	private int[] skipOffsets = new int[0];
+
+	private int skips;
+
+	private long[] added = new long[0];
+
+	private int addedCount;
+
+	private long[] removed = new long[0];
+
+	private int removedCount;
+
+	int size() {
+		return encoded + addedCount - removedCount;
+	}
+
+	boolean contains(long id) {
+		return size() > 0 && cursor().advanceTo(id) == id;
+	}
+
+	void add(long id) {
+		if (encoded == 0 || id > last) {
+			append(id);
+			return;
+		}
+		var tombstone = Arrays.binarySearch(removed, 0, removedCount, id);
+		if (tombstone >= 0) {
+			removedCount = delete(removed, removedCount, tombstone);
+			return;
+		}
+		var position = Arrays.binarySearch(added, 0, addedCount, id);
+		if (position >= 0 || isEncoded(id)) {
+			return;
+		}
+		added = insert(added, addedCount, -position - 1, id);
+		addedCount++;
+		compactIfNeeded();
+	}
+
+	void remove(long id) {
+		var position = Arrays.binarySearch(added, 0, addedCount, id);
+		if (position >= 0) {
+			addedCount = delete(added, addedCount, position);
+			return;
+		}
+		var tombstone = Arrays.binarySearch(removed, 0, removedCount, id);
+		if (tombstone >= 0 || !isEncoded(id)) {
+			return;
+		}
+		removed = insert(removed, removedCount, -tombstone - 1, id);
+		removedCount++;
+		compactIfNeeded();
+	}
+
+	long[] toArray() {
+		var ids = new long[size()];
+		var cursor = cursor();
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = cursor.next();
+		}
+		return ids;
+	}
+
+	Cursor cursor() {
+		return new Cursor();
+	}
+
+	private boolean isEncoded(long id) {
+		return new EncodedCursor().advanceTo(id) == id;
+	}
+
+	private boolean isRemoved(long id) {
+		return removedCount > 0 && Arrays.binarySearch(removed, 0, removedCount, id) >= 0;
+	}
+
+	/**
+	 * Merges the delta and the tombstones into the encoded ids once they outgrow their share of the list.
+	 */
+	private void compactIfNeeded() {
+		if (addedCount + removedCount <= Math.max(MIN_PENDING, encoded / PENDING_RATIO)) {
+			return;
+		}
+		var ids = toArray();
+		length = 0;
+		encoded = 0;
+		last = 0;
+		skips = 0;
+		addedCount = 0;
+		removedCount = 0;
+		for (var id : ids) {
+			append(id);
+		}
+	}
+
+	private void append(long id) {
+		if (length + 10 > data.length) {
+			data = Arrays.copyOf(data, Math.max(data.length * 2, length + 10));
+		}
+		if (encoded % SKIP_INTERVAL == 0) {
+			if (skips == skipIds.length) {
+				var capacity = Math.max(4, skips * 2);
+				skipIds = Arrays.copyOf(skipIds, capacity);
+				skipBases = Arrays.copyOf(skipBases, capacity);
+				skipOffsets = Arrays.copyOf(skipOffsets, capacity);
+			}
+			skipIds[skips] = id;
+			skipBases[skips] = last;
+			skipOffsets[skips] = length;
+			skips++;
+		}
+		var gap = id - last;
+		while ((gap & ~0x7FL) != 0) {
+			data[length++] = (byte) ((gap & 0x7F) | 0x80);
+			gap >>>= 7;
+		}
+		data[length++] = (byte) gap;
+		last = id;
+		encoded++;
+	}
+
+	private static long[] insert(long[] ids, int count, int position, long id) {
+		var target = count == ids.length ? Arrays.copyOf(ids, Math.max(4, count * 2)) : ids;
+		System.arraycopy(ids, position, target, position + 1, count - position);
+		target[position] = id;
+		return target;
+	}
+
+	private static int delete(long[] ids, int count, int position) {
+		System.arraycopy(ids, position + 1, ids, position, count - position - 1);
+		return count - 1;
+	}
+
+	/**
+	 * Forward-only reader of the ids, merging the encoded ids without tombstones with the delta.
+	 */
+	final class Cursor {
+
+		private static final long UNREAD = Long.MIN_VALUE;
+
+		private final EncodedCursor encodedCursor = new EncodedCursor();
+
+		private long encodedHead = UNREAD;
+
+		private int addedIndex;
+
+		private long current;
+
+		/**
+		 * Reads the next id.
+		 *
+		 * @return Id, or -1 at the end of the list.
+		 */
+		long next() {
+			if (encodedHead == UNREAD) {
+				encodedHead = live(encodedCursor.next());
+			}
+			var addedHead = addedIndex < addedCount ? added[addedIndex] : -1;
+			if (encodedHead < 0 && addedHead < 0) {
+				return -1;
+			}
+			if (addedHead < 0 || (encodedHead >= 0 && encodedHead < addedHead)) {
+				current = encodedHead;
+				encodedHead = UNREAD;
+			} else {
+				current = addedHead;
+				addedIndex++;
+			}
+			return current;
+		}
+
+		/**
+		 * Moves to the first id not less than the target, staying on the current id if it is not less.
+		 *
+		 * @return Id, or -1 if there is none.
+		 */
+		long advanceTo(long target) {
+			if (current >= target) {
+				return current;
+			}
+			if (encodedHead == UNREAD || encodedHead >= 0 && encodedHead < target) {
+				encodedHead = live(encodedCursor.advanceTo(target));
+			}
+			if (addedIndex < addedCount && added[addedIndex] < target) {
+				var position = Arrays.binarySearch(added, addedIndex, addedCount, target);
+				addedIndex = position < 0 ? -position - 1 : position;
+			}
+			return next();
+		}
+
+		/**
+		 * Skips tombstones, starting with the given encoded id.
+		 */
+		private long live(long id) {
+			while (id >= 0 && isRemoved(id)) {
+				id = encodedCursor.next();
+			}
+			return id;
+		}
+	}
+
+	/**
+	 * Forward-only reader of the encoded ids, tombstones included.
+	 */
+	private final class EncodedCursor {
+
+		private int offset;
+
+		private int index;
+
+		private long current;
+
+		long next() {
+			if (index == encoded) {
+				return -1;
+			}
+			long gap = 0;
+			int shift = 0;
+			byte b;
+			do {
+				b = data[offset++];
+				gap |= (long) (b & 0x7F) << shift;
+				shift += 7;
+			} while (b < 0);
+			index++;
+			current += gap;
+			return current;
+		}
+
+		long advanceTo(long target) {
+			if (current < target && skips > 0) {
+				var skip = Arrays.binarySearch(skipIds, 0, skips, target);
+				if (skip < 0) {
+					//last skipped id below the target
+					skip = -skip - 2;
+				}
+				if (skip >= 0 && skip * SKIP_INTERVAL > index) {
+					offset = skipOffsets[skip];
+					index = skip * SKIP_INTERVAL;
+					current = skipBases[skip];
+				}
+			}
+			while (current < target) {
+				if (next() < 0) {
+					return -1;
+				}
+			}
+			return current;
+		}
+	}
+}
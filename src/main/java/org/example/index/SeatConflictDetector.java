@@ -0,0 +1,94 @@
+package org.example.index;
+
+import java.util.Arrays;
+
+/**
+ * Detection of rows that book the same place of the same event.
+ * Rows are ordered by {@code (eventId, place)} with a stable LSD radix sort over primitive arrays,
+ * then equal seats are adjacent and found by one linear scan. Byte positions shared by all keys
+ * are skipped, so small ids and place numbers take only a few passes over the data.
+ */
+public final class SeatConflictDetector {
+
+	private static final int RADIX_BITS = 8;
+	private static final int RADIX = 1 << RADIX_BITS;
+	private static final int RADIX_MASK = RADIX - 1;
+
+	private SeatConflictDetector() {
+	}
+
+	/**
+	 * Finds rows that book the same seat as an earlier row.
+	 *
+	 * @param eventIds Event ids of the rows, must not be negative.
+	 * @param places   Place numbers of the rows, must not be negative.
+	 * @param length   Number of rows.
+	 * @return For every row the index of the first earlier row with the same seat, or -1 if there is none.
+	 */
+	public static int[] findDuplicates(long[] eventIds, int[] places, int length) {
+		var duplicateOf = new int[length];
+		Arrays.fill(duplicateOf, -1);
+		if (length < 2) {
+			return duplicateOf;
+		}
+		var order = new int[length];
+		for (int i = 0; i < length; i++) {
+			order[i] = i;
+		}
+		var keys = new long[length];
+		var keyBuffer = new long[length];
+		var orderBuffer = new int[length];
+
+		//stable sort by place first and then by event, so rows end up ordered by event, place and row
+		for (int i = 0; i < length; i++) {
+			keys[i] = places[i];
+		}
+		sort(keys, order, keyBuffer, orderBuffer, length, Integer.BYTES);
+		for (int i = 0; i < length; i++) {
+			keys[i] = eventIds[order[i]];
+		}
+		sort(keys, order, keyBuffer, orderBuffer, length, Long.BYTES);
+
+		var first = order[0];
+		for (int i = 1; i < length; i++) {
+			var row = order[i];
+			if (keys[i] == keys[i - 1] && places[row] == places[order[i - 1]]) {
+				duplicateOf[row] = first;
+			} else {
+				first = row;
+			}
+		}
+		return duplicateOf;
+	}
+
+	/**
+	 * Sorts keys together with the row order by the given number of low bytes of the keys.
+	 * Results of every pass are copied back, so the sorted data always ends up in the passed arrays.
+	 */
+	private static void sort(long[] keys, int[] order, long[] keyBuffer, int[] orderBuffer, int length, int bytes) {
+		var counts = new int[RADIX];
+		for (int shift = 0; shift < bytes * Byte.SIZE; shift += RADIX_BITS) {
+			Arrays.fill(counts, 0);
+			for (int i = 0; i < length; i++) {
+				counts[(int) (keys[i] >>> shift) & RADIX_MASK]++;
+			}
+			if (counts[(int) (keys[0] >>> shift) & RADIX_MASK] == length) {
+				//all keys share this byte
+				continue;
+			}
+			var offset = 0;
+			for (int digit = 0; digit < RADIX; digit++) {
+				var count = counts[digit];
+				counts[digit] = offset;
+				offset += count;
+			}
+			for (int i = 0; i < length; i++) {
+				var position = counts[(int) (keys[i] >>> shift) & RADIX_MASK]++;
+				keyBuffer[position] = keys[i];
+				orderBuffer[position] = order[i];
+			}
+			System.arraycopy(keyBuffer, 0, keys, 0, length);
+			System.arraycopy(orderBuffer, 0, order, 0, length);
+		}
+	}
+}
@@ -0,0 +1,148 @@
+package org.example.index;
+
+import org.example.repository.TicketRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory index of occupied places per event.
+ * Each event is represented by a sparse bitmap split into fixed-size pages, so a taken place
+ * is detected without a database round trip. Bitmaps are loaded lazily from the ticket table
+ * on the first access to the event and places are claimed with compare-and-set.
+ */
+@Component
+public class SeatOccupancyIndex {
+
+	private static final Logger logger = LoggerFactory.getLogger(SeatOccupancyIndex.class);
+
+	private final TicketRepository ticketRepository;
+
+	private final ConcurrentMap<Long, SeatBitmap> bitmaps = new ConcurrentHashMap<>();
+
+	@Autowired
+	public SeatOccupancyIndex(TicketRepository ticketRepository) {
+		this.ticketRepository = ticketRepository;
+	}
+
+	/**
+	 * Atomically claims the place for the event.
+	 *
+	 * @param eventId Event id.
+	 * @param place   Place number.
+	 * @return true if the place was free and is now claimed, false if it has already been taken.
+	 */
+	public boolean claim(Long eventId, int place) {
+		return bitmapFor(eventId).set(checkPlace(place));
+	}
+
+	/**
+	 * Releases previously claimed place of the event.
+	 *
+	 * @param eventId Event id.
+	 * @param place   Place number.
+	 */
+	public void release(Long eventId, int place) {
+		var bitmap = bitmaps.get(eventId);
+		if (bitmap != null) {
+			bitmap.clear(checkPlace(place));
+		}
+	}
+
+	/**
+	 * Checks whether the place of the event is taken.
+	 *
+	 * @param eventId Event id.
+	 * @param place   Place number.
+	 * @return true if the place is taken.
+	 */
+	public boolean isTaken(Long eventId, int place) {
+		return bitmapFor(eventId).get(checkPlace(place));
+	}
+
+	/**
+	 * Drops the bitmap of the event. Next access to the event reloads it from the database.
+	 *
+	 * @param eventId Event id.
+	 */
+	public void evict(Long eventId) {
+		bitmaps.remove(eventId);
+	}
+
+	private SeatBitmap bitmapFor(Long eventId) {
+		return bitmaps.computeIfAbsent(eventId, this::load);
+	}
+
+	private SeatBitmap load(Long eventId) {
+		var bitmap = new SeatBitmap();
+		var places = ticketRepository.findPlacesByEventId(eventId);
+		places.forEach(bitmap::set);
+		logger.debug("Loaded {} occupied places for event {}.", places.size(), eventId);
+		return bitmap;
+	}
+
+	private static int checkPlace(int place) {
+		if (place < 0) {
+			throw new IllegalArgumentException("Place number must not be negative: " + place);
+		}
+		return place;
+	}
+
+	/**
+	 * Sparse bitmap of places. Pages of {@link #PAGE_BITS} bits are allocated on the first write.
+	 */
+	static final class SeatBitmap {
+
+		private static final int PAGE_SHIFT = 12;
+		private static final int PAGE_BITS = 1 << PAGE_SHIFT;
+		private static final int PAGE_MASK = PAGE_BITS - 1;
+
+		private final ConcurrentMap<Integer, AtomicLongArray> pages = new ConcurrentHashMap<>();
+
+		boolean get(int place) {
+			var page = pages.get(place >>> PAGE_SHIFT);
+			if (page == null) {
+				return false;
+			}
+			int bit = place & PAGE_MASK;
+			return (page.get(bit >>> 6) & (1L << bit)) != 0;
+		}
+
+		boolean set(int place) {
+			var page = pages.computeIfAbsent(place >>> PAGE_SHIFT, key -> new AtomicLongArray(PAGE_BITS / Long.SIZE));
+			int bit = place & PAGE_MASK;
+			int word = bit >>> 6;
+			long mask = 1L << bit;
+			while (true) {
+				long current = page.get(word);
+				if ((current & mask) != 0) {
+					return false;
+				}
+				if (page.compareAndSet(word, current, current | mask)) {
+					return true;
+				}
+			}
+		}
+
+		void clear(int place) {
+			var page = pages.get(place >>> PAGE_SHIFT);
+			if (page == null) {
+				return;
+			}
+			int bit = place & PAGE_MASK;
+			int word = bit >>> 6;
+			long mask = 1L << bit;
+			while (true) {
+				long current = page.get(word);
+				if ((current & mask) == 0 || page.compareAndSet(word, current, current & ~mask)) {
+					return;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,408 @@
+package org.example.index;
+
+import org.example.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory prefix trie of user name tokens for autocomplete.
+ * Names are lower-cased and split into letter and digit tokens. Nodes live in parallel primitive arrays:
+ * the char of a node, its first child and its next sibling, with siblings kept in char order, so a node
+ * costs a few array slots instead of a map. A node ending a token points to a {@link PostingList}
+ * of the ids of the users with that token.
+ * <p>
+ * Suggestions are collected depth-first under the node of the prefix, so they come in token order and then by id,
+ * and the walk stops once enough users have been found. Nodes of removed tokens are kept and reused.
+ * The trie keeps the indexed name of every user packed into one char buffer, so a renamed or removed user
+ * loses exactly the tokens it has.
+ * The trie is built in chunks once the application is ready and kept up to date by the user service,
+ * which refreshes changed users from the database once their changes are committed.
+ * Until it is built and when it is disabled, suggestions are left to the database.
+ */
+@Component
+public class UserNameTrie {
+
+	private static final Logger logger = LoggerFactory.getLogger(UserNameTrie.class);
+
+	private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+	private static final int ROOT = 0;
+
+	private static final int NONE = -1;
+
+	private static final int LOAD_CHUNK_SIZE = 10_000;
+
+	private final UserRepository repository;
+
+	private final boolean enabled;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Set<Long> changedWhileLoading = new HashSet<>();
+
+	private final PackedStrings names = new PackedStrings();
+
+	private final Object refreshLock = new Object();
+
+	private char[] labels = new char[1024];
+
+	private int[] firstChild = new int[1024];
+
+	private int[] nextSibling = new int[1024];
+
+	private int[] postingOf = new int[1024];
+
+	private int nodes;
+
+	private PostingList[] postings = new PostingList[256];
+
+	private int postingCount;
+
+	private volatile boolean ready;
+
+	@Autowired
+	public UserNameTrie(UserRepository repository,
+						@Value("${booking.search.name-trie.enabled:false}") boolean enabled) {
+		this.repository = repository;
+		this.enabled = enabled;
+		newNode('\0');
+	}
+
+	/**
+	 * Loads names of all users. Users changed while loading are not overwritten with the loaded names.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() {
+		if (!enabled) {
+			return;
+		}
+		var start = System.nanoTime();
+		var lastId = 0L;
+		var count = 0;
+		List<Object[]> chunk;
+		do {
+			chunk = repository.findNamesAfter(lastId, PageRequest.of(0, LOAD_CHUNK_SIZE));
+			lock.writeLock().lock();
+			try {
+				for (var row : chunk) {
+					var id = (Long) row[0];
+					if (!changedWhileLoading.contains(id)) {
+						insert(id, (String) row[1]);
+					}
+					lastId = id;
+				}
+			} finally {
+				lock.writeLock().unlock();
+			}
+			count += chunk.size();
+		} while (chunk.size() == LOAD_CHUNK_SIZE);
+		lock.writeLock().lock();
+		try {
+			changedWhileLoading.clear();
+			ready = true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+		logger.info("Indexed names of {} users with {} trie nodes in {} ms.",
+				count, nodes, (System.nanoTime() - start) / 1_000_000);
+	}
+
+	/**
+	 * Gets ids of users with a name token starting with the last token of the prefix and containing
+	 * every preceding token of the prefix as a whole. Users are sorted by the matching token and then by id.
+	 *
+	 * @param prefix User name prefix, e.g. "jul" or "jules mc".
+	 * @param limit  Maximal number of ids.
+	 * @return List of user ids, or null if the lookup has to be made in the database.
+	 */
+	public List<Long> suggest(String prefix, int limit) {
+		if (!ready || prefix == null) {
+			return null;
+		}
+		var tokens = new ArrayList<>(tokens(prefix));
+		if (tokens.isEmpty()) {
+			return List.of();
+		}
+		lock.readLock().lock();
+		try {
+			var required = new PostingList[tokens.size() - 1];
+			for (int i = 0; i < required.length; i++) {
+				var node = find(tokens.get(i));
+				if (node == NONE || postingOf[node] == NONE) {
+					return List.of();
+				}
+				required[i] = postings[postingOf[node]];
+			}
+			var start = find(tokens.get(tokens.size() - 1));
+			if (start == NONE) {
+				return List.of();
+			}
+
+			var ids = new LinkedHashSet<Long>();
+			var stack = new int[64];
+			var top = 0;
+			stack[top++] = start;
+			while (top > 0 && ids.size() < limit) {
+				var node = stack[--top];
+				if (postingOf[node] != NONE) {
+					collect(postings[postingOf[node]], required, ids, limit);
+				}
+				//push children in reverse, so the smallest char is visited first
+				var first = top;
+				for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+					if (top == stack.length) {
+						stack = Arrays.copyOf(stack, top * 2);
+					}
+					stack[top++] = child;
+				}
+				for (int i = first, j = top - 1; i < j; i++, j--) {
+					var swap = stack[i];
+					stack[i] = stack[j];
+					stack[j] = swap;
+				}
+			}
+			return new ArrayList<>(ids);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Adds the user to the trie or replaces its name.
+	 *
+	 * @param id   User id.
+	 * @param name User name.
+	 */
+	public void put(Long id, String name) {
+		if (!enabled) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			delete(id);
+			insert(id, name);
+			if (!ready) {
+				changedWhileLoading.add(id);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes the user from the trie.
+	 *
+	 * @param id User id.
+	 */
+	public void remove(Long id) {
+		put(id, null);
+	}
+
+	/**
+	 * Replaces the name of the user with its committed name, or removes the user if it no longer exists.
+	 * Refreshes are serialized, so one that reads an older name never overwrites a newer one.
+	 *
+	 * @param id User id.
+	 */
+	public void refresh(Long id) {
+		if (!enabled) {
+			return;
+		}
+		synchronized (refreshLock) {
+			put(id, repository.findNameById(id).orElse(null));
+		}
+	}
+
+	/**
+	 * Splits the text into the lower-cased tokens the trie indexes and matches, without repeating a token.
+	 *
+	 * @param text Name or prefix.
+	 * @return Tokens in the order of their first occurrence.
+	 */
+	public static List<String> tokenize(String text) {
+		return new ArrayList<>(tokens(text));
+	}
+
+	/**
+	 * Checks whether the name is suggested for the prefix tokens the way {@link #suggest} matches names:
+	 * a name token starts with the last prefix token and every preceding prefix token is a name token as a whole.
+	 *
+	 * @param name   User name.
+	 * @param prefix Tokens of the prefix, see {@link #tokenize}.
+	 * @return Flag whether the name matches.
+	 */
+	public static boolean matches(String name, List<String> prefix) {
+		if (name == null || prefix.isEmpty()) {
+			return false;
+		}
+		var nameTokens = tokens(name);
+		for (int i = 0; i < prefix.size() - 1; i++) {
+			if (!nameTokens.contains(prefix.get(i))) {
+				return false;
+			}
+		}
+		var last = prefix.get(prefix.size() - 1);
+		for (var token : nameTokens) {
+			if (token.startsWith(last)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public boolean isReady() {
+		return ready;
+	}
+
+	/**
+	 * Gets the number of trie nodes.
+	 */
+	public int getNodeCount() {
+		return nodes;
+	}
+
+	/**
+	 * Gets the bytes held by the indexed names.
+	 */
+	long getNameBytes() {
+		return names.memoryBytes();
+	}
+
+	private void collect(PostingList list, PostingList[] required, Set<Long> ids, int limit) {
+		var cursor = list.cursor();
+		for (var id = cursor.next(); id >= 0 && ids.size() < limit; id = cursor.next()) {
+			if (containedInAll(required, id)) {
+				ids.add(id);
+			}
+		}
+	}
+
+	private static boolean containedInAll(PostingList[] lists, long id) {
+		for (var list : lists) {
+			if (!list.contains(id)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void insert(Long id, String name) {
+		if (name == null) {
+			return;
+		}
+		names.put(id, name);
+		for (var token : tokens(name)) {
+			var node = ROOT;
+			for (int i = 0; i < token.length(); i++) {
+				node = child(node, token.charAt(i));
+			}
+			if (postingOf[node] == NONE) {
+				if (postingCount == postings.length) {
+					postings = Arrays.copyOf(postings, postingCount * 2);
+				}
+				postings[postingCount] = new PostingList();
+				postingOf[node] = postingCount++;
+			}
+			postings[postingOf[node]].add(id);
+		}
+	}
+
+	private void delete(Long id) {
+		var name = names.remove(id);
+		if (name == null) {
+			return;
+		}
+		for (var token : tokens(name)) {
+			var node = find(token);
+			if (node != NONE && postingOf[node] != NONE) {
+				postings[postingOf[node]].remove(id);
+			}
+		}
+	}
+
+	/**
+	 * Finds the node of the token.
+	 *
+	 * @return Node, or {@link #NONE} if the token is not in the trie.
+	 */
+	private int find(String token) {
+		var node = ROOT;
+		for (int i = 0; i < token.length() && node != NONE; i++) {
+			var c = token.charAt(i);
+			var child = firstChild[node];
+			while (child != NONE && labels[child] < c) {
+				child = nextSibling[child];
+			}
+			node = child != NONE && labels[child] == c ? child : NONE;
+		}
+		return node;
+	}
+
+	/**
+	 * Gets the child of the node with the char, adding it at its place among the siblings if there is none.
+	 */
+	private int child(int node, char c) {
+		var previous = NONE;
+		var child = firstChild[node];
+		while (child != NONE && labels[child] < c) {
+			previous = child;
+			child = nextSibling[child];
+		}
+		if (child != NONE && labels[child] == c) {
+			return child;
+		}
+		var added = newNode(c);
+		nextSibling[added] = child;
+		if (previous == NONE) {
+			firstChild[node] = added;
+		} else {
+			nextSibling[previous] = added;
+		}
+		return added;
+	}
+
+	private int newNode(char c) {
+		if (nodes == labels.length) {
+			var capacity = nodes * 2;
+			labels = Arrays.copyOf(labels, capacity);
+			firstChild = Arrays.copyOf(firstChild, capacity);
+			nextSibling = Arrays.copyOf(nextSibling, capacity);
+			postingOf = Arrays.copyOf(postingOf, capacity);
+		}
+		labels[nodes] = c;
+		firstChild[nodes] = NONE;
+		nextSibling[nodes] = NONE;
+		postingOf[nodes] = NONE;
+		return nodes++;
+	}
+
+	/**
+	 * Gets the distinct lower-cased tokens of the text in their order.
+	 */
+	private static Set<String> tokens(String text) {
+		var tokens = new LinkedHashSet<String>();
+		for (var token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+			if (!token.isEmpty()) {
+				tokens.add(token);
+			}
+		}
+		return tokens;
+	}
+}
@@ -0,0 +1,50 @@
+package org.example.mapper;
+
+import org.example.dto.AccountDto;
+import org.example.dto.EventDto;
+import org.example.dto.TicketDto;
+import org.example.dto.UserDto;
+import org.example.model.Account;
+import org.example.model.Event;
+import org.example.model.Ticket;
+import org.example.model.User;
+
+import java.util.List;
+
+/**
+ * Maps entities to DTOs and back. Null is mapped to null.
+ * The implementation is chosen by the {@code mapping.engine} property: {@code generated} (default) for
+ * {@link GeneratedDtoMapper} or {@code modelmapper} for the reflective {@link org.modelmapper.ModelMapper}.
+ */
+public interface DtoMapper {
+
+	UserDto toDto(User user);
+
+	User toEntity(UserDto user);
+
+	List<UserDto> toUserDtos(Iterable<User> users);
+
+	EventDto toDto(Event event);
+
+	Event toEntity(EventDto event);
+
+	List<EventDto> toEventDtos(Iterable<Event> events);
+
+	/**
+	 * Maps the ticket together with its user and event.
+	 */
+	TicketDto toDto(Ticket ticket);
+
+	/**
+	 * Maps the ticket together with its user and event, which become detached references if only their id is set.
+	 */
+	Ticket toEntity(TicketDto ticket);
+
+	List<TicketDto> toTicketDtos(Iterable<Ticket> tickets);
+
+	List<Ticket> toTickets(Iterable<TicketDto> tickets);
+
+	AccountDto toDto(Account account);
+
+	Account toEntity(AccountDto account);
+}
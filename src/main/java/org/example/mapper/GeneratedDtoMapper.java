@@ -0,0 +1,34 @@
+package org.example.mapper;
+
+import org.example.dto.AccountDto;
+import org.example.dto.TicketDto;
+import org.example.model.Account;
+import org.example.model.Ticket;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Mapper generated at compile time, which copies the fields with plain getter and setter calls.
+ * Target properties without a source are reported as errors, so a field added to one side only breaks the build.
+ */
+@Mapper(unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface GeneratedDtoMapper extends DtoMapper {
+
+	/**
+	 * {@inheritDoc}
+	 * The number of balance shards is managed by the account service and left at its default.
+	 */
+	@Override
+	@Mapping(target = "shards", ignore = true)
+	Account toEntity(AccountDto account);
+
+	/**
+	 * {@inheritDoc}
+	 * The user email and the event date of the ticket are copied by the ticket service and left empty.
+	 */
+	@Override
+	@Mapping(target = "userEmail", ignore = true)
+	@Mapping(target = "eventDate", ignore = true)
+	Ticket toEntity(TicketDto ticket);
+}
@@ -0,0 +1,144 @@
+package org.example.mapper.impl;
+
+import org.example.dto.AccountDto;
+import org.example.dto.EventDto;
+import org.example.dto.TicketDto;
+import org.example.dto.UserDto;
+import org.example.mapper.DtoMapper;
+import org.example.model.Account;
+import org.example.model.Event;
+import org.example.model.Ticket;
+import org.example.model.User;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.TypeToken;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Mapper matching properties by reflection with {@link ModelMapper}.
+ */
+public class ModelMapperDtoMapper implements DtoMapper {
+
+	private static final Type USER_DTO_LIST = new TypeToken<List<UserDto>>(){}.getType();
+
+	private static final Type EVENT_DTO_LIST = new TypeToken<List<EventDto>>(){}.getType();
+
+	private static final Type TICKET_DTO_LIST = new TypeToken<List<TicketDto>>(){}.getType();
+
+	private static final Type TICKET_LIST = new TypeToken<List<Ticket>>(){}.getType();
+
+	private final ModelMapper mapper;
+
+	public ModelMapperDtoMapper(ModelMapper mapper) {
+		this.mapper = mapper;
+		//the user email and the event date copied to the ticket would match the ones of its user and event
+		mapper.emptyTypeMap(Ticket.class, TicketDto.class).addMappings(ticket -> {
+			ticket.map(Ticket::getId, TicketDto::setId);
+			ticket.map(Ticket::getUser, TicketDto::setUser);
+			ticket.map(Ticket::getEvent, TicketDto::setEvent);
+			ticket.map(Ticket::getCategory, TicketDto::setCategory);
+			ticket.map(Ticket::getPlace, TicketDto::setPlace);
+		});
+		mapper.typeMap(TicketDto.class, Ticket.class).addMappings(ticket -> {
+			ticket.skip(Ticket::setUserEmail);
+			ticket.skip(Ticket::setEventDate);
+		});
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public UserDto toDto(User user) {
+		return user == null ? null : mapper.map(user, UserDto.class);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public User toEntity(UserDto user) {
+		return user == null ? null : mapper.map(user, User.class);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<UserDto> toUserDtos(Iterable<User> users) {
+		return users == null ? null : mapper.map(users, USER_DTO_LIST);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public EventDto toDto(Event event) {
+		return event == null ? null : mapper.map(event, EventDto.class);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Event toEntity(EventDto event) {
+		return event == null ? null : mapper.map(event, Event.class);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<EventDto> toEventDtos(Iterable<Event> events) {
+		return events == null ? null : mapper.map(events, EVENT_DTO_LIST);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public TicketDto toDto(Ticket ticket) {
+		return ticket == null ? null : mapper.map(ticket, TicketDto.class);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Ticket toEntity(TicketDto ticket) {
+		return ticket == null ? null : mapper.map(ticket, Ticket.class);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<TicketDto> toTicketDtos(Iterable<Ticket> tickets) {
+		return tickets == null ? null : mapper.map(tickets, TICKET_DTO_LIST);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<Ticket> toTickets(Iterable<TicketDto> tickets) {
+		return tickets == null ? null : mapper.map(tickets, TICKET_LIST);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public AccountDto toDto(Account account) {
+		return account == null ? null : mapper.map(account, AccountDto.class);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Account toEntity(AccountDto account) {
+		return account == null ? null : mapper.map(account, Account.class);
+	}
+}
@@ -6,6 +6,11 @@ import javax.persistence.Id;
 import javax.persistence.Table;
 import java.math.BigDecimal;
 
+/**
+ * Account entity. Balance is the snapshot of all rolled up refill entries less the charges debited from it,
+ * the current balance also includes pending {@link AccountEntry} amounts and,
+ * for accounts split into {@link AccountShard} sub-balances, the balances of all shards.
+ */
 @Entity
 @Table(name = "ACCOUNTS")
 public class Account {
@@ -17,6 +22,9 @@ public class Account {
 	@Column(name = "BALANCE")
 	private BigDecimal balance;
 
+	@Column(name = "SHARDS")
+	private int shards;
+
 	public Account() {
 	}
 
@@ -41,4 +49,12 @@ public class Account {
 		this.balance = balance;
 	}
 
+	public int getShards() {
+		return shards;
+	}
+
+	public void setShards(int shards) {
+		this.shards = shards;
+	}
+
 }
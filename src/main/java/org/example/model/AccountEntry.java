@@ -0,0 +1,87 @@
+package org.example.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Account ledger entry of a refill. Entries are never updated except for being marked as rolled up
+ * into the account balance snapshot. Charges debit the snapshot directly and have no entries.
+ */
+@Entity
+@Table(name = "ACCOUNT_ENTRIES")
+public class AccountEntry {
+
+	@Id
+	@SequenceGenerator(name = "ACCOUNT_ENTRIES_ID_SEQ", sequenceName = "ACCOUNT_ENTRIES_ID_SEQ", allocationSize = 50)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ACCOUNT_ENTRIES_ID_SEQ")
+	@Column(name = "ID")
+	private Long id;
+
+	@Column(name = "ACCOUNT_ID")
+	private Long accountId;
+
+	@Column(name = "AMOUNT")
+	private BigDecimal amount;
+
+	@Column(name = "CREATED_AT")
+	private LocalDateTime createdAt;
+
+	@Column(name = "ROLLED_UP")
+	private boolean rolledUp;
+
+	public AccountEntry() {
+	}
+
+	public AccountEntry(Long accountId, BigDecimal amount) {
+		this.accountId = accountId;
+		this.amount = amount;
+		this.createdAt = LocalDateTime.now();
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public Long getAccountId() {
+		return accountId;
+	}
+
+	public void setAccountId(Long accountId) {
+		this.accountId = accountId;
+	}
+
+	public BigDecimal getAmount() {
+		return amount;
+	}
+
+	public void setAmount(BigDecimal amount) {
+		this.amount = amount;
+	}
+
+	public LocalDateTime getCreatedAt() {
+		return createdAt;
+	}
+
+	public void setCreatedAt(LocalDateTime createdAt) {
+		this.createdAt = createdAt;
+	}
+
+	public boolean isRolledUp() {
+		return rolledUp;
+	}
+
+	public void setRolledUp(boolean rolledUp) {
+		this.rolledUp = rolledUp;
+	}
+}
@@ -0,0 +1,62 @@
+package org.example.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+import java.math.BigDecimal;
+
+/**
+ * Sub-balance of a hot account. Shards of one account are numbered from zero
+ * and are only changed with conditional bulk updates, so debits of different shards never wait for each other.
+ */
+@Entity
+@Table(name = "ACCOUNT_SHARDS")
+@IdClass(AccountShardId.class)
+public class AccountShard {
+
+	@Id
+	@Column(name = "ACCOUNT_ID")
+	private Long accountId;
+
+	@Id
+	@Column(name = "SHARD")
+	private int shard;
+
+	@Column(name = "BALANCE")
+	private BigDecimal balance;
+
+	public AccountShard() {
+	}
+
+	public AccountShard(Long accountId, int shard, BigDecimal balance) {
+		this.accountId = accountId;
+		this.shard = shard;
+		this.balance = balance;
+	}
+
+	public Long getAccountId() {
+		return accountId;
+	}
+
+	public void setAccountId(Long accountId) {
+		this.accountId = accountId;
+	}
+
+	public int getShard() {
+		return shard;
+	}
+
+	public void setShard(int shard) {
+		this.shard = shard;
+	}
+
+	public BigDecimal getBalance() {
+		return balance;
+	}
+
+	public void setBalance(BigDecimal balance) {
+		this.balance = balance;
+	}
+}
@@ -0,0 +1,47 @@
+package org.example.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Composite id of {@link AccountShard}.
+ */
+public class AccountShardId implements Serializable {
+
+	private Long accountId;
+
+	private int shard;
+
+	public AccountShardId() {
+	}
+
+	public AccountShardId(Long accountId, int shard) {
+		this.accountId = accountId;
+		this.shard = shard;
+	}
+
+	public Long getAccountId() {
+		return accountId;
+	}
+
+	public int getShard() {
+		return shard;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+		var that = (AccountShardId) o;
+		return shard == that.shard && Objects.equals(accountId, that.accountId);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(accountId, shard);
+	}
+}
@@ -2,14 +2,15 @@ package org.example.model;
 
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
-import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -25,8 +26,9 @@ import java.time.LocalDate;
 public class Event {
 
 	@Id
-	@SequenceGenerator(name = "EVENTS_ID_SEQ", sequenceName = "EVENTS_ID_SEQ", allocationSize = 1)
-	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "EVENTS_ID_SEQ")
+	@GenericGenerator(name = "EVENTS_ID_SEQ", strategy = "org.example.id.BlockSequenceGenerator",
+			parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "EVENTS_ID_SEQ"))
+	@GeneratedValue(generator = "EVENTS_ID_SEQ")
 	@Column(name = "ID")
 	private Long id;
 
@@ -1,21 +1,25 @@
 package org.example.model;
 
 import org.example.enums.Category;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
-import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import java.time.LocalDate;
 
 /**
- * Ticket entity
+ * Ticket entity.
+ * The email of the user and the date of the event are copied to the ticket, so ticket listings sorted by them
+ * are read in index order. They are set when the ticket is booked and updated together with the user and the event.
  * @author Andrii Krokhta
  */
 @Entity
@@ -23,8 +27,10 @@ import javax.persistence.Table;
 public class Ticket {
 
 	@Id
-	@SequenceGenerator(name = "TICKETS_ID_SEQ", sequenceName = "TICKETS_ID_SEQ", allocationSize = 10)
-	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "TICKETS_ID_SEQ")
+	@GenericGenerator(name = "TICKETS_ID_SEQ", strategy = "org.example.id.BlockSequenceGenerator", parameters = {
+			@Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "TICKETS_ID_SEQ"),
+			@Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "10")})
+	@GeneratedValue(generator = "TICKETS_ID_SEQ")
 	@Column(name = "ID")
 	private Long id;
 
@@ -43,6 +49,12 @@ public class Ticket {
 	@Column(name = "PLACE")
 	private int place;
 
+	@Column(name = "USER_EMAIL")
+	private String userEmail;
+
+	@Column(name = "EVENT_DATE")
+	private LocalDate eventDate;
+
 	public Ticket() {
 	}
 
@@ -93,4 +105,20 @@ public class Ticket {
 	public void setPlace(int place) {
 		this.place = place;
 	}
+
+	public String getUserEmail() {
+		return userEmail;
+	}
+
+	public void setUserEmail(String userEmail) {
+		this.userEmail = userEmail;
+	}
+
+	public LocalDate getEventDate() {
+		return eventDate;
+	}
+
+	public void setEventDate(LocalDate eventDate) {
+		this.eventDate = eventDate;
+	}
 }
@@ -2,35 +2,42 @@ package org.example.model;
 
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
-import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 
 /**
- * User entity
+ * User entity. The email is a mutable natural id with a cache region of its own, so lookups by email
+ * are resolved from the second-level cache like lookups by id.
  * @author Andrii Krokhta
  */
 @Entity
 @Table(name = "USERS")
 @Cacheable
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
 public class User {
 
 	@Id
-	@SequenceGenerator(name = "USERS_ID_SEQ", sequenceName = "USERS_ID_SEQ", allocationSize = 1)
-	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "USERS_ID_SEQ")
+	@GenericGenerator(name = "USERS_ID_SEQ", strategy = "org.example.id.BlockSequenceGenerator",
+			parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "USERS_ID_SEQ"))
+	@GeneratedValue(generator = "USERS_ID_SEQ")
 	@Column(name = "ID")
 	private Long id;
 
 	@Column(name = "FULL_NAME")
 	private String name;
 
+	@NaturalId(mutable = true)
 	@Column(name = "EMAIL", unique = true)
 	private String email;
 
@@ -0,0 +1,52 @@
+package org.example.repository;
+
+import org.example.model.AccountEntry;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AccountEntryRepository extends CrudRepository<AccountEntry, Long> {
+
+	/**
+	 * Gets the sum of account entries that are not rolled up into the balance snapshot yet.
+	 *
+	 * @param accountId Account id.
+	 * @return Sum of pending entries or zero if there are none.
+	 */
+	@Query("select coalesce(sum(e.amount), 0) from AccountEntry e where e.accountId = :accountId and e.rolledUp = false")
+	BigDecimal sumPendingByAccountId(@Param("accountId") Long accountId);
+
+	/**
+	 * Gets ids of accounts that have entries not rolled up into the balance snapshot yet.
+	 *
+	 * @return List of account ids.
+	 */
+	@Query("select distinct e.accountId from AccountEntry e where e.rolledUp = false")
+	List<Long> findAccountIdsWithPendingEntries();
+
+	/**
+	 * Gets account entries that are not rolled up into the balance snapshot yet.
+	 *
+	 * @param accountId Account id.
+	 * @return List of entries.
+	 */
+	@Query("select e from AccountEntry e where e.accountId = :accountId and e.rolledUp = false")
+	List<AccountEntry> findPendingByAccountId(@Param("accountId") Long accountId);
+
+	/**
+	 * Marks entries as rolled up into the balance snapshot.
+	 *
+	 * @param ids Entry ids.
+	 * @return Number of updated entries.
+	 */
+	@Modifying
+	@Query("update AccountEntry e set e.rolledUp = true where e.id in :ids")
+	int markRolledUp(@Param("ids") Collection<Long> ids);
+}
@@ -1,10 +1,97 @@
 package org.example.repository;
 
 import org.example.model.Account;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.LockModeType;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AccountRepository extends CrudRepository<Account, Long> {
 
+	/**
+	 * Gets account by id and locks its row until the end of the transaction.
+	 *
+	 * @param id Account id.
+	 * @return Optional of account or empty optional if account is not found.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select a from Account a where a.id = :id")
+	Optional<Account> findByIdForUpdate(@Param("id") Long id);
+
+	/**
+	 * Gets balance snapshot and shard count of the account and locks its row until the end of the transaction.
+	 * The account is not loaded as an entity, so the snapshot is always read from the locked row
+	 * even after {@link #debit} or {@link #credit} in the same transaction.
+	 *
+	 * @param id Account id.
+	 * @return Optional of snapshot or empty optional if account is not found.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select a.balance as balance, a.shards as shards from Account a where a.id = :id")
+	Optional<Snapshot> findSnapshotByIdForUpdate(@Param("id") Long id);
+
+	/**
+	 * Gets balance snapshot and shard count of the account without loading the entity,
+	 * so a later {@link #findByIdForUpdate} in the same transaction always reads the locked row.
+	 *
+	 * @param id Account id.
+	 * @return Optional of snapshot or empty optional if account is not found.
+	 */
+	@Query("select a.balance as balance, a.shards as shards from Account a where a.id = :id")
+	Optional<Snapshot> findSnapshotById(@Param("id") Long id);
+
+	/**
+	 * Gets ids of sharded accounts which balance snapshot is not spread across their shards.
+	 *
+	 * @return List of account ids.
+	 */
+	@Query("select a.id from Account a where a.shards > 0 and a.balance > 0")
+	List<Long> findShardedIdsWithSnapshot();
+
+	/**
+	 * Subtracts the amount from the balance snapshot of an account that is not sharded if the snapshot covers it.
+	 * Check and update are done by a single statement, so concurrent debits never lose updates.
+	 * Rows of sharded accounts are never updated by charges, their shards are debited instead.
+	 *
+	 * @param id     Account id.
+	 * @param amount Amount to be subtracted.
+	 * @return Number of updated rows: 1 if the account was charged,
+	 * 0 if it doesn't exist, is sharded or has insufficient funds.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("update Account a set a.balance = a.balance - :amount "
+			+ "where a.id = :id and a.shards = 0 and a.balance >= :amount")
+	int debit(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
+	/**
+	 * Adds the amount to the balance snapshot.
+	 *
+	 * @param id     Account id.
+	 * @param amount Amount to be added.
+	 * @return Number of updated rows: 1 if the account was refilled, 0 if it doesn't exist.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("update Account a set a.balance = a.balance + :amount where a.id = :id")
+	int credit(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
+	/**
+	 * Balance snapshot and shard count of the account.
+	 */
+	interface Snapshot {
+
+		BigDecimal getBalance();
+
+		int getShards();
+	}
 }
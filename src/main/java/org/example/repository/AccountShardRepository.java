@@ -0,0 +1,81 @@
+package org.example.repository;
+
+import org.example.model.AccountShard;
+import org.example.model.AccountShardId;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface AccountShardRepository extends CrudRepository<AccountShard, AccountShardId> {
+
+	/**
+	 * Gets numbers of the account shards which balance covers the amount.
+	 *
+	 * @param accountId Account id.
+	 * @param amount    Amount.
+	 * @return List of shard numbers.
+	 */
+	@Query("select s.shard from AccountShard s where s.accountId = :accountId and s.balance >= :amount")
+	List<Integer> findShardsCovering(@Param("accountId") Long accountId, @Param("amount") BigDecimal amount);
+
+	/**
+	 * Gets balance of the account shard.
+	 *
+	 * @param accountId Account id.
+	 * @param shard     Shard number.
+	 * @return Shard balance or null if the shard does not exist.
+	 */
+	@Query("select s.balance from AccountShard s where s.accountId = :accountId and s.shard = :shard")
+	BigDecimal findBalance(@Param("accountId") Long accountId, @Param("shard") int shard);
+
+	/**
+	 * Gets the sum of all shard balances of the account.
+	 *
+	 * @param accountId Account id.
+	 * @return Sum of shard balances or zero if the account has no shards.
+	 */
+	@Query("select coalesce(sum(s.balance), 0) from AccountShard s where s.accountId = :accountId")
+	BigDecimal sumByAccountId(@Param("accountId") Long accountId);
+
+	/**
+	 * Subtracts the amount from the shard if its balance covers it.
+	 *
+	 * @param accountId Account id.
+	 * @param shard     Shard number.
+	 * @param amount    Amount to subtract.
+	 * @return 1 if the shard was debited, 0 if its balance is insufficient.
+	 */
+	@Modifying
+	@Query("update AccountShard s set s.balance = s.balance - :amount "
+			+ "where s.accountId = :accountId and s.shard = :shard and s.balance >= :amount")
+	int debit(@Param("accountId") Long accountId, @Param("shard") int shard, @Param("amount") BigDecimal amount);
+
+	/**
+	 * Adds the amount to the shard.
+	 *
+	 * @param accountId Account id.
+	 * @param shard     Shard number.
+	 * @param amount    Amount to add.
+	 * @return Number of updated shards.
+	 */
+	@Modifying
+	@Query("update AccountShard s set s.balance = s.balance + :amount where s.accountId = :accountId and s.shard = :shard")
+	int credit(@Param("accountId") Long accountId, @Param("shard") int shard, @Param("amount") BigDecimal amount);
+
+	/**
+	 * Adds the amount to every shard of the account.
+	 *
+	 * @param accountId Account id.
+	 * @param amount    Amount to add to each shard.
+	 * @return Number of updated shards.
+	 */
+	@Modifying
+	@Query("update AccountShard s set s.balance = s.balance + :amount where s.accountId = :accountId")
+	int creditAll(@Param("accountId") Long accountId, @Param("amount") BigDecimal amount);
+}
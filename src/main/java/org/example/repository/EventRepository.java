@@ -3,11 +3,14 @@ package org.example.repository;
 import org.example.model.Event;
 import org.example.repository.cache.EventCacheRepository;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface EventRepository extends PagingAndSortingRepository<Event, Long>, EventCacheRepository {
@@ -22,6 +25,35 @@ public interface EventRepository extends PagingAndSortingRepository<Event, Long>
 	 */
 	List<Event> findEventsByTitleContainingIgnoreCase(String title, Pageable pageable);
 
+	/**
+	 * Get a page of events by matching title, sorted by title and then by id. Title is matched using 'contains' approach.
+	 * Only the first page is read this way, the following ones by {@link #findPageByTitleAfter}.
+	 *
+	 * @param title    Event title or it's part.
+	 * @param pageable Limit of the page, the page number should be 0.
+	 * @return List of events.
+	 */
+	@Query("select e from Event e where upper(e.title) like upper(concat('%', :#{escape(#title)}, '%'))"
+			+ " escape :#{escapeCharacter()}"
+			+ " order by e.title, e.id")
+	List<Event> findPageByTitle(@Param("title") String title, Pageable pageable);
+
+	/**
+	 * Get a page of events by matching title following the given event, sorted by title and then by id.
+	 *
+	 * @param title     Event title or it's part.
+	 * @param lastTitle Title of the last event of the previous page.
+	 * @param lastId    Id of the last event of the previous page.
+	 * @param pageable  Limit of the page, the page number should be 0.
+	 * @return List of events.
+	 */
+	@Query("select e from Event e where upper(e.title) like upper(concat('%', :#{escape(#title)}, '%'))"
+			+ " escape :#{escapeCharacter()}"
+			+ " and (e.title > :lastTitle or (e.title = :lastTitle and e.id > :lastId))"
+			+ " order by e.title, e.id")
+	List<Event> findPageByTitleAfter(@Param("title") String title, @Param("lastTitle") String lastTitle,
+									 @Param("lastId") Long lastId, Pageable pageable);
+
 	/**
 	 * Get list of events for specified date.
 	 * In case nothing was found, empty list is returned.
@@ -32,4 +64,63 @@ public interface EventRepository extends PagingAndSortingRepository<Event, Long>
 	 */
 	List<Event> findEventsByDate(LocalDate date, Pageable pageable);
 
+	/**
+	 * Get list of events held within the range, sorted by date and then by id.
+	 *
+	 * @param from     First day of the range.
+	 * @param to       Last day of the range.
+	 * @param pageable Pageable.
+	 * @return List of events.
+	 */
+	@Query("select e from Event e where e.date between :from and :to order by e.date, e.id")
+	List<Event> findEventsInRange(@Param("from") LocalDate from, @Param("to") LocalDate to, Pageable pageable);
+
+	/**
+	 * Get numbers of events per day held within the range, sorted by date.
+	 *
+	 * @param from First day of the range.
+	 * @param to   Last day of the range.
+	 * @return List of {date, count} pairs.
+	 */
+	@Query("select e.date, count(e) from Event e where e.date between :from and :to group by e.date order by e.date")
+	List<Object[]> countEventsByDate(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+	/**
+	 * Get ids and dates of events following the given id, sorted by id.
+	 *
+	 * @param lastId   Id of the last event of the previous chunk, 0 for the first one.
+	 * @param pageable Limit of the chunk, the page number should be 0.
+	 * @return List of {id, date} pairs.
+	 */
+	@Query("select e.id, e.date from Event e where e.id > :lastId order by e.id")
+	List<Object[]> findDatesAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+	/**
+	 * Get date of the event by its id.
+	 *
+	 * @param id Event id.
+	 * @return Date, empty if the event does not exist.
+	 */
+	@Query("select e.date from Event e where e.id = :id")
+	Optional<LocalDate> findDateById(@Param("id") Long id);
+
+	/**
+	 * Get ids and titles of events following the given id, sorted by id.
+	 *
+	 * @param lastId   Id of the last event of the previous chunk, 0 for the first one.
+	 * @param pageable Limit of the chunk, the page number should be 0.
+	 * @return List of {id, title} pairs.
+	 */
+	@Query("select e.id, e.title from Event e where e.id > :lastId order by e.id")
+	List<Object[]> findTitlesAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+	/**
+	 * Get title of the event by its id.
+	 *
+	 * @param id Event id.
+	 * @return Title, empty if the event does not exist.
+	 */
+	@Query("select e.title from Event e where e.id = :id")
+	Optional<String> findTitleById(@Param("id") Long id);
+
 }
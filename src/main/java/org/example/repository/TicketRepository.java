@@ -1,36 +1,186 @@
 package org.example.repository;
 
+import org.example.dto.TicketDto;
 import org.example.model.Ticket;
+import org.example.repository.bulk.TicketBulkRepository;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Repository
-public interface TicketRepository extends PagingAndSortingRepository<Ticket, Long> {
+public interface TicketRepository extends PagingAndSortingRepository<Ticket, Long>, TicketBulkRepository {
 
 	/**
-	 * Get list of tickets by specified user id.
+	 * Selects ticket listings straight into {@link TicketDto}, together with the user and event columns,
+	 * so no entities are loaded. Tickets without a user or an event are listed with these left empty.
+	 * Listings are filtered and sorted by the user email and the event date copied to the ticket,
+	 * so their pages are read from the ticket indexes in order, and the joins only fetch the selected columns.
+	 * The filtered id leads the sort, so the order matches the index also on databases that don't skip equal columns.
+	 */
+	String SELECT_TICKET_DTO = "select new org.example.dto.TicketDto(t.id, u.id, u.name, u.email,"
+			+ " e.id, e.title, e.date, e.ticketPrice, t.category, t.place)"
+			+ " from Ticket t left join t.user u left join t.event e";
+
+	/**
+	 * Get list of tickets by specified user id, sorted by event date in descending order and then by id.
 	 * In case nothing was found, empty list is returned.
 	 *
 	 * @param userId   User id.
 	 * @param pageable Pageable.
 	 * @return List of tickets.
 	 */
-	@Query("select t from Ticket t where t.user.id = :userId")
-	List<Ticket> findByUserId(@Param("userId") Long userId, Pageable pageable);
+	@Query(SELECT_TICKET_DTO + " where t.user.id = :userId order by t.eventDate desc nulls last, t.id desc")
+	List<TicketDto> findByUserId(@Param("userId") Long userId, Pageable pageable);
 
 	/**
-	 * Get list of tickets by specified event id.
+	 * Get list of tickets by specified event id, sorted by user email in ascending order and then by id.
 	 * In case nothing was found, empty list is returned.
 	 *
 	 * @param eventId   Event id.
 	 * @param pageable Pageable.
 	 * @return List of tickets.
 	 */
-	@Query("select t from Ticket t where t.event.id = :eventId")
-	List<Ticket> findByEventId(@Param("eventId") Long eventId, Pageable pageable);
+	@Query(SELECT_TICKET_DTO + " where t.event.id = :eventId order by t.userEmail nulls last, t.id")
+	List<TicketDto> findByEventId(@Param("eventId") Long eventId, Pageable pageable);
+
+	/**
+	 * Get a page of tickets of dated events by specified user id, sorted by event date in descending order
+	 * and then by id. Only the first page is read this way, the following ones by {@link #findPageByUserIdAfter}.
+	 *
+	 * @param userId   User id.
+	 * @param pageable Limit of the page, the page number should be 0.
+	 * @return List of tickets.
+	 */
+	@Query(SELECT_TICKET_DTO + " where t.user.id = :userId and t.eventDate is not null"
+			+ " order by t.user.id, t.eventDate desc, t.id desc")
+	List<TicketDto> findPageByUserId(@Param("userId") Long userId, Pageable pageable);
+
+	/**
+	 * Get a page of tickets by specified user id following the given ticket, sorted by event date in descending order
+	 * and then by id. The page starts with a seek on the sort key, so no earlier rows are read.
+	 *
+	 * @param userId   User id.
+	 * @param date     Event date of the last ticket of the previous page.
+	 * @param id       Id of the last ticket of the previous page.
+	 * @param pageable Limit of the page, the page number should be 0.
+	 * @return List of tickets.
+	 */
+	@Query(SELECT_TICKET_DTO + " where t.user.id = :userId"
+			+ " and (t.eventDate < :date or (t.eventDate = :date and t.id < :id))"
+			+ " order by t.user.id, t.eventDate desc, t.id desc")
+	List<TicketDto> findPageByUserIdAfter(@Param("userId") Long userId, @Param("date") LocalDate date,
+									   @Param("id") Long id, Pageable pageable);
+
+	/**
+	 * Get a page of tickets of events without a date by specified user id following the given ticket,
+	 * sorted by id in descending order. These tickets are listed after the ones of dated events.
+	 *
+	 * @param userId   User id.
+	 * @param id       Id of the last ticket of the previous page.
+	 * @param pageable Limit of the page, the page number should be 0.
+	 * @return List of tickets.
+	 */
+	@Query(SELECT_TICKET_DTO + " where t.user.id = :userId and t.eventDate is null and t.id < :id"
+			+ " order by t.id desc")
+	List<TicketDto> findUndatedPageByUserIdAfter(@Param("userId") Long userId, @Param("id") Long id, Pageable pageable);
+
+	/**
+	 * Get a page of tickets of users with email by specified event id, sorted by user email in ascending order
+	 * and then by id. Only the first page is read this way, the following ones by {@link #findPageByEventIdAfter}.
+	 *
+	 * @param eventId  Event id.
+	 * @param pageable Limit of the page, the page number should be 0.
+	 * @return List of tickets.
+	 */
+	@Query(SELECT_TICKET_DTO + " where t.event.id = :eventId and t.userEmail is not null"
+			+ " order by t.event.id, t.userEmail, t.id")
+	List<TicketDto> findPageByEventId(@Param("eventId") Long eventId, Pageable pageable);
+
+	/**
+	 * Get a page of tickets by specified event id following the given ticket, sorted by user email in ascending order
+	 * and then by id. The page starts with a seek on the sort key, so no earlier rows are read.
+	 *
+	 * @param eventId  Event id.
+	 * @param email    User email of the last ticket of the previous page.
+	 * @param id       Id of the last ticket of the previous page.
+	 * @param pageable Limit of the page, the page number should be 0.
+	 * @return List of tickets.
+	 */
+	@Query(SELECT_TICKET_DTO + " where t.event.id = :eventId"
+			+ " and (t.userEmail > :email or (t.userEmail = :email and t.id > :id))"
+			+ " order by t.event.id, t.userEmail, t.id")
+	List<TicketDto> findPageByEventIdAfter(@Param("eventId") Long eventId, @Param("email") String email,
+										@Param("id") Long id, Pageable pageable);
+
+	/**
+	 * Get a page of tickets of users without email by specified event id following the given ticket, sorted by id.
+	 * These tickets are listed after the ones of users with email.
+	 *
+	 * @param eventId  Event id.
+	 * @param id       Id of the last ticket of the previous page.
+	 * @param pageable Limit of the page, the page number should be 0.
+	 * @return List of tickets.
+	 */
+	@Query(SELECT_TICKET_DTO + " where t.event.id = :eventId and t.userEmail is null and t.id > :id"
+			+ " order by t.id")
+	List<TicketDto> findUnaddressedPageByEventIdAfter(@Param("eventId") Long eventId, @Param("id") Long id,
+												   Pageable pageable);
+
+	/**
+	 * Copies the changed email of the user to the tickets of the user.
+	 *
+	 * @param userId User id.
+	 * @param email  New email.
+	 * @return Number of updated tickets.
+	 */
+	@Modifying
+	@Query("update Ticket t set t.userEmail = :email where t.user.id = :userId")
+	int updateUserEmail(@Param("userId") Long userId, @Param("email") String email);
+
+	/**
+	 * Copies the changed date of the event to the tickets of the event.
+	 *
+	 * @param eventId Event id.
+	 * @param date    New date.
+	 * @return Number of updated tickets.
+	 */
+	@Modifying
+	@Query("update Ticket t set t.eventDate = :date where t.event.id = :eventId")
+	int updateEventDate(@Param("eventId") Long eventId, @Param("date") LocalDate date);
+
+	/**
+	 * Get list of booked places for specified event id.
+	 * In case nothing was found, empty list is returned.
+	 *
+	 * @param eventId Event id.
+	 * @return List of place numbers.
+	 */
+	@Query("select t.place from Ticket t where t.event.id = :eventId")
+	List<Integer> findPlacesByEventId(@Param("eventId") Long eventId);
+
+	/**
+	 * Get event ids and places of all tickets of specified user id.
+	 * In case nothing was found, empty list is returned.
+	 *
+	 * @param userId User id.
+	 * @return List of seats.
+	 */
+	@Query("select t.event.id as eventId, t.place as place from Ticket t where t.user.id = :userId")
+	List<Seat> findSeatsByUserId(@Param("userId") Long userId);
+
+	/**
+	 * Place of a ticket.
+	 */
+	interface Seat {
+
+		Long getEventId();
+
+		int getPlace();
+	}
 }
@@ -3,14 +3,16 @@ package org.example.repository;
 import org.example.model.User;
 import org.example.repository.cache.UserCacheRepository;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends PagingAndSortingRepository<User, Long>, UserCacheRepository {
+public interface UserRepository extends JpaRepository<User, Long>, UserCacheRepository {
 
 	/**
 	 * Gets user by email.
@@ -28,4 +30,62 @@ public interface UserRepository extends PagingAndSortingRepository<User, Long>,
 	 * @return List of users.
 	 */
 	List<User> findUsersByNameContainingIgnoreCase(String name, Pageable pageable);
+
+	/**
+	 * Get a page of users by matching name, sorted by name and then by id. Name is matched using 'contains' approach.
+	 * Only the first page is read this way, the following ones by {@link #findPageByNameAfter}.
+	 *
+	 * @param name     User name or it's part.
+	 * @param pageable Limit of the page, the page number should be 0.
+	 * @return List of users.
+	 */
+	@Query("select u from User u where upper(u.name) like upper(concat('%', :#{escape(#name)}, '%'))"
+			+ " escape :#{escapeCharacter()}"
+			+ " order by u.name, u.id")
+	List<User> findPageByName(@Param("name") String name, Pageable pageable);
+
+	/**
+	 * Get a page of users by matching name following the given user, sorted by name and then by id.
+	 *
+	 * @param name     User name or it's part.
+	 * @param lastName Name of the last user of the previous page.
+	 * @param lastId   Id of the last user of the previous page.
+	 * @param pageable Limit of the page, the page number should be 0.
+	 * @return List of users.
+	 */
+	@Query("select u from User u where upper(u.name) like upper(concat('%', :#{escape(#name)}, '%'))"
+			+ " escape :#{escapeCharacter()}"
+			+ " and (u.name > :lastName or (u.name = :lastName and u.id > :lastId))"
+			+ " order by u.name, u.id")
+	List<User> findPageByNameAfter(@Param("name") String name, @Param("lastName") String lastName,
+								   @Param("lastId") Long lastId, Pageable pageable);
+
+	/**
+	 * Get ids and names of users following the given id, sorted by id.
+	 *
+	 * @param lastId   Id of the last user of the previous chunk, 0 for the first one.
+	 * @param pageable Limit of the chunk, the page number should be 0.
+	 * @return List of {id, name} pairs.
+	 */
+	@Query("select u.id, u.name from User u where u.id > :lastId order by u.id")
+	List<Object[]> findNamesAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+	/**
+	 * Get name of the user by its id.
+	 *
+	 * @param id User id.
+	 * @return Name, empty if the user does not exist.
+	 */
+	@Query("select u.name from User u where u.id = :id")
+	Optional<String> findNameById(@Param("id") Long id);
+
+	/**
+	 * Get ids and emails of users following the given id, sorted by id.
+	 *
+	 * @param lastId   Id of the last user of the previous chunk, 0 for the first one.
+	 * @param pageable Limit of the chunk, the page number should be 0.
+	 * @return List of {id, email} pairs.
+	 */
+	@Query("select u.id, u.email from User u where u.id > :lastId order by u.id")
+	List<Object[]> findEmailsAfter(@Param("lastId") Long lastId, Pageable pageable);
 }
@@ -0,0 +1,16 @@
+package org.example.repository.bulk;
+
+import org.example.model.Ticket;
+
+import java.util.List;
+
+public interface TicketBulkRepository {
+
+	/**
+	 * Inserts new tickets in bulk within the current transaction and sets their ids.
+	 * On PostgreSQL the ids are taken from the prefetched id block at once and the rows are streamed
+	 * with a binary COPY, bypassing the entity lifecycle. Other databases get batched inserts.
+	 * @param tickets Tickets without ids, user and event are only read for their ids
+	 */
+	void insertAll(List<Ticket> tickets);
+}
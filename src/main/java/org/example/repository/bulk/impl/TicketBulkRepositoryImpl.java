@@ -0,0 +1,171 @@
+package org.example.repository.bulk.impl;
+
+import org.example.id.BlockSequenceGenerator;
+import org.example.model.Ticket;
+import org.example.repository.bulk.TicketBulkRepository;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.PersistenceContext;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public class TicketBulkRepositoryImpl implements TicketBulkRepository {
+
+	private static final byte[] COPY_SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+
+	private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+	private static final short COPY_COLUMNS = 7;
+
+	//field count, lengths of all fields and values of the fixed size ones
+	private static final int MAX_FIXED_ROW_SIZE = Short.BYTES + COPY_COLUMNS * Integer.BYTES + 3 * Long.BYTES
+			+ 2 * Integer.BYTES;
+
+	//binary dates are counted in days from the PostgreSQL epoch
+	private static final long COPY_EPOCH_DAY = LocalDate.of(2000, 1, 1).toEpochDay();
+
+	@PersistenceContext
+	Session session;
+
+	private final boolean copyEnabled;
+
+	@Autowired
+	public TicketBulkRepositoryImpl(@Value("${booking.import.copy-enabled:true}") boolean copyEnabled) {
+		this.copyEnabled = copyEnabled;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void insertAll(List<Ticket> tickets) {
+		if (tickets.isEmpty()) {
+			return;
+		}
+		var target = copyEnabled ? copyTarget() : null;
+		if (target != null && session.doReturningWork(connection -> connection.isWrapperFor(PGConnection.class))) {
+			var ids = target.generator.generate(tickets.size());
+			session.flush();
+			session.doWork(connection -> copy(connection, target.table, tickets, ids));
+			return;
+		}
+		tickets.forEach(session::persist);
+		session.flush();
+	}
+
+	/**
+	 * Resolves the table and the id generator of tickets.
+	 *
+	 * @return Copy target or null if ticket ids are not allocated in blocks.
+	 */
+	private CopyTarget copyTarget() {
+		var persister = session.getSessionFactory().unwrap(SessionFactoryImplementor.class)
+				.getMetamodel()
+				.entityPersister(Ticket.class);
+		if (!(persister.getIdentifierGenerator() instanceof BlockSequenceGenerator)
+				|| !(persister instanceof AbstractEntityPersister)) {
+			return null;
+		}
+		return new CopyTarget(((AbstractEntityPersister) persister).getTableName(),
+				(BlockSequenceGenerator) persister.getIdentifierGenerator());
+	}
+
+	/**
+	 * Streams the tickets to the table with a binary COPY and sets their ids.
+	 */
+	static void copy(Connection connection, String table, List<Ticket> tickets, long[] ids) throws SQLException {
+		var copyIn = connection.unwrap(PGConnection.class).getCopyAPI()
+				.copyIn("COPY " + table + " (ID, USER_ID, EVENT_ID, CATEGORY, PLACE, USER_EMAIL, EVENT_DATE)"
+						+ " FROM STDIN (FORMAT BINARY)");
+		try {
+			var buffer = ByteBuffer.allocate(COPY_BUFFER_SIZE);
+			buffer.put(COPY_SIGNATURE).putInt(0).putInt(0);
+			for (int i = 0; i < tickets.size(); i++) {
+				var ticket = tickets.get(i);
+				var category = ticket.getCategory() != null
+						? ticket.getCategory().name().getBytes(StandardCharsets.US_ASCII)
+						: null;
+				var email = ticket.getUserEmail() != null
+						? ticket.getUserEmail().getBytes(StandardCharsets.UTF_8)
+						: null;
+				var variableSize = (category != null ? category.length : 0) + (email != null ? email.length : 0);
+				if (buffer.remaining() < MAX_FIXED_ROW_SIZE + variableSize) {
+					flush(copyIn, buffer);
+				}
+				buffer.putShort(COPY_COLUMNS);
+				putLong(buffer, ids[i]);
+				putLong(buffer, ticket.getUser() != null ? ticket.getUser().getId() : null);
+				putLong(buffer, ticket.getEvent() != null ? ticket.getEvent().getId() : null);
+				putBytes(buffer, category);
+				buffer.putInt(Integer.BYTES).putInt(ticket.getPlace());
+				putBytes(buffer, email);
+				if (ticket.getEventDate() != null) {
+					buffer.putInt(Integer.BYTES).putInt((int) (ticket.getEventDate().toEpochDay() - COPY_EPOCH_DAY));
+				} else {
+					buffer.putInt(-1);
+				}
+			}
+			if (buffer.remaining() < Short.BYTES) {
+				flush(copyIn, buffer);
+			}
+			buffer.putShort((short) -1);
+			flush(copyIn, buffer);
+			copyIn.endCopy();
+		} finally {
+			if (copyIn.isActive()) {
+				copyIn.cancelCopy();
+			}
+		}
+		for (int i = 0; i < tickets.size(); i++) {
+			tickets.get(i).setId(ids[i]);
+		}
+	}
+
+	private static void putLong(ByteBuffer buffer, Long value) {
+		if (value != null) {
+			buffer.putInt(Long.BYTES).putLong(value);
+		} else {
+			buffer.putInt(-1);
+		}
+	}
+
+	private static void putBytes(ByteBuffer buffer, byte[] value) {
+		if (value != null) {
+			buffer.putInt(value.length).put(value);
+		} else {
+			buffer.putInt(-1);
+		}
+	}
+
+	private static void flush(CopyIn copyIn, ByteBuffer buffer) throws SQLException {
+		copyIn.writeToCopy(buffer.array(), 0, buffer.position());
+		buffer.clear();
+	}
+
+	/**
+	 * Qualified name of the ticket table and the generator of its ids.
+	 */
+	private static final class CopyTarget {
+
+		private final String table;
+
+		private final BlockSequenceGenerator generator;
+
+		private CopyTarget(String table, BlockSequenceGenerator generator) {
+			this.table = table;
+			this.generator = generator;
+		}
+	}
+}
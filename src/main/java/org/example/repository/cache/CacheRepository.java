@@ -1,5 +1,7 @@
 package org.example.repository.cache;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 
 public interface CacheRepository<T> {
@@ -10,4 +12,12 @@ public interface CacheRepository<T> {
 	 * @return Optional of entity or empty optional if not found
 	 */
 	Optional<T> findByIdWithCache(Long id);
+
+	/**
+	 * Gets entities by ids. Entities in the second-level cache are resolved without a query,
+	 * the rest are loaded with a single query, which also puts them into the cache.
+	 * @param ids Entity ids
+	 * @return Map of the found entities by id, ids that do not exist are missing
+	 */
+	Map<Long, T> findAllByIdWithCache(Collection<Long> ids);
 }
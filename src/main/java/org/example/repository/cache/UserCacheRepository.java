@@ -2,5 +2,15 @@ package org.example.repository.cache;
 
 import org.example.model.User;
 
+import java.util.Optional;
+
 public interface UserCacheRepository extends CacheRepository<User>{
+
+	/**
+	 * Gets user by email with caching enabled. The email is resolved to the id through the natural id cache
+	 * and the user is read from the entity cache, the database is only queried on a cache miss.
+	 * @param email User email, strictly matched
+	 * @return Optional of user or empty optional if not found
+	 */
+	Optional<User> findByEmailWithCache(String email);
 }
@@ -7,6 +7,10 @@ import org.springframework.stereotype.Repository;
 
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 
 @Repository
@@ -29,4 +33,29 @@ public class EventCacheRepositoryImpl implements EventCacheRepository {
 			return Optional.empty();
 		}
 	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Map<Long, Event> findAllByIdWithCache(Collection<Long> ids) {
+		var cache = session.getSessionFactory().getCache();
+		var found = new HashMap<Long, Event>();
+		var notCached = new ArrayList<Long>();
+		for (var id : ids) {
+			var cached = cache.contains(Event.class, id) ? session.get(Event.class, id) : null;
+			if (cached != null) {
+				found.put(id, cached);
+			} else {
+				notCached.add(id);
+			}
+		}
+		if (!notCached.isEmpty()) {
+			session.createQuery("select e from Event e where e.id in :ids", Event.class)
+					.setParameter("ids", notCached)
+					.getResultList()
+					.forEach(e -> found.put(e.getId(), e));
+		}
+		return found;
+	}
 }
@@ -4,9 +4,14 @@ import org.example.model.User;
 import org.example.repository.cache.UserCacheRepository;
 import org.hibernate.Session;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 
 @Repository
@@ -29,4 +34,38 @@ public class UserCacheRepositoryImpl implements UserCacheRepository {
 			return Optional.empty();
 		}
 	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public Optional<User> findByEmailWithCache(String email) {
+		return session.bySimpleNaturalId(User.class).loadOptional(email);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Map<Long, User> findAllByIdWithCache(Collection<Long> ids) {
+		var cache = session.getSessionFactory().getCache();
+		var found = new HashMap<Long, User>();
+		var notCached = new ArrayList<Long>();
+		for (var id : ids) {
+			var cached = cache.contains(User.class, id) ? session.get(User.class, id) : null;
+			if (cached != null) {
+				found.put(id, cached);
+			} else {
+				notCached.add(id);
+			}
+		}
+		if (!notCached.isEmpty()) {
+			session.createQuery("select u from User u where u.id in :ids", User.class)
+					.setParameter("ids", notCached)
+					.getResultList()
+					.forEach(u -> found.put(u.getId(), u));
+		}
+		return found;
+	}
 }
@@ -3,6 +3,8 @@ package org.example.service;
 import org.example.dto.AccountDto;
 
 import java.math.BigDecimal;
+import java.util.Set;
+import java.util.SortedMap;
 
 public interface AccountService {
 
@@ -14,6 +16,14 @@ public interface AccountService {
 	 */
 	AccountDto createAccount(Long userId);
 
+	/**
+	 * Gets account by its id with the current balance.
+	 *
+	 * @param accountId Account id.
+	 * @return account.
+	 */
+	AccountDto getAccount(Long accountId);
+
 	/**
 	 * Adds the provided refill sum to the specified account by id.
 	 *
@@ -32,6 +42,27 @@ public interface AccountService {
 	 */
 	AccountDto chargeForTicket(Long accountId, BigDecimal ticketPrice);
 
+	/**
+	 * Subtracts the amount from the specified account by id if the account covers it.
+	 * Joins the surrounding transaction, so the charge is rolled back together with it.
+	 *
+	 * @param accountId Account id.
+	 * @param amount    Amount to be subtracted from the account.
+	 * @return Flag whether the account has been charged.
+	 * @throws org.example.exception.EntityNotFoundException if the account does not exist.
+	 */
+	boolean tryCharge(Long accountId, BigDecimal amount);
+
+	/**
+	 * Charges every account once for its total. Accounts are charged in ascending id order.
+	 * Accounts that can not cover their total are not charged at all.
+	 * Joins the surrounding transaction, so the charges are rolled back together with it.
+	 *
+	 * @param totals Amounts to be subtracted by account id.
+	 * @return Ids of the accounts that were not charged because they do not exist or have insufficient funds.
+	 */
+	Set<Long> chargeAccounts(SortedMap<Long, BigDecimal> totals);
+
 	/**
 	 * Deletes account by its id.
 	 *
@@ -0,0 +1,29 @@
+package org.example.service;
+
+import org.example.dto.BatchBookingJobDto;
+import org.example.enums.BatchFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface BatchBookingJobService {
+
+	/**
+	 * Spools the list of tickets to a file and queues a job that books them in the background.
+	 *
+	 * @param stream Input stream with a list of tickets.
+	 * @param format Format of the list.
+	 * @return Queued job.
+	 * @throws java.lang.IllegalStateException if the job queue is full.
+	 */
+	BatchBookingJobDto submit(InputStream stream, BatchFormat format) throws IOException;
+
+	/**
+	 * Gets the current state of the job.
+	 *
+	 * @param jobId Job id.
+	 * @return Job with its progress.
+	 * @throws org.example.exception.EntityNotFoundException if the job does not exist or has been evicted.
+	 */
+	BatchBookingJobDto getJob(String jobId);
+}
@@ -1,9 +1,11 @@
 package org.example.service;
 
 import org.example.dto.EventDto;
+import org.example.dto.PageDto;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.SortedMap;
 
 public interface EventService {
 
@@ -22,9 +24,23 @@ public interface EventService {
 	 * @param pageSize Pagination param. Number of events to return on a page.
 	 * @param pageNum  Pagination param. Number of the page to return. Starts from 1.
 	 * @return List of events.
+	 * @throws java.lang.IllegalArgumentException if the page number is negative, the page size is less than one
+	 *                                            or the page lies beyond the largest offset.
 	 */
 	List<EventDto> getEventsByTitle(String title, int pageSize, int pageNum);
 
+	/**
+	 * Get a page of events by matching title, sorted by title. Title is matched using 'contains' approach.
+	 * Pages are read by continuation token, so reading a deep page costs the same as reading the first one.
+	 *
+	 * @param title     Event title or it's part.
+	 * @param pageSize  Pagination param. Number of events to return on a page.
+	 * @param pageToken Pagination param. Token of the page to return, null or empty for the first page.
+	 * @return Page of events with the token of the next page.
+	 * @throws java.lang.IllegalArgumentException if the token is malformed or the page size is less than one.
+	 */
+	PageDto<EventDto> getEventsByTitleAfter(String title, int pageSize, String pageToken);
+
 	/**
 	 * Get list of events for specified day.
 	 * In case nothing was found, empty list is returned.
@@ -36,6 +52,31 @@ public interface EventService {
 	 */
 	List<EventDto> getEventsForDay(LocalDate day, int pageSize, int pageNum);
 
+	/**
+	 * Get list of events held within the date range, sorted by date and then by id.
+	 * In case nothing was found, empty list is returned.
+	 *
+	 * @param from     First day of the range.
+	 * @param to       Last day of the range.
+	 * @param pageSize Pagination param. Number of events to return on a page.
+	 * @param pageNum  Pagination param. Number of the page to return. Starts from 0.
+	 * @return List of events.
+	 * @throws java.lang.IllegalArgumentException if the range starts after its end, the page number is negative,
+	 *                                            the page size is less than one or the page lies beyond the largest offset.
+	 */
+	List<EventDto> getEventsInRange(LocalDate from, LocalDate to, int pageSize, int pageNum);
+
+	/**
+	 * Get numbers of events per day held within the date range, e.g. for the badges of a calendar.
+	 * Days without events are left out.
+	 *
+	 * @param from First day of the range.
+	 * @param to   Last day of the range.
+	 * @return Numbers of events by day, sorted by day.
+	 * @throws java.lang.IllegalArgumentException if the range starts after its end.
+	 */
+	SortedMap<LocalDate, Integer> getEventCountsInRange(LocalDate from, LocalDate to);
+
 	/**
 	 * Creates new event. Event id is be auto-generated.
 	 *
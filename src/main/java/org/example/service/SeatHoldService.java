@@ -0,0 +1,44 @@
+package org.example.service;
+
+import org.example.dto.SeatHoldDto;
+import org.example.enums.Category;
+
+public interface SeatHoldService {
+
+	/**
+	 * Reserves the place of the event for the user until the hold is taken, released or expired.
+	 *
+	 * @param userId   User id.
+	 * @param eventId  Event id.
+	 * @param category Service category.
+	 * @param place    Place number.
+	 * @return Created hold.
+	 * @throws java.lang.IllegalStateException if the place is already booked or held.
+	 */
+	SeatHoldDto holdSeat(Long userId, Long eventId, Category category, int place);
+
+	/**
+	 * Removes the hold without releasing its place. The caller becomes responsible for the place
+	 * and has to either book it or pass the hold to {@link #releaseSeat(SeatHoldDto)}.
+	 *
+	 * @param holdId Hold id.
+	 * @return Taken hold.
+	 * @throws org.example.exception.EntityNotFoundException if the hold does not exist or has expired.
+	 */
+	SeatHoldDto takeHold(String holdId);
+
+	/**
+	 * Removes the hold and releases its place.
+	 *
+	 * @param holdId Hold id.
+	 * @throws org.example.exception.EntityNotFoundException if the hold does not exist or has expired.
+	 */
+	void releaseHold(String holdId);
+
+	/**
+	 * Releases the place of the hold previously returned by {@link #takeHold(String)}.
+	 *
+	 * @param hold Taken hold.
+	 */
+	void releaseSeat(SeatHoldDto hold);
+}
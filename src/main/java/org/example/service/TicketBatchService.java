@@ -0,0 +1,32 @@
+package org.example.service;
+
+import org.example.dto.BatchBookingSummary;
+import org.example.dto.TicketDto;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+public interface TicketBatchService {
+
+	/**
+	 * Books tickets read from the iterator in fixed-size chunks. Every chunk is committed in its own transaction,
+	 * so memory usage does not depend on the number of tickets. Users are charged for their tickets together with
+	 * the chunk. Tickets with unknown users or events, tickets for places that are already booked and tickets
+	 * of users with insufficient funds are rejected one by one and reported in the summary.
+	 * If a chunk fails, it is rolled back and chunks committed before it stay booked.
+	 *
+	 * @param tickets Tickets to book.
+	 * @return Summary of the booking.
+	 */
+	BatchBookingSummary bookTickets(Iterator<TicketDto> tickets);
+
+	/**
+	 * Books tickets read from the iterator like {@link #bookTickets(Iterator)} and reports progress
+	 * after every committed chunk.
+	 *
+	 * @param tickets  Tickets to book.
+	 * @param progress Consumer of the summary of the chunks committed so far.
+	 * @return Summary of the booking.
+	 */
+	BatchBookingSummary bookTickets(Iterator<TicketDto> tickets, Consumer<BatchBookingSummary> progress);
+}
@@ -1,8 +1,11 @@
 package org.example.service;
 
+import org.example.dto.PageDto;
 import org.example.dto.TicketDto;
 import org.example.enums.Category;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 public interface TicketService {
@@ -19,6 +22,51 @@ public interface TicketService {
 	 */
 	TicketDto bookTicket(Long userId, Long eventId, Category category, int place);
 
+	/**
+	 * Reserves the place of the event in the seat index without booking it.
+	 * The caller has to either book it with {@link #bookHeldTicket} or release it with {@link #releasePlace}.
+	 *
+	 * @param eventId Event Id.
+	 * @param place   Place number.
+	 * @throws java.lang.IllegalStateException if this place has already been booked or reserved.
+	 */
+	void reservePlace(Long eventId, int place);
+
+	/**
+	 * Releases the place reserved with {@link #reservePlace}.
+	 *
+	 * @param eventId Event Id.
+	 * @param place   Place number.
+	 */
+	void releasePlace(Long eventId, int place);
+
+	/**
+	 * Book ticket for a place that the caller has already reserved, e.g. by a seat hold.
+	 * The reservation is not released if booking fails, it stays with the caller.
+	 *
+	 * @param userId   User Id.
+	 * @param eventId  Event Id.
+	 * @param place    Place number.
+	 * @param category Service category.
+	 * @return Booked ticket object.
+	 */
+	TicketDto bookHeldTicket(Long userId, Long eventId, Category category, int place);
+
+	/**
+	 * Charges the user account for the price and books the ticket for a place that the caller has already reserved.
+	 * The charge and the ticket are committed together, so the account is charged only if the ticket is booked.
+	 * The reservation is not released if booking fails, it stays with the caller.
+	 *
+	 * @param userId   User Id. The account with the same id is charged.
+	 * @param eventId  Event Id.
+	 * @param category Service category.
+	 * @param place    Place number.
+	 * @param price    Amount to be charged.
+	 * @return Booked ticket object.
+	 * @throws org.example.exception.AccountBalanceException if the account has insufficient funds.
+	 */
+	TicketDto purchaseHeldTicket(Long userId, Long eventId, Category category, int place, BigDecimal price);
+
 	/**
 	 * Book tickets from the collection.
 	 *
@@ -37,6 +85,18 @@ public interface TicketService {
 	 */
 	List<TicketDto> getBookedTicketsByUserId(Long userId, int pageSize, int pageNum);
 
+	/**
+	 * Get a page of booked tickets by specified user id, sorted by event date in descending order.
+	 * Pages are read by continuation token, so reading a deep page costs the same as reading the first one.
+	 *
+	 * @param userId    User id
+	 * @param pageSize  Pagination param. Number of tickets to return on a page.
+	 * @param pageToken Pagination param. Token of the page to return, null or empty for the first page.
+	 * @return Page of tickets with the token of the next page.
+	 * @throws java.lang.IllegalArgumentException if the token is malformed or the page size is less than one.
+	 */
+	PageDto<TicketDto> getBookedTicketsByUserIdAfter(Long userId, int pageSize, String pageToken);
+
 	/**
 	 * Get all booked tickets by specified event id. Tickets should be sorted in by user email in ascending order.
 	 *
@@ -47,6 +107,18 @@ public interface TicketService {
 	 */
 	List<TicketDto> getBookedTicketsByEventId(Long eventId, int pageSize, int pageNum);
 
+	/**
+	 * Get a page of booked tickets by specified event id, sorted by user email in ascending order.
+	 * Pages are read by continuation token, so reading a deep page costs the same as reading the first one.
+	 *
+	 * @param eventId   Event id
+	 * @param pageSize  Pagination param. Number of tickets to return on a page.
+	 * @param pageToken Pagination param. Token of the page to return, null or empty for the first page.
+	 * @return Page of tickets with the token of the next page.
+	 * @throws java.lang.IllegalArgumentException if the token is malformed or the page size is less than one.
+	 */
+	PageDto<TicketDto> getBookedTicketsByEventIdAfter(Long eventId, int pageSize, String pageToken);
+
 	/**
 	 * Cancel ticket with a specified id.
 	 *
@@ -54,4 +126,30 @@ public interface TicketService {
 	 * @return Flag whether anything has been canceled.
 	 */
 	void cancelTicket(Long ticketId);
+
+	/**
+	 * Releases places of all tickets of the user once the surrounding transaction is committed,
+	 * or right away without one. Should be called within the transaction that deletes the user, and with it the tickets.
+	 *
+	 * @param userId User id.
+	 */
+	void releasePlacesOfUser(Long userId);
+
+	/**
+	 * Copies the changed email of the user to the tickets of the user, which are listed by it.
+	 * Should be called within the transaction that updates the user.
+	 *
+	 * @param userId User id.
+	 * @param email  New email.
+	 */
+	void updateUserEmail(Long userId, String email);
+
+	/**
+	 * Copies the changed date of the event to the tickets of the event, which are listed by it.
+	 * Should be called within the transaction that updates the event.
+	 *
+	 * @param eventId Event id.
+	 * @param date    New date.
+	 */
+	void updateEventDate(Long eventId, LocalDate date);
 }
@@ -1,5 +1,6 @@
 package org.example.service;
 
+import org.example.dto.PageDto;
 import org.example.dto.UserDto;
 
 import java.util.List;
@@ -31,6 +32,30 @@ public interface UserService {
 	 */
 	List<UserDto> getUsersByName(String name, int pageSize, int pageNum);
 
+	/**
+	 * Get a page of users by matching name, sorted by name. Name is matched using 'contains' approach.
+	 * Pages are read by continuation token, so reading a deep page costs the same as reading the first one.
+	 *
+	 * @param name      Users name or it's part.
+	 * @param pageSize  Pagination param. Number of users to return on a page.
+	 * @param pageToken Pagination param. Token of the page to return, null or empty for the first page.
+	 * @return Page of users with the token of the next page.
+	 * @throws java.lang.IllegalArgumentException if the token is malformed or the page size is less than one.
+	 */
+	PageDto<UserDto> getUsersByNameAfter(String name, int pageSize, String pageToken);
+
+	/**
+	 * Gets users with a name word starting with the prefix, for autocomplete. Preceding words of the prefix
+	 * have to match name words as a whole. Words are runs of letters and digits, compared ignoring case.
+	 * The same users match whether or not the name trie is built, but the database sorts them by name
+	 * and the trie by the matching word and then by id.
+	 *
+	 * @param prefix Start of the user name, e.g. "jul" or "jules mc".
+	 * @param limit  Maximal number of users.
+	 * @return List of users.
+	 */
+	List<UserDto> suggestUsers(String prefix, int limit);
+
 	/**
 	 * Creates new user. User id is be auto-generated.
 	 *
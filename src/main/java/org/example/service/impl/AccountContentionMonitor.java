@@ -0,0 +1,76 @@
+package org.example.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts contended account row lock acquisitions per account.
+ * An acquisition is contended when waiting for the lock took longer than the configured wait threshold.
+ * Accounts with at least the configured number of contended acquisitions since the previous
+ * {@link #drainHotAccounts()} are reported as hot and get split into shards by {@link AccountLedgerCompactor}.
+ * The total number of contended acquisitions is published as {@code account.lock.contended}.
+ */
+@Component
+public class AccountContentionMonitor {
+
+	private final long waitThresholdNanos;
+
+	private final int hotThreshold;
+
+	private final Counter contendedCounter;
+
+	private final ConcurrentMap<Long, LongAdder> contended = new ConcurrentHashMap<>();
+
+	@Autowired
+	public AccountContentionMonitor(@Value("${account.shard.contention-wait-ms:10}") long waitThresholdMillis,
+									@Value("${account.shard.contention-threshold:50}") int hotThreshold,
+									MeterRegistry registry) {
+		this.waitThresholdNanos = TimeUnit.MILLISECONDS.toNanos(waitThresholdMillis);
+		this.hotThreshold = hotThreshold;
+		this.contendedCounter = Counter.builder("account.lock.contended")
+				.description("Number of account row lock acquisitions that waited longer than the threshold")
+				.register(registry);
+	}
+
+	/**
+	 * Records the time spent acquiring the account row lock.
+	 *
+	 * @param accountId  Account id.
+	 * @param waitNanos  Wait time in nanoseconds.
+	 */
+	public void recordWait(Long accountId, long waitNanos) {
+		if (waitNanos < waitThresholdNanos) {
+			return;
+		}
+		contended.computeIfAbsent(accountId, id -> new LongAdder()).increment();
+		contendedCounter.increment();
+	}
+
+	/**
+	 * Gets accounts which crossed the contention threshold since the previous call and resets all counts.
+	 *
+	 * @return Set of hot account ids.
+	 */
+	public Set<Long> drainHotAccounts() {
+		Set<Long> hotAccounts = new HashSet<>();
+		for (var entry : contended.entrySet()) {
+			var count = entry.getValue().sumThenReset();
+			if (count >= hotThreshold) {
+				hotAccounts.add(entry.getKey());
+			} else if (count == 0) {
+				contended.remove(entry.getKey(), entry.getValue());
+			}
+		}
+		return hotAccounts;
+	}
+}
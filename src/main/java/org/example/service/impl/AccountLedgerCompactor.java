@@ -0,0 +1,149 @@
+package org.example.service.impl;
+
+import org.example.model.Account;
+import org.example.model.AccountEntry;
+import org.example.model.AccountShard;
+import org.example.repository.AccountEntryRepository;
+import org.example.repository.AccountRepository;
+import org.example.repository.AccountShardRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Rolls pending account ledger entries into the account balance snapshots.
+ * Sharded accounts which snapshot got funds drained from their shards by a charge are visited as well.
+ * Every account is compacted in its own transaction under the account row lock, so it is serialized
+ * with charges of that account only. Entries committed while the account is compacted stay pending
+ * until the next run.
+ * <p>
+ * Accounts reported as hot by {@link AccountContentionMonitor} get more shards, starting with the initial
+ * shard count and doubling up to the maximum. The snapshot of a sharded account is spread evenly across its shards.
+ */
+@Component
+public class AccountLedgerCompactor {
+
+	private static final Logger logger = LoggerFactory.getLogger(AccountLedgerCompactor.class);
+
+	private static final int UPDATE_CHUNK_SIZE = 1000;
+
+	private final AccountRepository accountRepository;
+
+	private final AccountEntryRepository entryRepository;
+
+	private final AccountShardRepository shardRepository;
+
+	private final AccountContentionMonitor contentionMonitor;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final int initialShards;
+
+	private final int maxShards;
+
+	@Autowired
+	public AccountLedgerCompactor(AccountRepository accountRepository,
+								  AccountEntryRepository entryRepository,
+								  AccountShardRepository shardRepository,
+								  AccountContentionMonitor contentionMonitor,
+								  TransactionTemplate transactionTemplate,
+								  @Value("${account.shard.initial:4}") int initialShards,
+								  @Value("${account.shard.max:16}") int maxShards) {
+		this.accountRepository = accountRepository;
+		this.entryRepository = entryRepository;
+		this.shardRepository = shardRepository;
+		this.contentionMonitor = contentionMonitor;
+		this.transactionTemplate = transactionTemplate;
+		this.initialShards = initialShards;
+		this.maxShards = maxShards;
+	}
+
+	/**
+	 * Rolls pending entries of all accounts into their balance snapshots, spreads snapshots of sharded accounts
+	 * across their shards and adds shards to hot accounts.
+	 */
+	@Scheduled(fixedDelayString = "${account.ledger.compaction-interval-ms:60000}")
+	public void compact() {
+		var hotAccountIds = contentionMonitor.drainHotAccounts();
+		Set<Long> accountIds = new LinkedHashSet<>(entryRepository.findAccountIdsWithPendingEntries());
+		accountIds.addAll(accountRepository.findShardedIdsWithSnapshot());
+		accountIds.addAll(hotAccountIds);
+		for (var accountId : accountIds) {
+			try {
+				transactionTemplate.executeWithoutResult(status -> compact(accountId, hotAccountIds.contains(accountId)));
+			} catch (RuntimeException e) {
+				logger.warn("Failed to compact ledger of account {}: {}", accountId, e.getMessage());
+			}
+		}
+		logger.debug("Compacted ledger of {} accounts.", accountIds.size());
+	}
+
+	private void compact(Long accountId, boolean hot) {
+		var found = accountRepository.findByIdForUpdate(accountId);
+		if (found.isEmpty()) {
+			return;
+		}
+		var account = found.get();
+		var entries = entryRepository.findPendingByAccountId(accountId);
+		var total = entries.stream()
+				.map(AccountEntry::getAmount)
+				.reduce(BigDecimal.ZERO, BigDecimal::add);
+		account.setBalance(account.getBalance().add(total));
+
+		List<Long> ids = entries.stream().map(AccountEntry::getId).collect(Collectors.toList());
+		for (int from = 0; from < ids.size(); from += UPDATE_CHUNK_SIZE) {
+			entryRepository.markRolledUp(ids.subList(from, Math.min(from + UPDATE_CHUNK_SIZE, ids.size())));
+		}
+
+		if (hot) {
+			addShards(account);
+		}
+		if (account.getShards() > 0) {
+			spreadAcrossShards(account);
+		}
+	}
+
+	private void addShards(Account account) {
+		var current = account.getShards();
+		var target = current == 0 ? initialShards : Math.min(current * 2, maxShards);
+		if (target <= current) {
+			return;
+		}
+		List<AccountShard> shards = new ArrayList<>();
+		for (int shard = current; shard < target; shard++) {
+			shards.add(new AccountShard(account.getId(), shard, BigDecimal.ZERO));
+		}
+		shardRepository.saveAll(shards);
+		account.setShards(target);
+		logger.info("Split account {} into {} shards.", account.getId(), target);
+	}
+
+	private void spreadAcrossShards(Account account) {
+		var snapshot = account.getBalance();
+		if (snapshot.signum() <= 0) {
+			return;
+		}
+		var shards = account.getShards();
+		var portion = snapshot.divide(BigDecimal.valueOf(shards), 2, RoundingMode.DOWN);
+		var remainder = snapshot.subtract(portion.multiply(BigDecimal.valueOf(shards)));
+		if (portion.signum() > 0) {
+			shardRepository.creditAll(account.getId(), portion);
+		}
+		if (remainder.signum() > 0) {
+			shardRepository.credit(account.getId(), 0, remainder);
+		}
+		account.setBalance(BigDecimal.ZERO);
+	}
+}
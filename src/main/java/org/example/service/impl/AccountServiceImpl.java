@@ -3,28 +3,72 @@ package org.example.service.impl;
 import org.example.dto.AccountDto;
 import org.example.exception.AccountBalanceException;
 import org.example.exception.EntityNotFoundException;
+import org.example.mapper.DtoMapper;
 import org.example.model.Account;
+import org.example.model.AccountEntry;
+import org.example.repository.AccountEntryRepository;
 import org.example.repository.AccountRepository;
+import org.example.repository.AccountShardRepository;
 import org.example.service.AccountService;
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
 
+/**
+ * Account service with journaled refills.
+ * Charges debit the balance snapshot of the account with a single conditional statement and write nothing else.
+ * Refills are appended to the ledger as pending entries instead of updating the account row,
+ * the current balance is the balance snapshot plus all pending entries. Pending entries are rolled into the snapshot
+ * by {@link AccountLedgerCompactor}, or under the account row lock by a charge the snapshot alone does not cover.
+ * <p>
+ * Hot accounts are split into shards by {@link AccountLedgerCompactor}. Shard counts only grow, so the count
+ * of a sharded account is cached once it was read and refreshed only when its shards fall short. Charges
+ * of a known sharded account go straight to a random shard without reading or locking the account row.
+ * Refills credit a random shard. When no single shard covers the price, it is collected from the shards
+ * in ascending shard order. Every shard update is a single conditional statement, so it needs no lock
+ * of the account row. The only account row lock a charge takes is taken before any shard, the same order
+ * compaction locks them in, so charges never deadlock with compaction.
+ */
 @Service
 public class AccountServiceImpl implements AccountService {
 
 	private static final Logger logger = LoggerFactory.getLogger(AccountServiceImpl.class);
 
+	private static final int UPDATE_CHUNK_SIZE = 1000;
+
 	private final AccountRepository repository;
-	private final ModelMapper mapper;
+	private final AccountEntryRepository entryRepository;
+	private final AccountShardRepository shardRepository;
+	private final AccountContentionMonitor contentionMonitor;
+	private final DtoMapper mapper;
+
+	/**
+	 * Shard counts of sharded accounts by account id, as last read from the account row.
+	 */
+	private final Map<Long, Integer> shardCounts = new ConcurrentHashMap<>();
 
 	@Autowired
-	public AccountServiceImpl(AccountRepository repository, ModelMapper mapper) {
+	public AccountServiceImpl(AccountRepository repository,
+							  AccountEntryRepository entryRepository,
+							  AccountShardRepository shardRepository,
+							  AccountContentionMonitor contentionMonitor,
+							  DtoMapper mapper) {
 		this.repository = repository;
+		this.entryRepository = entryRepository;
+		this.shardRepository = shardRepository;
+		this.contentionMonitor = contentionMonitor;
 		this.mapper = mapper;
 	}
 
@@ -35,38 +79,93 @@ public class AccountServiceImpl implements AccountService {
 	public AccountDto createAccount(Long userId) {
 		var account = new Account();
 		account.setId(userId);
-		return mapper.map(repository.save(account), AccountDto.class);
+		account.setBalance(BigDecimal.ZERO);
+		return mapper.toDto(repository.save(account));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public AccountDto getAccount(Long accountId) {
+		var snapshot = findSnapshot(accountId);
+		return new AccountDto(accountId, currentBalance(accountId, snapshot));
 	}
 
 	/**
 	 * {@inheritDoc}
+	 * Refill is a plain insert of a ledger entry or a credit of a random shard,
+	 * so it never waits for charges of other shards.
 	 */
 	@Override
+	@Transactional
 	public AccountDto refillAccount(Long accountId, BigDecimal refillSum) {
-		var account = repository.findById(accountId)
-				.orElseThrow(() -> new EntityNotFoundException("Account not found by id: " + accountId));
-		var accountBalance = account.getBalance();
-		account.setBalance(accountBalance.add(refillSum));
+		var snapshot = findSnapshot(accountId);
+		var shards = cacheShards(accountId, snapshot);
+		if (shards > 0) {
+			shardRepository.credit(accountId, ThreadLocalRandom.current().nextInt(shards), refillSum);
+		} else {
+			entryRepository.save(new AccountEntry(accountId, refillSum));
+		}
 		logger.info("Refilled account (id: {}) by {}.", accountId, refillSum);
-		return mapper.map(repository.save(account), AccountDto.class);
+		return new AccountDto(accountId, currentBalance(accountId, snapshot));
 	}
 
 	/**
 	 * {@inheritDoc}
+	 * A charge the snapshot covers is a single conditional debit, the account row is locked only by the debit itself.
+	 * Refills are not blocked.
 	 */
 	@Override
+	@Transactional
 	public AccountDto chargeForTicket(Long accountId, BigDecimal ticketPrice) {
-		var account = repository.findById(accountId)
-				.orElseThrow(() -> new EntityNotFoundException("Account not found by id: " + accountId));
-
-		var accountBalance = account.getBalance();
-		if (accountBalance.compareTo(ticketPrice) < 0) {
+		if (!charge(accountId, ticketPrice)) {
 			logger.warn("Account {} has insufficient funds to buy the ticket with price {}.", accountId, ticketPrice);
 			throw new AccountBalanceException("Account has insufficient funds.");
 		}
-		account.setBalance(accountBalance.subtract(ticketPrice));
 		logger.info("Charged account (id: {}) for {}.", accountId, ticketPrice);
-		return mapper.map(repository.save(account), AccountDto.class);
+		return new AccountDto(accountId, currentBalance(accountId, findSnapshot(accountId)));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * A missing account does not mark the surrounding transaction for rollback,
+	 * so the caller may reject the charge and go on.
+	 */
+	@Override
+	@Transactional(noRollbackFor = EntityNotFoundException.class)
+	public boolean tryCharge(Long accountId, BigDecimal amount) {
+		if (charge(accountId, amount)) {
+			logger.info("Charged account (id: {}) for {}.", accountId, amount);
+			return true;
+		}
+		logger.warn("Account {} has insufficient funds to be charged for {}.", accountId, amount);
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * Every account is charged the same way as a single ticket, in ascending id order.
+	 */
+	@Override
+	@Transactional
+	public Set<Long> chargeAccounts(SortedMap<Long, BigDecimal> totals) {
+		var rejected = new HashSet<Long>();
+		for (var total : totals.entrySet()) {
+			var accountId = total.getKey();
+			try {
+				if (charge(accountId, total.getValue())) {
+					continue;
+				}
+				logger.warn("Account {} has insufficient funds to be charged for {}.", accountId, total.getValue());
+			} catch (EntityNotFoundException e) {
+				logger.warn("Account {} to be charged for {} is not found.", accountId, total.getValue());
+			}
+			rejected.add(accountId);
+		}
+		logger.info("Charged {} accounts, {} rejected.", totals.size() - rejected.size(), rejected.size());
+		return rejected;
 	}
 
 	/**
@@ -75,5 +174,167 @@ public class AccountServiceImpl implements AccountService {
 	@Override
 	public void deleteById(Long accountId) {
 		repository.deleteById(accountId);
+		shardCounts.remove(accountId);
+	}
+
+	/**
+	 * Charges the account.
+	 * The snapshot of an account that is not sharded is debited first. If it does not cover the amount,
+	 * pending entries are rolled into the snapshot and the debit is retried once. Accounts known to be sharded
+	 * are charged from their shards right away, others once the failed debit reveals their shards.
+	 *
+	 * @return true if the account was charged, false if it has insufficient funds.
+	 * @throws EntityNotFoundException if the account does not exist.
+	 */
+	private boolean charge(Long accountId, BigDecimal amount) {
+		var shards = shardCounts.getOrDefault(accountId, 0);
+		if (shards > 0) {
+			return chargeShards(accountId, shards, amount);
+		}
+		if (debit(accountId, amount)) {
+			return true;
+		}
+		shards = cacheShards(accountId, findSnapshot(accountId));
+		return shards > 0 ? chargeShards(accountId, shards, amount) : rollUpAndDebit(accountId, amount);
+	}
+
+	/**
+	 * Debits the snapshot. The time of the debit includes the wait for the account row lock,
+	 * so it is recorded to detect hot accounts.
+	 */
+	private boolean debit(Long accountId, BigDecimal amount) {
+		var start = System.nanoTime();
+		var debited = repository.debit(accountId, amount) == 1;
+		contentionMonitor.recordWait(accountId, System.nanoTime() - start);
+		return debited;
+	}
+
+	/**
+	 * Rolls pending entries of the account into the snapshot under the account row lock and debits the snapshot.
+	 * Entries committed meanwhile stay pending. An account sharded meanwhile is charged from its shards,
+	 * its rolled up entries are spread across the shards by the next compaction.
+	 */
+	private boolean rollUpAndDebit(Long accountId, BigDecimal amount) {
+		var snapshot = repository.findSnapshotByIdForUpdate(accountId)
+				.orElseThrow(() -> new EntityNotFoundException("Account not found by id: " + accountId));
+		var entries = entryRepository.findPendingByAccountId(accountId);
+		var total = entries.stream()
+				.map(AccountEntry::getAmount)
+				.reduce(BigDecimal.ZERO, BigDecimal::add);
+		List<Long> ids = entries.stream().map(AccountEntry::getId).collect(Collectors.toList());
+		for (int from = 0; from < ids.size(); from += UPDATE_CHUNK_SIZE) {
+			entryRepository.markRolledUp(ids.subList(from, Math.min(from + UPDATE_CHUNK_SIZE, ids.size())));
+		}
+		if (total.signum() != 0) {
+			repository.credit(accountId, total);
+		}
+		var shards = cacheShards(accountId, snapshot);
+		return shards > 0 ? chargeShards(accountId, shards, amount) : debit(accountId, amount);
+	}
+
+	/**
+	 * Charges shards of the account without touching the account row.
+	 * Only if the shards do not cover the amount, the account row is read to tell a deleted account
+	 * from one with insufficient funds, and the charge is retried if the shard count changed meanwhile.
+	 * The time spent is recorded to detect accounts that need more shards.
+	 */
+	private boolean chargeShards(Long accountId, int shards, BigDecimal amount) {
+		var start = System.nanoTime();
+		var charged = debitShard(accountId, shards, amount) || debitAcrossShards(accountId, shards, amount);
+		if (!charged) {
+			var current = cacheShards(accountId, findSnapshot(accountId));
+			if (current != shards) {
+				charged = current > 0 ? debitAcrossShards(accountId, current, amount) : rollUpAndDebit(accountId, amount);
+			}
+		}
+		contentionMonitor.recordWait(accountId, System.nanoTime() - start);
+		return charged;
+	}
+
+	/**
+	 * Caches the shard count of the snapshot, or forgets the account if it is not sharded,
+	 * like an account recreated under the id of a sharded one.
+	 *
+	 * @return Shard count of the snapshot.
+	 */
+	private int cacheShards(Long accountId, AccountRepository.Snapshot snapshot) {
+		var shards = snapshot.getShards();
+		if (shards > 0) {
+			shardCounts.put(accountId, shards);
+		} else {
+			shardCounts.remove(accountId);
+		}
+		return shards;
+	}
+
+	private AccountRepository.Snapshot findSnapshot(Long accountId) {
+		return repository.findSnapshotById(accountId)
+				.orElseThrow(() -> new EntityNotFoundException("Account not found by id: " + accountId));
+	}
+
+	private BigDecimal currentBalance(Long accountId, AccountRepository.Snapshot snapshot) {
+		var balance = snapshot.getBalance().add(entryRepository.sumPendingByAccountId(accountId));
+		return snapshot.getShards() > 0 ? balance.add(shardRepository.sumByAccountId(accountId)) : balance;
+	}
+
+	/**
+	 * Debits a random shard, which covers the amount in the common case of shards much larger than a price.
+	 * Otherwise a random shard that covers the amount is looked up. Other charges may drain the chosen shard
+	 * in between, so the next candidate is tried until none is left.
+	 */
+	private boolean debitShard(Long accountId, int shards, BigDecimal amount) {
+		if (shardRepository.debit(accountId, ThreadLocalRandom.current().nextInt(shards), amount) == 1) {
+			return true;
+		}
+		var candidates = shardRepository.findShardsCovering(accountId, amount);
+		var size = candidates.size();
+		var offset = size > 0 ? ThreadLocalRandom.current().nextInt(size) : 0;
+		for (int i = 0; i < size; i++) {
+			if (shardRepository.debit(accountId, candidates.get((offset + i) % size), amount) == 1) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Collects the amount from the shards in ascending shard order, so two collecting charges never wait
+	 * for each other in a cycle. If the shards do not cover the amount together, the collected parts are returned.
+	 */
+	private boolean debitAcrossShards(Long accountId, int shards, BigDecimal amount) {
+		var taken = new BigDecimal[shards];
+		var remaining = amount;
+		for (int shard = 0; shard < shards && remaining.signum() > 0; shard++) {
+			taken[shard] = takeFromShard(accountId, shard, remaining);
+			remaining = remaining.subtract(taken[shard]);
+		}
+		if (remaining.signum() <= 0) {
+			return true;
+		}
+		for (int shard = 0; shard < shards; shard++) {
+			if (taken[shard] != null && taken[shard].signum() > 0) {
+				shardRepository.credit(accountId, shard, taken[shard]);
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Subtracts the shard balance, at most the limit, with the same conditional debit as charges,
+	 * so a concurrent shard charge either completes first or sees the reduced shard.
+	 *
+	 * @return Subtracted amount.
+	 */
+	private BigDecimal takeFromShard(Long accountId, int shard, BigDecimal limit) {
+		while (true) {
+			var balance = shardRepository.findBalance(accountId, shard);
+			if (balance == null || balance.signum() <= 0) {
+				return BigDecimal.ZERO;
+			}
+			var portion = balance.min(limit);
+			if (shardRepository.debit(accountId, shard, portion) == 1) {
+				return portion;
+			}
+		}
 	}
 }
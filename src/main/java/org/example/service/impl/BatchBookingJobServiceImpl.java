@@ -0,0 +1,304 @@
+package org.example.service.impl;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.converter.CsvTicketReader;
+import org.example.converter.NdjsonTicketReader;
+import org.example.converter.XmlMarshaller;
+import org.example.dto.BatchBookingError;
+import org.example.dto.BatchBookingJobDto;
+import org.example.dto.BatchBookingSummary;
+import org.example.dto.TicketDto;
+import org.example.enums.BatchFormat;
+import org.example.enums.BatchJobStatus;
+import org.example.exception.EntityNotFoundException;
+import org.example.service.BatchBookingJobService;
+import org.example.service.TicketBatchService;
+import org.example.util.MappedFileInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Batch bookings running in the background. Uploads are streamed to spool files in fixed-size transfers
+ * and imported by a fixed number of worker threads, so large imports neither hold request threads nor take all database connections
+ * from interactive booking. Jobs are kept in memory and evicted once they have been finished for
+ * the retention period. Spooled files are read through memory-mapped windows and streamed to the parser
+ * through its bounded heap buffer, so the heap held by an import does not grow with the file size.
+ * <p>
+ * The number of queued and running jobs is published as {@code booking.import.jobs.active}.
+ */
+@Service
+public class BatchBookingJobServiceImpl implements BatchBookingJobService {
+
+	private static final Logger logger = LoggerFactory.getLogger(BatchBookingJobServiceImpl.class);
+
+	private static final long SPOOL_TRANSFER_SIZE = 8L * 1024 * 1024;
+
+	private final TicketBatchService ticketBatchService;
+
+	private final XmlMarshaller xmlMarshaller;
+
+	private final ThreadPoolExecutor executor;
+
+	private final long retentionMillis;
+
+	private final Path spoolDir;
+
+	private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+	@Autowired
+	public BatchBookingJobServiceImpl(TicketBatchService ticketBatchService,
+									  XmlMarshaller xmlMarshaller,
+									  MeterRegistry registry,
+									  @Value("${booking.import.workers:2}") int workers,
+									  @Value("${booking.import.queue-capacity:8}") int queueCapacity,
+									  @Value("${booking.import.job-retention-ms:3600000}") long retentionMillis,
+									  @Value("${booking.import.spool-dir:${java.io.tmpdir}}") String spoolDir) {
+		this.ticketBatchService = ticketBatchService;
+		this.xmlMarshaller = xmlMarshaller;
+		this.retentionMillis = retentionMillis;
+		this.spoolDir = Path.of(spoolDir);
+		var threadNumber = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity),
+				task -> {
+					var thread = new Thread(task, "batch-booking-" + threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		Gauge.builder("booking.import.jobs.active", executor, e -> e.getActiveCount() + e.getQueue().size())
+				.description("Number of queued and running batch booking jobs")
+				.register(registry);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public BatchBookingJobDto submit(InputStream stream, BatchFormat format) throws IOException {
+		var file = Files.createTempFile(spoolDir, "batch-booking-", format.getExtension());
+		try {
+			spool(stream, file);
+			var job = new Job(UUID.randomUUID().toString(), file, format);
+			jobs.put(job.id, job);
+			try {
+				executor.execute(() -> run(job));
+			} catch (RejectedExecutionException e) {
+				jobs.remove(job.id);
+				logger.warn("Rejected batch booking job. {} jobs are already queued.", executor.getQueue().size());
+				throw new IllegalStateException("Too many batch booking jobs, try again later");
+			}
+			logger.info("Queued batch booking job {}.", job.id);
+			return job.toDto();
+		} catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(file);
+			throw e;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public BatchBookingJobDto getJob(String jobId) {
+		var job = jobs.get(jobId);
+		if (job == null) {
+			logger.warn("Batch booking job with id {} not found.", jobId);
+			throw new EntityNotFoundException("Batch booking job with id " + jobId + " not found");
+		}
+		return job.toDto();
+	}
+
+	/**
+	 * Evicts jobs that have been finished for longer than the retention period.
+	 */
+	@Scheduled(fixedDelayString = "${booking.import.job-retention-ms:3600000}")
+	public void evictFinishedJobs() {
+		var now = System.currentTimeMillis();
+		jobs.values().removeIf(job -> job.finishedMillis > 0 && now - job.finishedMillis > retentionMillis);
+	}
+
+	/**
+	 * Stops accepting jobs and interrupts the running ones.
+	 */
+	@PreDestroy
+	public void close() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Streams the upload to the file. The channel of the file pulls the data from the stream in fixed-size transfers.
+	 */
+	private static void spool(InputStream stream, Path file) throws IOException {
+		var source = Channels.newChannel(stream);
+		try (var target = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			long position = 0;
+			long transferred;
+			while ((transferred = target.transferFrom(source, position, SPOOL_TRANSFER_SIZE)) > 0) {
+				position += transferred;
+			}
+		}
+	}
+
+	private void run(Job job) {
+		job.start();
+		try (var tickets = open(job)) {
+			var summary = ticketBatchService.bookTickets(job.counting(tickets), job::update);
+			job.update(summary);
+			job.finish(BatchJobStatus.COMPLETED, null);
+			logger.info("Batch booking job {} booked {} tickets, {} rejected.", job.id,
+					summary.getBookedTickets(), summary.getRejectedTickets());
+		} catch (IOException | RuntimeException e) {
+			logger.warn("Batch booking job {} failed. {}", job.id, e.getMessage());
+			job.finish(BatchJobStatus.FAILED, e.getMessage());
+		} finally {
+			try {
+				Files.deleteIfExists(job.file);
+			} catch (IOException e) {
+				logger.warn("Failed to delete spooled file {}. {}", job.file, e.getMessage());
+			}
+		}
+	}
+
+	private CloseableIterator<TicketDto> open(Job job) throws IOException {
+		var stream = new MappedFileInputStream(job.file);
+		try {
+			switch (job.format) {
+				case CSV:
+					return new CsvTicketReader(stream);
+				case NDJSON:
+					return new NdjsonTicketReader(stream);
+				default:
+					return xmlMarshaller.iterate(stream, TicketDto.class);
+			}
+		} catch (IOException | RuntimeException e) {
+			stream.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Progress of a job. Counters are written by the worker thread and read by pollers.
+	 */
+	private static final class Job {
+
+		private final String id;
+
+		private final Path file;
+
+		private final BatchFormat format;
+
+		private final LocalDateTime submittedAt = LocalDateTime.now();
+
+		private final AtomicLong parsedRows = new AtomicLong();
+
+		private volatile BatchJobStatus status = BatchJobStatus.QUEUED;
+
+		private volatile long committedRows;
+
+		private volatile long failedRows;
+
+		private volatile List<BatchBookingError> errors = List.of();
+
+		private volatile long startedNanos;
+
+		private volatile long elapsedNanos;
+
+		private volatile long finishedMillis;
+
+		private volatile LocalDateTime finishedAt;
+
+		private volatile String message;
+
+		private Job(String id, Path file, BatchFormat format) {
+			this.id = id;
+			this.file = file;
+			this.format = format;
+		}
+
+		private Iterator<TicketDto> counting(Iterator<TicketDto> tickets) {
+			return new Iterator<>() {
+				@Override
+				public boolean hasNext() {
+					return tickets.hasNext();
+				}
+
+				@Override
+				public TicketDto next() {
+					var ticket = tickets.next();
+					parsedRows.incrementAndGet();
+					return ticket;
+				}
+			};
+		}
+
+		private void update(BatchBookingSummary summary) {
+			committedRows = summary.getBookedTickets();
+			failedRows = summary.getRejectedTickets();
+			errors = List.copyOf(summary.getErrors());
+		}
+
+		private void start() {
+			startedNanos = System.nanoTime();
+			status = BatchJobStatus.RUNNING;
+		}
+
+		/**
+		 * Finishes the job. The finish time is written last, so a reader that sees it also sees the final state.
+		 */
+		private void finish(BatchJobStatus status, String message) {
+			this.elapsedNanos = System.nanoTime() - startedNanos;
+			this.message = message;
+			this.status = status;
+			this.finishedMillis = System.currentTimeMillis();
+			this.finishedAt = LocalDateTime.now();
+		}
+
+		private BatchBookingJobDto toDto() {
+			var finished = finishedAt;
+			var currentStatus = status;
+			var dto = new BatchBookingJobDto();
+			dto.setId(id);
+			dto.setStatus(currentStatus);
+			dto.setParsedRows(parsedRows.get());
+			dto.setCommittedRows(committedRows);
+			dto.setFailedRows(failedRows);
+			dto.setErrors(new ArrayList<>(errors));
+			dto.setMessage(message);
+			dto.setSubmittedAt(submittedAt);
+			dto.setFinishedAt(finished);
+			if (currentStatus != BatchJobStatus.QUEUED) {
+				var elapsed = finished != null ? elapsedNanos : System.nanoTime() - startedNanos;
+				dto.setRowsPerSecond(elapsed > 0 ? dto.getCommittedRows() * 1e9 / elapsed : 0);
+			}
+			return dto;
+		}
+	}
+}
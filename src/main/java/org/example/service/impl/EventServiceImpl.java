@@ -1,20 +1,33 @@
 package org.example.service.impl;
 
 import org.example.dto.EventDto;
+import org.example.dto.PageDto;
 import org.example.exception.EntityNotFoundException;
+import org.example.index.EventCalendarIndex;
+import org.example.index.EventTitleIndex;
+import org.example.index.SeatOccupancyIndex;
+import org.example.mapper.DtoMapper;
 import org.example.model.Event;
 import org.example.repository.EventRepository;
 import org.example.service.EventService;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
+import org.example.service.TicketService;
+import org.example.util.ContinuationToken;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 @Service
 public class EventServiceImpl implements EventService {
@@ -23,11 +36,24 @@ public class EventServiceImpl implements EventService {
 
 	private final EventRepository repository;
 
-	private final ModelMapper mapper;
+	private final SeatOccupancyIndex seatIndex;
+
+	private final EventTitleIndex titleIndex;
+
+	private final EventCalendarIndex calendarIndex;
+
+	private final TicketService ticketService;
+
+	private final DtoMapper mapper;
 
 	@Autowired
-	public EventServiceImpl(EventRepository repository, ModelMapper mapper) {
+	public EventServiceImpl(EventRepository repository, SeatOccupancyIndex seatIndex, EventTitleIndex titleIndex,
+							EventCalendarIndex calendarIndex, TicketService ticketService, DtoMapper mapper) {
 		this.repository = repository;
+		this.seatIndex = seatIndex;
+		this.titleIndex = titleIndex;
+		this.calendarIndex = calendarIndex;
+		this.ticketService = ticketService;
 		this.mapper = mapper;
 	}
 
@@ -38,7 +64,7 @@ public class EventServiceImpl implements EventService {
 	public EventDto getEventById(Long eventId) {
 		var event = repository.findByIdWithCache(eventId)
 				.orElseThrow(() -> new EntityNotFoundException("Event not found by id: " + eventId));
-		return mapper.map(event, EventDto.class);
+		return mapper.toDto(event);
 	}
 
 	/**
@@ -46,8 +72,27 @@ public class EventServiceImpl implements EventService {
 	 */
 	@Override
 	public List<EventDto> getEventsByTitle(String title, int pageSize, int pageNum) {
-		return mapper.map(repository.findEventsByTitleContainingIgnoreCase(title, PageRequest.of(pageNum, pageSize)),
-				new TypeToken<List<EventDto>>(){}.getType());
+		var ids = titleIndex.search(title, offset(pageNum, pageSize), pageSize);
+		if (ids == null) {
+			return mapper.toEventDtos(repository.findEventsByTitleContainingIgnoreCase(title, PageRequest.of(pageNum, pageSize)));
+		}
+		return findAllInOrder(ids);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public PageDto<EventDto> getEventsByTitleAfter(String title, int pageSize, String pageToken) {
+		PageDto.checkPageSize(pageSize);
+		var token = ContinuationToken.decode(pageToken);
+		var limit = PageRequest.of(0, pageSize + 1);
+		var events = token == null
+				? repository.findPageByTitle(title, limit)
+				: repository.findPageByTitleAfter(title, token.getKey(), token.getId(), limit);
+		return PageDto.of(events, pageSize,
+				event -> new ContinuationToken(event.getTitle(), event.getId()),
+				mapper::toDto);
 	}
 
 	/**
@@ -55,8 +100,36 @@ public class EventServiceImpl implements EventService {
 	 */
 	@Override
 	public List<EventDto> getEventsForDay(LocalDate day, int pageSize, int pageNum) {
-		return mapper.map(repository.findEventsByDate(day, PageRequest.of(pageNum, pageSize)),
-				new TypeToken<List<EventDto>>(){}.getType());
+		return mapper.toEventDtos(repository.findEventsByDate(day, PageRequest.of(pageNum, pageSize)));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<EventDto> getEventsInRange(LocalDate from, LocalDate to, int pageSize, int pageNum) {
+		checkRange(from, to);
+		var ids = calendarIndex.findIds(from, to, offset(pageNum, pageSize), pageSize);
+		if (ids == null) {
+			return mapper.toEventDtos(repository.findEventsInRange(from, to, PageRequest.of(pageNum, pageSize)));
+		}
+		return findAllInOrder(ids);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public SortedMap<LocalDate, Integer> getEventCountsInRange(LocalDate from, LocalDate to) {
+		checkRange(from, to);
+		var counts = calendarIndex.countByDay(from, to);
+		if (counts == null) {
+			counts = new TreeMap<>();
+			for (var row : repository.countEventsByDate(from, to)) {
+				counts.put((LocalDate) row[0], ((Long) row[1]).intValue());
+			}
+		}
+		return counts;
 	}
 
 	/**
@@ -64,27 +137,44 @@ public class EventServiceImpl implements EventService {
 	 */
 	@Override
 	public EventDto createEvent(EventDto eventDto) {
-		return mapper.map(repository.save(mapper.map(eventDto, Event.class)), EventDto.class);
+		var event = repository.save(mapper.toEntity(eventDto));
+		refreshOnCommit(() -> {
+			titleIndex.refresh(event.getId());
+			calendarIndex.refresh(event.getId());
+		});
+		return mapper.toDto(event);
 	}
 
 	/**
 	 * {@inheritDoc}
+	 * A changed date is copied to the tickets of the event in the same transaction.
 	 */
 	@Override
+	@Transactional
 	public EventDto updateEvent(EventDto updatedEvent) {
 		var oldEvent = repository.findById(updatedEvent.getId())
 				.orElseThrow(() -> new EntityNotFoundException("Event not found by id: " + updatedEvent.getId()));
+		var oldTitle = oldEvent.getTitle();
 		if (!updatedEvent.getTitle().isEmpty()) {
 			oldEvent.setTitle(updatedEvent.getTitle());
 		}
+		var oldDate = oldEvent.getDate();
 		if (updatedEvent.getDate() != null) {
 			oldEvent.setDate(updatedEvent.getDate());
 		}
 		if (updatedEvent.getTicketPrice() != null) {
 			oldEvent.setTicketPrice(updatedEvent.getTicketPrice());
 		}
+		var event = repository.save(oldEvent);
+		if (!Objects.equals(oldTitle, event.getTitle())) {
+			refreshOnCommit(() -> titleIndex.refresh(event.getId()));
+		}
+		if (!Objects.equals(oldDate, event.getDate())) {
+			ticketService.updateEventDate(event.getId(), event.getDate());
+			refreshOnCommit(() -> calendarIndex.refresh(event.getId()));
+		}
 		logger.info("Updated event with id {}.", updatedEvent.getId());
-		return mapper.map(repository.save(mapper.map(oldEvent, Event.class)), EventDto.class);
+		return mapper.toDto(event);
 	}
 
 	/**
@@ -93,5 +183,64 @@ public class EventServiceImpl implements EventService {
 	@Override
 	public void deleteEvent(long eventId) {
 		repository.deleteById(eventId);
+		seatIndex.evict(eventId);
+		refreshOnCommit(() -> {
+			titleIndex.refresh(eventId);
+			calendarIndex.refresh(eventId);
+		});
+	}
+
+	/**
+	 * Loads events by ids, keeping the order of the ids.
+	 */
+	private List<EventDto> findAllInOrder(List<Long> ids) {
+		var events = new HashMap<Long, Event>();
+		repository.findAllById(ids).forEach(event -> events.put(event.getId(), event));
+		return mapper.toEventDtos(ids.stream()
+				.map(events::get)
+				.filter(Objects::nonNull)
+				.collect(Collectors.toList()));
+	}
+
+	/**
+	 * Refreshes the event in the title or calendar index once the surrounding transaction is committed,
+	 * or right away without one. The indexes read the committed title and date, so neither a rollback
+	 * nor concurrent changes of the event leave a stale title or day behind.
+	 */
+	private void refreshOnCommit(Runnable refresh) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					refresh.run();
+				}
+			});
+		} else {
+			refresh.run();
+		}
+	}
+
+	/**
+	 * Gets the number of events before the page.
+	 *
+	 * @throws IllegalArgumentException if the page number is negative, the page size is less than one,
+	 *                                  or the offset does not fit into an int.
+	 */
+	private static int offset(int pageNum, int pageSize) {
+		if (pageNum < 0) {
+			throw new IllegalArgumentException("Page number must not be negative: " + pageNum);
+		}
+		PageDto.checkPageSize(pageSize);
+		try {
+			return Math.multiplyExact(pageNum, pageSize);
+		} catch (ArithmeticException e) {
+			throw new IllegalArgumentException("Page " + pageNum + " of size " + pageSize + " is out of range");
+		}
+	}
+
+	private static void checkRange(LocalDate from, LocalDate to) {
+		if (from.isAfter(to)) {
+			throw new IllegalArgumentException("Range start " + from + " is after its end " + to);
+		}
 	}
 }
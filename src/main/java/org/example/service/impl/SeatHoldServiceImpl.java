@@ -0,0 +1,154 @@
+package org.example.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.concurrent.HashedTimingWheel;
+import org.example.dto.SeatHoldDto;
+import org.example.enums.Category;
+import org.example.exception.EntityNotFoundException;
+import org.example.index.SeatOccupancyIndex;
+import org.example.service.SeatHoldService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory seat holds. A held place is claimed in the {@link SeatOccupancyIndex}, so it can be neither
+ * booked nor held by anybody else. Holds expire after the configured TTL on a {@link HashedTimingWheel}
+ * and their places are released back to the index.
+ * <p>
+ * The number of active holds is published as {@code booking.holds.active} and the number of expired holds
+ * as {@code booking.holds.expired}.
+ */
+@Service
+public class SeatHoldServiceImpl implements SeatHoldService {
+
+	private static final Logger logger = LoggerFactory.getLogger(SeatHoldServiceImpl.class);
+
+	private final SeatOccupancyIndex seatIndex;
+
+	private final long ttlSeconds;
+
+	private final Map<String, Hold> holds = new ConcurrentHashMap<>();
+
+	private final HashedTimingWheel<Hold> timingWheel;
+
+	private final Counter expiredCounter;
+
+	@Autowired
+	public SeatHoldServiceImpl(SeatOccupancyIndex seatIndex,
+							   MeterRegistry registry,
+							   @Value("${booking.hold.ttl-seconds:300}") long ttlSeconds,
+							   @Value("${booking.hold.tick-ms:100}") long tickMillis,
+							   @Value("${booking.hold.wheel-size:512}") int wheelSize) {
+		this.seatIndex = seatIndex;
+		this.ttlSeconds = ttlSeconds;
+		this.timingWheel = new HashedTimingWheel<>("seat-hold-timer", tickMillis, TimeUnit.MILLISECONDS, wheelSize, this::expire);
+		this.expiredCounter = Counter.builder("booking.holds.expired")
+				.description("Number of seat holds released by expiry")
+				.register(registry);
+		Gauge.builder("booking.holds.active", holds, Map::size)
+				.description("Number of seat holds that are neither confirmed, released nor expired")
+				.register(registry);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public SeatHoldDto holdSeat(Long userId, Long eventId, Category category, int place) {
+		if (!seatIndex.claim(eventId, place)) {
+			logger.warn("Failed to hold place {} for event {}. Place has already been taken.", place, eventId);
+			throw new IllegalStateException("Place " + place + " has already been taken for event " + eventId);
+		}
+		var dto = new SeatHoldDto(UUID.randomUUID().toString(), userId, eventId, category, place,
+				LocalDateTime.now().plusSeconds(ttlSeconds));
+		var hold = new Hold(dto);
+		//the hold is registered before its expiry is scheduled, so the expiry always finds it
+		holds.put(dto.getId(), hold);
+		var timeout = timingWheel.schedule(hold, ttlSeconds, TimeUnit.SECONDS);
+		hold.timeout = timeout;
+		if (!holds.containsKey(dto.getId())) {
+			//taken or released before its expiry was scheduled
+			timeout.cancel();
+		}
+		logger.info("Held place {} of event {} for user {} (hold id: {}).", place, eventId, userId, dto.getId());
+		return dto;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public SeatHoldDto takeHold(String holdId) {
+		var hold = removeHold(holdId);
+		return hold.dto;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void releaseHold(String holdId) {
+		var hold = removeHold(holdId);
+		releaseSeat(hold.dto);
+		logger.info("Released seat hold {}.", holdId);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void releaseSeat(SeatHoldDto hold) {
+		seatIndex.release(hold.getEventId(), hold.getPlace());
+	}
+
+	@PreDestroy
+	public void close() {
+		timingWheel.close();
+	}
+
+	/**
+	 * Removes the hold. Whoever removes the hold from the map first, the caller or the expiry, owns its place.
+	 */
+	private Hold removeHold(String holdId) {
+		var hold = holds.remove(holdId);
+		if (hold == null) {
+			throw new EntityNotFoundException("Seat hold not found or expired: " + holdId);
+		}
+		var timeout = hold.timeout;
+		if (timeout != null) {
+			timeout.cancel();
+		}
+		return hold;
+	}
+
+	private void expire(Hold hold) {
+		if (holds.remove(hold.dto.getId(), hold)) {
+			expiredCounter.increment();
+			releaseSeat(hold.dto);
+			logger.debug("Seat hold {} expired.", hold.dto.getId());
+		}
+	}
+
+	private static final class Hold {
+
+		private final SeatHoldDto dto;
+
+		private volatile HashedTimingWheel<Hold>.Timeout timeout;
+
+		private Hold(SeatHoldDto dto) {
+			this.dto = dto;
+		}
+	}
+}
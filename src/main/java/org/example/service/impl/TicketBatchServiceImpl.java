@@ -0,0 +1,252 @@
+package org.example.service.impl;
+
+import org.example.dto.BatchBookingError;
+import org.example.dto.BatchBookingSummary;
+import org.example.dto.TicketDto;
+import org.example.index.SeatConflictDetector;
+import org.example.index.SeatOccupancyIndex;
+import org.example.model.Event;
+import org.example.model.Ticket;
+import org.example.model.User;
+import org.example.repository.EventRepository;
+import org.example.repository.TicketRepository;
+import org.example.repository.UserRepository;
+import org.example.service.AccountService;
+import org.example.service.TicketBatchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class TicketBatchServiceImpl implements TicketBatchService {
+
+	private static final Logger logger = LoggerFactory.getLogger(TicketBatchServiceImpl.class);
+
+	private final EntityManager entityManager;
+
+	private final UserRepository userRepository;
+
+	private final EventRepository eventRepository;
+
+	private final TicketRepository ticketRepository;
+
+	private final SeatOccupancyIndex seatIndex;
+
+	private final AccountService accountService;
+
+	private final TransactionTemplate chunkTransaction;
+
+	private final int chunkSize;
+
+	private final int maxErrors;
+
+	@Autowired
+	public TicketBatchServiceImpl(EntityManager entityManager,
+								  UserRepository userRepository,
+								  EventRepository eventRepository,
+								  TicketRepository ticketRepository,
+								  SeatOccupancyIndex seatIndex,
+								  AccountService accountService,
+								  PlatformTransactionManager transactionManager,
+								  @Value("${booking.import.chunk-size:1000}") int chunkSize,
+								  @Value("${booking.import.max-errors:100}") int maxErrors) {
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+		}
+		this.entityManager = entityManager;
+		this.userRepository = userRepository;
+		this.eventRepository = eventRepository;
+		this.ticketRepository = ticketRepository;
+		this.seatIndex = seatIndex;
+		this.accountService = accountService;
+		this.chunkTransaction = new TransactionTemplate(transactionManager);
+		this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.chunkSize = chunkSize;
+		this.maxErrors = maxErrors;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * User and event ids of a chunk are resolved with one lookup per entity type, served from the
+	 * second-level cache where possible. Ticket prices of a chunk are summed up per user and every account
+	 * is charged once per chunk, rows of users whose account can not cover the total are rejected. Rows repeating
+	 * a seat of an earlier row of the chunk are found by {@link SeatConflictDetector} before any place is claimed,
+	 * seats sold before are rejected by the seat index, which loads them with one query per event.
+	 * Tickets of a chunk are written with one bulk insert, see {@link TicketRepository#insertAll}.
+	 * Each chunk is flushed and the persistence context is cleared before the commit,
+	 * so neither the parsed tickets nor the loaded entities outlive their chunk.
+	 */
+	@Override
+	public BatchBookingSummary bookTickets(Iterator<TicketDto> tickets) {
+		return bookTickets(tickets, summary -> {});
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public BatchBookingSummary bookTickets(Iterator<TicketDto> tickets, Consumer<BatchBookingSummary> progress) {
+		var summary = new BatchBookingSummary();
+		var chunk = new ArrayList<TicketDto>(chunkSize);
+		long row = 0;
+		while (tickets.hasNext()) {
+			chunk.clear();
+			while (chunk.size() < chunkSize && tickets.hasNext()) {
+				chunk.add(tickets.next());
+			}
+			try {
+				bookChunk(chunk, row + 1, summary);
+			} catch (RuntimeException e) {
+				logger.warn("Batch booking stopped at chunk {}, {} tickets have been booked.",
+						summary.getChunks() + 1, summary.getBookedTickets());
+				throw e;
+			}
+			row += chunk.size();
+			summary.setChunks(summary.getChunks() + 1);
+			progress.accept(summary);
+		}
+		return summary;
+	}
+
+	private void bookChunk(List<TicketDto> chunk, long firstRow, BatchBookingSummary summary) {
+		var claimed = new ArrayList<TicketDto>(chunk.size());
+		var errors = new ArrayList<BatchBookingError>();
+		try {
+			chunkTransaction.executeWithoutResult(status -> {
+				var users = userRepository.findAllByIdWithCache(
+						distinctIds(chunk, ticket -> ticket.getUser() != null ? ticket.getUser().getId() : null));
+				var events = eventRepository.findAllByIdWithCache(
+						distinctIds(chunk, ticket -> ticket.getEvent() != null ? ticket.getEvent().getId() : null));
+				var rows = new IdentityHashMap<TicketDto, Long>();
+				var totals = new TreeMap<Long, BigDecimal>();
+				var valid = new int[chunk.size()];
+				var validCount = 0;
+				for (int i = 0; i < chunk.size(); i++) {
+					var error = validate(chunk.get(i), users.keySet(), events.keySet());
+					if (error != null) {
+						errors.add(new BatchBookingError(firstRow + i, error));
+					} else {
+						valid[validCount++] = i;
+					}
+				}
+
+				var eventIds = new long[validCount];
+				var places = new int[validCount];
+				for (int j = 0; j < validCount; j++) {
+					var ticket = chunk.get(valid[j]);
+					eventIds[j] = ticket.getEvent().getId();
+					places[j] = ticket.getPlace();
+				}
+				var duplicateOf = SeatConflictDetector.findDuplicates(eventIds, places, validCount);
+
+				for (int j = 0; j < validCount; j++) {
+					var ticket = chunk.get(valid[j]);
+					var row = firstRow + valid[j];
+					if (duplicateOf[j] >= 0) {
+						errors.add(new BatchBookingError(row, "Place " + places[j] + " of event " + eventIds[j]
+								+ " is already booked in row " + (firstRow + valid[duplicateOf[j]])));
+						continue;
+					}
+					if (!seatIndex.claim(eventIds[j], places[j])) {
+						errors.add(new BatchBookingError(row,
+								"Place " + places[j] + " has already been booked for event " + eventIds[j]));
+						continue;
+					}
+					claimed.add(ticket);
+					rows.put(ticket, row);
+					var price = events.get(eventIds[j]).getTicketPrice();
+					if (price != null && price.signum() > 0) {
+						totals.merge(ticket.getUser().getId(), price, BigDecimal::add);
+					}
+				}
+
+				var unpaid = accountService.chargeAccounts(totals);
+				claimed.removeIf(ticket -> {
+					var userId = ticket.getUser().getId();
+					if (!unpaid.contains(userId)) {
+						return false;
+					}
+					errors.add(new BatchBookingError(rows.get(ticket),
+							"Account of user " + userId + " does not exist or has insufficient funds"));
+					seatIndex.release(ticket.getEvent().getId(), ticket.getPlace());
+					return true;
+				});
+
+				ticketRepository.insertAll(claimed.stream()
+						.map(ticket -> {
+							var user = users.get(ticket.getUser().getId());
+							var event = events.get(ticket.getEvent().getId());
+							var entity = new Ticket(null,
+									entityManager.getReference(User.class, user.getId()),
+									entityManager.getReference(Event.class, event.getId()),
+									ticket.getCategory(),
+									ticket.getPlace());
+							entity.setUserEmail(user.getEmail());
+							entity.setEventDate(event.getDate());
+							return entity;
+						})
+						.collect(Collectors.toList()));
+				entityManager.clear();
+			});
+		} catch (RuntimeException e) {
+			claimed.forEach(ticket -> seatIndex.release(ticket.getEvent().getId(), ticket.getPlace()));
+			throw e;
+		}
+		errors.sort(Comparator.comparingLong(BatchBookingError::getRow));
+		summary.setBookedTickets(summary.getBookedTickets() + claimed.size());
+		summary.setRejectedTickets(summary.getRejectedTickets() + errors.size());
+		errors.stream()
+				.limit(Math.max(0, maxErrors - summary.getErrors().size()))
+				.forEach(summary.getErrors()::add);
+	}
+
+	/**
+	 * Checks the ticket against the resolved ids.
+	 *
+	 * @return Error message or null if the ticket is valid.
+	 */
+	private static String validate(TicketDto ticket, Set<Long> userIds, Set<Long> eventIds) {
+		if (ticket.getUser() == null || ticket.getUser().getId() == null) {
+			return "User is not specified";
+		}
+		if (ticket.getEvent() == null || ticket.getEvent().getId() == null) {
+			return "Event is not specified";
+		}
+		if (!userIds.contains(ticket.getUser().getId())) {
+			return "User with id " + ticket.getUser().getId() + " not found";
+		}
+		if (!eventIds.contains(ticket.getEvent().getId())) {
+			return "Event with id " + ticket.getEvent().getId() + " not found";
+		}
+		if (ticket.getPlace() < 0) {
+			return "Place number must not be negative: " + ticket.getPlace();
+		}
+		return null;
+	}
+
+	private static Set<Long> distinctIds(List<TicketDto> chunk, Function<TicketDto, Long> id) {
+		return chunk.stream()
+				.map(id)
+				.filter(Objects::nonNull)
+				.collect(Collectors.toSet());
+	}
+}
@@ -0,0 +1,159 @@
+package org.example.service.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.concurrent.GroupCommitBatcher;
+import org.example.exception.AccountBalanceException;
+import org.example.exception.EntityNotFoundException;
+import org.example.model.Ticket;
+import org.example.repository.TicketRepository;
+import org.example.service.AccountService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit of single ticket bookings. Tickets booked by concurrent callers within the batch window
+ * are inserted with one {@code saveAll} and committed in one transaction, so the JDBC insert batching
+ * configured for Hibernate also applies to single bookings. Metrics are published under {@code booking.batch}.
+ * <p>
+ * Purchased tickets are charged in the same transaction as they are inserted, in ascending account id order.
+ * A ticket whose account does not pay is rejected alone, the rest of the batch is committed.
+ */
+@Component
+public class TicketBookingBatcher {
+
+	private final GroupCommitBatcher<Booking, Booking> batcher;
+
+	private final AccountService accountService;
+
+	@Autowired
+	public TicketBookingBatcher(TicketRepository ticketRepository,
+								AccountService accountService,
+								TransactionTemplate transactionTemplate,
+								MeterRegistry registry,
+								@Value("${booking.batch.window-us:300}") long windowMicros,
+								@Value("${booking.batch.max-size:64}") int maxSize) {
+		this.accountService = accountService;
+		this.batcher = new GroupCommitBatcher<>("booking.batch", windowMicros, TimeUnit.MICROSECONDS, maxSize,
+				bookings -> transactionTemplate.execute(status -> {
+					var byAccount = new ArrayList<>(bookings);
+					byAccount.sort(Comparator.comparing(Booking::getAccountId, Comparator.nullsFirst(Comparator.naturalOrder())));
+					List<Booking> paid = new ArrayList<>(bookings.size());
+					List<Ticket> tickets = new ArrayList<>(bookings.size());
+					for (var booking : byAccount) {
+						if (pay(booking)) {
+							paid.add(booking);
+							tickets.add(booking.ticket);
+						}
+					}
+					var saved = ticketRepository.saveAll(tickets).iterator();
+					paid.forEach(booking -> booking.saved = saved.next());
+					return bookings;
+				}),
+				booking -> {
+					//id and outcome may have been assigned by the failed batch
+					booking.ticket.setId(null);
+					booking.saved = null;
+					booking.rejection = null;
+					return transactionTemplate.execute(status -> {
+						if (pay(booking)) {
+							booking.saved = ticketRepository.save(booking.ticket);
+						}
+						return booking;
+					});
+				},
+				registry);
+	}
+
+	/**
+	 * Saves the ticket in the next batch and waits until the batch is committed.
+	 *
+	 * @param ticket New ticket.
+	 * @return Saved ticket.
+	 */
+	public Ticket save(Ticket ticket) {
+		return book(new Booking(ticket, null));
+	}
+
+	/**
+	 * Charges the account of the ticket user for the price and saves the ticket in the next batch,
+	 * waits until the batch is committed.
+	 *
+	 * @param ticket New ticket.
+	 * @param price  Amount to be charged.
+	 * @return Saved ticket.
+	 * @throws AccountBalanceException if the account has insufficient funds.
+	 * @throws EntityNotFoundException if the account does not exist.
+	 */
+	public Ticket purchase(Ticket ticket, BigDecimal price) {
+		return book(new Booking(ticket, price));
+	}
+
+	@PreDestroy
+	public void close() {
+		batcher.close();
+	}
+
+	private Ticket book(Booking booking) {
+		Booking booked;
+		try {
+			booked = batcher.submit(booking).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+		if (booked.rejection != null) {
+			throw booked.rejection;
+		}
+		return booked.saved;
+	}
+
+	/**
+	 * Charges the booking within the surrounding transaction. A booking that does not pay gets its rejection.
+	 */
+	private boolean pay(Booking booking) {
+		if (booking.price == null) {
+			return true;
+		}
+		try {
+			if (accountService.tryCharge(booking.getAccountId(), booking.price)) {
+				return true;
+			}
+			booking.rejection = new AccountBalanceException("Account has insufficient funds.");
+		} catch (EntityNotFoundException e) {
+			booking.rejection = e;
+		}
+		return false;
+	}
+
+	private static final class Booking {
+
+		private final Ticket ticket;
+
+		private final BigDecimal price;
+
+		private Ticket saved;
+
+		private RuntimeException rejection;
+
+		private Booking(Ticket ticket, BigDecimal price) {
+			this.ticket = ticket;
+			this.price = price;
+		}
+
+		private Long getAccountId() {
+			return price == null ? null : ticket.getUser().getId();
+		}
+	}
+}
@@ -1,30 +1,68 @@
 package org.example.service.impl;
 
+import org.example.dto.PageDto;
 import org.example.dto.TicketDto;
 import org.example.enums.Category;
+import org.example.exception.AccountBalanceException;
+import org.example.index.SeatOccupancyIndex;
+import org.example.mapper.DtoMapper;
+import org.example.model.Event;
 import org.example.model.Ticket;
 import org.example.model.TicketBuilder;
+import org.example.model.User;
+import org.example.repository.EventRepository;
 import org.example.repository.TicketRepository;
+import org.example.repository.UserRepository;
+import org.example.service.AccountService;
 import org.example.service.TicketService;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
+import org.example.util.ContinuationToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @Service
 public class TicketServiceImpl implements TicketService {
 
+	private static final Logger logger = LoggerFactory.getLogger(TicketServiceImpl.class);
+
 	private final TicketRepository ticketRepository;
 
-	private final ModelMapper mapper;
+	private final UserRepository userRepository;
+
+	private final EventRepository eventRepository;
+
+	private final SeatOccupancyIndex seatIndex;
+
+	private final TicketBookingBatcher bookingBatcher;
+
+	private final AccountService accountService;
+
+	private final DtoMapper mapper;
 
 	@Autowired
-	public TicketServiceImpl(TicketRepository repository, ModelMapper mapper) {
+	public TicketServiceImpl(TicketRepository repository,
+							 UserRepository userRepository,
+							 EventRepository eventRepository,
+							 SeatOccupancyIndex seatIndex,
+							 TicketBookingBatcher bookingBatcher,
+							 AccountService accountService,
+							 DtoMapper mapper) {
 		this.ticketRepository = repository;
+		this.userRepository = userRepository;
+		this.eventRepository = eventRepository;
+		this.seatIndex = seatIndex;
+		this.bookingBatcher = bookingBatcher;
+		this.accountService = accountService;
 		this.mapper = mapper;
 	}
 
@@ -33,12 +71,56 @@ public class TicketServiceImpl implements TicketService {
 	 */
 	@Override
 	public TicketDto bookTicket(Long userId, Long eventId, Category category, int place) {
-		var ticket = ticketRepository.save(new TicketBuilder().setUserId(userId)
-				.setEventId(eventId)
-				.setCategory(category)
-				.setPlace(place)
-				.createTicket());
-		return mapper.map(ticket, TicketDto.class);
+		claimPlace(eventId, place);
+		try {
+			var ticket = saveTicket(userId, eventId, category, place);
+			releaseOnRollback(eventId, place);
+			return ticket;
+		} catch (RuntimeException e) {
+			seatIndex.release(eventId, place);
+			throw e;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void reservePlace(Long eventId, int place) {
+		claimPlace(eventId, place);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void releasePlace(Long eventId, int place) {
+		seatIndex.release(eventId, place);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public TicketDto bookHeldTicket(Long userId, Long eventId, Category category, int place) {
+		return saveTicket(userId, eventId, category, place);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * Within a surrounding transaction the account is charged and the ticket is saved in it. Without one,
+	 * both are committed together with concurrently purchased tickets by the {@link TicketBookingBatcher}.
+	 */
+	@Override
+	public TicketDto purchaseHeldTicket(Long userId, Long eventId, Category category, int place, BigDecimal price) {
+		var ticket = newTicket(userId, eventId, category, place);
+		if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+			return mapper.toDto(bookingBatcher.purchase(ticket, price));
+		}
+		if (!accountService.tryCharge(userId, price)) {
+			throw new AccountBalanceException("Account has insufficient funds.");
+		}
+		return mapper.toDto(ticketRepository.save(ticket));
 	}
 
 	/**
@@ -46,9 +128,21 @@ public class TicketServiceImpl implements TicketService {
 	 */
 	@Override
 	public Iterable<TicketDto> bookTickets(List<TicketDto> ticketDtos) {
-		List<Ticket> tickets = mapper.map(ticketDtos, new TypeToken<List<Ticket>>(){}.getType());
-		return mapper.map(ticketRepository.saveAll(tickets),
-				new TypeToken<Iterable<TicketDto>>(){}.getType());
+		var tickets = mapper.toTickets(ticketDtos);
+		tickets.forEach(this::copySortKeys);
+		var claimed = 0;
+		try {
+			for (var ticket : tickets) {
+				claimPlace(ticket.getEvent().getId(), ticket.getPlace());
+				claimed++;
+			}
+			var savedTickets = ticketRepository.saveAll(tickets);
+			tickets.forEach(ticket -> releaseOnRollback(ticket.getEvent().getId(), ticket.getPlace()));
+			return mapper.toTicketDtos(savedTickets);
+		} catch (RuntimeException e) {
+			tickets.subList(0, claimed).forEach(ticket -> seatIndex.release(ticket.getEvent().getId(), ticket.getPlace()));
+			throw e;
+		}
 	}
 
 	/**
@@ -56,10 +150,34 @@ public class TicketServiceImpl implements TicketService {
 	 */
 	@Override
 	public List<TicketDto> getBookedTicketsByUserId(Long userId, int pageSize, int pageNum) {
-		return ticketRepository.findByUserId(userId, PageRequest.of(pageNum, pageSize))
-				.stream()
-				.map(user -> mapper.map(user, TicketDto.class))
-				.collect(Collectors.toList());
+		return ticketRepository.findByUserId(userId, PageRequest.of(pageNum, pageSize));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public PageDto<TicketDto> getBookedTicketsByUserIdAfter(Long userId, int pageSize, String pageToken) {
+		PageDto.checkPageSize(pageSize);
+		var token = ContinuationToken.decode(pageToken);
+		var limit = pageSize + 1;
+		var tickets = new ArrayList<TicketDto>(limit);
+		if (token == null) {
+			tickets.addAll(ticketRepository.findPageByUserId(userId, PageRequest.of(0, limit)));
+		} else if (token.getKey() != null) {
+			tickets.addAll(ticketRepository.findPageByUserIdAfter(userId, token.getDateKey(), token.getId(),
+					PageRequest.of(0, limit)));
+		}
+		if (tickets.size() < limit) {
+			//tickets of events without a date follow the dated ones
+			var lastId = token != null && token.getKey() == null ? token.getId() : Long.MAX_VALUE;
+			tickets.addAll(ticketRepository.findUndatedPageByUserIdAfter(userId, lastId,
+					PageRequest.of(0, limit - tickets.size())));
+		}
+		return PageDto.of(tickets, pageSize,
+				ticket -> new ContinuationToken(ticket.getEvent() == null ? null : ticket.getEvent().getDate(),
+						ticket.getId()),
+				Function.identity());
 	}
 
 	/**
@@ -67,10 +185,34 @@ public class TicketServiceImpl implements TicketService {
 	 */
 	@Override
 	public List<TicketDto> getBookedTicketsByEventId(Long eventId, int pageSize, int pageNum) {
-		return ticketRepository.findByEventId(eventId, PageRequest.of(pageNum, pageSize))
-				.stream()
-				.map(user -> mapper.map(user, TicketDto.class))
-				.collect(Collectors.toList());
+		return ticketRepository.findByEventId(eventId, PageRequest.of(pageNum, pageSize));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public PageDto<TicketDto> getBookedTicketsByEventIdAfter(Long eventId, int pageSize, String pageToken) {
+		PageDto.checkPageSize(pageSize);
+		var token = ContinuationToken.decode(pageToken);
+		var limit = pageSize + 1;
+		var tickets = new ArrayList<TicketDto>(limit);
+		if (token == null) {
+			tickets.addAll(ticketRepository.findPageByEventId(eventId, PageRequest.of(0, limit)));
+		} else if (token.getKey() != null) {
+			tickets.addAll(ticketRepository.findPageByEventIdAfter(eventId, token.getKey(), token.getId(),
+					PageRequest.of(0, limit)));
+		}
+		if (tickets.size() < limit) {
+			//tickets of users without email follow the others
+			var lastId = token != null && token.getKey() == null ? token.getId() : Long.MIN_VALUE;
+			tickets.addAll(ticketRepository.findUnaddressedPageByEventIdAfter(eventId, lastId,
+					PageRequest.of(0, limit - tickets.size())));
+		}
+		return PageDto.of(tickets, pageSize,
+				ticket -> new ContinuationToken(ticket.getUser() == null ? null : ticket.getUser().getEmail(),
+						ticket.getId()),
+				Function.identity());
 	}
 
 	/**
@@ -78,6 +220,122 @@ public class TicketServiceImpl implements TicketService {
 	 */
 	@Override
 	public void cancelTicket(Long ticketId) {
+		var ticket = ticketRepository.findById(ticketId);
 		ticketRepository.deleteById(ticketId);
+		ticket.ifPresent(t -> {
+			var eventId = t.getEvent().getId();
+			var place = t.getPlace();
+			releaseOnCommit(() -> seatIndex.release(eventId, place));
+		});
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void releasePlacesOfUser(Long userId) {
+		var seats = ticketRepository.findSeatsByUserId(userId);
+		if (!seats.isEmpty()) {
+			releaseOnCommit(() -> seats.forEach(seat -> seatIndex.release(seat.getEventId(), seat.getPlace())));
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void updateUserEmail(Long userId, String email) {
+		ticketRepository.updateUserEmail(userId, email);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void updateEventDate(Long eventId, LocalDate date) {
+		ticketRepository.updateEventDate(eventId, date);
+	}
+
+	/**
+	 * Saves the ticket in the surrounding transaction. Without one, the ticket is committed
+	 * together with concurrently booked tickets by the {@link TicketBookingBatcher}.
+	 */
+	private TicketDto saveTicket(Long userId, Long eventId, Category category, int place) {
+		var ticket = newTicket(userId, eventId, category, place);
+		var savedTicket = TransactionSynchronizationManager.isActualTransactionActive()
+				? ticketRepository.save(ticket)
+				: bookingBatcher.save(ticket);
+		return mapper.toDto(savedTicket);
+	}
+
+	private Ticket newTicket(Long userId, Long eventId, Category category, int place) {
+		var ticket = new TicketBuilder().setUserId(userId)
+				.setEventId(eventId)
+				.setCategory(category)
+				.setPlace(place)
+				.createTicket();
+		copySortKeys(ticket);
+		return ticket;
+	}
+
+	/**
+	 * Copies the email of the user and the date of the event to the ticket, which sort the ticket listings.
+	 * Both are read through the second level cache, so booking does not query the users and the events.
+	 */
+	private void copySortKeys(Ticket ticket) {
+		if (ticket.getUser() != null && ticket.getUser().getId() != null) {
+			ticket.setUserEmail(userRepository.findByIdWithCache(ticket.getUser().getId())
+					.map(User::getEmail)
+					.orElse(null));
+		}
+		if (ticket.getEvent() != null && ticket.getEvent().getId() != null) {
+			ticket.setEventDate(eventRepository.findByIdWithCache(ticket.getEvent().getId())
+					.map(Event::getDate)
+					.orElse(null));
+		}
+	}
+
+	/**
+	 * Claims the place in the seat index.
+	 *
+	 * @throws IllegalStateException if the place has already been booked.
+	 */
+	private void claimPlace(Long eventId, int place) {
+		if (!seatIndex.claim(eventId, place)) {
+			logger.warn("Failed to book place {} for event {}. Place has already been booked.", place, eventId);
+			throw new IllegalStateException("Place " + place + " has already been booked for event " + eventId);
+		}
+	}
+
+	/**
+	 * Releases the claimed place if the surrounding transaction is rolled back.
+	 */
+	private void releaseOnRollback(Long eventId, int place) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					if (status != STATUS_COMMITTED) {
+						seatIndex.release(eventId, place);
+					}
+				}
+			});
+		}
+	}
+
+	/**
+	 * Releases places once the surrounding transaction is committed, or immediately if there is none.
+	 */
+	private void releaseOnCommit(Runnable release) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					release.run();
+				}
+			});
+		} else {
+			release.run();
+		}
 	}
 }
@@ -1,32 +1,56 @@
 package org.example.service.impl;
 
+import org.example.dto.PageDto;
 import org.example.dto.UserDto;
 import org.example.exception.EntityNotFoundException;
+import org.example.index.EmailBloomFilter;
+import org.example.index.UserNameTrie;
+import org.example.mapper.DtoMapper;
 import org.example.model.User;
 import org.example.repository.UserRepository;
+import org.example.service.TicketService;
 import org.example.service.UserService;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
+import org.example.util.ContinuationToken;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 @Service
 public class UserServiceImpl implements UserService {
 
 	private static final Logger logger = LoggerFactory.getLogger(UserServiceImpl.class);
 
+	private static final int SUGGEST_CHUNK_SIZE = 100;
+
 	private final UserRepository repository;
 
-	private final ModelMapper mapper;
+	private final UserNameTrie nameTrie;
+
+	private final EmailBloomFilter emailFilter;
+
+	private final TicketService ticketService;
+
+	private final DtoMapper mapper;
 
 	@Autowired
-	public UserServiceImpl(UserRepository repository, ModelMapper mapper) {
+	public UserServiceImpl(UserRepository repository, UserNameTrie nameTrie, EmailBloomFilter emailFilter,
+						   TicketService ticketService, DtoMapper mapper) {
 		this.repository = repository;
+		this.nameTrie = nameTrie;
+		this.emailFilter = emailFilter;
+		this.ticketService = ticketService;
 		this.mapper = mapper;
 	}
 
@@ -37,7 +61,7 @@ public class UserServiceImpl implements UserService {
 	public UserDto getUserById(Long userId) {
 		var user = repository.findByIdWithCache(userId)
 				.orElseThrow(() -> new EntityNotFoundException("User not found by id: " + userId));
-		return mapper.map(user, UserDto.class);
+		return mapper.toDto(user);
 	}
 
 	/**
@@ -45,9 +69,9 @@ public class UserServiceImpl implements UserService {
 	 */
 	@Override
 	public UserDto getUserByEmail(String email) {
-		var user = repository.findByEmail(email)
+		var user = repository.findByEmailWithCache(email)
 				.orElseThrow(() -> new EntityNotFoundException("User not found by email: " + email));
-		return mapper.map(user, UserDto.class);
+		return mapper.toDto(user);
 	}
 
 	/**
@@ -56,7 +80,40 @@ public class UserServiceImpl implements UserService {
 	@Override
 	public List<UserDto> getUsersByName(String name, int pageSize, int pageNum) {
 		var users = repository.findUsersByNameContainingIgnoreCase(name, PageRequest.of(pageNum, pageSize));
-		return mapper.map(users, new TypeToken<List<UserDto>>(){}.getType());
+		return mapper.toUserDtos(users);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public PageDto<UserDto> getUsersByNameAfter(String name, int pageSize, String pageToken) {
+		PageDto.checkPageSize(pageSize);
+		var token = ContinuationToken.decode(pageToken);
+		var limit = PageRequest.of(0, pageSize + 1);
+		var users = token == null
+				? repository.findPageByName(name, limit)
+				: repository.findPageByNameAfter(name, token.getKey(), token.getId(), limit);
+		return PageDto.of(users, pageSize,
+				user -> new ContinuationToken(user.getName(), user.getId()),
+				mapper::toDto);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<UserDto> suggestUsers(String prefix, int limit) {
+		var ids = nameTrie.suggest(prefix, limit);
+		if (ids == null) {
+			return mapper.toUserDtos(suggestFromDatabase(prefix, limit));
+		}
+		var users = new HashMap<Long, User>();
+		repository.findAllById(ids).forEach(user -> users.put(user.getId(), user));
+		return mapper.toUserDtos(ids.stream()
+				.map(users::get)
+				.filter(Objects::nonNull)
+				.collect(Collectors.toList()));
 	}
 
 	/**
@@ -64,46 +121,138 @@ public class UserServiceImpl implements UserService {
 	 */
 	@Override
 	public UserDto createUser(UserDto userDto) {
-		if (repository.findByEmail(userDto.getEmail()).isEmpty()) {
-			var user = mapper.map(userDto, User.class);
-			return mapper.map(repository.save(user), UserDto.class);
+		if (isEmailTaken(userDto.getEmail())) {
+			logger.error("Failed to create user. User with email: {} already exists.", userDto.getEmail());
+			throw new IllegalArgumentException("User email must be unique");
 		}
-		logger.error("Failed to create user. User with email: {} already exists.", userDto.getEmail());
-		throw new IllegalArgumentException("User email must be unique");
+		var user = saveUnique(mapper.toEntity(userDto));
+		refreshNameOnCommit(user.getId());
+		return mapper.toDto(user);
 	}
 
 	/**
 	 * {@inheritDoc}
+	 * A changed email is copied to the tickets of the user in the same transaction.
 	 */
 	@Override
+	@Transactional
 	public UserDto updateUser(UserDto updatedUserDto) {
 		var oldUser = repository.findById(updatedUserDto.getId())
 				.orElseThrow(() -> new EntityNotFoundException("User not found by id: " + updatedUserDto.getId()));
 
+		var oldEmail = oldUser.getEmail();
 		var email = updatedUserDto.getEmail();
 		if (!email.isEmpty() && !oldUser.getEmail().equals(email)) {
-			if (repository.findByEmail(email).isEmpty()) {
-				oldUser.setEmail(email);
-			} else {
+			if (isEmailTaken(email)) {
 				logger.error("Failed to update user. User with email: {} already exists.", email);
 				throw new IllegalArgumentException("User email must be unique");
 			}
+			oldUser.setEmail(email);
 		}
 
+		var oldName = oldUser.getName();
 		if (!updatedUserDto.getName().isEmpty()) {
 			oldUser.setName(updatedUserDto.getName());
 		}
 
 		logger.info("Updated user with id {}.", updatedUserDto.getId());
 
-		return mapper.map(repository.save(oldUser), UserDto.class);
+		var user = saveUnique(oldUser);
+		if (!Objects.equals(oldEmail, user.getEmail())) {
+			ticketService.updateUserEmail(user.getId(), user.getEmail());
+		}
+		if (!Objects.equals(oldName, user.getName())) {
+			refreshNameOnCommit(user.getId());
+		}
+		return mapper.toDto(user);
 	}
 
 	/**
 	 * {@inheritDoc}
+	 * Tickets of the user are deleted by the database, their places are released in the seat index
+	 * and the user is removed from the name trie after commit.
 	 */
 	@Override
+	@Transactional
 	public void deleteUser(Long userId) {
+		refreshNameOnCommit(userId);
+		ticketService.releasePlacesOfUser(userId);
 		repository.deleteById(userId);
 	}
+
+	/**
+	 * Reads users whose name contains the last token of the prefix, page by page in name order, and keeps
+	 * the ones the name trie matches, so the same users are suggested before the trie is built and when it is disabled.
+	 */
+	private List<User> suggestFromDatabase(String prefix, int limit) {
+		var tokens = prefix == null ? List.<String>of() : UserNameTrie.tokenize(prefix);
+		if (tokens.isEmpty() || limit < 1) {
+			return List.of();
+		}
+		var last = tokens.get(tokens.size() - 1);
+		var chunk = PageRequest.of(0, Math.max(limit, SUGGEST_CHUNK_SIZE));
+		var users = new ArrayList<User>(limit);
+		var page = repository.findPageByName(last, chunk);
+		while (true) {
+			for (var user : page) {
+				if (UserNameTrie.matches(user.getName(), tokens)) {
+					users.add(user);
+					if (users.size() == limit) {
+						return users;
+					}
+				}
+			}
+			if (page.size() < chunk.getPageSize()) {
+				return users;
+			}
+			var lastUser = page.get(page.size() - 1);
+			page = repository.findPageByNameAfter(last, lastUser.getName(), lastUser.getId(), chunk);
+		}
+	}
+
+	/**
+	 * Checks whether a user has the email. The query is skipped when the email filter rules the email out.
+	 */
+	private boolean isEmailTaken(String email) {
+		if (!emailFilter.mightContain(email)) {
+			return false;
+		}
+		if (repository.findByEmailWithCache(email).isPresent()) {
+			return true;
+		}
+		emailFilter.recordFalsePositive();
+		return false;
+	}
+
+	/**
+	 * Saves the user and adds its email to the email filter. The unique constraint of the email column
+	 * decides races between users registering the same email, and emails the filter is not aware of.
+	 */
+	private User saveUnique(User user) {
+		try {
+			user = repository.saveAndFlush(user);
+		} catch (DataIntegrityViolationException e) {
+			logger.error("Failed to save user. User with email: {} already exists.", user.getEmail());
+			throw new IllegalArgumentException("User email must be unique");
+		}
+		emailFilter.add(user.getEmail());
+		return user;
+	}
+
+	/**
+	 * Refreshes the user in the name trie once the surrounding transaction is committed, or right away without one.
+	 * The trie reads the committed name, so neither a rollback nor concurrent renames leave a stale name behind.
+	 */
+	private void refreshNameOnCommit(Long userId) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					nameTrie.refresh(userId);
+				}
+			});
+		} else {
+			nameTrie.refresh(userId);
+		}
+	}
 }
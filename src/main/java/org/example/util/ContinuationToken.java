@@ -0,0 +1,88 @@
+package org.example.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a listing sorted by a key and the id, the sort key and id of the last row of the previous page.
+ * Clients get it as an opaque url-safe string and send it back unchanged to get the next page.
+ * The key is null for rows listed after all rows with a key.
+ */
+public final class ContinuationToken {
+
+	private static final char SEPARATOR = ':';
+
+	private final String key;
+
+	private final long id;
+
+	public ContinuationToken(String key, long id) {
+		this.key = key;
+		this.id = id;
+	}
+
+	public ContinuationToken(LocalDate key, long id) {
+		this(key == null ? null : key.toString(), id);
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	/**
+	 * Gets the key of a listing sorted by date.
+	 *
+	 * @return Date or null if there is no key.
+	 * @throws IllegalArgumentException if the key is not a date.
+	 */
+	public LocalDate getDateKey() {
+		if (key == null) {
+			return null;
+		}
+		try {
+			return LocalDate.parse(key);
+		} catch (DateTimeParseException e) {
+			throw new IllegalArgumentException("Invalid page token");
+		}
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	/**
+	 * Encodes the token for clients.
+	 *
+	 * @return Url-safe string.
+	 */
+	public String encode() {
+		var value = key == null ? Long.toString(id) : key + SEPARATOR + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Decodes a token sent by a client.
+	 *
+	 * @param token Encoded token, may be null or empty for the first page.
+	 * @return Token or null for the first page.
+	 * @throws IllegalArgumentException if the token is malformed.
+	 */
+	public static ContinuationToken decode(String token) {
+		if (token == null || token.isEmpty()) {
+			return null;
+		}
+		try {
+			var value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			var separator = value.lastIndexOf(SEPARATOR);
+			if (separator < 0) {
+				return new ContinuationToken((String) null, Long.parseLong(value));
+			}
+			return new ContinuationToken(value.substring(0, separator), Long.parseLong(value.substring(separator + 1)));
+		} catch (IllegalArgumentException e) {
+			//also covers malformed base64 and ids, NumberFormatException is an IllegalArgumentException
+			throw new IllegalArgumentException("Invalid page token");
+		}
+	}
+}
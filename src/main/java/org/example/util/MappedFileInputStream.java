@@ -0,0 +1,103 @@
+package org.example.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Input stream reading a file through memory-mapped windows.
+ * The file is mapped one window at a time, so files larger than a single {@link MappedByteBuffer} can be read
+ * as well. Reads copy from the mapped window into the caller's array, so the file is streamed through
+ * the bounded heap buffer of the reader instead of being loaded into the heap as a whole.
+ */
+public final class MappedFileInputStream extends InputStream {
+
+	private static final long DEFAULT_WINDOW_SIZE = 64L * 1024 * 1024;
+
+	private final FileChannel channel;
+
+	private final long size;
+
+	private final long windowSize;
+
+	private MappedByteBuffer window;
+
+	private long windowEnd;
+
+	public MappedFileInputStream(Path file) throws IOException {
+		this(file, DEFAULT_WINDOW_SIZE);
+	}
+
+	/**
+	 * Opens the file for reading.
+	 *
+	 * @param file       File to read.
+	 * @param windowSize Maximum number of bytes mapped at once, must be positive and fit into an int.
+	 */
+	public MappedFileInputStream(Path file, long windowSize) throws IOException {
+		if (windowSize < 1 || windowSize > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Window size must be between 1 and " + Integer.MAX_VALUE + ": " + windowSize);
+		}
+		this.channel = FileChannel.open(file, StandardOpenOption.READ);
+		this.size = channel.size();
+		this.windowSize = windowSize;
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!ensureWindow()) {
+			return -1;
+		}
+		return window.get() & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] bytes, int offset, int length) throws IOException {
+		if (length == 0) {
+			return 0;
+		}
+		if (!ensureWindow()) {
+			return -1;
+		}
+		var count = Math.min(length, window.remaining());
+		window.get(bytes, offset, count);
+		return count;
+	}
+
+	@Override
+	public int available() {
+		var remaining = size - position();
+		return (int) Math.min(remaining, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public void close() throws IOException {
+		window = null;
+		channel.close();
+	}
+
+	private long position() {
+		return window == null ? windowEnd : windowEnd - window.remaining();
+	}
+
+	/**
+	 * Maps the next window once the current one has been read.
+	 *
+	 * @return False if the end of the file has been reached.
+	 */
+	private boolean ensureWindow() throws IOException {
+		if (window != null && window.hasRemaining()) {
+			return true;
+		}
+		if (windowEnd >= size) {
+			return false;
+		}
+		var length = Math.min(windowSize, size - windowEnd);
+		window = channel.map(FileChannel.MapMode.READ_ONLY, windowEnd, length);
+		windowEnd += length;
+		return true;
+	}
+}
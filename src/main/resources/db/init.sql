@@ -4,6 +4,11 @@ set search_path to TICKET_BOOTH;
 drop table if exists TICKETS;
 drop sequence if exists TICKETS_ID_SEQ;
 
+drop table if exists ACCOUNT_SHARDS;
+
+drop table if exists ACCOUNT_ENTRIES;
+drop sequence if exists ACCOUNT_ENTRIES_ID_SEQ;
+
 drop table if exists ACCOUNTS;
 
 drop table if exists EVENTS;
@@ -32,9 +37,31 @@ create table EVENTS (
 create table ACCOUNTS (
 	ID				bigint primary key,
 	BALANCE	numeric (10,2) default 0,
+	SHARDS	int default 0,
 	constraint USERS_FK foreign key (ID) references USERS (ID)
 );
 
+create sequence ACCOUNT_ENTRIES_ID_SEQ no maxvalue start with 1 increment by 50;
+
+create table ACCOUNT_ENTRIES (
+	ID			bigint primary key default nextval('ACCOUNT_ENTRIES_ID_SEQ'),
+	ACCOUNT_ID	bigint not null,
+	AMOUNT		numeric (10,2) not null,
+	CREATED_AT	timestamp default now(),
+	ROLLED_UP	boolean default false,
+	constraint ACCOUNTS_FK foreign key (ACCOUNT_ID) references ACCOUNTS (ID) on delete cascade
+);
+
+create index ACCOUNT_ENTRIES_PENDING_IDX on ACCOUNT_ENTRIES (ACCOUNT_ID) where not ROLLED_UP;
+
+create table ACCOUNT_SHARDS (
+	ACCOUNT_ID	bigint not null,
+	SHARD		int not null,
+	BALANCE		numeric (10,2) default 0,
+	primary key (ACCOUNT_ID, SHARD),
+	constraint SHARD_ACCOUNTS_FK foreign key (ACCOUNT_ID) references ACCOUNTS (ID) on delete cascade
+);
+
 create sequence TICKETS_ID_SEQ no maxvalue start with 1 increment by 10;
 
 create table TICKETS (
@@ -43,10 +70,21 @@ create table TICKETS (
 	EVENT_ID	bigint,
 	CATEGORY	varchar (32),
 	PLACE 		int,
+	USER_EMAIL	varchar (255),
+	EVENT_DATE	date,
 	constraint USERS_FK foreign key (USER_ID) references USERS (ID) on delete cascade,
-	constraint EVENTS_FK foreign key (EVENT_ID) references EVENTS (ID) on delete cascade
+	constraint EVENTS_FK foreign key (EVENT_ID) references EVENTS (ID) on delete cascade,
+	constraint EVENT_PLACE_UQ unique (EVENT_ID, PLACE)
 );
 
+-- Ticket listings by user (sorted by event date) and by event (sorted by user email) are answered by index-only scans:
+-- the tickets are read in listing order from the first index of each pair, which carries the sort key copied
+-- to the ticket, so a page seeks to its continuation key, and joined through the second one for the other selected columns
+create index TICKETS_USER_IDX on TICKETS (USER_ID, EVENT_DATE desc nulls last, ID desc) include (EVENT_ID, CATEGORY, PLACE);
+create index EVENTS_DATE_IDX on EVENTS (ID, DATE_HELD) include (TITLE, TICKET_PRICE);
+create index TICKETS_EVENT_IDX on TICKETS (EVENT_ID, USER_EMAIL, ID) include (USER_ID, CATEGORY, PLACE);
+create index USERS_EMAIL_IDX on USERS (ID, EMAIL) include (FULL_NAME);
+
 insert into USERS (FULL_NAME, EMAIL)
 		values ('Jules Mcnally', 'Jules_Mcnally8158@extex.org'),
 			   ('Ramon Gray', 'Ramon_Gray3339@gmail.com'),
@@ -87,4 +125,7 @@ insert into TICKETS (USER_ID, EVENT_ID,	CATEGORY, PLACE)
 				(7, 1, 'BAR', 425),
 				(8, 3, 'BAR', 467),
 				(9, 4, 'STANDARD', 237),
-				(1, 2, 'STANDARD', 18915);
\ No newline at end of file
+				(1, 2, 'STANDARD', 18915);
+
+update TICKETS t set USER_EMAIL = (select u.EMAIL from USERS u where u.ID = t.USER_ID),
+		EVENT_DATE = (select e.DATE_HELD from EVENTS e where e.ID = t.EVENT_ID);
\ No newline at end of file
@@ -0,0 +1,79 @@
+package org.example.concurrent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GroupCommitBatcherTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+	@Test
+	void submitTestCoalescesConcurrentItems() {
+		try (var batcher = new GroupCommitBatcher<Integer, Integer>("test.batch", 50, TimeUnit.MILLISECONDS, 8,
+				items -> {
+					batchSizes.add(items.size());
+					return items.stream().map(item -> item * 2).collect(Collectors.toList());
+				},
+				item -> item * 2,
+				registry)) {
+			List<CompletableFuture<Integer>> futures = new ArrayList<>();
+			for (int i = 0; i < 20; i++) {
+				futures.add(batcher.submit(i));
+			}
+			for (int i = 0; i < 20; i++) {
+				assertEquals(i * 2, futures.get(i).join());
+			}
+		}
+		assertTrue(batchSizes.size() < 20);
+		assertTrue(batchSizes.stream().allMatch(size -> size <= 8));
+		assertEquals(20.0, registry.get("test.batch.size").summary().totalAmount());
+		assertEquals(20, registry.get("test.batch.wait").timer().count());
+	}
+
+	@Test
+	void submitTestWithFailedBatchCompletesEachItemSeparately() {
+		try (var batcher = new GroupCommitBatcher<Integer, Integer>("test.batch", 50, TimeUnit.MILLISECONDS, 8,
+				items -> {
+					throw new IllegalArgumentException("Batch failed");
+				},
+				item -> {
+					if (item < 0) {
+						throw new IllegalArgumentException("Negative item: " + item);
+					}
+					return item;
+				},
+				registry)) {
+			var valid = batcher.submit(1);
+			var invalid = batcher.submit(-1);
+
+			assertEquals(1, valid.join());
+			var e = assertThrows(CompletionException.class, invalid::join);
+			assertInstanceOf(IllegalArgumentException.class, e.getCause());
+			assertEquals("Negative item: -1", e.getCause().getMessage());
+		}
+	}
+
+	@Test
+	void submitTestOnClosedBatcherFails() {
+		var batcher = new GroupCommitBatcher<Integer, Integer>("test.batch", 1, TimeUnit.MILLISECONDS, 8,
+				items -> items, item -> item, registry);
+		batcher.close();
+		var e = assertThrows(CompletionException.class, () -> batcher.submit(1).join());
+		assertInstanceOf(IllegalStateException.class, e.getCause());
+	}
+}
@@ -0,0 +1,71 @@
+package org.example.concurrent;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares scheduling and cancelling a hold timeout on the timing wheel with a scheduled executor task
+ * while a large number of other holds is outstanding.
+ * Run with: mvn test-compile exec:exec -Pbenchmark -Dbenchmark.includes=HashedTimingWheelBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HashedTimingWheelBenchmark {
+
+	@Param({"1000000"})
+	private int outstanding;
+
+	private HashedTimingWheel<Object> wheel;
+
+	private ScheduledThreadPoolExecutor executor;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		wheel = new HashedTimingWheel<>("benchmark-timer", 100, TimeUnit.MILLISECONDS, 512, payload -> {
+		});
+		executor = new ScheduledThreadPoolExecutor(1);
+		executor.setRemoveOnCancelPolicy(true);
+		for (int i = 0; i < outstanding; i++) {
+			wheel.schedule(i, 1, TimeUnit.HOURS);
+			executor.schedule(() -> {
+			}, 1, TimeUnit.HOURS);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		wheel.close();
+		executor.shutdownNow();
+	}
+
+	@Benchmark
+	public boolean timingWheel() {
+		return wheel.schedule(this, 5, TimeUnit.MINUTES).cancel();
+	}
+
+	@Benchmark
+	public boolean scheduledExecutor() {
+		return executor.schedule(() -> {
+		}, 5, TimeUnit.MINUTES).cancel(false);
+	}
+}
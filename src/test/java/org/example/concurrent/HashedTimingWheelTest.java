@@ -0,0 +1,65 @@
+package org.example.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashedTimingWheelTest {
+
+	private final List<Integer> expired = new CopyOnWriteArrayList<>();
+
+	private final CountDownLatch latch = new CountDownLatch(3);
+
+	private final HashedTimingWheel<Integer> wheel = new HashedTimingWheel<>("test-timer", 10, TimeUnit.MILLISECONDS, 8,
+			payload -> {
+				expired.add(payload);
+				latch.countDown();
+			});
+
+	@AfterEach
+	void tearDown() {
+		wheel.close();
+	}
+
+	@Test
+	void scheduleTestExpiresPayloadsInDeadlineOrder() throws Exception {
+		//delays longer than a full rotation of the wheel take several rounds
+		wheel.schedule(3, 300, TimeUnit.MILLISECONDS);
+		wheel.schedule(1, 20, TimeUnit.MILLISECONDS);
+		wheel.schedule(2, 150, TimeUnit.MILLISECONDS);
+
+		assertTrue(latch.await(5, TimeUnit.SECONDS));
+		assertEquals(List.of(1, 2, 3), expired);
+		assertEquals(0, wheel.pendingTimeouts());
+	}
+
+	@Test
+	void cancelTestPreventsExpiry() throws Exception {
+		var cancelled = wheel.schedule(0, 50, TimeUnit.MILLISECONDS);
+		for (int i = 1; i <= 3; i++) {
+			wheel.schedule(i, 100, TimeUnit.MILLISECONDS);
+		}
+		assertTrue(cancelled.cancel());
+		assertFalse(cancelled.cancel());
+
+		assertTrue(latch.await(5, TimeUnit.SECONDS));
+		assertFalse(expired.contains(0));
+		assertTrue(cancelled.isCancelled());
+		assertFalse(cancelled.isExpired());
+	}
+
+	@Test
+	void scheduleTestOnClosedWheelThrowsException() {
+		wheel.close();
+		assertThrows(IllegalStateException.class, () -> wheel.schedule(1, 1, TimeUnit.SECONDS));
+	}
+}
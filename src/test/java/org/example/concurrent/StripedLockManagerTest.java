@@ -0,0 +1,85 @@
+package org.example.concurrent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StripedLockManagerTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	void stripeCountTestIsRoundedUpToPowerOfTwo() {
+		assertEquals(64, new StripedLockManager(50, registry).getStripeCount());
+		assertEquals(1, new StripedLockManager(1, registry).getStripeCount());
+		assertThrows(IllegalArgumentException.class, () -> new StripedLockManager(0, registry));
+	}
+
+	@Test
+	void acquireTestLocksStripesInAscendingOrder() {
+		var lockManager = new StripedLockManager(16, registry);
+		try (var lease = lockManager.acquire(LockKey.event(7), LockKey.account(7), LockKey.event(3))) {
+			var stripes = lease.getStripes();
+			for (int i = 1; i < stripes.size(); i++) {
+				assertTrue(stripes.get(i - 1) < stripes.get(i));
+			}
+		}
+	}
+
+	@Test
+	void acquireTestWithOppositeKeyOrderDoesNotDeadlock() throws Exception {
+		var lockManager = new StripedLockManager(4, registry);
+		var executor = Executors.newFixedThreadPool(4);
+		var counter = new AtomicInteger();
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				var reversed = i % 2 == 0;
+				futures.add(executor.submit(() -> {
+					for (long id = 0; id < 10_000; id++) {
+						var event = LockKey.event(id);
+						var account = LockKey.account(id + 1);
+						try (var lease = reversed ? lockManager.acquire(account, event) : lockManager.acquire(event, account)) {
+							counter.incrementAndGet();
+						}
+					}
+				}));
+			}
+			for (var future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(40_000, counter.get());
+	}
+
+	@Test
+	void acquireTestRecordsContention() throws Exception {
+		var lockManager = new StripedLockManager(1, registry);
+		var executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<?> waiter;
+			try (var lease = lockManager.acquire(LockKey.account(1))) {
+				waiter = executor.submit(() -> lockManager.acquire(LockKey.account(2)).close());
+				while (registry.get("booking.lock.contended").tag("stripe", "0").counter().count() == 0) {
+					Thread.onSpinWait();
+				}
+			}
+			waiter.get(10, TimeUnit.SECONDS);
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(2, registry.get("booking.lock.wait").tag("stripe", "0").timer().count());
+	}
+}
@@ -13,6 +13,7 @@ import org.springframework.web.context.WebApplicationContext;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -122,6 +123,31 @@ class EventControllerTest {
 		assertEquals(0, events.size());
 	}
 
+	@Test
+	void testGetEventsInRange() throws Exception{
+		var result = mockMvc.perform(get("/event/inRange")
+						.param("from", "2022-01-01")
+						.param("to", "2023-01-31")
+						.param("pageSize", "2")
+						.param("pageNum", "1"))
+				.andExpect(status().isOk())
+				.andReturn();
+		var model = result.getModelAndView().getModel();
+		var events = (List<EventDto>) model.get("eventsInRange");
+		assertEquals(1, events.size());
+		assertEquals(4L, events.get(0).getId());
+		assertEquals(Map.of(LocalDate.of(2022, 3, 7), 1, LocalDate.of(2022, 11, 27), 1, LocalDate.of(2023, 1, 14), 1),
+				model.get("eventCounts"));
+	}
+
+	@Test
+	void testGetEventsInRange_WithReversedRange() throws Exception{
+		mockMvc.perform(get("/event/inRange")
+						.param("from", "2022-01-31")
+						.param("to", "2022-01-01"))
+				.andExpect(status().isBadRequest());
+	}
+
 	@Test
 	void updateEventTest_WithAllAttributesUpdated() throws Exception{
 		var localDate = LocalDate.now();
@@ -1,8 +1,11 @@
 package org.example.controller;
 
+import org.example.dto.BatchBookingJobDto;
 import org.example.dto.EventDto;
+import org.example.dto.SeatHoldDto;
 import org.example.dto.TicketDto;
 import org.example.dto.UserDto;
+import org.example.enums.BatchJobStatus;
 import org.example.enums.Category;
 import org.example.model.Event;
 import org.example.model.Ticket;
@@ -11,6 +14,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -18,10 +22,12 @@ import org.springframework.web.context.WebApplicationContext;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
@@ -63,6 +69,143 @@ class TicketControllerTest {
 		assertEquals(PLACE, ticket.getPlace());
 	}
 
+	@Sql(value = {"classpath:drop-tables.sql"})
+	@Sql(value = {"classpath:init-create-ticket.sql"})
+	@Test
+	void testHoldAndConfirmTicket() throws Exception {
+		var holdResult = mockMvc.perform(post("/ticket/hold")
+						.flashAttr("ticket", new TicketDto(0L, USER, EVENT, Category.BAR, PLACE + 1)))
+				.andExpect(status().isOk())
+				.andExpect(model().attributeExists("seatHold"))
+				.andReturn();
+		var hold = (SeatHoldDto) holdResult.getModelAndView().getModel().get("seatHold");
+
+		//held place can not be booked by anybody else
+		mockMvc.perform(post("/ticket")
+						.flashAttr("ticket", new TicketDto(0L, USER, EVENT, Category.BAR, PLACE + 1)))
+				.andExpect(status().isConflict());
+
+		var result = mockMvc.perform(post("/ticket/hold/confirm")
+						.param("holdId", hold.getId()))
+				.andExpect(status().isOk())
+				.andExpect(model().attributeExists("createdTicket"))
+				.andReturn();
+		var ticket = (TicketDto) result.getModelAndView().getModel().get("createdTicket");
+		assertEquals(PLACE + 1, ticket.getPlace());
+
+		mockMvc.perform(post("/ticket/hold/confirm")
+						.param("holdId", hold.getId()))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void testHoldAndReleaseTicket() throws Exception {
+		var holdResult = mockMvc.perform(post("/ticket/hold")
+						.flashAttr("ticket", new TicketDto(0L, USER, EVENT, Category.BAR, PLACE + 2)))
+				.andExpect(status().isOk())
+				.andReturn();
+		var hold = (SeatHoldDto) holdResult.getModelAndView().getModel().get("seatHold");
+
+		mockMvc.perform(post("/ticket/hold/release")
+						.param("holdId", hold.getId()))
+				.andExpect(status().isOk())
+				.andExpect(model().attribute("releasedHoldId", hold.getId()));
+
+		//released place can be held again
+		mockMvc.perform(post("/ticket/hold")
+						.flashAttr("ticket", new TicketDto(0L, USER, EVENT, Category.BAR, PLACE + 2)))
+				.andExpect(status().isOk());
+	}
+
+	@Sql(value = {"classpath:drop-tables.sql"})
+	@Sql(value = {"classpath:init-create-ticket.sql"})
+	@Test
+	void testBatchBookTickets() throws Exception {
+		var xml = "<tickets>" +
+				"<item><user><id>1</id></user><event><id>1</id></event><category>BAR</category><place>" + (PLACE + 3) + "</place></item>" +
+				"<item><user><id>1</id></user><event><id>1</id></event><category>BAR</category><place>" + (PLACE + 4) + "</place></item>" +
+				"</tickets>";
+		var result = mockMvc.perform(multipart("/ticket/batch")
+						.file(new MockMultipartFile("file", "tickets.xml", MediaType.APPLICATION_XML_VALUE, xml.getBytes())))
+				.andExpect(status().isOk())
+				.andExpect(model().attributeExists("batchBookingJob"))
+				.andReturn();
+		var job = (BatchBookingJobDto) result.getModelAndView().getModel().get("batchBookingJob");
+
+		for (int i = 0; i < 100 && job.getFinishedAt() == null; i++) {
+			Thread.sleep(50);
+			job = (BatchBookingJobDto) mockMvc.perform(get("/ticket/batch/" + job.getId()))
+					.andExpect(status().isOk())
+					.andReturn().getModelAndView().getModel().get("batchBookingJob");
+		}
+
+		assertEquals(BatchJobStatus.COMPLETED, job.getStatus());
+		assertEquals(2, job.getParsedRows());
+		assertEquals(2, job.getCommittedRows());
+		assertEquals(0, job.getFailedRows());
+	}
+
+	@Sql(value = {"classpath:drop-tables.sql"})
+	@Sql(value = {"classpath:init-create-ticket.sql"})
+	@Test
+	void testBatchBookTickets_WithOctetStreamNdjsonFile() throws Exception {
+		var ndjson = "{\"userId\":1,\"eventId\":1,\"category\":\"BAR\",\"place\":" + (PLACE + 7) + "}\n" +
+				"{\"userId\":1,\"eventId\":1,\"category\":\"BAR\",\"place\":" + (PLACE + 8) + "}\n";
+		var result = mockMvc.perform(multipart("/ticket/batch")
+						.file(new MockMultipartFile("file", "tickets.ndjson", MediaType.APPLICATION_OCTET_STREAM_VALUE,
+								ndjson.getBytes())))
+				.andExpect(status().isOk())
+				.andExpect(model().attributeExists("batchBookingJob"))
+				.andReturn();
+		var job = (BatchBookingJobDto) result.getModelAndView().getModel().get("batchBookingJob");
+
+		for (int i = 0; i < 100 && job.getFinishedAt() == null; i++) {
+			Thread.sleep(50);
+			job = (BatchBookingJobDto) mockMvc.perform(get("/ticket/batch/" + job.getId()))
+					.andExpect(status().isOk())
+					.andReturn().getModelAndView().getModel().get("batchBookingJob");
+		}
+
+		assertEquals(BatchJobStatus.COMPLETED, job.getStatus());
+		assertEquals(2, job.getParsedRows());
+		assertEquals(2, job.getCommittedRows());
+	}
+
+	@Sql(value = {"classpath:drop-tables.sql"})
+	@Sql(value = {"classpath:init-create-ticket.sql"})
+	@Test
+	void testBatchBookTickets_WithRawBodyOverMultipartLimit() throws Exception {
+		var xml = "<tickets>" +
+				"<!--" + " ".repeat(256 * 1024) + "-->" +
+				"<item><user><id>1</id></user><event><id>1</id></event><category>BAR</category><place>" + (PLACE + 5) + "</place></item>" +
+				"<item><user><id>1</id></user><event><id>1</id></event><category>BAR</category><place>" + (PLACE + 6) + "</place></item>" +
+				"</tickets>";
+		var result = mockMvc.perform(post("/ticket/batch")
+						.contentType(MediaType.APPLICATION_XML)
+						.content(xml.getBytes()))
+				.andExpect(status().isOk())
+				.andExpect(model().attributeExists("batchBookingJob"))
+				.andReturn();
+		var job = (BatchBookingJobDto) result.getModelAndView().getModel().get("batchBookingJob");
+
+		for (int i = 0; i < 100 && job.getFinishedAt() == null; i++) {
+			Thread.sleep(50);
+			job = (BatchBookingJobDto) mockMvc.perform(get("/ticket/batch/" + job.getId()))
+					.andExpect(status().isOk())
+					.andReturn().getModelAndView().getModel().get("batchBookingJob");
+		}
+
+		assertEquals(BatchJobStatus.COMPLETED, job.getStatus());
+		assertEquals(2, job.getParsedRows());
+		assertEquals(2, job.getCommittedRows());
+	}
+
+	@Test
+	void testGetBatchBookingJob_WithNotExistingJob() throws Exception {
+		mockMvc.perform(get("/ticket/batch/unknown"))
+				.andExpect(status().isNotFound());
+	}
+
 	@Test
 	void testGetTicketsByUser_WithExistingUser() throws Exception {
 		var result = mockMvc.perform(get("/ticket/byUser")
@@ -113,6 +256,43 @@ class TicketControllerTest {
 		assertEquals(EVENT_ID, tickets.get(0).getEvent().getId());
 	}
 
+	@Test
+	void testGetTicketsByEvent_WithPageToken() throws Exception {
+		var ids = new ArrayList<Long>();
+		var pageToken = "";
+		while (pageToken != null) {
+			var model = mockMvc.perform(get("/ticket/byEvent")
+							.param("eventId", "2")
+							.param("pageSize", "1")
+							.param("pageToken", pageToken))
+					.andExpect(status().isOk())
+					.andReturn().getModelAndView().getModel();
+			var tickets = (List<TicketDto>) model.get("ticketsByEvent");
+			assertEquals(1, tickets.size());
+			ids.add(tickets.get(0).getId());
+			pageToken = (String) model.get("nextPageToken");
+		}
+		//sorted by user email
+		assertEquals(List.of(6L, 10L, 7L), ids);
+	}
+
+	@Test
+	void testGetTicketsByUser_WithInvalidPageToken() throws Exception {
+		mockMvc.perform(get("/ticket/byUser")
+						.param("userId", String.valueOf(USER_ID))
+						.param("pageToken", "not a token"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void testGetTicketsByUser_WithZeroPageSize() throws Exception {
+		mockMvc.perform(get("/ticket/byUser")
+						.param("userId", String.valueOf(USER_ID))
+						.param("pageSize", "0")
+						.param("pageToken", ""))
+				.andExpect(status().isBadRequest());
+	}
+
 	@Test
 	void testGetTicketsByEvent_WithNotExistingEvent() throws Exception {
 		var result = mockMvc.perform(get("/ticket/byEvent")
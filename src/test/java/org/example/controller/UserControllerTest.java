@@ -15,9 +15,11 @@ import org.springframework.web.context.WebApplicationContext;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.springframework.test.context.jdbc.SqlConfig.TransactionMode.ISOLATED;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -105,6 +107,39 @@ class UserControllerTest {
 		assertEquals(USER_NAME, users.get(0).getName());
 	}
 
+	@Test
+	void testGetUsersByName_WithPageToken() throws Exception{
+		var first = mockMvc.perform(get("/user/byName")
+						.param("name", "lucas")
+						.param("pageSize", "1")
+						.param("pageToken", ""))
+				.andExpect(status().isOk())
+				.andReturn().getModelAndView().getModel();
+		var users = (List<UserDto>) first.get("users");
+		assertEquals("Lucas Bennett", users.get(0).getName());
+
+		var second = mockMvc.perform(get("/user/byName")
+						.param("name", "lucas")
+						.param("pageSize", "1")
+						.param("pageToken", (String) first.get("nextPageToken")))
+				.andExpect(status().isOk())
+				.andReturn().getModelAndView().getModel();
+		users = (List<UserDto>) second.get("users");
+		assertEquals("Madelyn Lucas", users.get(0).getName());
+		assertNull(second.get("nextPageToken"));
+	}
+
+	@Test
+	void testSuggestUsers() throws Exception{
+		mockMvc.perform(get("/user/suggest")
+						.param("prefix", "LUC")
+						.param("limit", "5"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(2))
+				.andExpect(jsonPath("$[0].name").value("Lucas Bennett"))
+				.andExpect(jsonPath("$[1].name").value("Madelyn Lucas"));
+	}
+
 	@Test
 	void testGetUsersByName_WithNotExistingName() throws Exception{
 		var result = mockMvc.perform(get("/user/byName")
@@ -0,0 +1,78 @@
+package org.example.converter;
+
+import org.example.dto.TicketDto;
+import org.example.enums.Category;
+import org.example.exception.UnmarshallingException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvTicketReaderTest {
+
+	@Test
+	void readTest() {
+		var tickets = read("userId,eventId,category,place\r\n" +
+				"1,2,BAR,3\r\n" +
+				"\r\n" +
+				"\"4\", \"5\" ,\"PREMIUM\",6\n" +
+				"7,8,STANDARD,-9");
+
+		assertEquals(3, tickets.size());
+		assertEquals(1L, tickets.get(0).getUser().getId());
+		assertEquals(2L, tickets.get(0).getEvent().getId());
+		assertEquals(Category.BAR, tickets.get(0).getCategory());
+		assertEquals(3, tickets.get(0).getPlace());
+		assertEquals(4L, tickets.get(1).getUser().getId());
+		assertEquals(5L, tickets.get(1).getEvent().getId());
+		assertEquals(Category.PREMIUM, tickets.get(1).getCategory());
+		assertEquals(Category.STANDARD, tickets.get(2).getCategory());
+		assertEquals(-9, tickets.get(2).getPlace());
+	}
+
+	@Test
+	void readTestWithEmptyFields() {
+		var tickets = read(",,,\n");
+
+		assertEquals(1, tickets.size());
+		assertNull(tickets.get(0).getUser());
+		assertNull(tickets.get(0).getEvent());
+		assertNull(tickets.get(0).getCategory());
+		assertEquals(0, tickets.get(0).getPlace());
+	}
+
+	@Test
+	void readTestWithEmptyStream() {
+		assertTrue(read("").isEmpty());
+		assertTrue(read("userId,eventId,category,place\n").isEmpty());
+	}
+
+	@Test
+	void readTestWithUnknownCategory() {
+		var e = assertThrows(UnmarshallingException.class, () -> read("1,2,BAR,3\n1,2,VIP,3\n"));
+
+		assertEquals("Unknown category in line 2", e.getMessage());
+	}
+
+	@Test
+	void readTestWithInvalidNumber() {
+		assertThrows(UnmarshallingException.class, () -> read("1,x,BAR,3\n"));
+		assertThrows(UnmarshallingException.class, () -> read("1,2,BAR,3,4\n"));
+		assertThrows(UnmarshallingException.class, () -> read("1,2,BAR,99999999999\n"));
+	}
+
+	private static List<TicketDto> read(String csv) {
+		var tickets = new ArrayList<TicketDto>();
+		try (var reader = new CsvTicketReader(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)))) {
+			reader.forEachRemaining(tickets::add);
+		}
+		return tickets;
+	}
+}
@@ -0,0 +1,65 @@
+package org.example.converter;
+
+import org.example.dto.TicketDto;
+import org.example.enums.Category;
+import org.example.exception.UnmarshallingException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NdjsonTicketReaderTest {
+
+	@Test
+	void readTest() {
+		var tickets = read("{\"userId\":1,\"eventId\":2,\"category\":\"BAR\",\"place\":3}\n" +
+				"\n" +
+				"{ \"place\" : 6, \"note\": {\"text\": \"a \\\"}\", \"tags\": [1, {}]}, \"category\": \"PREMIUM\", " +
+				"\"userId\": 4, \"eventId\": 5 }\r\n" +
+				"{\"userId\":7,\"eventId\":null,\"category\":null}");
+
+		assertEquals(3, tickets.size());
+		assertEquals(1L, tickets.get(0).getUser().getId());
+		assertEquals(2L, tickets.get(0).getEvent().getId());
+		assertEquals(Category.BAR, tickets.get(0).getCategory());
+		assertEquals(3, tickets.get(0).getPlace());
+		assertEquals(4L, tickets.get(1).getUser().getId());
+		assertEquals(5L, tickets.get(1).getEvent().getId());
+		assertEquals(Category.PREMIUM, tickets.get(1).getCategory());
+		assertEquals(6, tickets.get(1).getPlace());
+		assertEquals(7L, tickets.get(2).getUser().getId());
+		assertNull(tickets.get(2).getEvent());
+		assertNull(tickets.get(2).getCategory());
+	}
+
+	@Test
+	void readTestWithEmptyStream() {
+		assertTrue(read("").isEmpty());
+		assertTrue(read("\n\n").isEmpty());
+	}
+
+	@Test
+	void readTestWithMalformedObject() {
+		var e = assertThrows(UnmarshallingException.class,
+				() -> read("{\"userId\":1}\n{\"userId\":1 \"eventId\":2}\n"));
+
+		assertEquals("Expected ',' or '}' in line 2", e.getMessage());
+		assertThrows(UnmarshallingException.class, () -> read("{\"place\":\"3\"}"));
+		assertThrows(UnmarshallingException.class, () -> read("{\"category\":\"VIP\"}"));
+	}
+
+	private static List<TicketDto> read(String ndjson) {
+		var tickets = new ArrayList<TicketDto>();
+		try (var reader = new NdjsonTicketReader(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)))) {
+			reader.forEachRemaining(tickets::add);
+		}
+		return tickets;
+	}
+}
@@ -0,0 +1,98 @@
+package org.example.converter;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import org.example.dto.TicketDto;
+import org.example.enums.Category;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.util.CloseableIterator;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading the same ticket list from xml, csv and newline-delimited json.
+ * Run with: mvn test-compile exec:exec -Pbenchmark -Dbenchmark.includes=TicketFormatBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class TicketFormatBenchmark {
+
+	@Param({"1000000"})
+	private int rows;
+
+	private final XmlMarshaller xmlMarshaller = new XmlMarshaller(new XmlMapper());
+
+	private byte[] xml;
+
+	private byte[] csv;
+
+	private byte[] ndjson;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		var random = new Random(42);
+		var categories = Category.values();
+		var xmlBuilder = new StringBuilder("<tickets>");
+		var csvBuilder = new StringBuilder("userId,eventId,category,place\n");
+		var ndjsonBuilder = new StringBuilder();
+		for (int i = 0; i < rows; i++) {
+			var userId = 1 + random.nextInt(100_000);
+			var eventId = 1 + random.nextInt(1_000);
+			var category = categories[random.nextInt(categories.length)];
+			var place = random.nextInt(10_000);
+			xmlBuilder.append("<item><user><id>").append(userId).append("</id></user><event><id>").append(eventId)
+					.append("</id></event><category>").append(category).append("</category><place>").append(place)
+					.append("</place></item>");
+			csvBuilder.append(userId).append(',').append(eventId).append(',').append(category).append(',').append(place)
+					.append('\n');
+			ndjsonBuilder.append("{\"userId\":").append(userId).append(",\"eventId\":").append(eventId)
+					.append(",\"category\":\"").append(category).append("\",\"place\":").append(place).append("}\n");
+		}
+		xml = xmlBuilder.append("</tickets>").toString().getBytes(StandardCharsets.UTF_8);
+		csv = csvBuilder.toString().getBytes(StandardCharsets.UTF_8);
+		ndjson = ndjsonBuilder.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public long xml() throws IOException {
+		return sumPlaces(xmlMarshaller.iterate(new ByteArrayInputStream(xml), TicketDto.class));
+	}
+
+	@Benchmark
+	public long csv() {
+		return sumPlaces(new CsvTicketReader(new ByteArrayInputStream(csv)));
+	}
+
+	@Benchmark
+	public long ndjson() {
+		return sumPlaces(new NdjsonTicketReader(new ByteArrayInputStream(ndjson)));
+	}
+
+	private static long sumPlaces(CloseableIterator<TicketDto> tickets) {
+		long sum = 0;
+		try (tickets) {
+			while (tickets.hasNext()) {
+				sum += tickets.next().getPlace();
+			}
+		}
+		return sum;
+	}
+}
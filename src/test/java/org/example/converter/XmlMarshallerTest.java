@@ -0,0 +1,107 @@
+package org.example.converter;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import org.example.dto.TicketDto;
+import org.example.enums.Category;
+import org.example.exception.UnmarshallingException;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class XmlMarshallerTest {
+
+	private final XmlMarshaller marshaller = new XmlMarshaller(new XmlMapper());
+
+	@Test
+	void iterateTest() throws Exception {
+		var xml = "<tickets>" +
+				"<item><user><id>1</id></user><event><id>2</id></event><category>BAR</category><place>3</place></item>" +
+				"<item/>" +
+				"<item><user><id>4</id></user><event><id>5</id></event><category>PREMIUM</category><place>6</place></item>" +
+				"</tickets>";
+		var tickets = new ArrayList<TicketDto>();
+		try (var iterator = marshaller.iterate(stream(xml), TicketDto.class)) {
+			iterator.forEachRemaining(tickets::add);
+		}
+
+		assertEquals(2, tickets.size());
+		assertEquals(1L, tickets.get(0).getUser().getId());
+		assertEquals(2L, tickets.get(0).getEvent().getId());
+		assertEquals(Category.BAR, tickets.get(0).getCategory());
+		assertEquals(3, tickets.get(0).getPlace());
+		assertEquals(6, tickets.get(1).getPlace());
+	}
+
+	@Test
+	void iterateTestReadsItemsLazily() throws Exception {
+		var count = 100_000;
+		var items = new Enumeration<InputStream>() {
+			private int next = -1;
+
+			@Override
+			public boolean hasMoreElements() {
+				return next <= count;
+			}
+
+			@Override
+			public InputStream nextElement() {
+				var current = next++;
+				if (current < 0) {
+					return stream("<tickets>");
+				}
+				if (current == count) {
+					return stream("</tickets>");
+				}
+				return stream("<item><user><id>1</id></user><event><id>1</id></event><place>" + current + "</place></item>");
+			}
+		};
+		var read = 0;
+		try (var iterator = marshaller.iterate(new SequenceInputStream(items), TicketDto.class)) {
+			while (iterator.hasNext()) {
+				assertEquals(read++, iterator.next().getPlace());
+			}
+		}
+
+		assertEquals(count, read);
+	}
+
+	@Test
+	void iterateTestWithEmptyList() throws Exception {
+		try (var iterator = marshaller.iterate(stream("<tickets/>"), TicketDto.class)) {
+			assertFalse(iterator.hasNext());
+		}
+	}
+
+	@Test
+	void iterateTestWithoutList() {
+		assertThrows(UnmarshallingException.class, () -> marshaller.iterate(stream("<tickets>text</tickets>"), TicketDto.class));
+	}
+
+	@Test
+	void parseTestWithResourceNotBackedByFile() throws Exception {
+		var xml = "<tickets>" +
+				"<item><user><id>1</id></user><event><id>2</id></event><category>BAR</category><place>3</place></item>" +
+				"</tickets>";
+		var tickets = marshaller.parse(new ByteArrayResource(xml.getBytes(StandardCharsets.UTF_8)),
+				new TypeReference<List<TicketDto>>() {});
+
+		assertEquals(1, tickets.size());
+		assertEquals(3, tickets.get(0).getPlace());
+	}
+
+	private static InputStream stream(String xml) {
+		return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,78 @@
+package org.example.facade.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.dto.EventDto;
+import org.example.dto.TicketDto;
+import org.example.dto.UserDto;
+import org.example.enums.Category;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Sql(value = {"classpath:drop-tables.sql"})
+@Sql(value = {"classpath:create-tables.sql"})
+@SpringBootTest(properties = "booking.batch.window-us=20000")
+@DirtiesContext
+class BookingFacadeImplConcurrencyTest {
+
+	private static final int THREADS = 8;
+
+	private static final BigDecimal TICKET_PRICE = BigDecimal.valueOf(15);
+
+	@Autowired
+	private BookingFacadeImpl facade;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Test
+	void purchaseTicketTestCommitsConcurrentPurchasesOfOneEventTogether() throws Exception {
+		var eventId = facade.createEvent(new EventDto(0L, "Title", LocalDate.now(), TICKET_PRICE)).getId();
+		var userIds = new ArrayList<Long>();
+		for (int i = 0; i < THREADS; i++) {
+			var userId = facade.createUser(new UserDto(0L, "Buyer", "buyer" + i + "@mail.com")).getId();
+			facade.createAccount(userId);
+			facade.refillAccount(userId, TICKET_PRICE);
+			userIds.add(userId);
+		}
+
+		var start = new CountDownLatch(1);
+		var executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<TicketDto>> futures = new ArrayList<>();
+			for (int i = 0; i < THREADS; i++) {
+				var userId = userIds.get(i);
+				var place = i;
+				futures.add(executor.submit(() -> {
+					start.await();
+					return facade.purchaseTicket(userId, eventId, Category.STANDARD, place);
+				}));
+			}
+			start.countDown();
+			for (int i = 0; i < THREADS; i++) {
+				assertEquals(userIds.get(i), futures.get(i).get(60, TimeUnit.SECONDS).getUser().getId());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		var batchSize = registry.get("booking.batch.size").summary();
+		assertTrue(batchSize.max() > 1, "Largest batch: " + batchSize.max());
+		assertTrue(batchSize.count() < THREADS, "Batches: " + batchSize.count());
+		assertEquals(THREADS, facade.getBookedTicketsByEventId(eventId, THREADS + 1, 0).size());
+	}
+}
@@ -3,24 +3,33 @@ package org.example.facade.impl;
 import org.example.dto.EventDto;
 import org.example.dto.UserDto;
 import org.example.enums.Category;
+import org.example.exception.AccountBalanceException;
+import org.example.index.SeatOccupancyIndex;
 import org.example.model.Event;
 import org.example.model.Ticket;
 import org.example.model.User;
+import org.example.service.AccountService;
+import org.example.service.TicketService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.time.LocalDate;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 @Sql(value = {"classpath:drop-tables.sql"})
 @Sql(value = {"classpath:create-tables.sql"})
 @SpringBootTest
+@DirtiesContext
 class BookingFacadeImplTest {
 
 	private final String userName = "Name";
@@ -28,6 +37,18 @@ class BookingFacadeImplTest {
 	@Autowired
 	private BookingFacadeImpl facade;
 
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private TicketService ticketService;
+
+	@Autowired
+	private SeatOccupancyIndex seatIndex;
+
 	@Test
 	void endToEndTest(){
 		//Creating user
@@ -69,4 +90,127 @@ class BookingFacadeImplTest {
 		//Checking that ticket doesn't exist
 		assertEquals(0, facade.getBookedTicketsByEventId(savedEventId, 10, 0).size());
 	}
+
+	@Test
+	void purchaseTicketTestChargesOnlyBookedTickets() {
+		var userId = facade.createUser(new UserDto(0L, userName, "buyer@mail.com")).getId();
+		facade.createAccount(userId);
+		facade.refillAccount(userId, BigDecimal.TEN);
+		var eventId = facade.createEvent(new EventDto(0L, "Title", LocalDate.now(), BigDecimal.valueOf(15))).getId();
+
+		assertThrows(AccountBalanceException.class, () -> facade.purchaseTicket(userId, eventId, Category.STANDARD, 1));
+		assertEquals(0, BigDecimal.TEN.compareTo(accountService.getAccount(userId).getBalance()));
+		assertEquals(0, facade.getBookedTicketsByEventId(eventId, 10, 0).size());
+
+		//the place of the rejected purchase is free again
+		facade.refillAccount(userId, BigDecimal.TEN);
+		var ticket = facade.purchaseTicket(userId, eventId, Category.STANDARD, 1);
+		assertEquals(userId, ticket.getUser().getId());
+		assertEquals(0, BigDecimal.valueOf(5).compareTo(accountService.getAccount(userId).getBalance()));
+		assertThrows(IllegalStateException.class, () -> facade.purchaseTicket(userId, eventId, Category.STANDARD, 1));
+		assertEquals(0, BigDecimal.valueOf(5).compareTo(accountService.getAccount(userId).getBalance()));
+	}
+
+	@Test
+	void deleteUserTestReleasesPlacesOfTheUser() {
+		var userId = facade.createUser(new UserDto(0L, userName, "leaver@mail.com")).getId();
+		var eventId = facade.createEvent(new EventDto(0L, "Title", LocalDate.now(), BigDecimal.ZERO)).getId();
+		facade.bookTicket(userId, eventId, Category.STANDARD, 2);
+
+		facade.deleteUser(userId);
+
+		var otherUserId = facade.createUser(new UserDto(0L, userName, "other@mail.com")).getId();
+		var ticket = facade.bookTicket(otherUserId, eventId, Category.STANDARD, 2);
+		assertEquals(otherUserId, ticket.getUser().getId());
+	}
+
+	@Test
+	void deleteUserTestKeepsNameOfUserOnRollback() {
+		var userId = facade.createUser(new UserDto(0L, "Rollback Candidate", "rollback@mail.com")).getId();
+
+		transactionTemplate.executeWithoutResult(status -> {
+			facade.deleteUser(userId);
+			status.setRollbackOnly();
+		});
+		assertEquals(1, facade.suggestUsers("rollback", 10).size());
+
+		facade.deleteUser(userId);
+		assertTrue(facade.suggestUsers("rollback", 10).isEmpty());
+	}
+
+	@Test
+	void deleteEventTestKeepsEventInCalendarOnRollback() {
+		var day = LocalDate.of(2031, 5, 17);
+		var eventId = facade.createEvent(new EventDto(0L, "Title", day, BigDecimal.ZERO)).getId();
+
+		transactionTemplate.executeWithoutResult(status -> {
+			facade.deleteEvent(eventId);
+			status.setRollbackOnly();
+		});
+		assertEquals(1, facade.getEventsInRange(day, day, 10, 0).size());
+
+		facade.deleteEvent(eventId);
+		assertTrue(facade.getEventsInRange(day, day, 10, 0).isEmpty());
+	}
+
+	@Test
+	void releasePlacesOfUserTestWithoutTransaction() {
+		var userId = facade.createUser(new UserDto(0L, userName, "released@mail.com")).getId();
+		var eventId = facade.createEvent(new EventDto(0L, "Title", LocalDate.now(), BigDecimal.ZERO)).getId();
+		facade.bookTicket(userId, eventId, Category.STANDARD, 3);
+
+		ticketService.releasePlacesOfUser(userId);
+
+		assertFalse(seatIndex.isTaken(eventId, 3));
+	}
+
+	@Test
+	void updateEventTestKeepsTitleInIndexOnRollback() {
+		var eventId = facade.createEvent(new EventDto(0L, "Rollback Concert", LocalDate.now(), BigDecimal.ZERO)).getId();
+
+		transactionTemplate.executeWithoutResult(status -> {
+			facade.updateEvent(new EventDto(eventId, "Renamed Festival", LocalDate.now(), BigDecimal.ZERO));
+			status.setRollbackOnly();
+		});
+		assertEquals(1, facade.getEventsByTitle("rollback concert", 10, 0).size());
+		assertTrue(facade.getEventsByTitle("renamed festival", 10, 0).isEmpty());
+
+		facade.updateEvent(new EventDto(eventId, "Renamed Festival", LocalDate.now(), BigDecimal.ZERO));
+		assertTrue(facade.getEventsByTitle("rollback concert", 10, 0).isEmpty());
+		assertEquals(1, facade.getEventsByTitle("renamed festival", 10, 0).size());
+	}
+
+	@Test
+	void updateUserTestMovesTicketsInListingOfEvent() {
+		var firstUserId = facade.createUser(new UserDto(0L, userName, "a.first@mail.com")).getId();
+		var secondUserId = facade.createUser(new UserDto(0L, userName, "b.second@mail.com")).getId();
+		var eventId = facade.createEvent(new EventDto(0L, "Title", LocalDate.now(), BigDecimal.ZERO)).getId();
+		facade.bookTicket(firstUserId, eventId, Category.STANDARD, 3);
+		facade.bookTicket(secondUserId, eventId, Category.STANDARD, 4);
+
+		facade.updateUser(new UserDto(firstUserId, "", "c.first@mail.com"));
+
+		var page = facade.getBookedTicketsByEventIdAfter(eventId, 1, null);
+		assertEquals(secondUserId, page.getContent().get(0).getUser().getId());
+		page = facade.getBookedTicketsByEventIdAfter(eventId, 1, page.getNextPageToken());
+		assertEquals(firstUserId, page.getContent().get(0).getUser().getId());
+		assertEquals("c.first@mail.com", page.getContent().get(0).getUser().getEmail());
+	}
+
+	@Test
+	void updateEventTestMovesTicketsInListingOfUser() {
+		var userId = facade.createUser(new UserDto(0L, userName, "goer@mail.com")).getId();
+		var firstEventId = facade.createEvent(new EventDto(0L, "First", LocalDate.now(), BigDecimal.ZERO)).getId();
+		var secondEventId = facade.createEvent(new EventDto(0L, "Second", LocalDate.now().plusDays(1), BigDecimal.ZERO))
+				.getId();
+		facade.bookTicket(userId, firstEventId, Category.STANDARD, 5);
+		facade.bookTicket(userId, secondEventId, Category.STANDARD, 5);
+
+		facade.updateEvent(new EventDto(firstEventId, "", LocalDate.now().plusDays(2), BigDecimal.ZERO));
+
+		var page = facade.getBookedTicketsByUserIdAfter(userId, 1, null);
+		assertEquals(firstEventId, page.getContent().get(0).getEvent().getId());
+		page = facade.getBookedTicketsByUserIdAfter(userId, 1, page.getNextPageToken());
+		assertEquals(secondEventId, page.getContent().get(0).getEvent().getId());
+	}
 }
@@ -0,0 +1,81 @@
+package org.example.id;
+
+import org.example.model.Ticket;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DirtiesContext
+class BlockSequenceGeneratorTest {
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Test
+	void generateTest() {
+		var generator = ticketIdGenerator();
+
+		var ids = generator.generate(25);
+		var next = generator.generate(25);
+
+		assertEquals(50, Arrays.stream(ids).distinct().count() + Arrays.stream(next).distinct().count());
+		assertTrue(Arrays.stream(ids).allMatch(id -> id > 0));
+		assertTrue(Arrays.stream(ids).max().getAsLong() < Arrays.stream(next).min().getAsLong());
+		assertEquals(2, generator.allocator().getBlocks());
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	void generateTestWithExhaustedPool() throws Exception {
+		var generator = ticketIdGenerator();
+		var pool = (HikariDataSource) dataSource;
+		var borrowed = new ArrayList<Connection>();
+		try {
+			while (borrowed.size() < pool.getMaximumPoolSize()) {
+				borrowed.add(pool.getConnection());
+			}
+
+			//more ids than any prefetched block holds, so the sequence has to be queried
+			var ids = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> generator.generate(10_000));
+
+			assertEquals(10_000, Arrays.stream(ids).distinct().count());
+		} finally {
+			for (var connection : borrowed) {
+				connection.close();
+			}
+		}
+	}
+
+	private BlockSequenceGenerator ticketIdGenerator() {
+		return (BlockSequenceGenerator) entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+				.getMetamodel()
+				.entityPersister(Ticket.class)
+				.getIdentifierGenerator();
+	}
+}
@@ -0,0 +1,119 @@
+package org.example.id;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SequenceBlockAllocatorTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private final AtomicLong sequence = new AtomicLong();
+
+	private final AtomicInteger fetches = new AtomicInteger();
+
+	private SequenceBlockAllocator.BlockSource source() {
+		return size -> {
+			fetches.incrementAndGet();
+			return LongStream.range(0, size).map(i -> sequence.incrementAndGet()).toArray();
+		};
+	}
+
+	@Test
+	void nextTestPrefetchesNextBlock() {
+		var allocator = new SequenceBlockAllocator("TEST_SEQ", source(), Runnable::run, 4, 4, 1_000, registry);
+
+		for (long id = 1; id <= 12; id++) {
+			assertEquals(id, allocator.next());
+		}
+
+		//the first block is fetched on demand, all following ones in advance
+		assertEquals(1, allocator.getStalls());
+		assertEquals(3, allocator.getBlocks());
+		assertEquals(4, fetches.get());
+		assertEquals(12, registry.get("booking.id.allocated").tag("sequence", "TEST_SEQ").functionCounter().count());
+		assertEquals(1, registry.get("booking.id.stalls").tag("sequence", "TEST_SEQ").functionCounter().count());
+	}
+
+	@Test
+	void nextTestGrowsAndShrinksBlocks() {
+		var fast = new SequenceBlockAllocator("FAST_SEQ", source(), Runnable::run, 2, 64, 60_000, registry);
+		for (int i = 0; i < 500; i++) {
+			fast.next();
+		}
+		assertEquals(64, fast.getBlockSize());
+
+		var slow = new SequenceBlockAllocator("SLOW_SEQ", source(), Runnable::run, 1, 64, 0, registry);
+		slow.next(50);
+		assertEquals(64, slow.getBlockSize());
+		for (int i = 0; i < 500; i++) {
+			slow.next();
+		}
+		assertEquals(1, slow.getBlockSize());
+	}
+
+	@Test
+	void nextTestWithCount() {
+		var allocator = new SequenceBlockAllocator("TEST_SEQ", source(), Runnable::run, 10, 512, 1_000, registry);
+
+		assertEquals(1, allocator.next());
+		assertArrayEquals(LongStream.rangeClosed(2, 301).toArray(), allocator.next(300));
+		assertEquals(302, allocator.next());
+		assertEquals(512, allocator.getBlockSize());
+	}
+
+	@Test
+	void nextTestWithFailingPrefetch() {
+		var calls = new AtomicInteger();
+		SequenceBlockAllocator.BlockSource failing = size -> {
+			if (calls.incrementAndGet() == 2) {
+				throw new IllegalStateException("Sequence is not available");
+			}
+			return source().fetch(size);
+		};
+		var allocator = new SequenceBlockAllocator("TEST_SEQ", failing, Runnable::run, 2, 2, 1_000, registry);
+
+		for (long id = 1; id <= 4; id++) {
+			assertEquals(id, allocator.next());
+		}
+		assertEquals(2, allocator.getStalls());
+	}
+
+	@Test
+	void nextTestFromManyThreads() throws Exception {
+		var executor = Executors.newFixedThreadPool(4);
+		var prefetchExecutor = Executors.newSingleThreadExecutor();
+		try {
+			var allocator = new SequenceBlockAllocator("TEST_SEQ", source(), prefetchExecutor, 1, 256, 1_000, registry);
+			var futures = new ArrayList<Future<List<Long>>>();
+			for (int i = 0; i < 4; i++) {
+				futures.add(executor.submit(() -> {
+					var ids = new ArrayList<Long>();
+					for (int j = 0; j < 10_000; j++) {
+						ids.add(allocator.next());
+					}
+					return ids;
+				}));
+			}
+			var ids = new HashSet<Long>();
+			for (var future : futures) {
+				ids.addAll(future.get());
+			}
+			assertEquals(40_000, ids.size());
+		} finally {
+			executor.shutdownNow();
+			prefetchExecutor.shutdownNow();
+		}
+	}
+}
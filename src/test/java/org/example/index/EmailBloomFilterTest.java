@@ -0,0 +1,125 @@
+package org.example.index;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EmailBloomFilterTest {
+
+	private static final double RATE = 0.01;
+
+	@Mock
+	private UserRepository mockRepository;
+
+	private SimpleMeterRegistry registry;
+
+	@BeforeEach
+	void setUp() {
+		registry = new SimpleMeterRegistry();
+	}
+
+	@Test
+	void mightContainTestAfterLoad() {
+		when(mockRepository.findEmailsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+				new Object[]{1L, "Jules_Mcnally8158@extex.org"},
+				new Object[]{2L, "Ramon_Gray3339@gmail.com"}));
+		var filter = filter(1_000, Long.MAX_VALUE);
+		filter.load();
+
+		assertTrue(filter.mightContain("jules_mcnally8158@EXTEX.org"));
+		assertTrue(filter.mightContain("Ramon_Gray3339@gmail.com"));
+		assertFalse(filter.mightContain("new.user@mail.com"));
+		assertEquals(2, registry.get("booking.users.email-filter.entries").gauge().value());
+		assertEquals(3, registry.get("booking.users.email-filter.lookups").functionCounter().count());
+		assertEquals(1, registry.get("booking.users.email-filter.misses").functionCounter().count());
+	}
+
+	@Test
+	void mightContainTestBeforeLoad() {
+		var filter = filter(1_000, Long.MAX_VALUE);
+
+		assertTrue(filter.mightContain("new.user@mail.com"));
+		filter.add("new.user@mail.com");
+		assertFalse(filter.isReady());
+	}
+
+	@Test
+	void addTestGrowsWithinFalsePositiveRate() {
+		var filter = loaded(filter(1_000, Long.MAX_VALUE));
+		for (int i = 0; i < 20_000; i++) {
+			filter.add("user" + i + "@mail.com");
+		}
+		for (int i = 0; i < 20_000; i++) {
+			assertTrue(filter.mightContain("USER" + i + "@mail.com"));
+		}
+		var falsePositives = 0;
+		for (int i = 0; i < 100_000; i++) {
+			if (filter.mightContain("other" + i + "@mail.com")) {
+				falsePositives++;
+			}
+		}
+
+		assertTrue(falsePositives < 100_000 * RATE, "False positives: " + falsePositives);
+		assertTrue(filter.getExpectedFalsePositiveRate() < RATE, "Rate: " + filter.getExpectedFalsePositiveRate());
+		assertTrue(filter.getBytes() > 1_000);
+		assertEquals(20_000, filter.getEntries());
+	}
+
+	@Test
+	void addTestStopsAtMemoryLimit() {
+		var filter = loaded(filter(1_000, 4_096));
+		for (int i = 0; i < 20_000; i++) {
+			filter.add("user" + i + "@mail.com");
+		}
+
+		assertTrue(filter.getBytes() <= 4_096);
+		assertTrue(filter.mightContain("new.user@mail.com"));
+		assertEquals(1, filter.getExpectedFalsePositiveRate());
+	}
+
+	@Test
+	void loadTestWhenDisabled() {
+		var filter = new EmailBloomFilter(mockRepository, false, RATE, 1_000, Long.MAX_VALUE, registry);
+		filter.load();
+		filter.add("new.user@mail.com");
+
+		assertTrue(filter.mightContain("other@mail.com"));
+		assertEquals(0, filter.getEntries());
+		verify(mockRepository, never()).findEmailsAfter(anyLong(), any(Pageable.class));
+	}
+
+	@Test
+	void constructorTestWithInvalidRate() {
+		assertThrows(IllegalArgumentException.class,
+				() -> new EmailBloomFilter(mockRepository, true, 1, 1_000, Long.MAX_VALUE, registry));
+	}
+
+	private EmailBloomFilter filter(long initialCapacity, long maxBytes) {
+		return new EmailBloomFilter(mockRepository, true, RATE, initialCapacity, maxBytes, registry);
+	}
+
+	private EmailBloomFilter loaded(EmailBloomFilter filter) {
+		when(mockRepository.findEmailsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of());
+		filter.load();
+		return filter;
+	}
+}
@@ -0,0 +1,118 @@
+package org.example.index;
+
+import org.example.repository.EventRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compares reading the first page and the per-day counts of a month view from the calendar index
+ * with 31 per-day database queries. Events are spread over three years.
+ * Run with: mvn test-compile exec:exec -Pbenchmark -Dbenchmark.includes=EventCalendarIndexBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventCalendarIndexBenchmark {
+
+	private static final LocalDate FIRST_DAY = LocalDate.of(2022, 1, 1);
+
+	private static final LocalDate MONTH = LocalDate.of(2023, 3, 1);
+
+	private static final int PAGE_SIZE = 20;
+
+	@Param({"100000", "1000000"})
+	private int events;
+
+	private EventCalendarIndex calendarIndex;
+
+	private Connection connection;
+
+	private PreparedStatement dayQuery;
+
+	@Setup(Level.Trial)
+	public void setUp() throws SQLException {
+		var random = new Random(42);
+		var rows = new ArrayList<Object[]>(events);
+		for (long id = 1; id <= events; id++) {
+			rows.add(new Object[]{id, FIRST_DAY.plusDays(random.nextInt(3 * 365))});
+		}
+		var repository = mock(EventRepository.class);
+		when(repository.findDatesAfter(anyLong(), any())).thenReturn(rows, List.of());
+		calendarIndex = new EventCalendarIndex(repository, true);
+		calendarIndex.load();
+
+		connection = DriverManager.getConnection("jdbc:h2:mem:calendar;DB_CLOSE_DELAY=-1");
+		try (var statement = connection.createStatement()) {
+			statement.execute("create table EVENTS (ID bigint primary key, DATE_HELD date)");
+			statement.execute("create index EVENTS_DATE_HELD_IDX on EVENTS (DATE_HELD, ID)");
+		}
+		try (var insert = connection.prepareStatement("insert into EVENTS (ID, DATE_HELD) values (?, ?)")) {
+			for (var row : rows) {
+				insert.setLong(1, (Long) row[0]);
+				insert.setDate(2, Date.valueOf((LocalDate) row[1]));
+				insert.addBatch();
+			}
+			insert.executeBatch();
+		}
+		dayQuery = connection.prepareStatement("select ID from EVENTS where DATE_HELD = ? order by ID");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws SQLException {
+		try (var statement = connection.createStatement()) {
+			statement.execute("drop table EVENTS");
+		}
+		dayQuery.close();
+		connection.close();
+	}
+
+	@Benchmark
+	public int indexMonth() {
+		var last = MONTH.plusMonths(1).minusDays(1);
+		return calendarIndex.findIds(MONTH, last, 0, PAGE_SIZE).size() + calendarIndex.countByDay(MONTH, last).size();
+	}
+
+	@Benchmark
+	public int databasePerDay() throws SQLException {
+		var count = 0;
+		for (var day = MONTH; day.getMonth() == MONTH.getMonth(); day = day.plusDays(1)) {
+			dayQuery.setDate(1, Date.valueOf(day));
+			try (var resultSet = dayQuery.executeQuery()) {
+				while (resultSet.next()) {
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+}
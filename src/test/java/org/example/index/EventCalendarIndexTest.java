@@ -0,0 +1,124 @@
+package org.example.index;
+
+import org.example.repository.EventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EventCalendarIndexTest {
+
+	private static final LocalDate DAY = LocalDate.of(2022, 3, 7);
+
+	@Mock
+	private EventRepository mockRepository;
+
+	private EventCalendarIndex calendarIndex;
+
+	@BeforeEach
+	void setUp() {
+		calendarIndex = new EventCalendarIndex(mockRepository, true);
+	}
+
+	@Test
+	void findIdsTestAfterLoad() {
+		when(mockRepository.findDatesAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+				new Object[]{1L, DAY.plusDays(1)},
+				new Object[]{2L, DAY},
+				new Object[]{3L, DAY.plusDays(40)},
+				new Object[]{4L, DAY},
+				new Object[]{5L, null},
+				new Object[]{6L, DAY.minusDays(1)}));
+		calendarIndex.load();
+
+		assertEquals(List.of(2L, 4L, 1L), calendarIndex.findIds(DAY, DAY.plusDays(30), 0, 10));
+		assertEquals(List.of(4L, 1L), calendarIndex.findIds(DAY, DAY.plusDays(30), 1, 10));
+		assertEquals(List.of(1L), calendarIndex.findIds(DAY, DAY.plusDays(30), 2, 1));
+		assertEquals(List.of(), calendarIndex.findIds(DAY, DAY.plusDays(30), 3, 10));
+		assertEquals(List.of(6L, 2L), calendarIndex.findIds(DAY.minusDays(1), DAY, 0, 2));
+	}
+
+	@Test
+	void countByDayTest() {
+		calendarIndex.load();
+		calendarIndex.put(1L, DAY);
+		calendarIndex.put(2L, DAY);
+		calendarIndex.put(3L, DAY.plusDays(2));
+		calendarIndex.put(4L, DAY.plusDays(31));
+
+		assertEquals(Map.of(DAY, 2, DAY.plusDays(2), 1), calendarIndex.countByDay(DAY, DAY.plusDays(30)));
+	}
+
+	@Test
+	void findIdsTestAfterMoveAndRemove() {
+		calendarIndex.load();
+		calendarIndex.put(1L, DAY);
+		calendarIndex.put(2L, DAY);
+		calendarIndex.put(1L, DAY.plusDays(1));
+
+		assertEquals(List.of(2L, 1L), calendarIndex.findIds(DAY, DAY.plusDays(1), 0, 10));
+
+		calendarIndex.remove(2L);
+		assertEquals(List.of(1L), calendarIndex.findIds(DAY, DAY.plusDays(1), 0, 10));
+		assertEquals(Map.of(DAY.plusDays(1), 1), calendarIndex.countByDay(DAY, DAY.plusDays(1)));
+	}
+
+	@Test
+	void refreshTestAppliesCommittedDate() {
+		calendarIndex.load();
+		calendarIndex.put(1L, DAY);
+		calendarIndex.put(2L, DAY);
+		when(mockRepository.findDateById(1L)).thenReturn(Optional.of(DAY.plusDays(1)));
+		when(mockRepository.findDateById(2L)).thenReturn(Optional.empty());
+
+		calendarIndex.refresh(1L);
+		calendarIndex.refresh(2L);
+		//a repeated refresh finds the event on its committed day only
+		calendarIndex.refresh(1L);
+
+		assertEquals(List.of(1L), calendarIndex.findIds(DAY, DAY.plusDays(1), 0, 10));
+		assertEquals(Map.of(DAY.plusDays(1), 1), calendarIndex.countByDay(DAY, DAY.plusDays(1)));
+	}
+
+	@Test
+	void loadTestKeepsChangesMadeWhileLoading() {
+		calendarIndex.put(1L, DAY.plusDays(1));
+		calendarIndex.remove(2L);
+		when(mockRepository.findDatesAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+				new Object[]{1L, DAY},
+				new Object[]{2L, DAY}));
+		calendarIndex.load();
+
+		assertEquals(List.of(1L), calendarIndex.findIds(DAY, DAY.plusDays(1), 0, 10));
+	}
+
+	@Test
+	void loadTestWhenDisabled() {
+		var disabled = new EventCalendarIndex(mockRepository, false);
+		disabled.load();
+		disabled.put(1L, DAY);
+
+		assertFalse(disabled.isReady());
+		assertNull(disabled.findIds(DAY, DAY, 0, 10));
+		assertNull(disabled.countByDay(DAY, DAY));
+		verify(mockRepository, never()).findDatesAfter(anyLong(), any(Pageable.class));
+	}
+}
@@ -0,0 +1,113 @@
+package org.example.index;
+
+import org.example.repository.EventRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compares a title search in the trigram index with a 'like' query scanning the event table.
+ * Run with: mvn test-compile exec:exec -Pbenchmark -Dbenchmark.includes=EventTitleIndexBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class EventTitleIndexBenchmark {
+
+	private static final String[] WORDS = {"matrix", "lucky", "hand", "glamorous", "poppers", "summer", "night",
+			"jazz", "festival", "rock", "opera", "symphony", "comedy", "show", "dance", "classic", "live", "tour"};
+
+	@Param({"100000", "1000000"})
+	private int events;
+
+	@Param({"jazz fest", "opera 4242"})
+	private String query;
+
+	private EventTitleIndex titleIndex;
+
+	private Connection connection;
+
+	private PreparedStatement likeQuery;
+
+	@Setup(Level.Trial)
+	public void setUp() throws SQLException {
+		var random = new Random(42);
+		var rows = new ArrayList<Object[]>(events);
+		for (long id = 1; id <= events; id++) {
+			rows.add(new Object[]{id, WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+					+ " " + WORDS[random.nextInt(WORDS.length)] + " " + id});
+		}
+		var repository = mock(EventRepository.class);
+		when(repository.findTitlesAfter(anyLong(), any())).thenReturn(rows, List.of());
+		titleIndex = new EventTitleIndex(repository, true);
+		titleIndex.load();
+
+		connection = DriverManager.getConnection("jdbc:h2:mem:titles;DB_CLOSE_DELAY=-1");
+		try (var statement = connection.createStatement()) {
+			statement.execute("create table EVENTS (ID bigint primary key, TITLE varchar(255))");
+		}
+		try (var insert = connection.prepareStatement("insert into EVENTS (ID, TITLE) values (?, ?)")) {
+			for (var row : rows) {
+				insert.setLong(1, (Long) row[0]);
+				insert.setString(2, (String) row[1]);
+				insert.addBatch();
+			}
+			insert.executeBatch();
+		}
+		likeQuery = connection.prepareStatement(
+				"select ID from EVENTS where upper(TITLE) like upper(concat('%', ?, '%')) limit 10");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws SQLException {
+		try (var statement = connection.createStatement()) {
+			statement.execute("drop table EVENTS");
+		}
+		likeQuery.close();
+		connection.close();
+	}
+
+	@Benchmark
+	public List<Long> indexSearch() {
+		return titleIndex.search(query, 0, 10);
+	}
+
+	@Benchmark
+	public int databaseSearch() throws SQLException {
+		likeQuery.setString(1, query);
+		var count = 0;
+		try (var resultSet = likeQuery.executeQuery()) {
+			while (resultSet.next()) {
+				count++;
+			}
+		}
+		return count;
+	}
+}
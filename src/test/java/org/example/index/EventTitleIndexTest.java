@@ -0,0 +1,126 @@
+package org.example.index;
+
+import org.example.repository.EventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EventTitleIndexTest {
+
+	@Mock
+	private EventRepository mockRepository;
+
+	private EventTitleIndex titleIndex;
+
+	@BeforeEach
+	void setUp() {
+		titleIndex = new EventTitleIndex(mockRepository, true);
+	}
+
+	@Test
+	void searchTestAfterLoad() {
+		when(mockRepository.findTitlesAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+				new Object[]{1L, "Matrix Lucky Hand"},
+				new Object[]{2L, "Glamorous All Poppers"},
+				new Object[]{3L, "Lucky Strike"},
+				new Object[]{130L, "Hand of the King"}));
+		titleIndex.load();
+
+		assertEquals(List.of(1L, 3L), titleIndex.search("LUCKY", 0, 10));
+		assertEquals(List.of(1L, 130L), titleIndex.search("hand", 0, 10));
+		assertEquals(List.of(130L), titleIndex.search("hand", 1, 10));
+		assertEquals(List.of(1L), titleIndex.search("hand", 0, 1));
+		assertEquals(List.of(), titleIndex.search("strike hand", 0, 10));
+		assertEquals(List.of(), titleIndex.search("zebra", 0, 10));
+	}
+
+	@Test
+	void searchTestWithTrigramsInOtherOrder() {
+		titleIndex.load();
+		titleIndex.put(1L, "abcdab");
+
+		assertEquals(List.of(), titleIndex.search("dabc", 0, 10));
+		assertEquals(List.of(1L), titleIndex.search("cdab", 0, 10));
+	}
+
+	@Test
+	void searchTestLeftToDatabase() {
+		assertNull(titleIndex.search("lucky", 0, 10));
+
+		titleIndex.load();
+		assertNull(titleIndex.search("lu", 0, 10));
+		assertNull(titleIndex.search(null, 0, 10));
+	}
+
+	@Test
+	void searchTestAfterUpdateAndRemove() {
+		titleIndex.load();
+		titleIndex.put(5L, "Lucky Hand");
+		titleIndex.put(7L, "Lucky Strike");
+		titleIndex.put(5L, "Empty Hand");
+
+		assertEquals(List.of(7L), titleIndex.search("lucky", 0, 10));
+		assertEquals(List.of(5L), titleIndex.search("hand", 0, 10));
+
+		titleIndex.remove(7L);
+		assertEquals(List.of(), titleIndex.search("lucky", 0, 10));
+	}
+
+	@Test
+	void refreshTestAppliesCommittedTitle() {
+		titleIndex.load();
+		titleIndex.put(5L, "Lucky Hand");
+		titleIndex.put(7L, "Lucky Strike");
+		when(mockRepository.findTitleById(5L)).thenReturn(Optional.of("Empty Hand"));
+		when(mockRepository.findTitleById(7L)).thenReturn(Optional.empty());
+
+		titleIndex.refresh(5L);
+		titleIndex.refresh(7L);
+		//a repeated refresh finds the event by its committed title only
+		titleIndex.refresh(5L);
+
+		assertEquals(List.of(), titleIndex.search("lucky", 0, 10));
+		assertEquals(List.of(5L), titleIndex.search("empty", 0, 10));
+	}
+
+	@Test
+	void loadTestKeepsChangesMadeWhileLoading() {
+		titleIndex.put(1L, "Updated Title");
+		titleIndex.remove(2L);
+		when(mockRepository.findTitlesAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+				new Object[]{1L, "Old Title"},
+				new Object[]{2L, "Deleted Title"}));
+		titleIndex.load();
+
+		assertEquals(List.of(1L), titleIndex.search("title", 0, 10));
+		assertEquals(List.of(), titleIndex.search("old", 0, 10));
+	}
+
+	@Test
+	void loadTestWhenDisabled() {
+		var disabled = new EventTitleIndex(mockRepository, false);
+		disabled.load();
+		disabled.put(1L, "Lucky Hand");
+
+		assertFalse(disabled.isReady());
+		assertNull(disabled.search("lucky", 0, 10));
+		verify(mockRepository, never()).findTitlesAfter(anyLong(), any(Pageable.class));
+	}
+}
@@ -0,0 +1,103 @@
+package org.example.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PackedStringsTest {
+
+	@Test
+	void putAndRemoveTest() {
+		var strings = new PackedStrings();
+		strings.put(1, "jules mcnally");
+		strings.put(2, "");
+		strings.put(1L << 40, "ramon gray");
+		strings.put(1, "julia");
+
+		assertEquals(3, strings.size());
+		assertEquals("julia", strings.get(1));
+		assertEquals("", strings.get(2));
+		assertEquals("ramon gray", strings.get(1L << 40));
+		assertNull(strings.get(3));
+
+		assertEquals("", strings.remove(2));
+		assertNull(strings.remove(2));
+		assertFalse(strings.containsKey(2));
+		assertEquals(2, strings.size());
+	}
+
+	@Test
+	void removeTestDropsEmptyPages() {
+		var strings = new PackedStrings();
+		strings.put(1, "jules");
+		var onePage = strings.memoryBytes();
+		strings.put(PackedStrings.PAGE_SIZE * 7L, "ramon");
+		assertTrue(strings.memoryBytes() > onePage);
+
+		strings.remove(PackedStrings.PAGE_SIZE * 7L);
+		assertEquals(onePage, strings.memoryBytes());
+	}
+
+	@Test
+	void matchesAndContainsTest() {
+		var strings = new PackedStrings();
+		strings.put(1, "summer jazz night");
+
+		assertTrue(strings.matches(1, "summer jazz night"));
+		assertFalse(strings.matches(1, "summer jazz"));
+		assertFalse(strings.matches(2, "summer jazz night"));
+		assertTrue(strings.contains(1, "jazz"));
+		assertTrue(strings.contains(1, "night"));
+		assertTrue(strings.contains(1, ""));
+		assertFalse(strings.contains(1, "nights"));
+		assertFalse(strings.contains(2, "jazz"));
+	}
+
+	@Test
+	void putTestWithCharsBeyondLatin1() {
+		var strings = new PackedStrings();
+		strings.put(1, "zoë łukasz");
+		strings.put(2, "zoë");
+
+		assertEquals("zoë łukasz", strings.get(1));
+		assertEquals("zoë", strings.get(2));
+		assertTrue(strings.contains(1, "łuk"));
+		assertTrue(strings.matches(2, "zoë"));
+	}
+
+	@Test
+	void putTestWithInvalidArguments() {
+		var strings = new PackedStrings();
+		assertThrows(IllegalArgumentException.class, () -> strings.put(0, "name"));
+		assertThrows(IllegalArgumentException.class, () -> strings.put(1, "a".repeat(PackedStrings.MAX_LENGTH + 1)));
+	}
+
+	@Test
+	void putAndRemoveTestAgainstMap() {
+		var strings = new PackedStrings();
+		var expected = new HashMap<Long, String>();
+		var random = new Random(42);
+		for (int i = 0; i < 200_000; i++) {
+			long id = 1 + random.nextInt(5_000);
+			if (random.nextInt(3) == 0) {
+				assertEquals(expected.remove(id), strings.remove(id));
+			} else {
+				var value = random.nextInt(10) == 0 ? "ł" + random.nextInt() : Long.toString(random.nextLong(), 36);
+				expected.put(id, value);
+				strings.put(id, value);
+			}
+		}
+
+		assertEquals(expected.size(), strings.size());
+		for (long id = 1; id <= 5_000; id++) {
+			assertEquals(expected.get(id), strings.get(id));
+		}
+	}
+}
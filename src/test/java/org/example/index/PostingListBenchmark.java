@@ -0,0 +1,54 @@
+package org.example.index;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures re-indexing an id in the middle of a posting list of a common trigram, a removal followed by an add.
+ * Run with: mvn test-compile exec:exec -Pbenchmark -Dbenchmark.includes=PostingListBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PostingListBenchmark {
+
+	@Param({"10000", "1000000"})
+	private int ids;
+
+	private PostingList list;
+
+	private Random random;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		list = new PostingList();
+		for (long id = 1; id <= ids; id++) {
+			list.add(id);
+		}
+		random = new Random(42);
+	}
+
+	@Benchmark
+	public int reindex() {
+		long id = 1 + random.nextInt(ids - 1);
+		list.remove(id);
+		list.add(id);
+		return list.size();
+	}
+}
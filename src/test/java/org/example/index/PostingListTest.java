@@ -0,0 +1,121 @@
+package org.example.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PostingListTest {
+
+	@Test
+	void addAndRemoveTest() {
+		var list = new PostingList();
+		list.add(5);
+		list.add(300);
+		list.add(1L << 40);
+		list.add(2);
+		list.add(300);
+		assertArrayEquals(new long[]{2, 5, 300, 1L << 40}, list.toArray());
+
+		list.remove(5);
+		list.remove(6);
+		assertArrayEquals(new long[]{2, 300, 1L << 40}, list.toArray());
+
+		var cursor = list.cursor();
+		assertEquals(300, cursor.advanceTo(3));
+		assertEquals(300, cursor.advanceTo(300));
+		assertEquals(1L << 40, cursor.next());
+		assertEquals(-1, cursor.next());
+		assertEquals(-1, cursor.advanceTo((1L << 40) + 1));
+	}
+
+	@Test
+	void cursorTestWithSkips() {
+		var list = new PostingList();
+		for (long id = 3; id < 30_000; id += 3) {
+			list.add(id);
+		}
+
+		var cursor = list.cursor();
+		assertEquals(3, cursor.next());
+		assertEquals(15_000, cursor.advanceTo(14_999));
+		assertEquals(15_003, cursor.next());
+		assertEquals(15_003, cursor.advanceTo(200));
+		assertEquals(29_997, cursor.advanceTo(29_996));
+		assertEquals(-1, cursor.next());
+
+		list.remove(15_000);
+		assertEquals(15_003, list.cursor().advanceTo(15_000));
+	}
+
+	@Test
+	void containsTest() {
+		var list = new PostingList();
+		assertFalse(list.contains(1));
+		for (long id = 2; id < 1_000; id += 2) {
+			list.add(id);
+		}
+
+		assertTrue(list.contains(2));
+		assertTrue(list.contains(998));
+		assertFalse(list.contains(501));
+		assertFalse(list.contains(1_000));
+	}
+
+	@Test
+	void addAndRemoveTestKeepsOrderAcrossCompactions() {
+		var list = new PostingList();
+		var expected = new TreeSet<Long>();
+		for (long id = 1; id <= 2_000; id += 2) {
+			list.add(id);
+			expected.add(id);
+		}
+		var random = new Random(7);
+		for (int i = 0; i < 5_000; i++) {
+			long id = 1 + random.nextInt(2_100);
+			if (random.nextBoolean()) {
+				list.add(id);
+				expected.add(id);
+			} else {
+				list.remove(id);
+				expected.remove(id);
+			}
+			assertEquals(expected.size(), list.size());
+		}
+
+		assertArrayEquals(expected.stream().mapToLong(Long::longValue).toArray(), list.toArray());
+		var cursor = list.cursor();
+		for (long target = 1; target <= 2_100; target += 37) {
+			var ceiling = expected.ceiling(target);
+			assertEquals(ceiling == null ? -1 : ceiling, cursor.advanceTo(target));
+			if (ceiling == null) {
+				break;
+			}
+		}
+		assertTrue(list.contains(expected.first()));
+		assertFalse(list.contains(2_101));
+	}
+
+	@Test
+	void removeTestLeavesTombstoneUntilCompaction() {
+		var list = new PostingList();
+		for (long id = 1; id <= 1_000; id++) {
+			list.add(id);
+		}
+
+		list.remove(500);
+		list.add(500);
+		list.remove(1_000);
+		list.add(1_001);
+
+		assertEquals(1_000, list.size());
+		assertTrue(list.contains(500));
+		assertFalse(list.contains(1_000));
+		assertEquals(1_001, list.cursor().advanceTo(1_000));
+	}
+}
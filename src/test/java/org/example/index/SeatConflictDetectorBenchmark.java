@@ -0,0 +1,88 @@
+package org.example.index;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares duplicate seat detection by radix sort and scan with a hash map of boxed seat keys.
+ * Run with: mvn test-compile exec:exec -Pbenchmark -Dbenchmark.includes=SeatConflictDetectorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SeatConflictDetectorBenchmark {
+
+	@Param({"1000000"})
+	private int rows;
+
+	private long[] eventIds;
+
+	private int[] places;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		var random = new Random(42);
+		eventIds = new long[rows];
+		places = new int[rows];
+		for (int i = 0; i < rows; i++) {
+			eventIds[i] = 1 + random.nextInt(1_000);
+			places[i] = random.nextInt(10_000);
+		}
+	}
+
+	@Benchmark
+	public int[] radixSort() {
+		return SeatConflictDetector.findDuplicates(eventIds, places, rows);
+	}
+
+	@Benchmark
+	public int[] hashMap() {
+		var duplicateOf = new int[rows];
+		var firstRows = new HashMap<Seat, Integer>(rows * 2);
+		for (int i = 0; i < rows; i++) {
+			var first = firstRows.putIfAbsent(new Seat(eventIds[i], places[i]), i);
+			duplicateOf[i] = first == null ? -1 : first;
+		}
+		return duplicateOf;
+	}
+
+	private static final class Seat {
+
+		private final long eventId;
+
+		private final int place;
+
+		private Seat(long eventId, int place) {
+			this.eventId = eventId;
+			this.place = place;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof Seat && ((Seat) o).eventId == eventId && ((Seat) o).place == place;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(eventId, place);
+		}
+	}
+}
@@ -0,0 +1,59 @@
+package org.example.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SeatConflictDetectorTest {
+
+	@Test
+	void findDuplicatesTest() {
+		var eventIds = new long[]{2, 1, 2, 1, 2, 3, 1};
+		var places = new int[]{5, 5, 5, 7, 5, 5, 5};
+
+		var duplicateOf = SeatConflictDetector.findDuplicates(eventIds, places, eventIds.length);
+
+		assertArrayEquals(new int[]{-1, -1, 0, -1, 0, -1, 1}, duplicateOf);
+	}
+
+	@Test
+	void findDuplicatesTestWithLargeKeys() {
+		var eventIds = new long[]{Long.MAX_VALUE, 1L << 40, Long.MAX_VALUE, 1L << 40};
+		var places = new int[]{Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, 1 << 20};
+
+		var duplicateOf = SeatConflictDetector.findDuplicates(eventIds, places, eventIds.length);
+
+		assertArrayEquals(new int[]{-1, -1, 0, -1}, duplicateOf);
+	}
+
+	@Test
+	void findDuplicatesTestUsesOnlyGivenLength() {
+		var duplicateOf = SeatConflictDetector.findDuplicates(new long[]{1, 1, 1}, new int[]{1, 1, 1}, 2);
+
+		assertArrayEquals(new int[]{-1, 0}, duplicateOf);
+	}
+
+	@Test
+	void findDuplicatesTestMatchesHashing() {
+		var random = new Random(42);
+		var length = 100_000;
+		var eventIds = new long[length];
+		var places = new int[length];
+		for (int i = 0; i < length; i++) {
+			eventIds[i] = random.nextInt(50);
+			places[i] = random.nextInt(5_000);
+		}
+
+		var duplicateOf = SeatConflictDetector.findDuplicates(eventIds, places, length);
+
+		var firstRows = new HashMap<String, Integer>();
+		for (int i = 0; i < length; i++) {
+			var first = firstRows.putIfAbsent(eventIds[i] + ":" + places[i], i);
+			assertEquals(first == null ? -1 : first, duplicateOf[i]);
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package org.example.index;
+
+import org.example.repository.TicketRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compares rejection of an already booked place through the seat index with a database-only check.
+ * Run with: mvn test-compile exec:exec -Pbenchmark -Dbenchmark.includes=SeatOccupancyIndexBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SeatOccupancyIndexBenchmark {
+
+	private static final long EVENT_ID = 1L;
+
+	@Param({"10000", "100000"})
+	private int bookedPlaces;
+
+	private SeatOccupancyIndex seatIndex;
+
+	private Connection connection;
+
+	private PreparedStatement placeQuery;
+
+	@Setup(Level.Trial)
+	public void setUp() throws SQLException {
+		var places = new ArrayList<Integer>(bookedPlaces);
+		for (int place = 0; place < bookedPlaces; place++) {
+			places.add(place);
+		}
+		var repository = mock(TicketRepository.class);
+		when(repository.findPlacesByEventId(EVENT_ID)).thenReturn(places);
+		seatIndex = new SeatOccupancyIndex(repository);
+		seatIndex.isTaken(EVENT_ID, 0);
+
+		connection = DriverManager.getConnection("jdbc:h2:mem:seats;DB_CLOSE_DELAY=-1");
+		try (var statement = connection.createStatement()) {
+			statement.execute("create table TICKETS (ID bigint primary key auto_increment, EVENT_ID bigint, PLACE int, "
+					+ "constraint EVENT_PLACE_UQ unique (EVENT_ID, PLACE))");
+		}
+		try (var insert = connection.prepareStatement("insert into TICKETS (EVENT_ID, PLACE) values (?, ?)")) {
+			for (int place = 0; place < bookedPlaces; place++) {
+				insert.setLong(1, EVENT_ID);
+				insert.setInt(2, place);
+				insert.addBatch();
+			}
+			insert.executeBatch();
+		}
+		placeQuery = connection.prepareStatement("select count(*) from TICKETS where EVENT_ID = ? and PLACE = ?");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws SQLException {
+		try (var statement = connection.createStatement()) {
+			statement.execute("drop table TICKETS");
+		}
+		placeQuery.close();
+		connection.close();
+	}
+
+	@Benchmark
+	public boolean seatIndexCheck() {
+		return seatIndex.claim(EVENT_ID, ThreadLocalRandom.current().nextInt(bookedPlaces));
+	}
+
+	@Benchmark
+	public boolean databaseCheck() throws SQLException {
+		placeQuery.setLong(1, EVENT_ID);
+		placeQuery.setInt(2, ThreadLocalRandom.current().nextInt(bookedPlaces));
+		try (var resultSet = placeQuery.executeQuery()) {
+			resultSet.next();
+			return resultSet.getInt(1) == 0;
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package org.example.index;
+
+import org.example.repository.TicketRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SeatOccupancyIndexTest {
+
+	private static final Long EVENT_ID = 1L;
+
+	@Mock
+	private TicketRepository mockRepository;
+
+	@InjectMocks
+	private SeatOccupancyIndex seatIndex;
+
+	@Test
+	void claimTestWithPlaceBookedInDatabase() {
+		when(mockRepository.findPlacesByEventId(EVENT_ID)).thenReturn(List.of(45, 18915));
+
+		assertFalse(seatIndex.claim(EVENT_ID, 45));
+		assertFalse(seatIndex.claim(EVENT_ID, 18915));
+		assertTrue(seatIndex.claim(EVENT_ID, 46));
+		verify(mockRepository, times(1)).findPlacesByEventId(EVENT_ID);
+	}
+
+	@Test
+	void claimTestAfterRelease() {
+		when(mockRepository.findPlacesByEventId(EVENT_ID)).thenReturn(List.of());
+
+		assertTrue(seatIndex.claim(EVENT_ID, 10));
+		assertTrue(seatIndex.isTaken(EVENT_ID, 10));
+		seatIndex.release(EVENT_ID, 10);
+		assertFalse(seatIndex.isTaken(EVENT_ID, 10));
+		assertTrue(seatIndex.claim(EVENT_ID, 10));
+	}
+
+	@Test
+	void claimTestAfterEvict() {
+		when(mockRepository.findPlacesByEventId(EVENT_ID)).thenReturn(List.of());
+
+		assertTrue(seatIndex.claim(EVENT_ID, 10));
+		seatIndex.evict(EVENT_ID);
+		assertTrue(seatIndex.claim(EVENT_ID, 10));
+		verify(mockRepository, times(2)).findPlacesByEventId(EVENT_ID);
+	}
+
+	@Test
+	void claimTestWithNegativePlace() {
+		assertThrows(IllegalArgumentException.class, () -> seatIndex.claim(EVENT_ID, -1));
+	}
+
+	@Test
+	void claimTestWithConcurrentBuyers() throws Exception {
+		when(mockRepository.findPlacesByEventId(EVENT_ID)).thenReturn(List.of());
+		var executor = Executors.newFixedThreadPool(8);
+		var successfulClaims = new AtomicInteger();
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				futures.add(executor.submit(() -> {
+					for (int place = 0; place < 10_000; place++) {
+						if (seatIndex.claim(EVENT_ID, place)) {
+							successfulClaims.incrementAndGet();
+						}
+					}
+				}));
+			}
+			for (var future : futures) {
+				future.get(10, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		//every place is claimed exactly once no matter how many threads compete for it
+		assertEquals(10_000, successfulClaims.get());
+	}
+}
@@ -0,0 +1,102 @@
+package org.example.index;
+
+import org.example.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Measures suggestion latency of the user name trie and prints the heap it retains, the indexed names included.
+ * Names are a first name and a surname of three syllables, about 30k distinct surnames.
+ * Run with: mvn test-compile exec:exec -Pbenchmark -Dbenchmark.includes=UserNameTrieBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class UserNameTrieBenchmark {
+
+	private static final String[] FIRST_NAMES = {"Jules", "Ramon", "Carina", "Danny", "Ron", "Chad", "Lucas", "Madelyn",
+			"Anna", "Julia", "Oliver", "Emma", "Noah", "Ava", "Liam", "Mia", "Ethan", "Zoe", "Mason", "Ella", "Logan",
+			"Grace", "Jacob", "Chloe", "Aiden", "Lily", "Owen", "Nora", "Caleb", "Ruby", "Isaac", "Hazel"};
+
+	private static final String[] SYLLABLES = {"ba", "ker", "son", "mc", "nal", "ly", "gra", "ed", "wards", "dem",
+			"sey", "camp", "bell", "dar", "cy", "ben", "nett", "lu", "cas", "mor", "ri", "ton", "hil", "ford", "wil",
+			"ham", "stein", "ro", "vic", "ko", "ther", "man"};
+
+	@Param({"1000000", "20000000"})
+	private int users;
+
+	private UserNameTrie nameTrie;
+
+	private String[] prefixes;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		var repository = mock(UserRepository.class);
+		when(repository.findNamesAfter(anyLong(), any())).thenReturn(List.of());
+		var before = usedHeap();
+		nameTrie = new UserNameTrie(repository, true);
+		nameTrie.load();
+		var random = new Random(42);
+		var start = System.nanoTime();
+		for (long id = 1; id <= users; id++) {
+			nameTrie.put(id, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+					+ SYLLABLES[random.nextInt(SYLLABLES.length)] + SYLLABLES[random.nextInt(SYLLABLES.length)]
+					+ SYLLABLES[random.nextInt(SYLLABLES.length)]);
+		}
+		System.out.printf("%n%d users: %d trie nodes, %d MB retained of which %d MB names, built in %d ms%n", users,
+				nameTrie.getNodeCount(), (usedHeap() - before) >> 20, nameTrie.getNameBytes() >> 20,
+				(System.nanoTime() - start) / 1_000_000);
+
+		prefixes = new String[1024];
+		for (int i = 0; i < prefixes.length; i++) {
+			var first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)].toLowerCase();
+			var surname = SYLLABLES[random.nextInt(SYLLABLES.length)] + SYLLABLES[random.nextInt(SYLLABLES.length)];
+			switch (i % 3) {
+				case 0:
+					prefixes[i] = first.substring(0, 2);
+					break;
+				case 1:
+					prefixes[i] = surname;
+					break;
+				default:
+					prefixes[i] = first + " " + surname;
+			}
+		}
+	}
+
+	@Benchmark
+	public List<Long> suggest() {
+		return nameTrie.suggest(prefixes[ThreadLocalRandom.current().nextInt(prefixes.length)], 10);
+	}
+
+	private static long usedHeap() {
+		var runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
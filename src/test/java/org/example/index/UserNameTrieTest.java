@@ -0,0 +1,153 @@
+package org.example.index;
+
+import org.example.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserNameTrieTest {
+
+	@Mock
+	private UserRepository mockRepository;
+
+	private UserNameTrie nameTrie;
+
+	@BeforeEach
+	void setUp() {
+		nameTrie = new UserNameTrie(mockRepository, true);
+	}
+
+	@Test
+	void suggestTestAfterLoad() {
+		when(mockRepository.findNamesAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+				new Object[]{1L, "Jules Mcnally"},
+				new Object[]{2L, "Ramon Gray"},
+				new Object[]{4L, "Lucas Bennett"},
+				new Object[]{9L, "Madelyn Lucas"},
+				new Object[]{12L, "Julia Lucas-Gray"}));
+		nameTrie.load();
+
+		assertEquals(List.of(1L, 12L), nameTrie.suggest("JUL", 10));
+		assertEquals(List.of(4L, 9L, 12L), nameTrie.suggest("luc", 10));
+		assertEquals(List.of(4L, 9L), nameTrie.suggest("luc", 2));
+		assertEquals(List.of(2L, 12L), nameTrie.suggest("gray", 10));
+		assertEquals(List.of(1L), nameTrie.suggest("mcn ", 10));
+		assertEquals(List.of(), nameTrie.suggest("zed", 10));
+		assertEquals(List.of(), nameTrie.suggest(" - ", 10));
+	}
+
+	@Test
+	void suggestTestWithSeveralWords() {
+		nameTrie.load();
+		nameTrie.put(1L, "Lucas Bennett");
+		nameTrie.put(2L, "Madelyn Lucas");
+		nameTrie.put(3L, "Lucas Madsen");
+
+		assertEquals(List.of(2L, 3L), nameTrie.suggest("lucas mad", 10));
+		assertEquals(List.of(), nameTrie.suggest("luc mad", 10));
+	}
+
+	@Test
+	void suggestTestOrdersByTokenThenId() {
+		nameTrie.load();
+		nameTrie.put(5L, "Anna");
+		nameTrie.put(2L, "Annabel");
+		nameTrie.put(7L, "Ann");
+		nameTrie.put(3L, "Anna Ann");
+
+		assertEquals(List.of(3L, 7L, 5L, 2L), nameTrie.suggest("ann", 10));
+	}
+
+	@Test
+	void suggestTestAfterRenameAndRemove() {
+		nameTrie.load();
+		nameTrie.put(1L, "Lucas Bennett");
+		nameTrie.put(2L, "Madelyn Lucas");
+		nameTrie.put(1L, "Luke Bennett");
+
+		assertEquals(List.of(2L), nameTrie.suggest("lucas", 10));
+		assertEquals(List.of(2L, 1L), nameTrie.suggest("lu", 10));
+
+		nameTrie.remove(2L);
+		assertEquals(List.of(1L), nameTrie.suggest("lu", 10));
+		assertEquals(List.of(), nameTrie.suggest("madelyn", 10));
+	}
+
+	@Test
+	void refreshTestAppliesCommittedName() {
+		nameTrie.load();
+		nameTrie.put(1L, "Lucas Bennett");
+		nameTrie.put(2L, "Madelyn Lucas");
+		when(mockRepository.findNameById(1L)).thenReturn(Optional.of("Luke Bennett"));
+		when(mockRepository.findNameById(2L)).thenReturn(Optional.empty());
+
+		nameTrie.refresh(1L);
+		nameTrie.refresh(2L);
+		//a repeated refresh finds the tokens of the committed name only
+		nameTrie.refresh(1L);
+
+		assertEquals(List.of(1L), nameTrie.suggest("lu", 10));
+		assertEquals(List.of(), nameTrie.suggest("lucas", 10));
+		assertEquals(List.of(), nameTrie.suggest("madelyn", 10));
+	}
+
+	@Test
+	void suggestTestLeftToDatabase() {
+		assertNull(nameTrie.suggest("jul", 10));
+
+		nameTrie.load();
+		assertNull(nameTrie.suggest(null, 10));
+	}
+
+	@Test
+	void loadTestKeepsChangesMadeWhileLoading() {
+		nameTrie.put(1L, "Updated Name");
+		nameTrie.remove(2L);
+		when(mockRepository.findNamesAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+				new Object[]{1L, "Old Name"},
+				new Object[]{2L, "Removed Name"}));
+		nameTrie.load();
+
+		assertEquals(List.of(1L), nameTrie.suggest("name", 10));
+		assertEquals(List.of(), nameTrie.suggest("old", 10));
+	}
+
+	@Test
+	void loadTestWhenDisabled() {
+		var disabled = new UserNameTrie(mockRepository, false);
+		disabled.load();
+		disabled.put(1L, "Jules Mcnally");
+
+		assertFalse(disabled.isReady());
+		assertNull(disabled.suggest("jul", 10));
+		assertEquals(1, disabled.getNodeCount());
+		verify(mockRepository, never()).findNamesAfter(anyLong(), any(Pageable.class));
+	}
+
+	@Test
+	void putTestSharesPrefixNodes() {
+		nameTrie.put(1L, "abc");
+		nameTrie.put(2L, "abd");
+		nameTrie.put(3L, "Abc");
+
+		//root, a, b, c and d
+		assertEquals(5, nameTrie.getNodeCount());
+	}
+}
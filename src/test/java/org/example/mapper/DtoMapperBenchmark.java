@@ -0,0 +1,102 @@
+package org.example.mapper;
+
+import org.example.enums.Category;
+import org.example.mapper.impl.ModelMapperDtoMapper;
+import org.example.model.Account;
+import org.example.model.Event;
+import org.example.model.Ticket;
+import org.example.model.User;
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of mapping one object, and one list of 100 tickets, with ModelMapper and the generated mapper.
+ * Run with: mvn test-compile exec:exec -Pbenchmark -Dbenchmark.includes=DtoMapperBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoMapperBenchmark {
+
+	@Param({"generated", "modelmapper"})
+	private String engine;
+
+	private DtoMapper mapper;
+
+	private User user;
+
+	private Event event;
+
+	private Ticket ticket;
+
+	private Account account;
+
+	private List<Ticket> tickets;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		mapper = "generated".equals(engine)
+				? Mappers.getMapper(GeneratedDtoMapper.class)
+				: new ModelMapperDtoMapper(new ModelMapper());
+		user = new User(1L, "Jules Mcnally", "Jules_Mcnally8158@extex.org");
+		event = new Event(1L, "Matrix Lucky Hand", LocalDate.of(2021, 12, 15), new BigDecimal("15.00"));
+		ticket = new Ticket(1L, user, event, Category.STANDARD, 130);
+		account = new Account(1L, new BigDecimal("100.00"));
+		tickets = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			tickets.add(new Ticket((long) i, user, event, Category.BAR, i));
+		}
+	}
+
+	@Benchmark
+	public Object user() {
+		return mapper.toDto(user);
+	}
+
+	@Benchmark
+	public Object event() {
+		return mapper.toDto(event);
+	}
+
+	@Benchmark
+	public Object ticket() {
+		return mapper.toDto(ticket);
+	}
+
+	@Benchmark
+	public Object ticketRoundTrip() {
+		return mapper.toEntity(mapper.toDto(ticket));
+	}
+
+	@Benchmark
+	public Object account() {
+		return mapper.toDto(account);
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public Object ticketList() {
+		return mapper.toTicketDtos(tickets);
+	}
+}
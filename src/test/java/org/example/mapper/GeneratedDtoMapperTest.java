@@ -0,0 +1,67 @@
+package org.example.mapper;
+
+import org.example.enums.Category;
+import org.example.mapper.impl.ModelMapperDtoMapper;
+import org.example.model.Account;
+import org.example.model.Event;
+import org.example.model.Ticket;
+import org.example.model.User;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.ModelMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class GeneratedDtoMapperTest {
+
+	private final DtoMapper mapper = Mappers.getMapper(GeneratedDtoMapper.class);
+
+	private final DtoMapper modelMapper = new ModelMapperDtoMapper(new ModelMapper());
+
+	private final User user = new User(1L, "Name", "email@mail.com");
+
+	private final Event event = new Event(2L, "Title", LocalDate.of(2022, 1, 1), new BigDecimal("15.00"));
+
+	@Test
+	void toDtoTest() {
+		var ticket = mapper.toDto(new Ticket(3L, user, event, Category.BAR, 7));
+
+		assertEquals(3L, ticket.getId());
+		assertEquals("email@mail.com", ticket.getUser().getEmail());
+		assertEquals(LocalDate.of(2022, 1, 1), ticket.getEvent().getDate());
+		assertEquals(new BigDecimal("15.00"), ticket.getEvent().getTicketPrice());
+		assertEquals(Category.BAR, ticket.getCategory());
+		assertEquals(7, ticket.getPlace());
+		assertNull(mapper.toDto((Ticket) null));
+	}
+
+	@Test
+	void toDtoTestMatchesModelMapper() {
+		var ticket = new Ticket(3L, user, event, Category.PREMIUM, 7);
+		var generated = mapper.toTicketDtos(List.of(ticket)).get(0);
+		var reflective = modelMapper.toTicketDtos(List.of(ticket)).get(0);
+
+		assertEquals(reflective.getId(), generated.getId());
+		assertEquals(reflective.getUser().getName(), generated.getUser().getName());
+		assertEquals(reflective.getEvent().getTitle(), generated.getEvent().getTitle());
+		assertEquals(reflective.getCategory(), generated.getCategory());
+		assertEquals(reflective.getPlace(), generated.getPlace());
+	}
+
+	@Test
+	void toEntityTest() {
+		var ticket = mapper.toEntity(mapper.toDto(new Ticket(3L, user, event, Category.BAR, 7)));
+		assertEquals(1L, ticket.getUser().getId());
+		assertEquals(2L, ticket.getEvent().getId());
+
+		var account = mapper.toEntity(mapper.toDto(new Account(4L, new BigDecimal("10.00"))));
+		assertEquals(4L, account.getId());
+		assertEquals(new BigDecimal("10.00"), account.getBalance());
+		assertEquals(0, account.getShards());
+	}
+}
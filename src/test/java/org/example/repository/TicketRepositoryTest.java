@@ -0,0 +1,147 @@
+package org.example.repository;
+
+import org.example.dto.TicketDto;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.persistence.EntityManager;
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Sql(value = {"classpath:drop-tables.sql"})
+@Sql(value = {"classpath:init-ticket.sql"})
+@DirtiesContext
+class TicketRepositoryTest {
+
+	@Autowired
+	private EntityManager em;
+
+	@Autowired
+	private TicketRepository repository;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		em.clear();
+		statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void findByEventIdTest() {
+		var tickets = repository.findByEventId(2L, PageRequest.of(0, 10));
+
+		assertEquals(3, tickets.size());
+		var ticket = tickets.stream().filter(t -> t.getId() == 6L).findFirst().orElseThrow();
+		assertEquals(6L, ticket.getUser().getId());
+		assertEquals("Carina_Edwards6585@zorer.org", ticket.getUser().getEmail());
+		assertEquals(LocalDate.of(2022, 11, 27), ticket.getEvent().getDate());
+		assertEquals(1, statistics.getPrepareStatementCount());
+		assertEquals(0, statistics.getEntityLoadCount());
+	}
+
+	@Test
+	void findPageByUserIdAfterTest() {
+		var tickets = repository.findPageByUserIdAfter(1L, LocalDate.of(2022, 1, 1), Long.MAX_VALUE, PageRequest.of(0, 10));
+
+		assertEquals(1, tickets.size());
+		assertEquals(1L, tickets.get(0).getId());
+		assertEquals("Matrix Lucky Hand", tickets.get(0).getEvent().getTitle());
+		assertEquals(1, statistics.getPrepareStatementCount());
+		assertEquals(0, statistics.getEntityLoadCount());
+	}
+
+	@Test
+	void findByUserIdTestUsesCoveringIndexes() throws Exception {
+		var plan = explain(TicketRepository.class.getMethod("findByUserId", Long.class, Pageable.class));
+
+		assertTrue(plan.contains("TICKETS_USER_IDX"), plan);
+		assertTrue(plan.contains("EVENTS_DATE_IDX"), plan);
+		assertFalse(plan.contains("tableScan"), plan);
+	}
+
+	@Test
+	void findByEventIdTestUsesCoveringIndexes() throws Exception {
+		var plan = explain(TicketRepository.class.getMethod("findByEventId", Long.class, Pageable.class));
+
+		assertTrue(plan.contains("TICKETS_EVENT_IDX"), plan);
+		assertTrue(plan.contains("USERS_EMAIL_IDX"), plan);
+		assertFalse(plan.contains("tableScan"), plan);
+	}
+
+	@Test
+	void findPageByUserIdAfterTestSeeksIndexInOrder() throws Exception {
+		var plan = explain(TicketRepository.class.getMethod("findPageByUserIdAfter", Long.class, LocalDate.class,
+				Long.class, Pageable.class));
+
+		assertTrue(plan.contains("TICKETS_USER_IDX"), plan);
+		assertTrue(plan.contains("index sorted"), plan);
+	}
+
+	@Test
+	void findPageByEventIdAfterTestSeeksIndexInOrder() throws Exception {
+		var plan = explain(TicketRepository.class.getMethod("findPageByEventIdAfter", Long.class, String.class,
+				Long.class, Pageable.class));
+
+		assertTrue(plan.contains("TICKETS_EVENT_IDX"), plan);
+		assertTrue(plan.contains("index sorted"), plan);
+	}
+
+	@Test
+	void findPageByEventIdAfterTestFollowsChangedEmail() {
+		repository.updateUserEmail(9L, "Aaron_Campbell@atink.com");
+		em.clear();
+
+		var ids = repository.findPageByEventIdAfter(1L, "A", 0L, PageRequest.of(0, 10)).stream()
+				.map(TicketDto::getId)
+				.collect(Collectors.toList());
+
+		assertEquals(List.of(9L, 1L, 2L), ids);
+	}
+
+	@Test
+	void findByEventIdTestIsSorted() {
+		var emails = repository.findByEventId(1L, PageRequest.of(0, 10)).stream()
+				.map(ticket -> ticket.getUser().getEmail())
+				.collect(Collectors.toList());
+
+		assertEquals(List.of("Jules_Mcnally8158@extex.org", "Ramon_Gray3339@gmail.com", "Ron_Campbell6475@atink.com"), emails);
+	}
+
+	/**
+	 * Explains the SQL Hibernate generates for the query of the repository method, with every parameter set to 1.
+	 */
+	private String explain(Method method) {
+		var hql = method.getAnnotation(Query.class).value();
+		var sql = em.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class).getQueryPlanCache()
+				.getHQLQueryPlan(hql, false, Map.of())
+				.getSqlStrings()[0];
+		var query = em.createNativeQuery("explain " + sql);
+		for (int i = 1; i <= sql.chars().filter(c -> c == '?').count(); i++) {
+			query.setParameter(i, 1L);
+		}
+		return (String) query.getSingleResult();
+	}
+}
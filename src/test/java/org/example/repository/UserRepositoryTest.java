@@ -0,0 +1,52 @@
+package org.example.repository;
+
+import org.example.model.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlMergeMode;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@Sql(value = {"classpath:drop-tables.sql"})
+@Sql(value = {"classpath:init-user.sql"})
+@DirtiesContext
+class UserRepositoryTest {
+
+	@Autowired
+	private UserRepository repository;
+
+	@Test
+	void findPageByNameTest() {
+		assertEquals(List.of("Jules Mcnally"), findNames("MCN"));
+		assertEquals(List.of("Lucas Bennett", "Madelyn Lucas"), findNames("lucas"));
+	}
+
+	@Test
+	@SqlMergeMode(SqlMergeMode.MergeMode.MERGE)
+	@Sql(statements = "insert into USERS (ID, FULL_NAME, EMAIL)"
+			+ " values (11, 'Fan_100%', 'fan@mail.com'), (12, 'Fan\\Club', 'club@mail.com')")
+	void findPageByNameTestWithWildcards() {
+		assertEquals(List.of("Fan_100%"), findNames("%"));
+		assertEquals(List.of("Fan_100%"), findNames("n_1"));
+		assertEquals(List.of("Fan\\Club"), findNames("n\\c"));
+		assertEquals(List.of(), findNames("fan_c"));
+		assertEquals(0, repository.findPageByNameAfter("_", "Fan_100%", 11L, PageRequest.of(0, 20)).size());
+	}
+
+	private List<String> findNames(String name) {
+		return repository.findPageByName(name, PageRequest.of(0, 10)).stream()
+				.map(User::getName)
+				.collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,115 @@
+package org.example.repository.bulk.impl;
+
+import org.example.Application;
+import org.example.enums.Category;
+import org.example.model.Event;
+import org.example.model.Ticket;
+import org.example.model.User;
+import org.example.repository.TicketRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares inserting tickets with {@code saveAll} and with the binary COPY of {@link TicketBulkRepositoryImpl}.
+ * Needs a PostgreSQL database initialized with {@code db/init.sql}, by default the one from the main
+ * application properties. Run with:
+ * mvn test-compile exec:exec -Pbenchmark -Dbenchmark.includes=TicketBulkInsertBenchmark
+ * and override the database with the {@code benchmark.datasource.url}, {@code benchmark.datasource.username}
+ * and {@code benchmark.datasource.password} system properties.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TicketBulkInsertBenchmark {
+
+	@Param({"1000000"})
+	private int rows;
+
+	private ConfigurableApplicationContext context;
+
+	private TicketRepository repository;
+
+	private TransactionTemplate transactionTemplate;
+
+	private JdbcTemplate jdbcTemplate;
+
+	private List<Long> userIds;
+
+	private List<Long> eventIds;
+
+	private List<Ticket> tickets;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = new SpringApplicationBuilder(Application.class)
+				.web(WebApplicationType.NONE)
+				.properties("spring.datasource.url=" + System.getProperty("benchmark.datasource.url",
+								"jdbc:postgresql://localhost:5432/postgres?reWriteBatchedInserts=true"),
+						"spring.datasource.username=" + System.getProperty("benchmark.datasource.username", "postgres"),
+						"spring.datasource.password=" + System.getProperty("benchmark.datasource.password", "docker"),
+						"spring.jpa.hibernate.ddl-auto=none",
+						"spring.jpa.properties.hibernate.default_schema=TICKET_BOOTH",
+						"spring.jpa.properties.hibernate.jdbc.batch_size=10",
+						"spring.jpa.properties.hibernate.order_inserts=true",
+						"spring.jpa.properties.hibernate.show_sql=false")
+				.run();
+		repository = context.getBean(TicketRepository.class);
+		transactionTemplate = context.getBean(TransactionTemplate.class);
+		jdbcTemplate = context.getBean(JdbcTemplate.class);
+		userIds = jdbcTemplate.queryForList("select ID from TICKET_BOOTH.USERS", Long.class);
+		eventIds = jdbcTemplate.queryForList("select ID from TICKET_BOOTH.EVENTS", Long.class);
+	}
+
+	@Setup(Level.Invocation)
+	public void createTickets() {
+		jdbcTemplate.execute("truncate TICKET_BOOTH.TICKETS");
+		tickets = new ArrayList<>(rows);
+		for (int i = 0; i < rows; i++) {
+			var user = new User();
+			user.setId(userIds.get(i % userIds.size()));
+			var event = new Event();
+			event.setId(eventIds.get(i % eventIds.size()));
+			//places are unique per event
+			tickets.add(new Ticket(null, user, event, Category.STANDARD, i / eventIds.size()));
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		jdbcTemplate.execute("truncate TICKET_BOOTH.TICKETS");
+		context.close();
+	}
+
+	@Benchmark
+	public void saveAll() {
+		transactionTemplate.executeWithoutResult(status -> repository.saveAll(tickets));
+	}
+
+	@Benchmark
+	public void copy() {
+		transactionTemplate.executeWithoutResult(status -> repository.insertAll(tickets));
+	}
+}
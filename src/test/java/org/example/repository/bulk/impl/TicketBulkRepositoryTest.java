@@ -0,0 +1,136 @@
+package org.example.repository.bulk.impl;
+
+import org.example.enums.Category;
+import org.example.model.Event;
+import org.example.model.Ticket;
+import org.example.model.User;
+import org.example.repository.TicketRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@Sql(value = {"classpath:drop-tables.sql"})
+@Sql(value = {"classpath:init-create-ticket.sql"})
+@DirtiesContext
+class TicketBulkRepositoryTest {
+
+	@Autowired
+	private EntityManager em;
+
+	@Autowired
+	private TicketRepository repository;
+
+	@Test
+	void insertAllTestWithBatchedInserts() {
+		var tickets = IntStream.range(0, 3)
+				.mapToObj(place -> new Ticket(null, em.getReference(User.class, 1L), em.getReference(Event.class, 1L),
+						Category.BAR, place))
+				.collect(Collectors.toList());
+
+		repository.insertAll(tickets);
+
+		assertEquals(3, tickets.stream().map(Ticket::getId).distinct().count());
+		em.clear();
+		assertEquals(3, repository.count());
+		assertNotNull(repository.findById(tickets.get(2).getId()).orElse(null));
+	}
+
+	@Test
+	void copyTest() throws Exception {
+		var copied = new ByteArrayOutputStream();
+		var copyIn = mock(CopyIn.class);
+		doAnswer(invocation -> {
+			copied.write(invocation.<byte[]>getArgument(0), invocation.getArgument(1), invocation.getArgument(2));
+			return null;
+		}).when(copyIn).writeToCopy(any(byte[].class), anyInt(), anyInt());
+		var copyManager = mock(CopyManager.class);
+		when(copyManager.copyIn(anyString())).thenReturn(copyIn);
+		var pgConnection = mock(PGConnection.class);
+		when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+		var connection = mock(Connection.class);
+		when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+
+		var user = new User(1L, null, null);
+		var event = new Event();
+		event.setId(2L);
+		var tickets = IntStream.range(0, 12)
+				.mapToObj(place -> new Ticket(null, user, place == 0 ? null : event, place == 0 ? null : Category.BAR, place))
+				.collect(Collectors.toList());
+		tickets.forEach(ticket -> {
+			ticket.setUserEmail("jules@extex.org");
+			ticket.setEventDate(ticket.getEvent() == null ? null : LocalDate.of(2000, 1, 3));
+		});
+
+		TicketBulkRepositoryImpl.copy(connection, "TICKET_BOOTH.TICKETS", tickets,
+				LongStream.rangeClosed(1, 12).toArray());
+
+		assertEquals(LongStream.rangeClosed(1, 12).boxed().collect(Collectors.toList()),
+				tickets.stream().map(Ticket::getId).collect(Collectors.toList()));
+		var buffer = ByteBuffer.wrap(copied.toByteArray());
+		var signature = new byte[11];
+		buffer.get(signature);
+		assertEquals("PGCOPY\n", new String(signature, 0, 7, StandardCharsets.US_ASCII));
+		assertEquals(0, buffer.getInt());
+		assertEquals(0, buffer.getInt());
+		for (var ticket : tickets) {
+			assertEquals(7, buffer.getShort());
+			assertEquals(8, buffer.getInt());
+			assertEquals(ticket.getId(), buffer.getLong());
+			assertEquals(8, buffer.getInt());
+			assertEquals(1L, buffer.getLong());
+			if (ticket.getEvent() == null) {
+				assertEquals(-1, buffer.getInt());
+				assertEquals(-1, buffer.getInt());
+			} else {
+				assertEquals(8, buffer.getInt());
+				assertEquals(2L, buffer.getLong());
+				assertEquals(3, buffer.getInt());
+				var category = new byte[3];
+				buffer.get(category);
+				assertEquals("BAR", new String(category, StandardCharsets.US_ASCII));
+			}
+			assertEquals(4, buffer.getInt());
+			assertEquals(ticket.getPlace(), buffer.getInt());
+			assertEquals(15, buffer.getInt());
+			var email = new byte[15];
+			buffer.get(email);
+			assertEquals("jules@extex.org", new String(email, StandardCharsets.UTF_8));
+			if (ticket.getEvent() == null) {
+				assertEquals(-1, buffer.getInt());
+			} else {
+				assertEquals(4, buffer.getInt());
+				assertEquals(2, buffer.getInt());
+			}
+		}
+		assertEquals(-1, buffer.getShort());
+		assertEquals(0, buffer.remaining());
+	}
+}
@@ -12,11 +12,15 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -68,4 +72,20 @@ class EventCacheRepositoryTest {
 		assertEquals(12, queryCacheMissCountAfterUpdate);
 	}
 
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	void findAllByIdWithCacheTest() {
+		var statistics = em.unwrap(Session.class).getSessionFactory().getStatistics();
+		statistics.setStatisticsEnabled(true);
+		statistics.clear();
+
+		assertEquals(Set.of(1L, 2L), repository.findAllByIdWithCache(List.of(1L, 2L, 100L)).keySet());
+		assertEquals(1, statistics.getPrepareStatementCount());
+
+		//entities found by the previous session are resolved from the second-level cache
+		assertEquals(Set.of(1L, 2L), repository.findAllByIdWithCache(List.of(1L, 2L)).keySet());
+		assertEquals(1, statistics.getPrepareStatementCount());
+		assertEquals(Set.of(), repository.findAllByIdWithCache(List.of(100L)).keySet());
+		assertEquals(2, statistics.getPrepareStatementCount());
+	}
 }
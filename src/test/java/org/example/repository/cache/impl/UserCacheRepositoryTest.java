@@ -10,10 +10,16 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
 
+import java.util.List;
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
 @ExtendWith(SpringExtension.class)
@@ -63,4 +69,49 @@ class UserCacheRepositoryTest {
 		assertEquals(12, queryCacheMissCountAfterUpdate);
 	}
 
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	void findAllByIdWithCacheTest() {
+		var statistics = em.unwrap(Session.class).getSessionFactory().getStatistics();
+		statistics.setStatisticsEnabled(true);
+		statistics.clear();
+
+		assertEquals(Set.of(1L, 2L), repository.findAllByIdWithCache(List.of(1L, 2L, 100L)).keySet());
+		assertEquals(1, statistics.getPrepareStatementCount());
+
+		//entities found by the previous session are resolved from the second-level cache
+		assertEquals(Set.of(1L, 2L), repository.findAllByIdWithCache(List.of(1L, 2L)).keySet());
+		assertEquals(1, statistics.getPrepareStatementCount());
+		assertEquals(Set.of(), repository.findAllByIdWithCache(List.of(100L)).keySet());
+		assertEquals(2, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	void findByEmailWithCacheTest() {
+		var statistics = em.unwrap(Session.class).getSessionFactory().getStatistics();
+		statistics.setStatisticsEnabled(true);
+		statistics.clear();
+
+		assertEquals(7L, repository.findByEmailWithCache("Danny_Dempsey454@mafthy.com").get().getId());
+		var statementCount = statistics.getPrepareStatementCount();
+
+		//email is resolved to the id from the natural id cache and the user is read from the entity cache
+		for (int i = 0; i < 5; i++) {
+			assertEquals(7L, repository.findByEmailWithCache("Danny_Dempsey454@mafthy.com").get().getId());
+		}
+		assertEquals(statementCount, statistics.getPrepareStatementCount());
+		assertEquals(5, statistics.getNaturalIdCacheHitCount());
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	void findByEmailWithCacheTestAfterEmailUpdate() {
+		assertEquals(8L, repository.findByEmailWithCache("Daniel_Nelson5389@grannar.com").get().getId());
+
+		repository.save(new User(8L, "Daniel Nelson", "daniel.nelson@mail.com"));
+
+		assertTrue(repository.findByEmailWithCache("Daniel_Nelson5389@grannar.com").isEmpty());
+		assertEquals(8L, repository.findByEmailWithCache("daniel.nelson@mail.com").get().getId());
+	}
 }
@@ -0,0 +1,38 @@
+package org.example.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccountContentionMonitorTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private final AccountContentionMonitor monitor = new AccountContentionMonitor(10, 3, registry);
+
+	@Test
+	void drainHotAccountsTestReportsAccountsOverThreshold() {
+		for (int i = 0; i < 3; i++) {
+			monitor.recordWait(1L, TimeUnit.MILLISECONDS.toNanos(20));
+			monitor.recordWait(2L, TimeUnit.MILLISECONDS.toNanos(1));
+		}
+		monitor.recordWait(3L, TimeUnit.MILLISECONDS.toNanos(20));
+
+		assertEquals(Set.of(1L), monitor.drainHotAccounts());
+		assertEquals(4.0, registry.get("account.lock.contended").counter().count());
+	}
+
+	@Test
+	void drainHotAccountsTestResetsCounts() {
+		for (int i = 0; i < 3; i++) {
+			monitor.recordWait(1L, TimeUnit.MILLISECONDS.toNanos(20));
+		}
+		assertEquals(Set.of(1L), monitor.drainHotAccounts());
+		assertTrue(monitor.drainHotAccounts().isEmpty());
+	}
+}
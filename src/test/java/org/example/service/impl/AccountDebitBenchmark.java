@@ -0,0 +1,112 @@
+package org.example.service.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the former read-modify-write charge of a single hot account with the conditional debit statement.
+ * Both run one transaction per charge against an in-memory H2 database from several threads.
+ * Run with: mvn test-compile exec:exec -Pbenchmark -Dbenchmark.includes=AccountDebitBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class AccountDebitBenchmark {
+
+	private static final String URL = "jdbc:h2:mem:accounts;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000";
+	private static final long ACCOUNT_ID = 1L;
+	private static final BigDecimal TICKET_PRICE = BigDecimal.ONE;
+
+	@State(Scope.Benchmark)
+	public static class Database {
+
+		private Connection connection;
+
+		@Setup(Level.Iteration)
+		public void setUp() throws SQLException {
+			connection = DriverManager.getConnection(URL);
+			try (var statement = connection.createStatement()) {
+				statement.execute("create table if not exists ACCOUNTS (ID bigint primary key, BALANCE numeric(19, 2))");
+				statement.execute("merge into ACCOUNTS key (ID) values (1, 1000000000)");
+			}
+		}
+
+		@TearDown(Level.Iteration)
+		public void tearDown() throws SQLException {
+			connection.close();
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Session {
+
+		private Connection connection;
+		private PreparedStatement select;
+		private PreparedStatement update;
+		private PreparedStatement debit;
+
+		@Setup(Level.Iteration)
+		public void setUp(Database database) throws SQLException {
+			connection = DriverManager.getConnection(URL);
+			connection.setAutoCommit(false);
+			select = connection.prepareStatement("select BALANCE from ACCOUNTS where ID = ?");
+			update = connection.prepareStatement("update ACCOUNTS set BALANCE = ? where ID = ?");
+			debit = connection.prepareStatement("update ACCOUNTS set BALANCE = BALANCE - ? where ID = ? and BALANCE >= ?");
+		}
+
+		@TearDown(Level.Iteration)
+		public void tearDown() throws SQLException {
+			connection.close();
+		}
+	}
+
+	@Benchmark
+	public boolean readModifyWrite(Session session) throws SQLException {
+		session.select.setLong(1, ACCOUNT_ID);
+		BigDecimal balance;
+		try (var resultSet = session.select.executeQuery()) {
+			resultSet.next();
+			balance = resultSet.getBigDecimal(1);
+		}
+		if (balance.compareTo(TICKET_PRICE) < 0) {
+			session.connection.rollback();
+			return false;
+		}
+		session.update.setBigDecimal(1, balance.subtract(TICKET_PRICE));
+		session.update.setLong(2, ACCOUNT_ID);
+		session.update.executeUpdate();
+		session.connection.commit();
+		return true;
+	}
+
+	@Benchmark
+	public boolean conditionalDebit(Session session) throws SQLException {
+		session.debit.setBigDecimal(1, TICKET_PRICE);
+		session.debit.setLong(2, ACCOUNT_ID);
+		session.debit.setBigDecimal(3, TICKET_PRICE);
+		var charged = session.debit.executeUpdate() == 1;
+		session.connection.commit();
+		return charged;
+	}
+}
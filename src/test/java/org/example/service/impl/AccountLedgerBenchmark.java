@@ -0,0 +1,152 @@
+package org.example.service.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares refills of a single hot account done as an update of the account row with ledger entry inserts,
+ * and charges done under the account row lock with a sum of pending entries with a single conditional debit
+ * of the snapshot.
+ * All run one transaction per operation against an in-memory H2 database from several threads.
+ * Run with: mvn test-compile exec:exec -Pbenchmark -Dbenchmark.includes=AccountLedgerBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class AccountLedgerBenchmark {
+
+	private static final String URL = "jdbc:h2:mem:ledger;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000";
+	private static final long ACCOUNT_ID = 1L;
+	private static final BigDecimal REFILL_SUM = BigDecimal.ONE;
+	private static final BigDecimal TICKET_PRICE = BigDecimal.ONE;
+
+	@State(Scope.Benchmark)
+	public static class Database {
+
+		private Connection connection;
+
+		@Setup(Level.Iteration)
+		public void setUp() throws SQLException {
+			connection = DriverManager.getConnection(URL);
+			try (var statement = connection.createStatement()) {
+				statement.execute("create table if not exists ACCOUNTS (ID bigint primary key, BALANCE numeric(19, 2))");
+				statement.execute("create sequence if not exists ACCOUNT_ENTRIES_ID_SEQ");
+				statement.execute("create table if not exists ACCOUNT_ENTRIES (ID bigint primary key, ACCOUNT_ID bigint, "
+						+ "AMOUNT numeric(19, 2), ROLLED_UP boolean default false)");
+				statement.execute("create index if not exists ACCOUNT_ENTRIES_PENDING_IDX on ACCOUNT_ENTRIES (ACCOUNT_ID, ROLLED_UP)");
+				statement.execute("merge into ACCOUNTS key (ID) values (1, 1000000000)");
+				statement.execute("delete from ACCOUNT_ENTRIES");
+			}
+		}
+
+		@TearDown(Level.Iteration)
+		public void tearDown() throws SQLException {
+			connection.close();
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Session {
+
+		private Connection connection;
+		private PreparedStatement update;
+		private PreparedStatement insert;
+		private PreparedStatement lock;
+		private PreparedStatement sumPending;
+		private PreparedStatement debit;
+
+		@Setup(Level.Iteration)
+		public void setUp(Database database) throws SQLException {
+			connection = DriverManager.getConnection(URL);
+			connection.setAutoCommit(false);
+			update = connection.prepareStatement("update ACCOUNTS set BALANCE = BALANCE + ? where ID = ?");
+			insert = connection.prepareStatement("insert into ACCOUNT_ENTRIES (ID, ACCOUNT_ID, AMOUNT) "
+					+ "values (next value for ACCOUNT_ENTRIES_ID_SEQ, ?, ?)");
+			lock = connection.prepareStatement("select BALANCE from ACCOUNTS where ID = ? for update");
+			sumPending = connection.prepareStatement("select coalesce(sum(AMOUNT), 0) from ACCOUNT_ENTRIES "
+					+ "where ACCOUNT_ID = ? and ROLLED_UP = false");
+			debit = connection.prepareStatement("update ACCOUNTS set BALANCE = BALANCE - ? where ID = ? and BALANCE >= ?");
+		}
+
+		@TearDown(Level.Iteration)
+		public void tearDown() throws SQLException {
+			connection.close();
+		}
+	}
+
+	@Benchmark
+	public int hotRowUpdate(Session session) throws SQLException {
+		session.update.setBigDecimal(1, REFILL_SUM);
+		session.update.setLong(2, ACCOUNT_ID);
+		var updated = session.update.executeUpdate();
+		session.connection.commit();
+		return updated;
+	}
+
+	@Benchmark
+	public int ledgerInsert(Session session) throws SQLException {
+		session.insert.setLong(1, ACCOUNT_ID);
+		session.insert.setBigDecimal(2, REFILL_SUM);
+		var inserted = session.insert.executeUpdate();
+		session.connection.commit();
+		return inserted;
+	}
+
+	@Benchmark
+	public boolean lockedCharge(Session session) throws SQLException {
+		session.lock.setLong(1, ACCOUNT_ID);
+		BigDecimal balance;
+		try (var resultSet = session.lock.executeQuery()) {
+			resultSet.next();
+			balance = resultSet.getBigDecimal(1);
+		}
+		session.sumPending.setLong(1, ACCOUNT_ID);
+		try (var resultSet = session.sumPending.executeQuery()) {
+			resultSet.next();
+			balance = balance.add(resultSet.getBigDecimal(1));
+		}
+		if (balance.compareTo(TICKET_PRICE) < 0) {
+			session.connection.rollback();
+			return false;
+		}
+		session.insert.setLong(1, ACCOUNT_ID);
+		session.insert.setBigDecimal(2, TICKET_PRICE.negate());
+		session.insert.executeUpdate();
+		session.connection.commit();
+		return true;
+	}
+
+	@Benchmark
+	public boolean conditionalCharge(Session session) throws SQLException {
+		session.debit.setBigDecimal(1, TICKET_PRICE);
+		session.debit.setLong(2, ACCOUNT_ID);
+		session.debit.setBigDecimal(3, TICKET_PRICE);
+		if (session.debit.executeUpdate() == 0) {
+			session.connection.rollback();
+			return false;
+		}
+		session.connection.commit();
+		return true;
+	}
+}
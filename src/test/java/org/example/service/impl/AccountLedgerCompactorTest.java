@@ -0,0 +1,83 @@
+package org.example.service.impl;
+
+import org.example.repository.AccountEntryRepository;
+import org.example.repository.AccountRepository;
+import org.example.repository.AccountShardRepository;
+import org.example.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Sql(value = {"classpath:drop-tables.sql"})
+@Sql(value = {"classpath:init-user.sql"})
+@SpringBootTest
+class AccountLedgerCompactorTest {
+
+	private static final Long ACCOUNT_ID = 1L;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private AccountLedgerCompactor compactor;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private AccountEntryRepository entryRepository;
+
+	@Autowired
+	private AccountShardRepository shardRepository;
+
+	@Autowired
+	private AccountContentionMonitor contentionMonitor;
+
+	@Test
+	void compactTestRollsPendingEntriesIntoSnapshot() {
+		accountService.refillAccount(ACCOUNT_ID, BigDecimal.valueOf(50));
+		accountService.chargeForTicket(ACCOUNT_ID, BigDecimal.valueOf(30));
+		accountService.chargeForTicket(ACCOUNT_ID, BigDecimal.valueOf(15));
+
+		//charges debit the snapshot, the refill stays pending until compaction
+		assertEquals(0, BigDecimal.valueOf(55).compareTo(accountRepository.findById(ACCOUNT_ID).orElseThrow().getBalance()));
+		assertEquals(0, BigDecimal.valueOf(105).compareTo(accountService.getAccount(ACCOUNT_ID).getBalance()));
+
+		compactor.compact();
+
+		assertEquals(0, BigDecimal.valueOf(105).compareTo(accountRepository.findById(ACCOUNT_ID).orElseThrow().getBalance()));
+		assertEquals(0, BigDecimal.ZERO.compareTo(entryRepository.sumPendingByAccountId(ACCOUNT_ID)));
+		assertEquals(0, BigDecimal.valueOf(105).compareTo(accountService.getAccount(ACCOUNT_ID).getBalance()));
+	}
+
+	@Test
+	void compactTestSplitsHotAccountIntoShards() {
+		for (int i = 0; i < 50; i++) {
+			contentionMonitor.recordWait(ACCOUNT_ID, TimeUnit.SECONDS.toNanos(1));
+		}
+		compactor.compact();
+
+		var account = accountRepository.findById(ACCOUNT_ID).orElseThrow();
+		assertEquals(4, account.getShards());
+		assertEquals(0, BigDecimal.ZERO.compareTo(account.getBalance()));
+		assertEquals(0, BigDecimal.valueOf(100).compareTo(shardRepository.sumByAccountId(ACCOUNT_ID)));
+		assertEquals(0, BigDecimal.valueOf(25).compareTo(shardRepository.findBalance(ACCOUNT_ID, 3)));
+
+		//charge above any single shard is collected from several shards
+		accountService.refillAccount(ACCOUNT_ID, BigDecimal.valueOf(10));
+		accountService.chargeForTicket(ACCOUNT_ID, BigDecimal.valueOf(60));
+		assertEquals(0, BigDecimal.valueOf(50).compareTo(accountService.getAccount(ACCOUNT_ID).getBalance()));
+		assertEquals(0, BigDecimal.valueOf(50).compareTo(shardRepository.sumByAccountId(ACCOUNT_ID)));
+		assertEquals(0, BigDecimal.ZERO.compareTo(accountRepository.findById(ACCOUNT_ID).orElseThrow().getBalance()));
+
+		compactor.compact();
+		assertEquals(0, BigDecimal.valueOf(50).compareTo(shardRepository.sumByAccountId(ACCOUNT_ID)));
+		assertEquals(0, BigDecimal.valueOf(50).compareTo(accountService.getAccount(ACCOUNT_ID).getBalance()));
+	}
+}
@@ -0,0 +1,95 @@
+package org.example.service.impl;
+
+import org.example.exception.AccountBalanceException;
+import org.example.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Sql(value = {"classpath:drop-tables.sql"})
+@Sql(value = {"classpath:init-user.sql"})
+@SpringBootTest
+class AccountServiceImplConcurrencyTest {
+
+	private static final Long ACCOUNT_ID = 10L;
+	private static final BigDecimal INITIAL_BALANCE = BigDecimal.valueOf(1000);
+	private static final BigDecimal TICKET_PRICE = new BigDecimal("0.25");
+	private static final int THREADS = 16;
+	private static final int CHARGES_PER_THREAD = 320;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Autowired
+	private AccountLedgerCompactor compactor;
+
+	@Autowired
+	private AccountContentionMonitor contentionMonitor;
+
+	@Test
+	void chargeForTicketTestWithParallelCharges() throws Exception {
+		assertParallelChargesSpendExactBalance();
+	}
+
+	@Test
+	void chargeForTicketTestWithParallelChargesOfShardedAccount() throws Exception {
+		for (int i = 0; i < 50; i++) {
+			contentionMonitor.recordWait(ACCOUNT_ID, TimeUnit.SECONDS.toNanos(1));
+		}
+		compactor.compact();
+		assertEquals(0, INITIAL_BALANCE.compareTo(accountService.getAccount(ACCOUNT_ID).getBalance()));
+
+		assertParallelChargesSpendExactBalance();
+	}
+
+	private void assertParallelChargesSpendExactBalance() throws Exception {
+		var coveredCharges = INITIAL_BALANCE.divide(TICKET_PRICE).intValue();
+		var successfulCharges = new AtomicInteger();
+		var rejectedCharges = new AtomicInteger();
+		var executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < THREADS; i++) {
+				futures.add(executor.submit(() -> {
+					for (int j = 0; j < CHARGES_PER_THREAD; j++) {
+						try {
+							accountService.chargeForTicket(ACCOUNT_ID, TICKET_PRICE);
+							successfulCharges.incrementAndGet();
+						} catch (AccountBalanceException e) {
+							rejectedCharges.incrementAndGet();
+						}
+					}
+				}));
+			}
+			//compaction keeps rolling entries into the snapshot while the account is being charged
+			var compacting = futures.stream().anyMatch(future -> !future.isDone());
+			while (compacting) {
+				compactor.compact();
+				compacting = futures.stream().anyMatch(future -> !future.isDone());
+			}
+			for (var future : futures) {
+				future.get(60, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		//5120 charges compete for a balance that covers exactly 4000 of them
+		assertEquals(coveredCharges, successfulCharges.get());
+		assertEquals(THREADS * CHARGES_PER_THREAD - coveredCharges, rejectedCharges.get());
+		assertEquals(0, BigDecimal.ZERO.compareTo(accountService.getAccount(ACCOUNT_ID).getBalance()));
+		compactor.compact();
+		assertEquals(0, BigDecimal.ZERO.compareTo(accountService.getAccount(ACCOUNT_ID).getBalance()));
+	}
+}
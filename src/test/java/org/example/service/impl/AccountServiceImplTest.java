@@ -1,26 +1,41 @@
 package org.example.service.impl;
 
-import org.example.dto.AccountDto;
 import org.example.exception.AccountBalanceException;
 import org.example.exception.EntityNotFoundException;
-import org.example.model.Account;
+import org.example.mapper.DtoMapper;
+import org.example.mapper.GeneratedDtoMapper;
+import org.example.model.AccountEntry;
+import org.example.repository.AccountEntryRepository;
 import org.example.repository.AccountRepository;
+import org.example.repository.AccountShardRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
-import org.springframework.beans.factory.annotation.Autowired;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,50 +43,262 @@ class AccountServiceImplTest {
 
 	private final Long ID = 1L;
 	private final BigDecimal BALANCE = BigDecimal.valueOf(100);
+	private final BigDecimal PENDING = BigDecimal.valueOf(20);
+	private final int SHARDS = 4;
 
 	@Mock
 	private AccountRepository mockRepository;
 
+	@Mock
+	private AccountEntryRepository mockEntryRepository;
+
+	@Mock
+	private AccountShardRepository mockShardRepository;
+
+	@Mock
+	private AccountContentionMonitor mockContentionMonitor;
+
 	@Spy
-	private ModelMapper mapper;
+	private DtoMapper mapper = Mappers.getMapper(GeneratedDtoMapper.class);
 
 	@InjectMocks
 	private AccountServiceImpl accountService;
 
 	@Test
 	void refillAccountTestWithExistingAccountId() {
-		when(mockRepository.findById(ID)).thenReturn(Optional.of(new Account(ID, BALANCE)));
-		when(mockRepository.save(any(Account.class))).then(returnsFirstArg());
+		when(mockRepository.findSnapshotById(ID)).thenReturn(Optional.of(snapshot(BALANCE, 0)));
+		when(mockEntryRepository.sumPendingByAccountId(ID)).thenReturn(PENDING.add(BigDecimal.TEN));
+
+		var account = accountService.refillAccount(ID, BigDecimal.TEN);
+		assertEquals(BALANCE.add(PENDING).add(BigDecimal.TEN), account.getBalance());
+
+		var entry = ArgumentCaptor.forClass(AccountEntry.class);
+		verify(mockEntryRepository).save(entry.capture());
+		assertEquals(BigDecimal.TEN, entry.getValue().getAmount());
+	}
+
+	@Test
+	void refillAccountTestWithShardedAccount() {
+		when(mockRepository.findSnapshotById(ID)).thenReturn(Optional.of(snapshot(BigDecimal.ZERO, SHARDS)));
+		when(mockEntryRepository.sumPendingByAccountId(ID)).thenReturn(BigDecimal.ZERO);
+		when(mockShardRepository.sumByAccountId(ID)).thenReturn(BALANCE.add(BigDecimal.TEN));
 
 		var account = accountService.refillAccount(ID, BigDecimal.TEN);
 		assertEquals(BALANCE.add(BigDecimal.TEN), account.getBalance());
+
+		verify(mockShardRepository).credit(eq(ID), anyInt(), eq(BigDecimal.TEN));
+		verify(mockEntryRepository, never()).save(any());
 	}
 
 	@Test
 	void refillAccountTestWithNotExistingAccountId() {
-		when(mockRepository.findById(ID)).thenReturn(Optional.empty());
+		when(mockRepository.findSnapshotById(ID)).thenReturn(Optional.empty());
 		assertThrows(EntityNotFoundException.class, () -> accountService.refillAccount(ID, BigDecimal.TEN));
 	}
 
 	@Test
 	void chargeForTicketTestWithEnoughBalance() {
-		when(mockRepository.findById(ID)).thenReturn(Optional.of(new Account(ID, BALANCE)));
-		when(mockRepository.save(any(Account.class))).then(returnsFirstArg());
+		when(mockRepository.debit(ID, BigDecimal.TEN)).thenReturn(1);
+		when(mockRepository.findSnapshotById(ID)).thenReturn(Optional.of(snapshot(BALANCE.subtract(BigDecimal.TEN), 0)));
+		when(mockEntryRepository.sumPendingByAccountId(ID)).thenReturn(BigDecimal.ZERO);
 
 		var account = accountService.chargeForTicket(ID, BigDecimal.TEN);
 		assertEquals(BALANCE.subtract(BigDecimal.TEN), account.getBalance());
+
+		verify(mockEntryRepository, never()).save(any());
+		verify(mockContentionMonitor).recordWait(eq(ID), anyLong());
+		verify(mockRepository, never()).findSnapshotByIdForUpdate(any());
+	}
+
+	@Test
+	void chargeForTicketTestWithPendingRefillsRollsThemUp() {
+		var refill = new AccountEntry(ID, BigDecimal.valueOf(50));
+		refill.setId(7L);
+		when(mockRepository.debit(ID, BALANCE)).thenReturn(0, 1);
+		when(mockRepository.findSnapshotById(ID)).thenReturn(Optional.of(snapshot(BigDecimal.valueOf(60), 0)),
+				Optional.of(snapshot(BigDecimal.TEN, 0)));
+		when(mockRepository.findSnapshotByIdForUpdate(ID)).thenReturn(Optional.of(snapshot(BigDecimal.valueOf(60), 0)));
+		when(mockEntryRepository.findPendingByAccountId(ID)).thenReturn(List.of(refill));
+		when(mockEntryRepository.sumPendingByAccountId(ID)).thenReturn(BigDecimal.ZERO);
+
+		var account = accountService.chargeForTicket(ID, BALANCE);
+		assertEquals(BigDecimal.TEN, account.getBalance());
+
+		verify(mockEntryRepository).markRolledUp(List.of(7L));
+		verify(mockRepository).credit(ID, BigDecimal.valueOf(50));
+		verify(mockEntryRepository, never()).save(any());
 	}
 
 	@Test
 	void chargeForTicketTestWithNotEnoughBalance() {
-		when(mockRepository.findById(ID)).thenReturn(Optional.of(new Account(ID, BALANCE)));
 		var ticketPrice = BALANCE.add(BigDecimal.ONE);
+		when(mockRepository.debit(ID, ticketPrice)).thenReturn(0);
+		when(mockRepository.findSnapshotById(ID)).thenReturn(Optional.of(snapshot(BALANCE, 0)));
+		when(mockRepository.findSnapshotByIdForUpdate(ID)).thenReturn(Optional.of(snapshot(BALANCE, 0)));
+		when(mockEntryRepository.findPendingByAccountId(ID)).thenReturn(List.of());
+
 		assertThrows(AccountBalanceException.class, () -> accountService.chargeForTicket(ID, ticketPrice));
+		verify(mockEntryRepository, never()).save(any());
+		verify(mockRepository, never()).credit(any(), any());
 	}
 
 	@Test
 	void chargeForTicketTestWithNotExistingAccountId() {
-		when(mockRepository.findById(ID)).thenReturn(Optional.empty());
+		when(mockRepository.debit(ID, BigDecimal.TEN)).thenReturn(0);
+		when(mockRepository.findSnapshotById(ID)).thenReturn(Optional.empty());
 		assertThrows(EntityNotFoundException.class, () -> accountService.chargeForTicket(ID, BigDecimal.TEN));
 	}
+
+	@Test
+	void chargeForTicketTestWithCoveringShard() {
+		when(mockRepository.debit(ID, BigDecimal.TEN)).thenReturn(0);
+		when(mockRepository.findSnapshotById(ID)).thenReturn(Optional.of(snapshot(BigDecimal.ZERO, SHARDS)));
+		lenient().when(mockShardRepository.findShardsCovering(ID, BigDecimal.TEN)).thenReturn(List.of(2));
+		when(mockShardRepository.debit(eq(ID), anyInt(), eq(BigDecimal.TEN)))
+				.thenAnswer(invocation -> invocation.<Integer>getArgument(1) == 2 ? 1 : 0);
+		when(mockEntryRepository.sumPendingByAccountId(ID)).thenReturn(BigDecimal.ZERO);
+		when(mockShardRepository.sumByAccountId(ID)).thenReturn(BALANCE.subtract(BigDecimal.TEN));
+
+		var account = accountService.chargeForTicket(ID, BigDecimal.TEN);
+		assertEquals(BALANCE.subtract(BigDecimal.TEN), account.getBalance());
+
+		verify(mockRepository, never()).findSnapshotByIdForUpdate(any());
+		verify(mockEntryRepository, never()).save(any());
+	}
+
+	@Test
+	void chargeForTicketTestWithoutCoveringShardCollectsFromShards() {
+		when(mockRepository.debit(ID, BigDecimal.TEN)).thenReturn(0);
+		when(mockRepository.findSnapshotById(ID)).thenReturn(Optional.of(snapshot(BigDecimal.ZERO, 2)));
+		when(mockShardRepository.debit(eq(ID), anyInt(), eq(BigDecimal.TEN))).thenReturn(0);
+		when(mockShardRepository.findShardsCovering(ID, BigDecimal.TEN)).thenReturn(List.of());
+		when(mockShardRepository.findBalance(ID, 0)).thenReturn(BigDecimal.valueOf(6));
+		when(mockShardRepository.findBalance(ID, 1)).thenReturn(BigDecimal.valueOf(7));
+		when(mockShardRepository.debit(ID, 0, BigDecimal.valueOf(6))).thenReturn(1);
+		when(mockShardRepository.debit(ID, 1, BigDecimal.valueOf(4))).thenReturn(1);
+		when(mockEntryRepository.sumPendingByAccountId(ID)).thenReturn(BigDecimal.ZERO);
+		when(mockShardRepository.sumByAccountId(ID)).thenReturn(BigDecimal.valueOf(3));
+
+		var result = accountService.chargeForTicket(ID, BigDecimal.TEN);
+		assertEquals(BigDecimal.valueOf(3), result.getBalance());
+
+		verify(mockRepository, never()).findSnapshotByIdForUpdate(any());
+		verify(mockShardRepository, never()).credit(any(), anyInt(), any());
+		verify(mockEntryRepository, never()).save(any());
+	}
+
+	@Test
+	void chargeForTicketTestWithShardsNotCoveringReturnsCollected() {
+		when(mockRepository.debit(ID, BigDecimal.TEN)).thenReturn(0);
+		when(mockRepository.findSnapshotById(ID)).thenReturn(Optional.of(snapshot(BigDecimal.ZERO, 2)));
+		when(mockShardRepository.debit(eq(ID), anyInt(), eq(BigDecimal.TEN))).thenReturn(0);
+		when(mockShardRepository.findShardsCovering(ID, BigDecimal.TEN)).thenReturn(List.of());
+		when(mockShardRepository.findBalance(ID, 0)).thenReturn(BigDecimal.valueOf(6));
+		when(mockShardRepository.findBalance(ID, 1)).thenReturn(BigDecimal.ZERO);
+		when(mockShardRepository.debit(ID, 0, BigDecimal.valueOf(6))).thenReturn(1);
+
+		assertThrows(AccountBalanceException.class, () -> accountService.chargeForTicket(ID, BigDecimal.TEN));
+
+		verify(mockShardRepository).credit(ID, 0, BigDecimal.valueOf(6));
+		verify(mockEntryRepository, never()).save(any());
+	}
+
+	@Test
+	void tryChargeTestWithKnownShardedAccountSkipsAccountRow() {
+		when(mockRepository.debit(ID, BigDecimal.TEN)).thenReturn(0);
+		when(mockRepository.findSnapshotById(ID)).thenReturn(Optional.of(snapshot(BigDecimal.ZERO, SHARDS)));
+		when(mockShardRepository.debit(eq(ID), anyInt(), eq(BigDecimal.TEN))).thenReturn(1);
+
+		assertTrue(accountService.tryCharge(ID, BigDecimal.TEN));
+		assertTrue(accountService.tryCharge(ID, BigDecimal.TEN));
+
+		verify(mockRepository, times(1)).debit(any(), any());
+		verify(mockRepository, times(1)).findSnapshotById(ID);
+		verify(mockShardRepository, times(2)).debit(eq(ID), anyInt(), eq(BigDecimal.TEN));
+		verify(mockShardRepository, never()).findShardsCovering(any(), any());
+	}
+
+	@Test
+	void tryChargeTestWithKnownShardedAccountDeleted() {
+		when(mockRepository.debit(ID, BigDecimal.TEN)).thenReturn(0);
+		when(mockRepository.findSnapshotById(ID)).thenReturn(Optional.of(snapshot(BigDecimal.ZERO, SHARDS)),
+				Optional.empty());
+		when(mockShardRepository.debit(eq(ID), anyInt(), eq(BigDecimal.TEN))).thenReturn(1, 0);
+		when(mockShardRepository.findShardsCovering(ID, BigDecimal.TEN)).thenReturn(List.of());
+
+		assertTrue(accountService.tryCharge(ID, BigDecimal.TEN));
+		assertThrows(EntityNotFoundException.class, () -> accountService.tryCharge(ID, BigDecimal.TEN));
+	}
+
+	@Test
+	void tryChargeTestWithKnownShardedAccountRecreated() {
+		when(mockRepository.debit(ID, BigDecimal.TEN)).thenReturn(0, 1);
+		when(mockRepository.findSnapshotById(ID)).thenReturn(Optional.of(snapshot(BigDecimal.ZERO, SHARDS)),
+				Optional.of(snapshot(BALANCE, 0)));
+		when(mockShardRepository.debit(eq(ID), anyInt(), eq(BigDecimal.TEN))).thenReturn(1, 0);
+		when(mockShardRepository.findShardsCovering(ID, BigDecimal.TEN)).thenReturn(List.of());
+		when(mockRepository.findSnapshotByIdForUpdate(ID)).thenReturn(Optional.of(snapshot(BALANCE, 0)));
+		when(mockEntryRepository.findPendingByAccountId(ID)).thenReturn(List.of());
+
+		assertTrue(accountService.tryCharge(ID, BigDecimal.TEN));
+		assertTrue(accountService.tryCharge(ID, BigDecimal.TEN));
+		verify(mockRepository, times(2)).debit(ID, BigDecimal.TEN);
+	}
+
+	@Test
+	void tryChargeTest() {
+		var ticketPrice = BALANCE.add(BigDecimal.ONE);
+		when(mockRepository.debit(ID, BigDecimal.TEN)).thenReturn(1);
+		when(mockRepository.debit(ID, ticketPrice)).thenReturn(0);
+		when(mockRepository.findSnapshotById(ID)).thenReturn(Optional.of(snapshot(BALANCE, 0)));
+		when(mockRepository.findSnapshotByIdForUpdate(ID)).thenReturn(Optional.of(snapshot(BALANCE, 0)));
+		when(mockEntryRepository.findPendingByAccountId(ID)).thenReturn(List.of());
+
+		assertTrue(accountService.tryCharge(ID, BigDecimal.TEN));
+		assertFalse(accountService.tryCharge(ID, ticketPrice));
+		verify(mockRepository, times(2)).debit(ID, ticketPrice);
+		verify(mockEntryRepository, never()).save(any());
+	}
+
+	@Test
+	void chargeAccountsTest() {
+		var poorId = 2L;
+		var missingId = 3L;
+		var shardedId = 4L;
+		when(mockRepository.debit(ID, BigDecimal.TEN)).thenReturn(1);
+		when(mockRepository.debit(poorId, BigDecimal.TEN)).thenReturn(0);
+		when(mockRepository.findSnapshotById(poorId)).thenReturn(Optional.of(snapshot(BigDecimal.ONE, 0)));
+		when(mockRepository.findSnapshotByIdForUpdate(poorId)).thenReturn(Optional.of(snapshot(BigDecimal.ONE, 0)));
+		when(mockEntryRepository.findPendingByAccountId(poorId)).thenReturn(List.of());
+		when(mockRepository.debit(missingId, BigDecimal.TEN)).thenReturn(0);
+		when(mockRepository.findSnapshotById(missingId)).thenReturn(Optional.empty());
+		when(mockRepository.debit(shardedId, BigDecimal.valueOf(15))).thenReturn(0);
+		when(mockRepository.findSnapshotById(shardedId)).thenReturn(Optional.of(snapshot(BigDecimal.ZERO, 2)));
+		lenient().when(mockShardRepository.findShardsCovering(shardedId, BigDecimal.valueOf(15))).thenReturn(List.of(1));
+		when(mockShardRepository.debit(eq(shardedId), anyInt(), eq(BigDecimal.valueOf(15))))
+				.thenAnswer(invocation -> invocation.<Integer>getArgument(1) == 1 ? 1 : 0);
+
+		var totals = new TreeMap<>(Map.of(ID, BigDecimal.TEN, poorId, BigDecimal.TEN,
+				missingId, BigDecimal.TEN, shardedId, BigDecimal.valueOf(15)));
+		var rejected = accountService.chargeAccounts(totals);
+
+		assertEquals(Set.of(poorId, missingId), rejected);
+		verify(mockRepository).debit(ID, BigDecimal.TEN);
+		verify(mockShardRepository).debit(shardedId, 1, BigDecimal.valueOf(15));
+		verify(mockEntryRepository, never()).save(any());
+	}
+
+	private static AccountRepository.Snapshot snapshot(BigDecimal balance, int shards) {
+		return new AccountRepository.Snapshot() {
+			@Override
+			public BigDecimal getBalance() {
+				return balance;
+			}
+
+			@Override
+			public int getShards() {
+				return shards;
+			}
+		};
+	}
 }
@@ -0,0 +1,151 @@
+package org.example.service.impl;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.converter.XmlMarshaller;
+import org.example.dto.BatchBookingError;
+import org.example.dto.BatchBookingJobDto;
+import org.example.dto.BatchBookingSummary;
+import org.example.dto.TicketDto;
+import org.example.enums.BatchFormat;
+import org.example.enums.BatchJobStatus;
+import org.example.exception.EntityNotFoundException;
+import org.example.service.TicketBatchService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BatchBookingJobServiceImplTest {
+
+	private static final String XML = "<tickets>" +
+			"<item><user><id>1</id></user><event><id>1</id></event><place>1</place></item>" +
+			"<item><user><id>1</id></user><event><id>1</id></event><place>2</place></item>" +
+			"<item><user><id>1</id></user><event><id>1</id></event><place>3</place></item>" +
+			"</tickets>";
+
+	@Mock
+	private TicketBatchService mockTicketBatchService;
+
+	private BatchBookingJobServiceImpl jobService;
+
+	@BeforeEach
+	void setUp() {
+		jobService = new BatchBookingJobServiceImpl(mockTicketBatchService, new XmlMarshaller(new XmlMapper()),
+				new SimpleMeterRegistry(), 1, 1, 60_000, System.getProperty("java.io.tmpdir"));
+	}
+
+	@AfterEach
+	void tearDown() {
+		jobService.close();
+	}
+
+	@Test
+	void submitTest() throws Exception {
+		when(mockTicketBatchService.bookTickets(any(), any())).thenAnswer(invocation -> {
+			Iterator<TicketDto> tickets = invocation.getArgument(0);
+			Consumer<BatchBookingSummary> progress = invocation.getArgument(1);
+			var summary = new BatchBookingSummary();
+			while (tickets.hasNext()) {
+				if (tickets.next().getPlace() == 2) {
+					summary.setRejectedTickets(1);
+					summary.getErrors().add(new BatchBookingError(2, "Place 2 has already been booked for event 1"));
+				} else {
+					summary.setBookedTickets(summary.getBookedTickets() + 1);
+				}
+			}
+			summary.setChunks(1);
+			progress.accept(summary);
+			return summary;
+		});
+
+		var job = awaitFinished(jobService.submit(stream(XML), BatchFormat.XML).getId());
+		assertEquals(BatchJobStatus.COMPLETED, job.getStatus());
+		assertEquals(3, job.getParsedRows());
+		assertEquals(2, job.getCommittedRows());
+		assertEquals(1, job.getFailedRows());
+		assertEquals(2, job.getErrors().get(0).getRow());
+	}
+
+	@Test
+	void submitTestWithCsv() throws Exception {
+		when(mockTicketBatchService.bookTickets(any(), any())).thenAnswer(invocation -> {
+			Iterator<TicketDto> tickets = invocation.getArgument(0);
+			var summary = new BatchBookingSummary();
+			tickets.forEachRemaining(ticket -> summary.setBookedTickets(summary.getBookedTickets() + 1));
+			return summary;
+		});
+
+		var csv = "userId,eventId,category,place\n1,1,BAR,1\n1,1,BAR,2\n";
+		var job = awaitFinished(jobService.submit(stream(csv), BatchFormat.CSV).getId());
+
+		assertEquals(BatchJobStatus.COMPLETED, job.getStatus());
+		assertEquals(2, job.getParsedRows());
+		assertEquals(2, job.getCommittedRows());
+	}
+
+	@Test
+	void submitTestWithFailingJob() throws Exception {
+		when(mockTicketBatchService.bookTickets(any(), any())).thenThrow(new IllegalStateException("Database is down"));
+
+		var job = awaitFinished(jobService.submit(stream(XML), BatchFormat.XML).getId());
+
+		assertEquals(BatchJobStatus.FAILED, job.getStatus());
+		assertEquals("Database is down", job.getMessage());
+	}
+
+	@Test
+	void submitTestWithFullQueue() throws Exception {
+		var release = new CountDownLatch(1);
+		when(mockTicketBatchService.bookTickets(any(), any())).thenAnswer(invocation -> {
+			release.await();
+			return new BatchBookingSummary();
+		});
+
+		//one job is running and one is queued
+		var running = jobService.submit(stream(XML), BatchFormat.XML);
+		var queued = jobService.submit(stream(XML), BatchFormat.XML);
+		try {
+			assertThrows(IllegalStateException.class, () -> jobService.submit(stream(XML), BatchFormat.XML));
+		} finally {
+			release.countDown();
+		}
+
+		assertEquals(BatchJobStatus.COMPLETED, awaitFinished(running.getId()).getStatus());
+		assertEquals(BatchJobStatus.COMPLETED, awaitFinished(queued.getId()).getStatus());
+	}
+
+	@Test
+	void getJobTestWithNotExistingJob() {
+		assertThrows(EntityNotFoundException.class, () -> jobService.getJob("unknown"));
+	}
+
+	private BatchBookingJobDto awaitFinished(String jobId) throws InterruptedException {
+		var job = jobService.getJob(jobId);
+		for (int i = 0; i < 100 && job.getFinishedAt() == null; i++) {
+			Thread.sleep(20);
+			job = jobService.getJob(jobId);
+		}
+		return job;
+	}
+
+	private static InputStream stream(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+}
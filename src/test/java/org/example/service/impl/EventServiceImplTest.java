@@ -1,22 +1,37 @@
 package org.example.service.impl;
 
+import org.example.dto.EventDto;
 import org.example.repository.EventRepository;
 import org.example.exception.EntityNotFoundException;
+import org.example.index.EventCalendarIndex;
+import org.example.index.EventTitleIndex;
+import org.example.index.SeatOccupancyIndex;
+import org.example.mapper.DtoMapper;
+import org.example.mapper.GeneratedDtoMapper;
 import org.example.model.Event;
+import org.example.service.TicketService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.PageRequest;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -31,8 +46,20 @@ class EventServiceImplTest {
 	@Mock
 	private EventRepository mockDao;
 
+	@Mock
+	private EventTitleIndex mockTitleIndex;
+
+	@Mock
+	private EventCalendarIndex mockCalendarIndex;
+
+	@Mock
+	private SeatOccupancyIndex mockSeatIndex;
+
+	@Mock
+	private TicketService mockTicketService;
+
 	@Spy
-	private ModelMapper mapper;
+	private DtoMapper mapper = Mappers.getMapper(GeneratedDtoMapper.class);
 
 	@InjectMocks
 	private EventServiceImpl eventService;
@@ -51,4 +78,105 @@ class EventServiceImplTest {
 		assertEquals("Event not found by id: 1", exception.getMessage());
 	}
 
+	@Test
+	void getEventsByTitleTestFromIndex() {
+		when(mockTitleIndex.search(TITLE, 2, 2)).thenReturn(List.of(3L, 5L));
+		when(mockDao.findAllById(List.of(3L, 5L)))
+				.thenReturn(List.of(new Event(5L, TITLE, DATE, PRICE), new Event(3L, TITLE, DATE, PRICE)));
+
+		var events = eventService.getEventsByTitle(TITLE, 2, 1);
+
+		assertEquals(List.of(3L, 5L), events.stream().map(EventDto::getId).collect(Collectors.toList()));
+		verify(mockDao, never()).findEventsByTitleContainingIgnoreCase(any(), any());
+	}
+
+	@Test
+	void getEventsByTitleTestFromDatabase() {
+		when(mockTitleIndex.search("Ev", 0, 10)).thenReturn(null);
+		when(mockDao.findEventsByTitleContainingIgnoreCase("Ev", PageRequest.of(0, 10)))
+				.thenReturn(List.of(new Event(ID, TITLE, DATE, PRICE)));
+
+		assertEquals(1, eventService.getEventsByTitle("Ev", 10, 0).size());
+	}
+
+	@Test
+	void createEventTestIndexesTitle() {
+		when(mockDao.save(any(Event.class))).thenReturn(new Event(ID, TITLE, DATE, PRICE));
+
+		eventService.createEvent(new EventDto(null, TITLE, DATE, PRICE));
+
+		verify(mockTitleIndex).refresh(ID);
+		verify(mockCalendarIndex).refresh(ID);
+	}
+
+	@Test
+	void getEventsInRangeTestFromIndex() {
+		when(mockCalendarIndex.findIds(DATE, DATE.plusDays(30), 10, 10)).thenReturn(List.of(7L));
+		when(mockDao.findAllById(List.of(7L))).thenReturn(List.of(new Event(7L, TITLE, DATE, PRICE)));
+
+		var events = eventService.getEventsInRange(DATE, DATE.plusDays(30), 10, 1);
+
+		assertEquals(7L, events.get(0).getId());
+		verify(mockDao, never()).findEventsInRange(any(), any(), any());
+	}
+
+	@Test
+	void getEventCountsInRangeTestFromDatabase() {
+		when(mockCalendarIndex.countByDay(DATE, DATE)).thenReturn(null);
+		when(mockDao.countEventsByDate(DATE, DATE)).thenReturn(List.<Object[]>of(new Object[]{DATE, 3L}));
+
+		assertEquals(Map.of(DATE, 3), eventService.getEventCountsInRange(DATE, DATE));
+	}
+
+	@Test
+	void getEventsInRangeTestWithReversedRange() {
+		assertThrows(IllegalArgumentException.class, () -> eventService.getEventsInRange(DATE, DATE.minusDays(1), 10, 0));
+	}
+
+	@Test
+	void getEventsInRangeTestWithOverflowingOffset() {
+		assertThrows(IllegalArgumentException.class,
+				() -> eventService.getEventsInRange(DATE, DATE, 1000, Integer.MAX_VALUE / 10));
+		assertThrows(IllegalArgumentException.class, () -> eventService.getEventsInRange(DATE, DATE, 10, -1));
+		verify(mockCalendarIndex, never()).findIds(any(), any(), anyInt(), anyInt());
+	}
+
+	@Test
+	void getEventsByTitleTestWithOverflowingOffset() {
+		assertThrows(IllegalArgumentException.class,
+				() -> eventService.getEventsByTitle(TITLE, Integer.MAX_VALUE, 2));
+		verify(mockTitleIndex, never()).search(any(), anyInt(), anyInt());
+	}
+
+	@Test
+	void updateEventTestMovesInCalendar() {
+		when(mockDao.findById(ID)).thenReturn(Optional.of(new Event(ID, TITLE, DATE, PRICE)));
+		when(mockDao.save(any(Event.class))).then(invocation -> invocation.getArgument(0));
+
+		eventService.updateEvent(new EventDto(ID, "", DATE.plusDays(1), PRICE));
+
+		verify(mockCalendarIndex).refresh(ID);
+		verify(mockTicketService).updateEventDate(ID, DATE.plusDays(1));
+		verify(mockTitleIndex, never()).refresh(any());
+	}
+
+	@Test
+	void updateEventTestReindexesChangedTitle() {
+		when(mockDao.findById(ID)).thenReturn(Optional.of(new Event(ID, TITLE, DATE, PRICE)));
+		when(mockDao.save(any(Event.class))).then(invocation -> invocation.getArgument(0));
+
+		eventService.updateEvent(new EventDto(ID, "Renamed", DATE, PRICE));
+
+		verify(mockTitleIndex).refresh(ID);
+		verify(mockCalendarIndex, never()).refresh(any());
+		verify(mockTicketService, never()).updateEventDate(any(), any());
+	}
+
+	@Test
+	void deleteEventTestRemovesFromCalendar() {
+		eventService.deleteEvent(ID);
+
+		verify(mockCalendarIndex).refresh(ID);
+		verify(mockTitleIndex).refresh(ID);
+	}
 }
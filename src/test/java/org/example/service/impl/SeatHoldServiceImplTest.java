@@ -0,0 +1,97 @@
+package org.example.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.enums.Category;
+import org.example.exception.EntityNotFoundException;
+import org.example.index.SeatOccupancyIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SeatHoldServiceImplTest {
+
+	private static final Long USER_ID = 1L;
+	private static final Long EVENT_ID = 2L;
+	private static final int PLACE = 3;
+
+	@Mock
+	private SeatOccupancyIndex mockSeatIndex;
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private SeatHoldServiceImpl seatHoldService;
+
+	@BeforeEach
+	void setUp() {
+		seatHoldService = new SeatHoldServiceImpl(mockSeatIndex, registry, 1, 10, 16);
+	}
+
+	@AfterEach
+	void tearDown() {
+		seatHoldService.close();
+	}
+
+	@Test
+	void holdSeatTestReleasesPlaceOnExpiry() {
+		when(mockSeatIndex.claim(EVENT_ID, PLACE)).thenReturn(true);
+		var hold = seatHoldService.holdSeat(USER_ID, EVENT_ID, Category.BAR, PLACE);
+		assertEquals(1.0, registry.get("booking.holds.active").gauge().value());
+
+		verify(mockSeatIndex, timeout(5000)).release(EVENT_ID, PLACE);
+		assertEquals(0.0, registry.get("booking.holds.active").gauge().value());
+		assertEquals(1.0, registry.get("booking.holds.expired").counter().count());
+		assertThrows(EntityNotFoundException.class, () -> seatHoldService.takeHold(hold.getId()));
+	}
+
+	@Test
+	void holdSeatTestReleasesPlaceOnImmediateExpiry() {
+		seatHoldService.close();
+		seatHoldService = new SeatHoldServiceImpl(mockSeatIndex, registry, 0, 1, 16);
+		when(mockSeatIndex.claim(EVENT_ID, PLACE)).thenReturn(true);
+		for (int i = 0; i < 100; i++) {
+			seatHoldService.holdSeat(USER_ID, EVENT_ID, Category.BAR, PLACE);
+		}
+
+		verify(mockSeatIndex, timeout(5000).times(100)).release(EVENT_ID, PLACE);
+	}
+
+	@Test
+	void holdSeatTestWithTakenPlace() {
+		when(mockSeatIndex.claim(EVENT_ID, PLACE)).thenReturn(false);
+		assertThrows(IllegalStateException.class, () -> seatHoldService.holdSeat(USER_ID, EVENT_ID, Category.BAR, PLACE));
+	}
+
+	@Test
+	void takeHoldTestKeepsPlaceClaimed() throws Exception {
+		when(mockSeatIndex.claim(EVENT_ID, PLACE)).thenReturn(true);
+		var hold = seatHoldService.holdSeat(USER_ID, EVENT_ID, Category.BAR, PLACE);
+
+		var taken = seatHoldService.takeHold(hold.getId());
+		assertEquals(PLACE, taken.getPlace());
+
+		Thread.sleep(1500);
+		verify(mockSeatIndex, never()).release(EVENT_ID, PLACE);
+		assertEquals(0.0, registry.get("booking.holds.expired").counter().count());
+	}
+
+	@Test
+	void releaseHoldTestReleasesPlace() {
+		when(mockSeatIndex.claim(EVENT_ID, PLACE)).thenReturn(true);
+		var hold = seatHoldService.holdSeat(USER_ID, EVENT_ID, Category.BAR, PLACE);
+
+		seatHoldService.releaseHold(hold.getId());
+		verify(mockSeatIndex).release(EVENT_ID, PLACE);
+		assertThrows(EntityNotFoundException.class, () -> seatHoldService.releaseHold(hold.getId()));
+	}
+}
@@ -0,0 +1,103 @@
+package org.example.service.impl;
+
+import org.example.dto.BatchBookingError;
+import org.example.dto.EventDto;
+import org.example.dto.TicketDto;
+import org.example.dto.UserDto;
+import org.example.enums.Category;
+import org.example.index.SeatOccupancyIndex;
+import org.example.repository.TicketRepository;
+import org.example.service.AccountService;
+import org.example.service.TicketBatchService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Sql(value = {"classpath:drop-tables.sql"})
+@Sql(value = {"classpath:init-create-ticket.sql"})
+@SpringBootTest(properties = "booking.import.chunk-size=2")
+class TicketBatchServiceImplTest {
+
+	private static final long EVENT_ID = 1L;
+
+	@Autowired
+	private TicketBatchService ticketBatchService;
+
+	@Autowired
+	private TicketRepository ticketRepository;
+
+	@Autowired
+	private SeatOccupancyIndex seatIndex;
+
+	@Autowired
+	private AccountService accountService;
+
+	@Test
+	void bookTicketsTest() {
+		var tickets = List.of(ticket(501), ticket(502), ticket(503), ticket(504), ticket(505));
+
+		var summary = ticketBatchService.bookTickets(tickets.iterator());
+
+		assertEquals(5, summary.getBookedTickets());
+		assertEquals(3, summary.getChunks());
+		assertEquals(5, ticketRepository.count());
+		assertTrue(seatIndex.isTaken(EVENT_ID, 505));
+	}
+
+	@Test
+	void bookTicketsTestRejectsInvalidRows() {
+		var tickets = List.of(ticket(601),
+				new TicketDto(null, new UserDto(100L, null, null), new EventDto(EVENT_ID, null, null, BigDecimal.ZERO),
+						Category.STANDARD, 602),
+				ticket(603),
+				ticket(603),
+				new TicketDto(null, new UserDto(1L, null, null), new EventDto(100L, null, null, BigDecimal.ZERO),
+						Category.STANDARD, 604),
+				new TicketDto(null, null, new EventDto(EVENT_ID, null, null, BigDecimal.ZERO), Category.STANDARD, 605),
+				ticket(606));
+
+		var summary = ticketBatchService.bookTickets(tickets.iterator());
+
+		assertEquals(3, summary.getBookedTickets());
+		assertEquals(4, summary.getRejectedTickets());
+		assertEquals(4, summary.getChunks());
+		assertEquals(3, ticketRepository.count());
+		var errors = summary.getErrors();
+		assertEquals(List.of(2L, 4L, 5L, 6L), errors.stream().map(BatchBookingError::getRow).collect(Collectors.toList()));
+		assertEquals("User with id 100 not found", errors.get(0).getMessage());
+		assertEquals("Place 603 of event 1 is already booked in row 3", errors.get(1).getMessage());
+		assertEquals("Event with id 100 not found", errors.get(2).getMessage());
+		assertEquals("User is not specified", errors.get(3).getMessage());
+		assertFalse(seatIndex.isTaken(EVENT_ID, 602));
+		assertTrue(seatIndex.isTaken(EVENT_ID, 606));
+	}
+
+	@Test
+	void bookTicketsTestRejectsRowsOfUsersWithInsufficientFunds() {
+		//the account has 100.00 and a ticket for the event costs 15.00
+		var tickets = List.of(ticket(701), ticket(702), ticket(703), ticket(704), ticket(705), ticket(706), ticket(707));
+
+		var summary = ticketBatchService.bookTickets(tickets.iterator());
+
+		assertEquals(6, summary.getBookedTickets());
+		assertEquals(1, summary.getRejectedTickets());
+		assertEquals(7, summary.getErrors().get(0).getRow());
+		assertEquals("Account of user 1 does not exist or has insufficient funds", summary.getErrors().get(0).getMessage());
+		assertEquals(0, new BigDecimal("10.00").compareTo(accountService.getAccount(1L).getBalance()));
+		assertFalse(seatIndex.isTaken(EVENT_ID, 707));
+	}
+
+	private static TicketDto ticket(int place) {
+		return new TicketDto(null, new UserDto(1L, null, null), new EventDto(EVENT_ID, null, null, BigDecimal.ZERO),
+				Category.STANDARD, place);
+	}
+}
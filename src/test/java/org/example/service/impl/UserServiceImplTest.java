@@ -1,20 +1,36 @@
 package org.example.service.impl;
 
 import org.example.repository.UserRepository;
+import org.example.service.TicketService;
+import org.example.dto.UserDto;
 import org.example.exception.EntityNotFoundException;
+import org.example.index.EmailBloomFilter;
+import org.example.index.UserNameTrie;
+import org.example.mapper.DtoMapper;
+import org.example.mapper.GeneratedDtoMapper;
 import org.example.model.User;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,8 +43,17 @@ class UserServiceImplTest {
 	@Mock
 	private UserRepository mockRepository;
 
+	@Mock
+	private UserNameTrie mockNameTrie;
+
+	@Mock
+	private EmailBloomFilter mockEmailFilter;
+
+	@Mock
+	private TicketService mockTicketService;
+
 	@Spy
-	private ModelMapper mapper;
+	private DtoMapper mapper = Mappers.getMapper(GeneratedDtoMapper.class);
 
 	@InjectMocks
 	private UserServiceImpl userService;
@@ -49,16 +74,162 @@ class UserServiceImplTest {
 
 	@Test
 	void getUserByEmailTestWithExistingId() {
-		when(mockRepository.findByEmail(EMAIL)).thenReturn(Optional.of(new User(ID, NAME, EMAIL)));
+		when(mockRepository.findByEmailWithCache(EMAIL)).thenReturn(Optional.of(new User(ID, NAME, EMAIL)));
 		var user = userService.getUserByEmail(EMAIL);
 		assertEquals(user.getEmail(), EMAIL);
 	}
 
 	@Test
 	void getUserByEmailTestWithNonExistingId() {
-		when(mockRepository.findByEmail(EMAIL)).thenReturn(Optional.empty());
+		when(mockRepository.findByEmailWithCache(EMAIL)).thenReturn(Optional.empty());
 		var exception = assertThrows(EntityNotFoundException.class, () -> userService.getUserByEmail(EMAIL));
 		assertEquals("User not found by email: email@mail.com", exception.getMessage());
 	}
 
+	@Test
+	void suggestUsersTestFromTrie() {
+		when(mockNameTrie.suggest("na", 2)).thenReturn(List.of(3L, 2L));
+		when(mockRepository.findAllById(List.of(3L, 2L)))
+				.thenReturn(List.of(new User(2L, "Nate", "nate@mail.com"), new User(3L, NAME, EMAIL)));
+
+		var users = userService.suggestUsers("na", 2);
+
+		assertEquals(List.of(3L, 2L), users.stream().map(UserDto::getId).collect(Collectors.toList()));
+	}
+
+	@Test
+	void suggestUsersTestFromDatabase() {
+		when(mockNameTrie.suggest(" NA", 2)).thenReturn(null);
+		when(mockRepository.findPageByName(eq("na"), any())).thenReturn(List.of(
+				new User(2L, "Anna", "anna@mail.com"), new User(ID, NAME, EMAIL), new User(3L, "Nate", "nate@mail.com")));
+
+		var users = userService.suggestUsers(" NA", 2);
+
+		assertEquals(List.of(ID, 3L), users.stream().map(UserDto::getId).collect(Collectors.toList()));
+	}
+
+	@Test
+	void suggestUsersTestFromDatabaseReadsFurtherPages() {
+		var page = new ArrayList<User>();
+		for (long id = 1; id <= 100; id++) {
+			page.add(new User(id, "Anna " + id, "anna" + id + "@mail.com"));
+		}
+		when(mockNameTrie.suggest("na", 2)).thenReturn(null);
+		when(mockRepository.findPageByName(eq("na"), any())).thenReturn(page);
+		when(mockRepository.findPageByNameAfter(eq("na"), eq("Anna 100"), eq(100L), any()))
+				.thenReturn(List.of(new User(101L, "Nate", "nate@mail.com")));
+
+		var users = userService.suggestUsers("na", 2);
+
+		assertEquals(List.of(101L), users.stream().map(UserDto::getId).collect(Collectors.toList()));
+	}
+
+	@Test
+	void suggestUsersTestMatchesSameUsersWithAndWithoutTrie() {
+		var users = List.of(new User(1L, "Jules Mcnally", "jules@mail.com"),
+				new User(2L, "Mary-Jane O'Neil", "mary@mail.com"),
+				new User(3L, "Ana_Maria Lucas", "ana@mail.com"),
+				new User(4L, "Lucas Bennett", "lucas@mail.com"),
+				new User(5L, "Jean Luc", "jean@mail.com"));
+		var trie = new UserNameTrie(mockRepository, true);
+		trie.load();
+		users.forEach(user -> trie.put(user.getId(), user.getName()));
+		var withTrie = new UserServiceImpl(mockRepository, trie, mockEmailFilter, mockTicketService, mapper);
+		var withoutTrie = new UserServiceImpl(mockRepository, new UserNameTrie(mockRepository, false),
+				mockEmailFilter, mockTicketService, mapper);
+		when(mockRepository.findAllById(any())).thenReturn(users);
+		when(mockRepository.findPageByName(any(), any())).then(invocation -> {
+			String name = invocation.getArgument(0);
+			return users.stream()
+					.filter(user -> user.getName().toLowerCase().contains(name))
+					.sorted(Comparator.comparing(User::getName))
+					.collect(Collectors.toList());
+		});
+
+		for (var prefix : List.of("jul", "o'ne", "jane", "mary jane", "maria", "lucas ana", "lu", "luc jean", "%", "e")) {
+			assertEquals(suggestedIds(withTrie, prefix), suggestedIds(withoutTrie, prefix), prefix);
+		}
+	}
+
+	private static Set<Long> suggestedIds(UserServiceImpl service, String prefix) {
+		return service.suggestUsers(prefix, 10).stream().map(UserDto::getId).collect(Collectors.toSet());
+	}
+
+	@Test
+	void updateUserTestRenamesInTrie() {
+		when(mockRepository.findById(ID)).thenReturn(Optional.of(new User(ID, NAME, EMAIL)));
+		when(mockRepository.saveAndFlush(any(User.class))).then(invocation -> invocation.getArgument(0));
+
+		userService.updateUser(new UserDto(ID, "New Name", ""));
+
+		verify(mockEmailFilter, never()).mightContain(any());
+
+		verify(mockNameTrie).refresh(ID);
+		verify(mockTicketService, never()).updateUserEmail(any(), any());
+	}
+
+	@Test
+	void updateUserTestCopiesEmailToTickets() {
+		when(mockRepository.findById(ID)).thenReturn(Optional.of(new User(ID, NAME, EMAIL)));
+		when(mockRepository.saveAndFlush(any(User.class))).then(invocation -> invocation.getArgument(0));
+
+		userService.updateUser(new UserDto(ID, "", "new@email.com"));
+
+		verify(mockTicketService).updateUserEmail(ID, "new@email.com");
+		verify(mockNameTrie, never()).refresh(any());
+	}
+
+	@Test
+	void deleteUserTestRemovesFromTrie() {
+		userService.deleteUser(ID);
+
+		verify(mockNameTrie).refresh(ID);
+		verify(mockTicketService).releasePlacesOfUser(ID);
+		verify(mockRepository).deleteById(ID);
+	}
+
+	@Test
+	void createUserTestSkipsQueryForFilteredOutEmail() {
+		when(mockEmailFilter.mightContain(EMAIL)).thenReturn(false);
+		when(mockRepository.saveAndFlush(any(User.class))).thenReturn(new User(ID, NAME, EMAIL));
+
+		var user = userService.createUser(new UserDto(null, NAME, EMAIL));
+
+		assertEquals(ID, user.getId());
+		verify(mockRepository, never()).findByEmailWithCache(any());
+		verify(mockEmailFilter).add(EMAIL);
+	}
+
+	@Test
+	void createUserTestWithFalsePositive() {
+		when(mockEmailFilter.mightContain(EMAIL)).thenReturn(true);
+		when(mockRepository.findByEmailWithCache(EMAIL)).thenReturn(Optional.empty());
+		when(mockRepository.saveAndFlush(any(User.class))).thenReturn(new User(ID, NAME, EMAIL));
+
+		userService.createUser(new UserDto(null, NAME, EMAIL));
+
+		verify(mockEmailFilter).recordFalsePositive();
+	}
+
+	@Test
+	void createUserTestWithExistingEmail() {
+		when(mockEmailFilter.mightContain(EMAIL)).thenReturn(true);
+		when(mockRepository.findByEmailWithCache(EMAIL)).thenReturn(Optional.of(new User(ID, NAME, EMAIL)));
+
+		var exception = assertThrows(IllegalArgumentException.class,
+				() -> userService.createUser(new UserDto(null, NAME, EMAIL)));
+		assertEquals("User email must be unique", exception.getMessage());
+		verify(mockRepository, never()).saveAndFlush(any());
+	}
+
+	@Test
+	void createUserTestWithEmailTakenConcurrently() {
+		when(mockEmailFilter.mightContain(EMAIL)).thenReturn(false);
+		when(mockRepository.saveAndFlush(any(User.class))).thenThrow(new DataIntegrityViolationException("EMAIL"));
+
+		var exception = assertThrows(IllegalArgumentException.class,
+				() -> userService.createUser(new UserDto(null, NAME, EMAIL)));
+		assertEquals("User email must be unique", exception.getMessage());
+		verify(mockEmailFilter, never()).add(any());
+	}
 }
@@ -0,0 +1,39 @@
+package org.example.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ContinuationTokenTest {
+
+	@Test
+	void decodeTest() {
+		var token = ContinuationToken.decode(new ContinuationToken("a:b@mail.com", 42).encode());
+		assertEquals("a:b@mail.com", token.getKey());
+		assertEquals(42, token.getId());
+
+		var dateToken = ContinuationToken.decode(new ContinuationToken(LocalDate.of(2022, 1, 1), 7).encode());
+		assertEquals(LocalDate.of(2022, 1, 1), dateToken.getDateKey());
+
+		var nullToken = ContinuationToken.decode(new ContinuationToken((String) null, 3).encode());
+		assertNull(nullToken.getKey());
+		assertEquals(3, nullToken.getId());
+	}
+
+	@Test
+	void decodeTestWithoutToken() {
+		assertNull(ContinuationToken.decode(null));
+		assertNull(ContinuationToken.decode(""));
+	}
+
+	@Test
+	void decodeTestWithInvalidToken() {
+		assertThrows(IllegalArgumentException.class, () -> ContinuationToken.decode("not a token"));
+		assertThrows(IllegalArgumentException.class, () -> ContinuationToken.decode(new ContinuationToken("key", 1).encode() + "$"));
+		assertThrows(IllegalArgumentException.class, () -> ContinuationToken.decode(new ContinuationToken("key", 1).encode()).getDateKey());
+	}
+}
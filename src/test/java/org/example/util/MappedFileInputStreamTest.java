@@ -0,0 +1,60 @@
+package org.example.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MappedFileInputStreamTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void readTestAcrossWindows() throws Exception {
+		var data = new byte[1000];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte) i;
+		}
+		var file = Files.write(tempDir.resolve("data.bin"), data);
+
+		var read = new ByteArrayOutputStream();
+		try (var stream = new MappedFileInputStream(file, 64)) {
+			assertEquals(data.length, stream.available());
+			assertEquals(0, stream.read());
+			read.write(0);
+			var buffer = new byte[100];
+			int count;
+			while ((count = stream.read(buffer, 0, buffer.length)) != -1) {
+				read.write(buffer, 0, count);
+			}
+			assertEquals(0, stream.available());
+			assertEquals(-1, stream.read());
+		}
+
+		assertArrayEquals(data, read.toByteArray());
+	}
+
+	@Test
+	void readTestWithEmptyFile() throws Exception {
+		var file = Files.createFile(tempDir.resolve("empty.bin"));
+
+		try (var stream = new MappedFileInputStream(file)) {
+			assertEquals(-1, stream.read());
+			assertEquals(-1, stream.read(new byte[10], 0, 10));
+		}
+	}
+
+	@Test
+	void createTestWithInvalidWindowSize() throws Exception {
+		var file = Files.createFile(tempDir.resolve("file.bin"));
+
+		assertThrows(IllegalArgumentException.class, () -> new MappedFileInputStream(file, 0));
+	}
+}
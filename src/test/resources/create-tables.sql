@@ -7,10 +7,28 @@ create table USERS (
 create table ACCOUNTS (
 	ID				bigint primary key auto_increment,
 	BALANCE	numeric (10,2) default 0,
+	SHARDS	int default 0,
 	USER_ID bigint,
 	constraint USERS_FK foreign key (USER_ID) references USERS (ID) on delete cascade
 );
 
+create table ACCOUNT_ENTRIES (
+	ID			bigint primary key,
+	ACCOUNT_ID	bigint not null,
+	AMOUNT		numeric (10,2) not null,
+	CREATED_AT	timestamp,
+	ROLLED_UP	boolean default false,
+	constraint ACCOUNTS_FK foreign key (ACCOUNT_ID) references ACCOUNTS (ID) on delete cascade
+);
+
+create table ACCOUNT_SHARDS (
+	ACCOUNT_ID	bigint not null,
+	SHARD		int not null,
+	BALANCE		numeric (10,2) default 0,
+	primary key (ACCOUNT_ID, SHARD),
+	constraint SHARD_ACCOUNTS_FK foreign key (ACCOUNT_ID) references ACCOUNTS (ID) on delete cascade
+);
+
 create table if not exists EVENTS (
 	ID				bigint primary key auto_increment,
 	TITLE			varchar (255),
@@ -24,6 +42,14 @@ create table TICKETS (
 	EVENT_ID	bigint,
 	CATEGORY	varchar (32),
 	PLACE 		int,
+	USER_EMAIL	varchar (255),
+	EVENT_DATE	date,
 	constraint TUSERS_FK foreign key (USER_ID) references USERS (ID) on delete cascade,
-	constraint EVENTS_FK foreign key (EVENT_ID) references EVENTS (ID) on delete cascade
-);
\ No newline at end of file
+	constraint EVENTS_FK foreign key (EVENT_ID) references EVENTS (ID) on delete cascade,
+	constraint EVENT_PLACE_UQ unique (EVENT_ID, PLACE)
+);
+
+create index if not exists TICKETS_USER_IDX on TICKETS (USER_ID, EVENT_DATE desc, ID desc, EVENT_ID, CATEGORY, PLACE);
+create index if not exists EVENTS_DATE_IDX on EVENTS (ID, DATE_HELD, TITLE, TICKET_PRICE);
+create index if not exists TICKETS_EVENT_IDX on TICKETS (EVENT_ID, USER_EMAIL, ID, USER_ID, CATEGORY, PLACE);
+create index if not exists USERS_EMAIL_IDX on USERS (ID, EMAIL, FULL_NAME);
\ No newline at end of file
@@ -1,3 +1,5 @@
+drop table if exists ACCOUNT_SHARDS;
+drop table if exists ACCOUNT_ENTRIES;
 drop table if exists TICKETS;
 drop table if exists ACCOUNTS;
 drop table if exists USERS;
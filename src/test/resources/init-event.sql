@@ -3,11 +3,11 @@
 --drop table if exists USERS;
 --drop table if exists EVENTS;
 
---create table USERS (
---	ID			bigint primary key auto_increment,
---	FULL_NAME	varchar (255),
---	EMAIL		varchar (255) unique
---);
+create table if not exists USERS (
+	ID			bigint primary key auto_increment,
+	FULL_NAME	varchar (255),
+	EMAIL		varchar (255) unique
+);
 
 create table if not exists EVENTS (
 	ID				bigint primary key auto_increment,
@@ -23,15 +23,17 @@ create table if not exists EVENTS (
 --	constraint USERS_FK foreign key (USER_ID) references USERS (ID) on delete cascade
 --);
 --
---create table TICKETS (
---	ID			bigint primary key auto_increment,
---	USER_ID		bigint,
---	EVENT_ID	bigint,
---	CATEGORY	varchar (32),
---	PLACE 		int,
---	constraint TUSERS_FK foreign key (USER_ID) references USERS (ID) on delete cascade,
---	constraint EVENTS_FK foreign key (EVENT_ID) references EVENTS (ID) on delete cascade
---);
+create table if not exists TICKETS (
+	ID			bigint primary key auto_increment,
+	USER_ID		bigint,
+	EVENT_ID	bigint,
+	CATEGORY	varchar (32),
+	PLACE 		int,
+	USER_EMAIL	varchar (255),
+	EVENT_DATE	date,
+	constraint TUSERS_FK foreign key (USER_ID) references USERS (ID) on delete cascade,
+	constraint EVENTS_FK foreign key (EVENT_ID) references EVENTS (ID) on delete cascade
+);
 --
 --insert into USERS (ID, FULL_NAME, EMAIL)
 --		values (1, 'Jules Mcnally', 'Jules_Mcnally8158@extex.org'),
@@ -7,10 +7,28 @@ create table USERS (
 create table ACCOUNTS (
 	ID				bigint primary key auto_increment,
 	BALANCE	numeric (10,2) default 0,
+	SHARDS	int default 0,
 	USER_ID bigint,
 	constraint USERS_FK foreign key (USER_ID) references USERS (ID) on delete cascade
 );
 
+create table ACCOUNT_ENTRIES (
+	ID			bigint primary key,
+	ACCOUNT_ID	bigint not null,
+	AMOUNT		numeric (10,2) not null,
+	CREATED_AT	timestamp,
+	ROLLED_UP	boolean default false,
+	constraint ACCOUNTS_FK foreign key (ACCOUNT_ID) references ACCOUNTS (ID) on delete cascade
+);
+
+create table ACCOUNT_SHARDS (
+	ACCOUNT_ID	bigint not null,
+	SHARD		int not null,
+	BALANCE		numeric (10,2) default 0,
+	primary key (ACCOUNT_ID, SHARD),
+	constraint SHARD_ACCOUNTS_FK foreign key (ACCOUNT_ID) references ACCOUNTS (ID) on delete cascade
+);
+
 create table if not exists EVENTS (
 	ID				bigint primary key auto_increment,
 	TITLE			varchar (255),
@@ -24,10 +42,18 @@ create table TICKETS (
 	EVENT_ID	bigint,
 	CATEGORY	varchar (32),
 	PLACE 		int,
+	USER_EMAIL	varchar (255),
+	EVENT_DATE	date,
 	constraint TUSERS_FK foreign key (USER_ID) references USERS (ID) on delete cascade,
-	constraint EVENTS_FK foreign key (EVENT_ID) references EVENTS (ID) on delete cascade
+	constraint EVENTS_FK foreign key (EVENT_ID) references EVENTS (ID) on delete cascade,
+	constraint EVENT_PLACE_UQ unique (EVENT_ID, PLACE)
 );
 
+create index if not exists TICKETS_USER_IDX on TICKETS (USER_ID, EVENT_DATE desc, ID desc, EVENT_ID, CATEGORY, PLACE);
+create index if not exists EVENTS_DATE_IDX on EVENTS (ID, DATE_HELD, TITLE, TICKET_PRICE);
+create index if not exists TICKETS_EVENT_IDX on TICKETS (EVENT_ID, USER_EMAIL, ID, USER_ID, CATEGORY, PLACE);
+create index if not exists USERS_EMAIL_IDX on USERS (ID, EMAIL, FULL_NAME);
+
 insert into USERS (ID, FULL_NAME, EMAIL)
 		values (1, 'Jules Mcnally', 'Jules_Mcnally8158@extex.org'),
 			   (2, 'Ramon Gray', 'Ramon_Gray3339@gmail.com'),
@@ -68,4 +94,7 @@ insert into TICKETS (ID, USER_ID, EVENT_ID,	CATEGORY, PLACE)
 				(7, 7, 2, 'STANDARD', 248),
 				(8, 8, 3, 'PREMIUM', 231),
 				(9, 9, 1, 'BAR', 328),
-				(10, 10, 2, 'PREMIUM', 173);
\ No newline at end of file
+				(10, 10, 2, 'PREMIUM', 173);
+
+update TICKETS t set USER_EMAIL = (select u.EMAIL from USERS u where u.ID = t.USER_ID),
+		EVENT_DATE = (select e.DATE_HELD from EVENTS e where e.ID = t.EVENT_ID);
\ No newline at end of file
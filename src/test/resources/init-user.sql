@@ -7,10 +7,48 @@ create table USERS (
 create table ACCOUNTS (
 	ID				bigint primary key auto_increment,
 	BALANCE	numeric (10,2) default 0,
+	SHARDS	int default 0,
 	USER_ID bigint,
 	constraint USERS_FK foreign key (USER_ID) references USERS (ID) on delete cascade
 );
 
+create table ACCOUNT_ENTRIES (
+	ID			bigint primary key,
+	ACCOUNT_ID	bigint not null,
+	AMOUNT		numeric (10,2) not null,
+	CREATED_AT	timestamp,
+	ROLLED_UP	boolean default false,
+	constraint ACCOUNTS_FK foreign key (ACCOUNT_ID) references ACCOUNTS (ID) on delete cascade
+);
+
+create table ACCOUNT_SHARDS (
+	ACCOUNT_ID	bigint not null,
+	SHARD		int not null,
+	BALANCE		numeric (10,2) default 0,
+	primary key (ACCOUNT_ID, SHARD),
+	constraint SHARD_ACCOUNTS_FK foreign key (ACCOUNT_ID) references ACCOUNTS (ID) on delete cascade
+);
+
+create table if not exists EVENTS (
+	ID				bigint primary key auto_increment,
+	TITLE			varchar (255),
+	DATE_HELD		date,
+	TICKET_PRICE	numeric (10,2)
+);
+
+create table TICKETS (
+	ID			bigint primary key auto_increment,
+	USER_ID		bigint,
+	EVENT_ID	bigint,
+	CATEGORY	varchar (32),
+	PLACE 		int,
+	USER_EMAIL	varchar (255),
+	EVENT_DATE	date,
+	constraint TUSERS_FK foreign key (USER_ID) references USERS (ID) on delete cascade,
+	constraint EVENTS_FK foreign key (EVENT_ID) references EVENTS (ID) on delete cascade,
+	constraint EVENT_PLACE_UQ unique (EVENT_ID, PLACE)
+);
+
 insert into USERS (ID, FULL_NAME, EMAIL)
 		values (1, 'Jules Mcnally', 'Jules_Mcnally8158@extex.org'),
 			   (2, 'Ramon Gray', 'Ramon_Gray3339@gmail.com'),